@@ -0,0 +1,120 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.async.AsyncLibroDAO;
+import com.biblioteca.async.AsyncLibroDAOImpl;
+import com.biblioteca.async.DAOExecutor;
+import com.biblioteca.model.Libro;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecturas de {@value #LOTE} libros por id: una tras otra en el hilo del benchmark
+ * ({@code secuencial}) o lanzadas juntas en el {@link DAOExecutor} y esperadas al final
+ * ({@code asincrono}). Con {@code maxEnCurso} menor que el lote el ejecutor frena las
+ * entregas; las que superan el tiempo de admisión se cuentan en {@code rechazadas}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AsyncDAOBenchmark {
+    private static final int LOTE = 64;
+    private static final int HILOS = 8;
+    private static final long ADMISION_MILLIS = 1;
+
+    @Param({"10000"})
+    public int tamanio;
+
+    @Param({"8", "64"})
+    public int maxEnCurso;
+
+    private EntornoBenchmark entorno;
+    private DAOExecutor executor;
+    private AsyncLibroDAO libros;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Rechazos {
+        public long rechazadas;
+
+        @Setup(Level.Iteration)
+        public void reiniciar() {
+            rechazadas = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        entorno = new EntornoBenchmark(EntornoBenchmark.MEMORIA).poblar(tamanio);
+        executor = new DAOExecutor(HILOS, maxEnCurso, ADMISION_MILLIS);
+        libros = new AsyncLibroDAOImpl(entorno.libroDAO, executor);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        executor.close();
+        entorno.close();
+    }
+
+    private int libroIdAlAzar() {
+        return entorno.libroIds[ThreadLocalRandom.current().nextInt(entorno.libroIds.length)];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public int secuencial() {
+        int encontrados = 0;
+        for (int i = 0; i < LOTE; i++) {
+            if (entorno.libroDAO.findById(libroIdAlAzar()).isPresent()) {
+                encontrados++;
+            }
+        }
+        return encontrados;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public int asincrono(Rechazos rechazos) {
+        @SuppressWarnings("unchecked")
+        CompletableFuture<Optional<Libro>>[] lecturas = new CompletableFuture[LOTE];
+        for (int i = 0; i < LOTE; i++) {
+            lecturas[i] = libros.findById(libroIdAlAzar());
+        }
+        int encontrados = 0;
+        for (CompletableFuture<Optional<Libro>> lectura : lecturas) {
+            try {
+                if (lectura.join().isPresent()) {
+                    encontrados++;
+                }
+            } catch (CompletionException e) {
+                if (!(e.getCause() instanceof RejectedExecutionException)) {
+                    throw e;
+                }
+                rechazos.rechazadas++;
+            }
+        }
+        return encontrados;
+    }
+}
@@ -0,0 +1,99 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.cache.CachingAutorDAO;
+import com.biblioteca.dao.AutorDAO;
+import com.biblioteca.dao.Page;
+import com.biblioteca.dao.PageRequest;
+import com.biblioteca.metrics.InstrumentedDAO;
+import com.biblioteca.metrics.MetricsRegistry;
+import com.biblioteca.model.Autor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AutorDAOBenchmark {
+
+    @Param({"1000", "100000"})
+    public int tamanio;
+
+    @Param({EntornoBenchmark.MEMORIA, EntornoBenchmark.ARCHIVO})
+    public String almacenamiento;
+
+    private EntornoBenchmark entorno;
+    private CachingAutorDAO autorDAOConCache;
+    private AutorDAO autorDAOInstrumentado;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        entorno = new EntornoBenchmark(almacenamiento).poblar(tamanio);
+        autorDAOConCache = new CachingAutorDAO(entorno.autorDAO, tamanio, 0);
+        autorDAOInstrumentado = InstrumentedDAO.wrap(AutorDAO.class, entorno.autorDAO, new MetricsRegistry(1_000));
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        entorno.close();
+    }
+
+    private int autorIdAlAzar() {
+        return entorno.autorIds[ThreadLocalRandom.current().nextInt(entorno.autorIds.length)];
+    }
+
+    @Benchmark
+    public Optional<Autor> findById() {
+        return entorno.autorDAO.findById(autorIdAlAzar());
+    }
+
+    @Benchmark
+    public Optional<Autor> findByIdConCache() {
+        return autorDAOConCache.findById(autorIdAlAzar());
+    }
+
+    @Benchmark
+    public Optional<Autor> findByIdInstrumentado() {
+        return autorDAOInstrumentado.findById(autorIdAlAzar());
+    }
+
+    @Benchmark
+    public List<Autor> findAll() {
+        return entorno.autorDAO.findAll();
+    }
+
+    @Benchmark
+    public Page<Autor> findAllPrimeraPagina() {
+        return entorno.autorDAO.findAll(PageRequest.first(20));
+    }
+
+    @Benchmark
+    public List<Autor> findByNacionalidad() {
+        return entorno.autorDAO.findByNacionalidad(entorno.generador.nacionalidad());
+    }
+
+    @Benchmark
+    public Autor save() {
+        Autor autor = entorno.generador.autor();
+        entorno.autorDAO.save(autor);
+        return autor;
+    }
+}
@@ -0,0 +1,62 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.model.Libro;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara findByTitulo por SQL (RELEVANCIA_TITULO sobre cada fila) contra el índice de trigramas en memoria.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BusquedaTituloBenchmark {
+
+    @Param({"10000", "100000"})
+    public int tamanio;
+
+    @Param({"false", "true"})
+    public boolean indice;
+
+    private EntornoBenchmark entorno;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        entorno = new EntornoBenchmark(EntornoBenchmark.MEMORIA).poblar(tamanio);
+        if (indice) {
+            entorno.libroDAO.enableTituloIndex();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        entorno.close();
+    }
+
+    @Benchmark
+    public List<Libro> palabraFrecuente() {
+        return entorno.libroDAO.findByTitulo(entorno.generador.palabraDeTitulo());
+    }
+
+    @Benchmark
+    public List<Libro> fraseSinResultados() {
+        return entorno.libroDAO.findByTitulo("crónica de un invierno");
+    }
+}
@@ -0,0 +1,98 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.dao.AutorDAOImpl;
+import com.biblioteca.dao.LibroDAOImpl;
+import com.biblioteca.migration.MigrationRunner;
+import com.biblioteca.model.Autor;
+import com.biblioteca.model.Libro;
+import com.biblioteca.util.DatabaseConfig;
+import com.biblioteca.util.PooledConnectionProvider;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Base de datos H2 aislada para un benchmark, en memoria o en un directorio temporal,
+ * migrada y poblada con {@code tamanio} libros repartidos entre {@code tamanio / 20} autores.
+ */
+class EntornoBenchmark implements AutoCloseable {
+    static final String MEMORIA = "memoria";
+    static final String ARCHIVO = "archivo";
+
+    final PooledConnectionProvider provider;
+    final AutorDAOImpl autorDAO;
+    final LibroDAOImpl libroDAO;
+    final GeneradorDatos generador = new GeneradorDatos(42);
+    int[] autorIds;
+    int[] libroIds;
+    private final Path directorio;
+
+    EntornoBenchmark(String almacenamiento) {
+        String nombre = "bench_" + UUID.randomUUID().toString().replace("-", "");
+        String url;
+        if (ARCHIVO.equals(almacenamiento)) {
+            try {
+                directorio = Files.createTempDirectory("biblioteca-bench");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            url = "jdbc:h2:file:" + directorio.resolve(nombre).toAbsolutePath();
+        } else {
+            directorio = null;
+            url = "jdbc:h2:mem:" + nombre + ";DB_CLOSE_DELAY=-1";
+        }
+        provider = abrir(url, true);
+        autorDAO = new AutorDAOImpl(provider);
+        libroDAO = new LibroDAOImpl(provider);
+    }
+
+    // Base descrita por un perfil de almacenamiento; si se indica el directorio, se borra al cerrar
+    EntornoBenchmark(DatabaseConfig config, Path directorio) {
+        this.directorio = directorio;
+        provider = abrir(config.getUrl(), !config.isReadOnly());
+        autorDAO = new AutorDAOImpl(provider);
+        libroDAO = new LibroDAOImpl(provider);
+    }
+
+    private static PooledConnectionProvider abrir(String url, boolean migrar) {
+        PooledConnectionProvider provider = new PooledConnectionProvider(url, "sa", "", 1, 8, 5_000, 60_000, 32);
+        if (migrar) {
+            try {
+                new MigrationRunner(provider).migrate();
+            } catch (SQLException e) {
+                provider.close();
+                throw new IllegalStateException("No se pudo migrar la base de benchmark", e);
+            }
+        }
+        return provider;
+    }
+
+    EntornoBenchmark poblar(int tamanio) {
+        List<Autor> autores = generador.autores(Math.max(1, tamanio / 20));
+        autorDAO.saveAll(autores);
+        autorIds = autores.stream().mapToInt(Autor::getId).toArray();
+        List<Libro> libros = generador.libros(tamanio, autorIds);
+        libroDAO.saveAll(libros);
+        libroIds = libros.stream().mapToInt(Libro::getId).toArray();
+        return this;
+    }
+
+    @Override
+    public void close() {
+        provider.close();
+        if (directorio != null) {
+            try (Stream<Path> archivos = Files.walk(directorio)) {
+                archivos.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
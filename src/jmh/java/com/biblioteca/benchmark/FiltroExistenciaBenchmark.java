@@ -0,0 +1,88 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.dao.AutorDAO;
+import com.biblioteca.dao.LibroDAO;
+import com.biblioteca.filter.FilteredAutorDAO;
+import com.biblioteca.filter.FilteredLibroDAO;
+import com.biblioteca.model.Autor;
+import com.biblioteca.model.Libro;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comprobaciones de existencia con y sin {@link FilteredAutorDAO}/{@link FilteredLibroDAO}:
+ * autores inexistentes y un lote de ISBN nuevos como el que arma {@code CsvImporter} antes de
+ * insertar. {@code autorExistente} mide el caso contrario, en el que el filtro no evita la consulta.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FiltroExistenciaBenchmark {
+    private static final int LOTE = 1_000;
+
+    @Param({"sin", "con"})
+    public String filtro;
+
+    @Param({EntornoBenchmark.MEMORIA, EntornoBenchmark.ARCHIVO})
+    public String almacenamiento;
+
+    @Param({"100000"})
+    public int tamanio;
+
+    private EntornoBenchmark entorno;
+    private AutorDAO autorDAO;
+    private LibroDAO libroDAO;
+    private List<String> isbnsNuevos;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        entorno = new EntornoBenchmark(almacenamiento).poblar(tamanio);
+        boolean conFiltro = "con".equals(filtro);
+        autorDAO = conFiltro ? new FilteredAutorDAO(entorno.autorDAO) : entorno.autorDAO;
+        libroDAO = conFiltro ? new FilteredLibroDAO(entorno.libroDAO) : entorno.libroDAO;
+        isbnsNuevos = new ArrayList<>(LOTE);
+        for (int i = 0; i < LOTE; i++) {
+            isbnsNuevos.add(entorno.generador.isbn());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        entorno.close();
+    }
+
+    @Benchmark
+    public Optional<Autor> autorInexistente() {
+        return autorDAO.findById(-1 - ThreadLocalRandom.current().nextInt(tamanio));
+    }
+
+    @Benchmark
+    public Optional<Autor> autorExistente() {
+        return autorDAO.findById(entorno.autorIds[ThreadLocalRandom.current().nextInt(entorno.autorIds.length)]);
+    }
+
+    @Benchmark
+    public List<Libro> loteDeIsbnNuevos() {
+        return libroDAO.findByIsbns(isbnsNuevos);
+    }
+}
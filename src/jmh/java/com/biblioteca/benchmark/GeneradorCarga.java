@@ -0,0 +1,179 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.util.LatencyHistogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Generador de carga para el servicio HTTP ({@code Main --servicio}). Cada usuario virtual es un
+ * hilo que envía solicitudes una tras otra sobre conexiones keep-alive, con una mezcla de
+ * lecturas por id, listados paginados por autor y altas de autores.
+ *
+ * <p>Es de lazo cerrado: si el servicio se frena, los usuarios envían menos solicitudes, así que
+ * las latencias medidas subestiman las que vería un tráfico de llegada constante.
+ *
+ * <p>Uso: {@code ./gradlew carga -PcargaArgs="http://localhost:8080 32 30 10"}
+ * (url, usuarios, segundos de medición, porcentaje de escrituras).
+ */
+public class GeneradorCarga {
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+    private static final int SEGUNDOS_CALENTAMIENTO = 5;
+    private static final int MUESTRA_IDS = 1000;
+
+    private final String base;
+    private final HttpClient cliente = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Operacion[] operaciones = {
+            new Operacion("GET /libros/{id}"),
+            new Operacion("GET /libros?autorId"),
+            new Operacion("POST /autores")
+    };
+    private int[] libroIds;
+    private int[] autorIds;
+    private volatile boolean midiendo;
+
+    private GeneradorCarga(String base) {
+        this.base = base;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : "http://localhost:8080";
+        int usuarios = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int segundos = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int porcentajeEscrituras = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        GeneradorCarga generador = new GeneradorCarga(url);
+        generador.cargarIds();
+        generador.ejecutar(usuarios, segundos, porcentajeEscrituras);
+    }
+
+    private void cargarIds() throws IOException, InterruptedException {
+        libroIds = ids(get("/libros?tamanio=" + MUESTRA_IDS).body());
+        autorIds = ids(get("/autores?tamanio=" + MUESTRA_IDS).body());
+        if (libroIds.length == 0 || autorIds.length == 0) {
+            throw new IllegalStateException("El servicio no tiene autores o libros para consultar");
+        }
+        System.out.println("Ids de muestra: " + libroIds.length + " libros, " + autorIds.length + " autores");
+    }
+
+    private void ejecutar(int usuarios, int segundos, int porcentajeEscrituras) throws InterruptedException {
+        long fin = System.nanoTime() + TimeUnit.SECONDS.toNanos(SEGUNDOS_CALENTAMIENTO + segundos);
+        List<Thread> hilos = new ArrayList<>(usuarios);
+        for (int i = 0; i < usuarios; i++) {
+            Thread hilo = new Thread(() -> usuario(fin, porcentajeEscrituras), "usuario-" + i);
+            hilos.add(hilo);
+            hilo.start();
+        }
+        Thread.sleep(TimeUnit.SECONDS.toMillis(SEGUNDOS_CALENTAMIENTO));
+        midiendo = true;
+        long inicio = System.nanoTime();
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        double transcurrido = (System.nanoTime() - inicio) / 1e9;
+        imprimir(usuarios, transcurrido);
+    }
+
+    private void usuario(long fin, int porcentajeEscrituras) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < fin) {
+            int dado = random.nextInt(100);
+            Operacion operacion;
+            HttpRequest solicitud;
+            if (dado < porcentajeEscrituras) {
+                operacion = operaciones[2];
+                solicitud = HttpRequest.newBuilder(URI.create(base + "/autores"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"nombre\":\"Carga " + random.nextInt() + "\",\"nacionalidad\":\"Carga\"}"))
+                        .build();
+            } else if (dado < porcentajeEscrituras + (100 - porcentajeEscrituras) / 4) {
+                operacion = operaciones[1];
+                solicitud = HttpRequest.newBuilder(URI.create(base + "/libros?tamanio=20&autorId="
+                        + autorIds[random.nextInt(autorIds.length)])).GET().build();
+            } else {
+                operacion = operaciones[0];
+                solicitud = HttpRequest.newBuilder(URI.create(base + "/libros/"
+                        + libroIds[random.nextInt(libroIds.length)])).GET().build();
+            }
+            long inicio = System.nanoTime();
+            boolean ok;
+            try {
+                HttpResponse<String> respuesta = cliente.send(solicitud, HttpResponse.BodyHandlers.ofString());
+                ok = respuesta.statusCode() < 400;
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (midiendo) {
+                operacion.registrar(System.nanoTime() - inicio, ok);
+            }
+        }
+    }
+
+    private void imprimir(int usuarios, double segundos) {
+        long total = 0;
+        System.out.printf("%n%-22s %10s %8s %10s %10s %10s %10s%n",
+                "Operación", "ops/s", "errores", "p50 µs", "p99 µs", "p99.9 µs", "max µs");
+        for (Operacion operacion : operaciones) {
+            LatencyHistogram latencias = operacion.latencias;
+            total += latencias.getCount();
+            System.out.printf("%-22s %10.0f %8d %10d %10d %10d %10d%n", operacion.nombre,
+                    latencias.getCount() / segundos, operacion.errores.sum(),
+                    micros(latencias.getPercentile(0.50)), micros(latencias.getPercentile(0.99)),
+                    micros(latencias.getPercentile(0.999)), micros(latencias.getMax()));
+        }
+        System.out.printf("Total: %.0f solicitudes/s con %d usuarios durante %.1f s%n", total / segundos, usuarios, segundos);
+    }
+
+    private HttpResponse<String> get(String ruta) throws IOException, InterruptedException {
+        return cliente.send(HttpRequest.newBuilder(URI.create(base + ruta)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static int[] ids(String json) {
+        Matcher matcher = ID.matcher(json);
+        List<Integer> ids = new ArrayList<>();
+        while (matcher.find()) {
+            ids.add(Integer.parseInt(matcher.group(1)));
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    private static final class Operacion {
+        private final String nombre;
+        private final LatencyHistogram latencias = new LatencyHistogram();
+        private final LongAdder errores = new LongAdder();
+
+        private Operacion(String nombre) {
+            this.nombre = nombre;
+        }
+
+        private void registrar(long nanos, boolean ok) {
+            latencias.record(nanos);
+            if (!ok) {
+                errores.increment();
+            }
+        }
+    }
+}
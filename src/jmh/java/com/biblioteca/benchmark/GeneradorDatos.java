@@ -0,0 +1,111 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.model.Autor;
+import com.biblioteca.model.Libro;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Genera autores y libros con una distribución parecida al catálogo real: títulos en
+ * español, ISBN-13 válidos y únicos, fechas entre 1850 y hoy y nacionalidades sesgadas.
+ */
+public class GeneradorDatos {
+    private static final String[] NOMBRES = {
+            "Gabriel", "Julio", "Jorge Luis", "Isabel", "Mario", "Laura", "Pablo", "Alfonsina",
+            "Ernesto", "Elena", "Rosa", "Adolfo", "Silvina", "Juan", "María", "Roberto"
+    };
+    private static final String[] APELLIDOS = {
+            "García", "Cortázar", "Borges", "Allende", "Vargas", "Esquivel", "Neruda", "Storni",
+            "Sábato", "Poniatowska", "Montero", "Bioy Casares", "Ocampo", "Rulfo", "Kodama", "Arlt"
+    };
+    // Las primeras nacionalidades aparecen con más frecuencia
+    private static final String[] NACIONALIDADES = {
+            "Argentina", "Argentina", "Argentina", "México", "México", "Colombia", "Chile",
+            "España", "España", "Perú", "Uruguay", "Cuba", "Venezuela", "Paraguay"
+    };
+    private static final String[] SUSTANTIVOS = {
+            "ciudad", "noche", "memoria", "jardín", "río", "casa", "guerra", "señora", "laberinto",
+            "tiempo", "invierno", "sombra", "corazón", "viaje", "isla", "canción", "espejo", "túnel"
+    };
+    private static final String[] ADJETIVOS = {
+            "perdida", "oscura", "infinita", "secreta", "última", "dormida", "lejana", "rota",
+            "verde", "antigua", "callada", "ajena"
+    };
+    private static final String[] PLANTILLAS = {
+            "La %s %s", "El %s de la %s", "Cien años de %s", "Crónica de una %s %s",
+            "Los %s del %s", "Historia de la %s", "%s y %s", "Diario de la %s %s"
+    };
+
+    private final Random random;
+    private long isbnSecuencia;
+
+    public GeneradorDatos(long semilla) {
+        this.random = new Random(semilla);
+        this.isbnSecuencia = 100_000_000L + random.nextInt(1_000_000);
+    }
+
+    public List<Autor> autores(int cantidad) {
+        List<Autor> autores = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            autores.add(autor());
+        }
+        return autores;
+    }
+
+    public Autor autor() {
+        String nombre = elegir(NOMBRES) + " " + elegir(APELLIDOS);
+        return new Autor(nombre, elegir(NACIONALIDADES));
+    }
+
+    public List<Libro> libros(int cantidad, int[] autorIds) {
+        List<Libro> libros = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            libros.add(libro(autorIds));
+        }
+        return libros;
+    }
+
+    public Libro libro(int[] autorIds) {
+        // Unos pocos autores concentran la mayoría de los libros
+        int autor = autorIds[(int) (autorIds.length * Math.pow(random.nextDouble(), 2))];
+        return new Libro(titulo(), isbn(), fecha(), autor);
+    }
+
+    public String titulo() {
+        String plantilla = elegir(PLANTILLAS);
+        String titulo = String.format(plantilla, elegir(SUSTANTIVOS), random.nextBoolean() ? elegir(ADJETIVOS) : elegir(SUSTANTIVOS));
+        return Character.toUpperCase(titulo.charAt(0)) + titulo.substring(1);
+    }
+
+    public String palabraDeTitulo() {
+        return elegir(SUSTANTIVOS);
+    }
+
+    public String nacionalidad() {
+        return elegir(NACIONALIDADES);
+    }
+
+    // ISBN-13 con prefijo 978 y dígito verificador correcto
+    public String isbn() {
+        String base = "978" + (isbnSecuencia++);
+        int suma = 0;
+        for (int i = 0; i < 12; i++) {
+            int digito = base.charAt(i) - '0';
+            suma += i % 2 == 0 ? digito : digito * 3;
+        }
+        return base + (10 - suma % 10) % 10;
+    }
+
+    public LocalDate fecha() {
+        long desde = LocalDate.of(1850, 1, 1).toEpochDay();
+        long hasta = LocalDate.now().toEpochDay();
+        return LocalDate.ofEpochDay(desde + (long) (random.nextDouble() * (hasta - desde)));
+    }
+
+    private String elegir(String[] opciones) {
+        return opciones[random.nextInt(opciones.length)];
+    }
+}
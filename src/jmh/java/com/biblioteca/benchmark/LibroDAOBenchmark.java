@@ -0,0 +1,133 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.dao.BatchResult;
+import com.biblioteca.dao.Page;
+import com.biblioteca.dao.PageRequest;
+import com.biblioteca.model.Libro;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LibroDAOBenchmark {
+    private static final int LOTE = 100;
+
+    @Param({"1000", "100000"})
+    public int tamanio;
+
+    @Param({EntornoBenchmark.MEMORIA, EntornoBenchmark.ARCHIVO})
+    public String almacenamiento;
+
+    private EntornoBenchmark entorno;
+    private List<Libro> existentes;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        entorno = new EntornoBenchmark(almacenamiento).poblar(tamanio);
+        existentes = entorno.libroDAO.findByIds(Arrays.stream(entorno.libroIds, 0, LOTE / 2).boxed()
+                .collect(Collectors.toList()));
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        entorno.close();
+    }
+
+    private int libroIdAlAzar() {
+        return entorno.libroIds[ThreadLocalRandom.current().nextInt(entorno.libroIds.length)];
+    }
+
+    private int autorIdAlAzar() {
+        return entorno.autorIds[ThreadLocalRandom.current().nextInt(entorno.autorIds.length)];
+    }
+
+    @Benchmark
+    public Optional<Libro> findById() {
+        return entorno.libroDAO.findById(libroIdAlAzar());
+    }
+
+    @Benchmark
+    public Optional<Libro> findByIsbn() {
+        return entorno.libroDAO.findByIsbn(existentes.get(ThreadLocalRandom.current().nextInt(existentes.size())).getIsbn());
+    }
+
+    @Benchmark
+    public List<Libro> findAll() {
+        return entorno.libroDAO.findAll();
+    }
+
+    @Benchmark
+    public long streamAll() {
+        try (Stream<Libro> libros = entorno.libroDAO.streamAll()) {
+            return libros.count();
+        }
+    }
+
+    @Benchmark
+    public Page<Libro> findAllPrimeraPagina() {
+        return entorno.libroDAO.findAll(PageRequest.first(20));
+    }
+
+    @Benchmark
+    public List<Libro> findByTitulo() {
+        return entorno.libroDAO.findByTitulo(entorno.generador.palabraDeTitulo());
+    }
+
+    @Benchmark
+    public List<Libro> findByAutorId() {
+        return entorno.libroDAO.findByAutorId(autorIdAlAzar());
+    }
+
+    @Benchmark
+    public Page<Libro> findByFechaPublicacionAfter() {
+        return entorno.libroDAO.findByFechaPublicacionAfter(LocalDate.now().minusYears(10), PageRequest.first(20));
+    }
+
+    @Benchmark
+    public Libro save() {
+        Libro libro = entorno.generador.libro(entorno.autorIds);
+        entorno.libroDAO.save(libro);
+        return libro;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public BatchResult saveAll() {
+        return entorno.libroDAO.saveAll(entorno.generador.libros(LOTE, entorno.autorIds));
+    }
+
+    // Mitad de libros ya existentes, que se actualizan, y mitad nuevos
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public BatchResult upsertByIsbn() {
+        List<Libro> lote = new ArrayList<>(existentes);
+        lote.addAll(entorno.generador.libros(LOTE - existentes.size(), entorno.autorIds));
+        return entorno.libroDAO.upsertByIsbn(lote);
+    }
+}
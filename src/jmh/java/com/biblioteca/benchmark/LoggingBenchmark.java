@@ -0,0 +1,59 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.model.Libro;
+import com.biblioteca.util.LoggerUtil;
+import org.apache.logging.log4j.Level;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserciones de libros por segundo con el log de los DAOs activo ({@code INFO}) y apagado
+ * ({@code OFF}). Cada inserción registra una línea en consola y en el archivo de log.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingBenchmark {
+
+    @Param({"INFO", "OFF"})
+    public String nivelLog;
+
+    @Param({EntornoBenchmark.MEMORIA, EntornoBenchmark.ARCHIVO})
+    public String almacenamiento;
+
+    private EntornoBenchmark entorno;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void preparar() {
+        entorno = new EntornoBenchmark(almacenamiento).poblar(1000);
+        LoggerUtil.setLevel("com.biblioteca.dao", Level.toLevel(nivelLog, Level.INFO));
+    }
+
+    @TearDown(org.openjdk.jmh.annotations.Level.Trial)
+    public void cerrar() {
+        LoggerUtil.setLevel("com.biblioteca.dao", Level.INFO);
+        entorno.close();
+    }
+
+    @Benchmark
+    public Libro save() {
+        Libro libro = entorno.generador.libro(entorno.autorIds);
+        entorno.libroDAO.save(libro);
+        return libro;
+    }
+}
@@ -0,0 +1,121 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.dao.BatchResult;
+import com.biblioteca.model.Libro;
+import com.biblioteca.util.DatabaseConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * La carga de los DAOs con cada perfil de almacenamiento de {@link DatabaseConfig}. Las lecturas
+ * ({@code findById}, {@code findByAutorId}) corren con todos los perfiles; las escrituras
+ * ({@code save}, {@code saveAll}) con todos menos {@code solo_lectura}, por ejemplo:
+ *
+ * <pre>
+ * gradle jmh -PjmhArgs="PerfilBenchmark.find -p perfil=durable,memoria,solo_lectura"
+ * gradle jmh -PjmhArgs="PerfilBenchmark.save -p perfil=durable,durable_sincrono,durable_comprimido,memoria"
+ * </pre>
+ *
+ * {@code durable_sincrono} escribe el archivo en cada commit ({@code writeDelayMillis=0}) y
+ * {@code memoria} no hace copias periódicas durante la medición.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PerfilBenchmark {
+    private static final int LOTE = 100;
+
+    @Param({"durable", "durable_sincrono", "durable_comprimido", "memoria", "solo_lectura"})
+    public String perfil;
+
+    @Param({"100000"})
+    public int tamanio;
+
+    private EntornoBenchmark entorno;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        Path directorio = Files.createTempDirectory("biblioteca-perfil");
+        // El nombre del directorio temporal también distingue a la base en memoria
+        String ruta = directorio.resolve(directorio.getFileName()).toAbsolutePath().toString();
+        if (!"solo_lectura".equals(perfil)) {
+            entorno = new EntornoBenchmark(config(perfil, ruta), directorio).poblar(tamanio);
+            return;
+        }
+        // La base de sólo lectura se puebla antes con el perfil durable y se vuelve a abrir
+        EntornoBenchmark escritura = new EntornoBenchmark(config("durable", ruta), null).poblar(tamanio);
+        escritura.close();
+        entorno = new EntornoBenchmark(config(perfil, ruta), directorio);
+        entorno.autorIds = escritura.autorIds;
+        entorno.libroIds = escritura.libroIds;
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        entorno.close();
+    }
+
+    private static DatabaseConfig config(String perfil, String ruta) {
+        Properties propiedades = new Properties();
+        propiedades.setProperty("biblioteca.db.ruta", ruta);
+        propiedades.setProperty("biblioteca.db.snapshot.periodoSegundos", "0");
+        switch (perfil) {
+            case "durable_sincrono":
+                propiedades.setProperty("biblioteca.db.perfil", "durable");
+                propiedades.setProperty("biblioteca.db.writeDelayMillis", "0");
+                break;
+            case "durable_comprimido":
+                propiedades.setProperty("biblioteca.db.perfil", "durable");
+                propiedades.setProperty("biblioteca.db.comprimir", "true");
+                break;
+            default:
+                propiedades.setProperty("biblioteca.db.perfil", perfil);
+        }
+        return DatabaseConfig.fromProperties(propiedades);
+    }
+
+    @Benchmark
+    public Optional<Libro> findById() {
+        return entorno.libroDAO.findById(entorno.libroIds[ThreadLocalRandom.current().nextInt(entorno.libroIds.length)]);
+    }
+
+    @Benchmark
+    public List<Libro> findByAutorId() {
+        return entorno.libroDAO.findByAutorId(entorno.autorIds[ThreadLocalRandom.current().nextInt(entorno.autorIds.length)]);
+    }
+
+    @Benchmark
+    public Libro save() {
+        Libro libro = entorno.generador.libro(entorno.autorIds);
+        entorno.libroDAO.save(libro);
+        return libro;
+    }
+
+    @Benchmark
+    public BatchResult saveAll() {
+        return entorno.libroDAO.saveAll(entorno.generador.libros(LOTE, entorno.autorIds));
+    }
+}
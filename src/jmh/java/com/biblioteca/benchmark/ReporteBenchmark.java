@@ -0,0 +1,69 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.dao.ConteoPorId;
+import com.biblioteca.dao.Histograma;
+import com.biblioteca.dao.ReporteDAO;
+import com.biblioteca.dao.ReporteDAOImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reportes agregados leyendo las tablas de resumen frente a agrupar sobre {@code libros}.
+ * El costo del trigger que mantiene los resúmenes se ve en {@link LibroDAOBenchmark#saveAll()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReporteBenchmark {
+
+    @Param({"1000", "100000"})
+    public int tamanio;
+
+    @Param({"true", "false"})
+    public boolean resumenes;
+
+    private EntornoBenchmark entorno;
+    private ReporteDAO reporteDAO;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        entorno = new EntornoBenchmark(EntornoBenchmark.MEMORIA).poblar(tamanio);
+        reporteDAO = new ReporteDAOImpl(entorno.provider, resumenes);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        entorno.close();
+    }
+
+    @Benchmark
+    public ConteoPorId topAutoresPorLibros() {
+        return reporteDAO.topAutoresPorLibros(10);
+    }
+
+    @Benchmark
+    public ConteoPorId librosPorAutor() {
+        return reporteDAO.librosPorAutor();
+    }
+
+    @Benchmark
+    public Histograma librosPorDecada() {
+        return reporteDAO.librosPorDecada();
+    }
+}
@@ -0,0 +1,130 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.dao.BatchResult;
+import com.biblioteca.dao.Page;
+import com.biblioteca.dao.PageRequest;
+import com.biblioteca.model.Autor;
+import com.biblioteca.model.Libro;
+import com.biblioteca.shard.ShardedAutorDAO;
+import com.biblioteca.shard.ShardedDatabase;
+import com.biblioteca.shard.ShardedLibroDAO;
+import com.biblioteca.util.DatabaseConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Los DAOs de {@link ShardedDatabase} con distinta cantidad de shards. {@code findById} y
+ * {@code findByAutorId} van a un solo shard; las búsquedas paginadas consultan todos en paralelo
+ * y mezclan los resultados. {@code shards=1} mide el costo de la capa sin repartir nada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShardBenchmark {
+    private static final int LOTE = 100;
+    private static final int PAGINA = 20;
+
+    @Param({"1", "2", "4"})
+    public int shards;
+
+    @Param({"100000"})
+    public int tamanio;
+
+    private final GeneradorDatos generador = new GeneradorDatos(42);
+    private Path directorio;
+    private ShardedDatabase db;
+    private ShardedAutorDAO autorDAO;
+    private ShardedLibroDAO libroDAO;
+    private int[] autorIds;
+    private int[] libroIds;
+    private String[] palabras;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        directorio = Files.createTempDirectory("biblioteca-shards");
+        Properties propiedades = new Properties();
+        propiedades.setProperty("biblioteca.db.ruta", directorio.resolve("biblioteca").toAbsolutePath().toString());
+        propiedades.setProperty("biblioteca.db.shards", String.valueOf(shards));
+        db = ShardedDatabase.open(DatabaseConfig.fromProperties(propiedades));
+        autorDAO = new ShardedAutorDAO(db);
+        libroDAO = new ShardedLibroDAO(db);
+        List<Autor> autores = generador.autores(Math.max(1, tamanio / 20));
+        autorDAO.saveAll(autores);
+        autorIds = autores.stream().mapToInt(Autor::getId).toArray();
+        List<Libro> libros = generador.libros(tamanio, autorIds);
+        libroDAO.saveAll(libros);
+        libroIds = libros.stream().mapToInt(Libro::getId).toArray();
+        palabras = new String[64];
+        for (int i = 0; i < palabras.length; i++) {
+            palabras[i] = generador.palabraDeTitulo();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        db.close();
+        try (Stream<Path> archivos = Files.walk(directorio)) {
+            archivos.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Benchmark
+    public Optional<Libro> findById() {
+        return libroDAO.findById(libroIds[ThreadLocalRandom.current().nextInt(libroIds.length)]);
+    }
+
+    @Benchmark
+    public List<Libro> findByAutorId() {
+        return libroDAO.findByAutorId(autorIds[ThreadLocalRandom.current().nextInt(autorIds.length)]);
+    }
+
+    @Benchmark
+    public Page<Libro> findByTitulo() {
+        return libroDAO.findByTitulo(palabras[ThreadLocalRandom.current().nextInt(palabras.length)],
+                PageRequest.first(PAGINA));
+    }
+
+    @Benchmark
+    public Page<Libro> findByFechaPublicacionAfter() {
+        return libroDAO.findByFechaPublicacionAfter(LocalDate.of(2000, 1, 1), PageRequest.first(PAGINA));
+    }
+
+    @Benchmark
+    public Page<Autor> findAllAutores() {
+        return autorDAO.findAll(PageRequest.first(PAGINA));
+    }
+
+    @Benchmark
+    public BatchResult saveAll() {
+        return libroDAO.saveAll(generador.libros(LOTE, autorIds));
+    }
+}
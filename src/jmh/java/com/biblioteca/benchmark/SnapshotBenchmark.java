@@ -0,0 +1,71 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.model.Libro;
+import com.biblioteca.snapshot.CatalogSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecturas servidas por {@link CatalogSnapshot}. Las mismas consultas contra H2 están en
+ * {@link LibroDAOBenchmark}; el tamaño estimado del snapshot se imprime al prepararlo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotBenchmark {
+
+    @Param({"1000", "100000"})
+    public int tamanio;
+
+    private EntornoBenchmark entorno;
+    private CatalogSnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        entorno = new EntornoBenchmark(EntornoBenchmark.MEMORIA).poblar(tamanio);
+        snapshot = CatalogSnapshot.load(entorno.autorDAO, entorno.libroDAO);
+        System.out.println("Snapshot: " + snapshot.getEstimatedBytes() / 1024 + " KB para " + tamanio + " libros");
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        entorno.close();
+    }
+
+    @Benchmark
+    public Optional<Libro> findById() {
+        int[] ids = entorno.libroIds;
+        return snapshot.libros().findById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public List<Libro> findByAutorId() {
+        int[] ids = entorno.autorIds;
+        return snapshot.libros().findByAutorId(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public List<Libro> findByFechaPublicacionAfterUltimoAnio() {
+        return snapshot.libros().findByFechaPublicacionAfter(LocalDate.now().minusYears(1));
+    }
+}
@@ -0,0 +1,70 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.dao.AutorDAOImpl;
+import com.biblioteca.model.Autor;
+import com.biblioteca.tx.TransactionManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de {@code operaciones} inserciones sueltas con auto-commit frente a las mismas
+ * inserciones agrupadas en una transacción.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransaccionBenchmark {
+
+    @Param({"10", "100"})
+    public int operaciones;
+
+    @Param({EntornoBenchmark.MEMORIA, EntornoBenchmark.ARCHIVO})
+    public String almacenamiento;
+
+    private EntornoBenchmark entorno;
+    private TransactionManager transacciones;
+    private AutorDAOImpl autorDAO;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        entorno = new EntornoBenchmark(almacenamiento);
+        transacciones = new TransactionManager(entorno.provider);
+        autorDAO = new AutorDAOImpl(transacciones);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        entorno.close();
+    }
+
+    @Benchmark
+    public List<Autor> autoCommit() {
+        List<Autor> autores = entorno.generador.autores(operaciones);
+        autores.forEach(autorDAO::save);
+        return autores;
+    }
+
+    @Benchmark
+    public List<Autor> unaTransaccion() {
+        List<Autor> autores = entorno.generador.autores(operaciones);
+        transacciones.run(() -> autores.forEach(autorDAO::save));
+        return autores;
+    }
+}
@@ -0,0 +1,99 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.dao.BatchResult;
+import com.biblioteca.dao.VersionedBatchResult;
+import com.biblioteca.dao.WriteResult;
+import com.biblioteca.model.Autor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo del control optimista frente al update sin condición: leer y escribir un autor elegido
+ * entre {@code concurrencia} autores con 4 hilos, así que con pocos autores hay conflictos. Los
+ * lotes comparan {@code updateAll} con {@code updateAllIfVersion} sobre autores ya leídos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class VersionOptimistaBenchmark {
+    private static final int LOTE = 100;
+
+    @Param({EntornoBenchmark.MEMORIA, EntornoBenchmark.ARCHIVO})
+    public String almacenamiento;
+
+    // Cantidad de autores que se editan: 4 es alta contención, 10000 casi ninguna
+    @Param({"4", "10000"})
+    public int concurrencia;
+
+    private EntornoBenchmark entorno;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        entorno = new EntornoBenchmark(almacenamiento).poblar(concurrencia * 20);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        entorno.close();
+    }
+
+    private Autor leerAlAzar() {
+        int id = entorno.autorIds[ThreadLocalRandom.current().nextInt(entorno.autorIds.length)];
+        return entorno.autorDAO.findById(id).orElseThrow(IllegalStateException::new);
+    }
+
+    @Benchmark
+    public Autor editarSinVersion() {
+        Autor autor = leerAlAzar();
+        autor.setNacionalidad(entorno.generador.nacionalidad());
+        entorno.autorDAO.update(autor);
+        return autor;
+    }
+
+    @Benchmark
+    public WriteResult editarConVersion() {
+        Autor autor = leerAlAzar();
+        autor.setNacionalidad(entorno.generador.nacionalidad());
+        return entorno.autorDAO.updateIfVersion(autor);
+    }
+
+    @Benchmark
+    public BatchResult loteSinVersion() {
+        return entorno.autorDAO.updateAll(leerLote());
+    }
+
+    @Benchmark
+    public VersionedBatchResult loteConVersion() {
+        return entorno.autorDAO.updateAllIfVersion(leerLote());
+    }
+
+    private List<Autor> leerLote() {
+        int desde = ThreadLocalRandom.current().nextInt(Math.max(1, entorno.autorIds.length - LOTE));
+        List<Integer> ids = new ArrayList<>(LOTE);
+        for (int i = desde; i < Math.min(entorno.autorIds.length, desde + LOTE); i++) {
+            ids.add(entorno.autorIds[i]);
+        }
+        return entorno.autorDAO.findByIds(ids);
+    }
+}
@@ -0,0 +1,70 @@
+package com.biblioteca.benchmark;
+
+import com.biblioteca.async.WriteBehindQueue;
+import com.biblioteca.model.Autor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Altas de autores por segundo desde 16 hilos: cada una con su propio commit ({@code save}) o
+ * encolada en un {@link WriteBehindQueue} y esperando el commit de su lote ({@code diferido}).
+ * En ambos casos el alta está confirmada cuando la operación vuelve, así que la diferencia es
+ * sólo el costo de los commits. Con {@code archivo} cada commit escribe a disco y la diferencia
+ * debería ser mayor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(16)
+@Fork(1)
+public class WriteBehindBenchmark {
+
+    @Param({EntornoBenchmark.MEMORIA, EntornoBenchmark.ARCHIVO})
+    public String almacenamiento;
+
+    @Param({"0", "2"})
+    public long esperaMillis;
+
+    private EntornoBenchmark entorno;
+    private WriteBehindQueue<Autor> cola;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        entorno = new EntornoBenchmark(almacenamiento);
+        cola = WriteBehindQueue.paraAutores(entorno.autorDAO, 4096, 256, esperaMillis, 1000);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        cola.close();
+        entorno.close();
+    }
+
+    @Benchmark
+    public Autor save() {
+        Autor autor = new Autor("Autor de carga", "Argentina");
+        entorno.autorDAO.save(autor);
+        return autor;
+    }
+
+    @Benchmark
+    public int diferido() {
+        return cola.save(new Autor("Autor de carga", "Argentina")).join();
+    }
+}
@@ -1,27 +1,94 @@
 package com.biblioteca;
 
+import com.biblioteca.async.WriteBehindQueue;
+import com.biblioteca.cache.CachingAutorDAO;
+import com.biblioteca.cache.CachingLibroDAO;
+import com.biblioteca.cdc.AuditoriaCambios;
+import com.biblioteca.cdc.ChangeFeed;
+import com.biblioteca.csv.CsvExporter;
+import com.biblioteca.csv.CsvImporter;
+import com.biblioteca.csv.ImportResult;
 import com.biblioteca.dao.AutorDAO;
 import com.biblioteca.dao.AutorDAOImpl;
+import com.biblioteca.dao.ConteoPorClave;
+import com.biblioteca.dao.ConteoPorId;
+import com.biblioteca.dao.Histograma;
 import com.biblioteca.dao.LibroDAO;
 import com.biblioteca.dao.LibroDAOImpl;
+import com.biblioteca.dao.Page;
+import com.biblioteca.dao.PageRequest;
+import com.biblioteca.dao.ReporteDAO;
+import com.biblioteca.dao.ReporteDAOImpl;
+import com.biblioteca.dao.WriteResult;
+import com.biblioteca.filter.FilteredAutorDAO;
+import com.biblioteca.filter.FilteredLibroDAO;
+import com.biblioteca.metrics.InstrumentedDAO;
+import com.biblioteca.metrics.MetricsRegistry;
+import com.biblioteca.metrics.MetricsReporter;
 import com.biblioteca.model.Autor;
 import com.biblioteca.model.Libro;
+import com.biblioteca.servicio.ServicioHttp;
+import com.biblioteca.shard.ShardedAutorDAO;
+import com.biblioteca.shard.ShardedDatabase;
+import com.biblioteca.shard.ShardedLibroDAO;
+import com.biblioteca.tx.TransactionException;
+import com.biblioteca.tx.TransactionManager;
+import com.biblioteca.tx.UnitOfWork;
+import com.biblioteca.util.DatabaseConfig;
 import com.biblioteca.util.DatabaseConnection;
 import com.biblioteca.util.LoggerUtil;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.function.Function;
+
+import static org.apache.logging.log4j.util.Unbox.box;
 
 public class Main {
     private static final Logger logger = LoggerUtil.getLogger(Main.class);
     private static final Scanner scanner = new Scanner(System.in);
-    private static final AutorDAO autorDAO = new AutorDAOImpl();
-    private static final LibroDAO libroDAO = new LibroDAOImpl();
+    private static final int CACHE_MAX_SIZE = 10_000;
+    private static final int TAMANIO_PAGINA = 20;
+    private static final int CSV_COMMIT_INTERVAL = 10_000;
+    private static final int TOP_AUTORES = 10;
+    private static final int PUERTO_SERVICIO = 8080;
+    private static final int HILOS_SERVICIO = Integer.getInteger("biblioteca.servicio.hilos", 16);
+    private static final long PERIODO_METRICAS_SEGUNDOS = 60;
+    // Altas del servicio agrupadas en lotes: -Dbiblioteca.escrituraDiferida=true
+    private static final boolean ESCRITURA_DIFERIDA = Boolean.getBoolean("biblioteca.escrituraDiferida");
+    private static final int COLA_ESCRITURA = 4_096;
+    private static final int LOTE_ESCRITURA = 256;
+    private static final long ESPERA_LOTE_MILLIS = Long.getLong("biblioteca.escrituraDiferida.esperaMillis", 2);
+    private static final long ADMISION_ESCRITURA_MILLIS = 1_000;
+    // Registra en el log cada cambio confirmado en autores y libros
+    private static final boolean AUDITORIA_CAMBIOS = Boolean.getBoolean("biblioteca.auditoriaCambios");
+    private static final MetricsRegistry metricas = MetricsRegistry.getDefault();
+    // Se arman en main según el modo: el servicio con shards no abre ni migra la base única
+    private static AutorDAO autorDAO;
+    private static LibroDAO libroDAO;
+    private static ReporteDAO reporteDAO;
+    private static TransactionManager transacciones;
 
     public static void main(String[] args) {
+        if (args.length > 0 && "--servicio".equals(args[0])) {
+            ejecutarServicio(args.length > 1 ? Integer.parseInt(args[1]) : PUERTO_SERVICIO);
+            return;
+        }
         logger.info("Iniciando aplicación de gestión de biblioteca");
+        ChangeFeed cambios = crearCanalDeCambios();
+        autorDAO = crearAutorDAO(crearAutorDAOImpl(cambios));
+        libroDAO = crearLibroDAO(crearLibroDAOImpl(cambios));
+        reporteDAO = InstrumentedDAO.wrap(ReporteDAO.class, new ReporteDAOImpl(), metricas);
+        transacciones = DatabaseConnection.getTransactionManager();
+        MetricsReporter reporter = new MetricsReporter(metricas, PERIODO_METRICAS_SEGUNDOS);
         
         try {
             int opcion;
@@ -45,6 +112,12 @@ public class Main {
                     case 5:
                         buscarLibrosRecientes();
                         break;
+                    case 6:
+                        importarExportarCsv();
+                        break;
+                    case 7:
+                        mostrarEstadisticas();
+                        break;
                     case 0:
                         System.out.println("Saliendo del sistema...");
                         break;
@@ -53,12 +126,92 @@ public class Main {
                 }
             } while (opcion != 0);
         } finally {
+            reporter.logSnapshot();
+            reporter.close();
             DatabaseConnection.closeConnection();
             scanner.close();
             logger.info("Aplicación finalizada");
         }
     }
 
+    // Modo sin consola: atiende la API HTTP hasta que se detiene el proceso
+    private static void ejecutarServicio(int puerto) {
+        logger.info("Iniciando servicio HTTP de gestión de biblioteca");
+        MetricsReporter reporter = new MetricsReporter(metricas, PERIODO_METRICAS_SEGUNDOS);
+        DatabaseConfig config = DatabaseConfig.load();
+        // Con shards el servicio usa las bases repartidas; el menú sigue con la base única porque
+        // necesita transacciones y reportes que no abarcan varios shards
+        ShardedDatabase shards = config.getShards() > 0 ? ShardedDatabase.open(config) : null;
+        ChangeFeed cambios = crearCanalDeCambios();
+        AutorDAO autores;
+        LibroDAO libros;
+        if (shards != null) {
+            shards.setChangeFeed(cambios);
+            autores = crearAutorDAO(new ShardedAutorDAO(shards));
+            libros = crearLibroDAO(new ShardedLibroDAO(shards));
+        } else {
+            autores = crearAutorDAO(crearAutorDAOImpl(cambios));
+            libros = crearLibroDAO(crearLibroDAOImpl(cambios));
+        }
+        WriteBehindQueue<Autor> altasAutores = null;
+        WriteBehindQueue<Libro> altasLibros = null;
+        if (ESCRITURA_DIFERIDA) {
+            altasAutores = WriteBehindQueue.paraAutores(autores, COLA_ESCRITURA, LOTE_ESCRITURA,
+                    ESPERA_LOTE_MILLIS, ADMISION_ESCRITURA_MILLIS);
+            altasLibros = WriteBehindQueue.paraLibros(libros, COLA_ESCRITURA, LOTE_ESCRITURA,
+                    ESPERA_LOTE_MILLIS, ADMISION_ESCRITURA_MILLIS);
+            // closeConnection las vacía antes de cerrar el pool
+            DatabaseConnection.registerWriteBehind(altasAutores);
+            DatabaseConnection.registerWriteBehind(altasLibros);
+        }
+        ServicioHttp servicio = new ServicioHttp(autores, libros, altasAutores, altasLibros,
+                metricas, puerto, HILOS_SERVICIO);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            servicio.close();
+            reporter.logSnapshot();
+            reporter.close();
+            DatabaseConnection.closeConnection();
+            // Después de vaciar las colas de escritura diferida, que pueden escribir en los shards
+            if (shards != null) {
+                shards.close();
+            }
+            logger.info("Aplicación finalizada");
+        }, "apagado-servicio"));
+        servicio.start();
+    }
+
+    // Los filtros de existencia responden sin consultar la base por autores e ISBN que no existen
+    private static AutorDAO crearAutorDAO(AutorDAO base) {
+        return InstrumentedDAO.wrap(AutorDAO.class,
+                new FilteredAutorDAO(new CachingAutorDAO(base, CACHE_MAX_SIZE, 0)), metricas);
+    }
+
+    private static LibroDAO crearLibroDAO(LibroDAO base) {
+        return InstrumentedDAO.wrap(LibroDAO.class,
+                new FilteredLibroDAO(new CachingLibroDAO(base, CACHE_MAX_SIZE, 0)), metricas);
+    }
+
+    private static ChangeFeed crearCanalDeCambios() {
+        ChangeFeed cambios = DatabaseConnection.getChangeFeed();
+        if (AUDITORIA_CAMBIOS) {
+            cambios.subscribe(new AuditoriaCambios());
+        }
+        return cambios;
+    }
+
+    private static AutorDAOImpl crearAutorDAOImpl(ChangeFeed cambios) {
+        AutorDAOImpl autorDAO = new AutorDAOImpl();
+        autorDAO.setChangeFeed(cambios);
+        return autorDAO;
+    }
+
+    private static LibroDAOImpl crearLibroDAOImpl(ChangeFeed cambios) {
+        LibroDAOImpl libroDAO = new LibroDAOImpl();
+        libroDAO.setChangeFeed(cambios);
+        libroDAO.enableTituloIndex();
+        return libroDAO;
+    }
+
     private static void mostrarMenuPrincipal() {
         System.out.println("\n=== MENÚ PRINCIPAL ===");
         System.out.println("1. Gestión de Autores");
@@ -66,6 +219,8 @@ public class Main {
         System.out.println("3. Buscar libros por autor");
         System.out.println("4. Buscar autores por nacionalidad");
         System.out.println("5. Buscar libros recientes");
+        System.out.println("6. Importar/Exportar CSV");
+        System.out.println("7. Estadísticas");
         System.out.println("0. Salir");
     }
 
@@ -149,11 +304,8 @@ public class Main {
 
     private static void listarAutores() {
         System.out.println("\n=== LISTA DE AUTORES ===");
-        List<Autor> autores = autorDAO.findAll();
-        if (autores.isEmpty()) {
+        if (!mostrarPaginado(autorDAO::findAll)) {
             System.out.println("No hay autores registrados.");
-        } else {
-            autores.forEach(System.out::println);
         }
     }
 
@@ -196,8 +348,8 @@ public class Main {
                 autor.setNacionalidad(nacionalidad);
             }
             
-            autorDAO.update(autor);
-            System.out.println("Autor actualizado exitosamente.");
+            // Sólo se guarda si nadie modificó el autor mientras se editaba
+            informarEscritura(autorDAO.updateIfVersion(autor), "Autor actualizado exitosamente.", "el autor");
         } else {
             System.out.println("No se encontró un autor con ID: " + id);
         }
@@ -207,32 +359,36 @@ public class Main {
         System.out.println("\n=== ELIMINAR AUTOR ===");
         int id = leerEntero("Ingrese el ID del autor a eliminar: ");
         
-        // Primero verificamos si el autor existe
-        var autorOpt = autorDAO.findById(id);
-        if (autorOpt.isPresent()) {
-            // Verificamos si el autor tiene libros asociados
-            List<Libro> libros = libroDAO.findByAutorId(id);
-            if (!libros.isEmpty()) {
-                System.out.println("No se puede eliminar el autor porque tiene libros asociados.");
-                System.out.println("Libros asociados:");
-                libros.forEach(System.out::println);
-                return;
+        // Las verificaciones y el borrado se confirman juntos en una sola transacción
+        try (UnitOfWork transaccion = transacciones.begin()) {
+            // Primero verificamos si el autor existe
+            var autorOpt = autorDAO.findById(id);
+            if (autorOpt.isPresent()) {
+                // Verificamos si el autor tiene libros asociados
+                List<Libro> libros = libroDAO.findByAutorId(id);
+                if (!libros.isEmpty()) {
+                    System.out.println("No se puede eliminar el autor porque tiene libros asociados.");
+                    System.out.println("Libros asociados:");
+                    libros.forEach(System.out::println);
+                    return;
+                }
+                
+                autorDAO.delete(id);
+                transaccion.commit();
+                System.out.println("Autor eliminado exitosamente.");
+            } else {
+                System.out.println("No se encontró un autor con ID: " + id);
             }
-            
-            autorDAO.delete(id);
-            System.out.println("Autor eliminado exitosamente.");
-        } else {
-            System.out.println("No se encontró un autor con ID: " + id);
+        } catch (TransactionException e) {
+            logger.error("Error al eliminar autor con ID: {}", box(id), e);
+            System.out.println("No se pudo eliminar el autor.");
         }
     }
 
     private static void listarLibros() {
         System.out.println("\n=== LISTA DE LIBROS ===");
-        List<Libro> libros = libroDAO.findAll();
-        if (libros.isEmpty()) {
+        if (!mostrarPaginado(libroDAO::findAllConAutor)) {
             System.out.println("No hay libros registrados.");
-        } else {
-            libros.forEach(System.out::println);
         }
     }
 
@@ -248,12 +404,8 @@ public class Main {
 
     private static void buscarLibrosPorTitulo() {
         String titulo = leerCadena("Ingrese parte del título a buscar: ");
-        List<Libro> libros = libroDAO.findByTitulo(titulo);
-        if (libros.isEmpty()) {
+        if (!mostrarPaginado(request -> libroDAO.findByTitulo(titulo, request))) {
             System.out.println("No se encontraron libros con título que contenga: " + titulo);
-        } else {
-            System.out.println("Libros encontrados:");
-            libros.forEach(System.out::println);
         }
     }
 
@@ -279,6 +431,10 @@ public class Main {
             System.out.println("No existe un autor con ID: " + autorId);
             return;
         }
+        if (libroDAO.findByIsbn(isbn).isPresent()) {
+            System.out.println("Ya existe un libro con ISBN: " + isbn);
+            return;
+        }
         
         Libro libro = new Libro(titulo, isbn, fechaPublicacion, autorId);
         libroDAO.save(libro);
@@ -301,6 +457,10 @@ public class Main {
             
             String isbn = leerCadena("Nuevo ISBN (dejar vacío para no cambiar): ");
             if (!isbn.isEmpty()) {
+                if (!isbn.equals(libro.getIsbn()) && libroDAO.findByIsbn(isbn).isPresent()) {
+                    System.out.println("Ya existe un libro con ISBN: " + isbn);
+                    return;
+                }
                 libro.setIsbn(isbn);
             }
             
@@ -320,8 +480,8 @@ public class Main {
                 libro.setAutorId(autorId);
             }
             
-            libroDAO.update(libro);
-            System.out.println("Libro actualizado exitosamente.");
+            // Sólo se guarda si nadie modificó el libro mientras se editaba
+            informarEscritura(libroDAO.updateIfVersion(libro), "Libro actualizado exitosamente.", "el libro");
         } else {
             System.out.println("No se encontró un libro con ID: " + id);
         }
@@ -334,13 +494,29 @@ public class Main {
         // Verificamos si el libro existe
         var libroOpt = libroDAO.findById(id);
         if (libroOpt.isPresent()) {
-            libroDAO.delete(id);
-            System.out.println("Libro eliminado exitosamente.");
+            informarEscritura(libroDAO.deleteIfVersion(id, libroOpt.get().getVersion()),
+                    "Libro eliminado exitosamente.", "el libro");
         } else {
             System.out.println("No se encontró un libro con ID: " + id);
         }
     }
 
+    private static void informarEscritura(WriteResult resultado, String exito, String entidad) {
+        switch (resultado) {
+            case APPLIED:
+                System.out.println(exito);
+                break;
+            case CONFLICT:
+                System.out.println("Otro usuario modificó " + entidad + " mientras tanto; vuelva a cargarlo e intente de nuevo.");
+                break;
+            case NOT_FOUND:
+                System.out.println("Otro usuario eliminó " + entidad + " mientras tanto.");
+                break;
+            default:
+                System.out.println("No se pudo guardar el cambio en " + entidad + ".");
+        }
+    }
+
     private static void buscarLibrosPorAutor() {
         System.out.println("\n=== BUSCAR LIBROS POR AUTOR ===");
         
@@ -354,26 +530,16 @@ public class Main {
         autores.forEach(a -> System.out.println(a.getId() + ": " + a.getNombre()));
         
         int autorId = leerEntero("Ingrese el ID del autor: ");
-        List<Libro> libros = libroDAO.findByAutorId(autorId);
-        
-        if (libros.isEmpty()) {
+        if (!mostrarPaginado(request -> libroDAO.findByAutorId(autorId, request))) {
             System.out.println("No se encontraron libros para el autor con ID: " + autorId);
-        } else {
-            System.out.println("Libros encontrados:");
-            libros.forEach(System.out::println);
         }
     }
 
     private static void buscarAutoresPorNacionalidad() {
         System.out.println("\n=== BUSCAR AUTORES POR NACIONALIDAD ===");
         String nacionalidad = leerCadena("Ingrese la nacionalidad a buscar: ");
-        List<Autor> autores = autorDAO.findByNacionalidad(nacionalidad);
-        
-        if (autores.isEmpty()) {
+        if (!mostrarPaginado(request -> autorDAO.findByNacionalidad(nacionalidad, request))) {
             System.out.println("No se encontraron autores de nacionalidad: " + nacionalidad);
-        } else {
-            System.out.println("Autores encontrados:");
-            autores.forEach(System.out::println);
         }
     }
 
@@ -382,12 +548,102 @@ public class Main {
         int años = leerEntero("Ingrese el número de años hacia atrás para buscar: ");
         LocalDate fechaLimite = LocalDate.now().minusYears(años);
         
-        List<Libro> libros = libroDAO.findByFechaPublicacionAfter(fechaLimite);
-        if (libros.isEmpty()) {
+        if (!mostrarPaginado(request -> libroDAO.findByFechaPublicacionAfter(fechaLimite, request))) {
             System.out.println("No se encontraron libros publicados después de: " + fechaLimite);
-        } else {
-            System.out.println("Libros encontrados publicados después de " + fechaLimite + ":");
-            libros.forEach(System.out::println);
+        }
+    }
+
+    private static void mostrarEstadisticas() {
+        System.out.println("\n=== ESTADÍSTICAS ===");
+        ConteoPorId top = reporteDAO.topAutoresPorLibros(TOP_AUTORES);
+        System.out.println("Autores con más libros:");
+        // Los nombres del ranking se cargan con una sola consulta
+        List<Integer> ids = new ArrayList<>(top.size());
+        for (int i = 0; i < top.size(); i++) {
+            ids.add(top.getId(i));
+        }
+        Map<Integer, String> nombres = new HashMap<>(top.size() * 2);
+        for (Autor autor : autorDAO.findByIds(ids)) {
+            nombres.put(autor.getId(), autor.getNombre());
+        }
+        for (int i = 0; i < top.size(); i++) {
+            String nombre = nombres.getOrDefault(top.getId(i), "ID " + top.getId(i));
+            System.out.println("  " + nombre + ": " + top.getCantidad(i));
+        }
+
+        Histograma decadas = reporteDAO.librosPorDecada();
+        System.out.println("Libros por década:");
+        for (int i = 0; i < decadas.size(); i++) {
+            if (decadas.getCantidad(i) > 0) {
+                System.out.println("  " + decadas.getInicioIntervalo(i) + "s: " + decadas.getCantidad(i));
+            }
+        }
+
+        ConteoPorClave nacionalidades = reporteDAO.autoresPorNacionalidad();
+        System.out.println("Autores por nacionalidad:");
+        for (int i = 0; i < nacionalidades.size(); i++) {
+            System.out.println("  " + nacionalidades.getClave(i) + ": " + nacionalidades.getCantidad(i));
+        }
+    }
+
+    private static void importarExportarCsv() {
+        System.out.println("\n=== IMPORTAR/EXPORTAR CSV ===");
+        System.out.println("1. Importar autores");
+        System.out.println("2. Importar libros");
+        System.out.println("3. Exportar autores");
+        System.out.println("4. Exportar libros");
+        System.out.println("0. Volver al menú principal");
+
+        int opcion = leerEntero("Seleccione una opción: ");
+        if (opcion < 1 || opcion > 4) {
+            return;
+        }
+        Path archivo = Paths.get(leerCadena("Ruta del archivo CSV: "));
+        CsvImporter importer = new CsvImporter(autorDAO, libroDAO,
+                Runtime.getRuntime().availableProcessors(), CSV_COMMIT_INTERVAL);
+        CsvExporter exporter = new CsvExporter(autorDAO, libroDAO);
+        Path rechazos = Paths.get(archivo + ".rechazos.csv");
+        try {
+            switch (opcion) {
+                case 1:
+                    mostrarImportacion(importer.importarAutores(archivo, rechazos), rechazos);
+                    break;
+                case 2:
+                    mostrarImportacion(importer.importarLibros(archivo, rechazos), rechazos);
+                    break;
+                case 3:
+                    System.out.println("Autores exportados: " + exporter.exportarAutores(archivo));
+                    break;
+                default:
+                    System.out.println("Libros exportados: " + exporter.exportarLibros(archivo));
+            }
+        } catch (IOException e) {
+            logger.error("Error al procesar el archivo CSV: {}", archivo, e);
+            System.out.println("No se pudo procesar el archivo: " + e.getMessage());
+        }
+    }
+
+    private static void mostrarImportacion(ImportResult resultado, Path rechazos) {
+        System.out.printf("Filas leídas: %d, importadas: %d, rechazadas: %d (%.0f filas/s)%n",
+                resultado.getLeidas(), resultado.getImportadas(), resultado.getRechazadas(),
+                resultado.getRowsPerSecond());
+        if (resultado.getRechazadas() > 0) {
+            System.out.println("Detalle de filas rechazadas en: " + rechazos);
+        }
+    }
+
+    // Muestra los resultados de a una página por vez; devuelve false si no hubo resultados
+    private static <T> boolean mostrarPaginado(Function<PageRequest, Page<T>> consulta) {
+        PageRequest request = PageRequest.first(TAMANIO_PAGINA);
+        boolean encontrados = false;
+        while (true) {
+            Page<T> pagina = consulta.apply(request);
+            pagina.getContent().forEach(System.out::println);
+            encontrados |= !pagina.isEmpty();
+            if (!pagina.hasNext() || leerCadena("-- Enter para ver más, 'q' para terminar: ").equalsIgnoreCase("q")) {
+                return encontrados;
+            }
+            request = pagina.getNextPageRequest();
         }
     }
 
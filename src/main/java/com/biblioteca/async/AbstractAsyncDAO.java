@@ -0,0 +1,96 @@
+package com.biblioteca.async;
+
+import com.biblioteca.dao.BatchResult;
+import com.biblioteca.dao.GenericDAO;
+import com.biblioteca.dao.Page;
+import com.biblioteca.dao.PageRequest;
+import com.biblioteca.dao.VersionedBatchResult;
+import com.biblioteca.dao.WriteResult;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Adapta un DAO bloqueante a la interfaz asíncrona ejecutando cada llamada en un {@link DAOExecutor}.
+ */
+abstract class AbstractAsyncDAO<T, D extends GenericDAO<T>> implements AsyncGenericDAO<T> {
+    protected final D delegate;
+    protected final DAOExecutor executor;
+
+    protected AbstractAsyncDAO(D delegate, DAOExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Optional<T>> findById(int id) {
+        return executor.submit(() -> delegate.findById(id));
+    }
+
+    @Override
+    public CompletableFuture<List<T>> findByIds(Collection<Integer> ids) {
+        return executor.submit(() -> delegate.findByIds(ids));
+    }
+
+    @Override
+    public CompletableFuture<List<T>> findAll() {
+        return executor.submit(delegate::findAll);
+    }
+
+    @Override
+    public CompletableFuture<Page<T>> findAll(PageRequest pageRequest) {
+        return executor.submit(() -> delegate.findAll(pageRequest));
+    }
+
+    @Override
+    public CompletableFuture<Void> save(T entity) {
+        return executor.run(() -> delegate.save(entity));
+    }
+
+    @Override
+    public CompletableFuture<Void> update(T entity) {
+        return executor.run(() -> delegate.update(entity));
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(int id) {
+        return executor.run(() -> delegate.delete(id));
+    }
+
+    @Override
+    public CompletableFuture<BatchResult> saveAll(Collection<T> entities) {
+        return executor.submit(() -> delegate.saveAll(entities));
+    }
+
+    @Override
+    public CompletableFuture<BatchResult> updateAll(Collection<T> entities) {
+        return executor.submit(() -> delegate.updateAll(entities));
+    }
+
+    @Override
+    public CompletableFuture<BatchResult> deleteAll(int[] ids) {
+        return executor.submit(() -> delegate.deleteAll(ids));
+    }
+
+    @Override
+    public CompletableFuture<WriteResult> updateIfVersion(T entity) {
+        return executor.submit(() -> delegate.updateIfVersion(entity));
+    }
+
+    @Override
+    public CompletableFuture<WriteResult> deleteIfVersion(int id, int version) {
+        return executor.submit(() -> delegate.deleteIfVersion(id, version));
+    }
+
+    @Override
+    public CompletableFuture<VersionedBatchResult> updateAllIfVersion(Collection<T> entities) {
+        return executor.submit(() -> delegate.updateAllIfVersion(entities));
+    }
+
+    @Override
+    public CompletableFuture<VersionedBatchResult> deleteAllIfVersion(Collection<T> entities) {
+        return executor.submit(() -> delegate.deleteAllIfVersion(entities));
+    }
+}
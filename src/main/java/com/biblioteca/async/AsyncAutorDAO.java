@@ -0,0 +1,13 @@
+package com.biblioteca.async;
+
+import com.biblioteca.dao.Page;
+import com.biblioteca.dao.PageRequest;
+import com.biblioteca.model.Autor;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncAutorDAO extends AsyncGenericDAO<Autor> {
+    CompletableFuture<List<Autor>> findByNacionalidad(String nacionalidad);
+    CompletableFuture<Page<Autor>> findByNacionalidad(String nacionalidad, PageRequest pageRequest);
+}
@@ -0,0 +1,26 @@
+package com.biblioteca.async;
+
+import com.biblioteca.dao.AutorDAO;
+import com.biblioteca.dao.Page;
+import com.biblioteca.dao.PageRequest;
+import com.biblioteca.model.Autor;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class AsyncAutorDAOImpl extends AbstractAsyncDAO<Autor, AutorDAO> implements AsyncAutorDAO {
+
+    public AsyncAutorDAOImpl(AutorDAO delegate, DAOExecutor executor) {
+        super(delegate, executor);
+    }
+
+    @Override
+    public CompletableFuture<List<Autor>> findByNacionalidad(String nacionalidad) {
+        return executor.submit(() -> delegate.findByNacionalidad(nacionalidad));
+    }
+
+    @Override
+    public CompletableFuture<Page<Autor>> findByNacionalidad(String nacionalidad, PageRequest pageRequest) {
+        return executor.submit(() -> delegate.findByNacionalidad(nacionalidad, pageRequest));
+    }
+}
@@ -0,0 +1,29 @@
+package com.biblioteca.async;
+
+import com.biblioteca.dao.BatchResult;
+import com.biblioteca.dao.Page;
+import com.biblioteca.dao.PageRequest;
+import com.biblioteca.dao.VersionedBatchResult;
+import com.biblioteca.dao.WriteResult;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncGenericDAO<T> {
+    CompletableFuture<Optional<T>> findById(int id);
+    CompletableFuture<List<T>> findByIds(Collection<Integer> ids);
+    CompletableFuture<List<T>> findAll();
+    CompletableFuture<Page<T>> findAll(PageRequest pageRequest);
+    CompletableFuture<Void> save(T entity);
+    CompletableFuture<Void> update(T entity);
+    CompletableFuture<Void> delete(int id);
+    CompletableFuture<BatchResult> saveAll(Collection<T> entities);
+    CompletableFuture<BatchResult> updateAll(Collection<T> entities);
+    CompletableFuture<BatchResult> deleteAll(int[] ids);
+    CompletableFuture<WriteResult> updateIfVersion(T entity);
+    CompletableFuture<WriteResult> deleteIfVersion(int id, int version);
+    CompletableFuture<VersionedBatchResult> updateAllIfVersion(Collection<T> entities);
+    CompletableFuture<VersionedBatchResult> deleteAllIfVersion(Collection<T> entities);
+}
@@ -0,0 +1,27 @@
+package com.biblioteca.async;
+
+import com.biblioteca.dao.BatchResult;
+import com.biblioteca.dao.Page;
+import com.biblioteca.dao.PageRequest;
+import com.biblioteca.model.Libro;
+import com.biblioteca.model.LibroConAutor;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncLibroDAO extends AsyncGenericDAO<Libro> {
+    CompletableFuture<List<Libro>> findByTitulo(String titulo);
+    CompletableFuture<Page<Libro>> findByTitulo(String titulo, PageRequest pageRequest);
+    CompletableFuture<List<Libro>> findByFechaPublicacionAfter(LocalDate fecha);
+    CompletableFuture<Page<Libro>> findByFechaPublicacionAfter(LocalDate fecha, PageRequest pageRequest);
+    CompletableFuture<List<Libro>> findByAutorId(int autorId);
+    CompletableFuture<Page<Libro>> findByAutorId(int autorId, PageRequest pageRequest);
+    CompletableFuture<List<LibroConAutor>> findAllConAutor();
+    CompletableFuture<Page<LibroConAutor>> findAllConAutor(PageRequest pageRequest);
+    CompletableFuture<Optional<Libro>> findByIsbn(String isbn);
+    CompletableFuture<List<Libro>> findByIsbns(Collection<String> isbns);
+    CompletableFuture<BatchResult> upsertByIsbn(Collection<Libro> libros);
+}
@@ -0,0 +1,76 @@
+package com.biblioteca.async;
+
+import com.biblioteca.dao.BatchResult;
+import com.biblioteca.dao.LibroDAO;
+import com.biblioteca.dao.Page;
+import com.biblioteca.dao.PageRequest;
+import com.biblioteca.model.Libro;
+import com.biblioteca.model.LibroConAutor;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+public class AsyncLibroDAOImpl extends AbstractAsyncDAO<Libro, LibroDAO> implements AsyncLibroDAO {
+
+    public AsyncLibroDAOImpl(LibroDAO delegate, DAOExecutor executor) {
+        super(delegate, executor);
+    }
+
+    @Override
+    public CompletableFuture<List<Libro>> findByTitulo(String titulo) {
+        return executor.submit(() -> delegate.findByTitulo(titulo));
+    }
+
+    @Override
+    public CompletableFuture<Page<Libro>> findByTitulo(String titulo, PageRequest pageRequest) {
+        return executor.submit(() -> delegate.findByTitulo(titulo, pageRequest));
+    }
+
+    @Override
+    public CompletableFuture<List<Libro>> findByFechaPublicacionAfter(LocalDate fecha) {
+        return executor.submit(() -> delegate.findByFechaPublicacionAfter(fecha));
+    }
+
+    @Override
+    public CompletableFuture<Page<Libro>> findByFechaPublicacionAfter(LocalDate fecha, PageRequest pageRequest) {
+        return executor.submit(() -> delegate.findByFechaPublicacionAfter(fecha, pageRequest));
+    }
+
+    @Override
+    public CompletableFuture<List<Libro>> findByAutorId(int autorId) {
+        return executor.submit(() -> delegate.findByAutorId(autorId));
+    }
+
+    @Override
+    public CompletableFuture<Page<Libro>> findByAutorId(int autorId, PageRequest pageRequest) {
+        return executor.submit(() -> delegate.findByAutorId(autorId, pageRequest));
+    }
+
+    @Override
+    public CompletableFuture<List<LibroConAutor>> findAllConAutor() {
+        return executor.submit(delegate::findAllConAutor);
+    }
+
+    @Override
+    public CompletableFuture<Page<LibroConAutor>> findAllConAutor(PageRequest pageRequest) {
+        return executor.submit(() -> delegate.findAllConAutor(pageRequest));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Libro>> findByIsbn(String isbn) {
+        return executor.submit(() -> delegate.findByIsbn(isbn));
+    }
+
+    @Override
+    public CompletableFuture<List<Libro>> findByIsbns(Collection<String> isbns) {
+        return executor.submit(() -> delegate.findByIsbns(isbns));
+    }
+
+    @Override
+    public CompletableFuture<BatchResult> upsertByIsbn(Collection<Libro> libros) {
+        return executor.submit(() -> delegate.upsertByIsbn(libros));
+    }
+}
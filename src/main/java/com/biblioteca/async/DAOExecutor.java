@@ -0,0 +1,115 @@
+package com.biblioteca.async;
+
+import com.biblioteca.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * Ejecutor acotado para las operaciones asíncronas de los DAOs. En Java 21+ usa hilos
+ * virtuales y en versiones anteriores un pool fijo. Como máximo {@code maxInFlight}
+ * operaciones pueden estar pendientes; al superarse, {@link #submit} espera hasta
+ * {@code admissionTimeoutMillis} y luego rechaza la operación.
+ */
+public class DAOExecutor implements AutoCloseable {
+    private static final Logger logger = LoggerUtil.getLogger(DAOExecutor.class);
+
+    private final ExecutorService executor;
+    private final Semaphore inFlight;
+    private final long admissionTimeoutMillis;
+    private final boolean virtualThreads;
+
+    public DAOExecutor(int poolSize, int maxInFlight, long admissionTimeoutMillis) {
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : newFixedPool(poolSize);
+        this.inFlight = new Semaphore(maxInFlight);
+        this.admissionTimeoutMillis = admissionTimeoutMillis;
+        if (virtualThreads) {
+            logger.info("Ejecutor de DAOs iniciado con hilos virtuales y un máximo de {} operaciones en curso",
+                    box(maxInFlight));
+        } else {
+            logger.info("Ejecutor de DAOs iniciado con {} hilos y un máximo de {} operaciones en curso",
+                    box(poolSize), box(maxInFlight));
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> operation) {
+        try {
+            if (!inFlight.tryAcquire(admissionTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return CompletableFuture.failedFuture(
+                        new RejectedExecutionException("Demasiadas operaciones en curso"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        try {
+            return CompletableFuture.supplyAsync(operation, executor)
+                    .whenComplete((result, error) -> inFlight.release());
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public CompletableFuture<Void> run(Runnable operation) {
+        return submit(() -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public int getAvailablePermits() {
+        return inFlight.availablePermits();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Se busca por reflexión para poder compilar con el toolchain de Java 11
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (ReflectiveOperationException e) {
+            logger.warn("No se pudieron crear hilos virtuales; se usará un pool fijo", e);
+            return null;
+        }
+    }
+
+    private static ExecutorService newFixedPool(int poolSize) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(poolSize, r -> {
+            Thread thread = new Thread(r, "dao-async-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,258 @@
+package com.biblioteca.async;
+
+import com.biblioteca.dao.AutorDAO;
+import com.biblioteca.dao.BatchResult;
+import com.biblioteca.dao.GenericDAO;
+import com.biblioteca.dao.LibroDAO;
+import com.biblioteca.model.Autor;
+import com.biblioteca.model.Libro;
+import com.biblioteca.tx.TransactionManager;
+import com.biblioteca.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToIntFunction;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * Altas diferidas con commit agrupado. {@link #save} encola la entidad en una cola acotada y
+ * devuelve un futuro; un hilo escritor junta hasta {@code maxLote} altas (o lo que llegue en
+ * {@code esperaMaximaMillis} desde la primera) y las inserta con un único {@code saveAll}, que
+ * confirma el lote entero con un solo commit.
+ *
+ * <p>Garantías: el futuro se completa con el id generado recién cuando el lote está confirmado,
+ * así que quien espera el futuro tiene la misma durabilidad que con {@code save}. Lo que sigue en
+ * la cola se pierde si el proceso termina sin {@link #close()}. Las altas no participan de la
+ * transacción del hilo que las encola, por eso {@link #save} la rechaza si hay una abierta.
+ * Si un lote falla, sólo se reintentan de a una las altas que no quedaron guardadas (id 0, ver
+ * {@link GenericDAO#saveAll}): con shards, las de los shards que confirmaron ya están escritas.
+ * Las altas inválidas quedan aisladas y su futuro falla. Los futuros se completan en el hilo escritor: las continuaciones costosas deben usar
+ * las variantes {@code *Async}.
+ */
+public class WriteBehindQueue<T> implements AutoCloseable {
+    private static final Logger logger = LoggerUtil.getLogger(WriteBehindQueue.class);
+    private static final long ESPERA_OCIOSA_MILLIS = 100;
+    private static final long ESPERA_CIERRE_SEGUNDOS = 30;
+
+    private final String nombre;
+    private final GenericDAO<T> dao;
+    private final ToIntFunction<T> getId;
+    private final BlockingQueue<Pendiente<T>> cola;
+    private final int maxLote;
+    private final long esperaMaximaNanos;
+    private final long admisionMillis;
+    private final Thread escritor;
+    // Los productores encolan con el lock de lectura; close toma el de escritura para que,
+    // una vez marcada la cola como cerrada, no quede ninguna alta a medio encolar
+    private final ReadWriteLock cierre = new ReentrantReadWriteLock();
+    private final LongAdder escritos = new LongAdder();
+    private final LongAdder fallidos = new LongAdder();
+    private final LongAdder lotes = new LongAdder();
+    private volatile boolean cerrado;
+
+    public WriteBehindQueue(String nombre, GenericDAO<T> dao, ToIntFunction<T> getId,
+                            int capacidad, int maxLote, long esperaMaximaMillis, long admisionMillis) {
+        if (maxLote < 1) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser positivo: " + maxLote);
+        }
+        this.nombre = nombre;
+        this.dao = dao;
+        this.getId = getId;
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        this.maxLote = maxLote;
+        this.esperaMaximaNanos = TimeUnit.MILLISECONDS.toNanos(esperaMaximaMillis);
+        this.admisionMillis = admisionMillis;
+        this.escritor = new Thread(this::escribir, "escritura-diferida-" + nombre);
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    public static WriteBehindQueue<Autor> paraAutores(AutorDAO dao, int capacidad, int maxLote,
+                                                      long esperaMaximaMillis, long admisionMillis) {
+        return new WriteBehindQueue<>("autores", dao, Autor::getId,
+                capacidad, maxLote, esperaMaximaMillis, admisionMillis);
+    }
+
+    public static WriteBehindQueue<Libro> paraLibros(LibroDAO dao, int capacidad, int maxLote,
+                                                     long esperaMaximaMillis, long admisionMillis) {
+        return new WriteBehindQueue<>("libros", dao, Libro::getId,
+                capacidad, maxLote, esperaMaximaMillis, admisionMillis);
+    }
+
+    /**
+     * Encola el alta; la entidad no debe modificarse hasta que el futuro se complete. Si la cola
+     * sigue llena después de {@code admisionMillis} o ya se cerró, el futuro falla con
+     * {@link RejectedExecutionException}.
+     */
+    public CompletableFuture<Integer> save(T entidad) {
+        if (TransactionManager.isTransactionActive()) {
+            throw new IllegalStateException("La escritura diferida no participa de la transacción del hilo");
+        }
+        Pendiente<T> pendiente = new Pendiente<>(entidad);
+        cierre.readLock().lock();
+        try {
+            if (cerrado) {
+                return CompletableFuture.failedFuture(
+                        new RejectedExecutionException("La cola de escritura de " + nombre + " está cerrada"));
+            }
+            if (!cola.offer(pendiente, admisionMillis, TimeUnit.MILLISECONDS)) {
+                return CompletableFuture.failedFuture(
+                        new RejectedExecutionException("La cola de escritura de " + nombre + " está llena"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            cierre.readLock().unlock();
+        }
+        return pendiente.futuro;
+    }
+
+    private void escribir() {
+        List<Pendiente<T>> lote = new ArrayList<>(maxLote);
+        while (true) {
+            try {
+                Pendiente<T> primero = cola.poll(ESPERA_OCIOSA_MILLIS, TimeUnit.MILLISECONDS);
+                if (primero == null) {
+                    if (cerrado && cola.isEmpty()) {
+                        return;
+                    }
+                    continue;
+                }
+                lote.add(primero);
+                juntar(lote);
+            } catch (InterruptedException e) {
+                // close no interrumpe: marca la cola como cerrada y el bucle sale al encontrarla vacía.
+                // Una interrupción externa termina el escritor si no queda nada por escribir
+                if (lote.isEmpty() && cola.isEmpty()) {
+                    return;
+                }
+            }
+            if (!lote.isEmpty()) {
+                escribirLote(lote);
+                lote.clear();
+            }
+        }
+    }
+
+    // Completa el lote con lo que ya está en la cola y, sin pasar el límite de tiempo, con lo que llegue
+    private void juntar(List<Pendiente<T>> lote) throws InterruptedException {
+        long limite = System.nanoTime() + esperaMaximaNanos;
+        while (lote.size() < maxLote) {
+            cola.drainTo(lote, maxLote - lote.size());
+            long restante = limite - System.nanoTime();
+            if (lote.size() >= maxLote || cerrado || restante <= 0) {
+                return;
+            }
+            Pendiente<T> siguiente = cola.poll(restante, TimeUnit.NANOSECONDS);
+            if (siguiente == null) {
+                return;
+            }
+            lote.add(siguiente);
+        }
+    }
+
+    private void escribirLote(List<Pendiente<T>> lote) {
+        List<T> entidades = new ArrayList<>(lote.size());
+        for (Pendiente<T> pendiente : lote) {
+            entidades.add(pendiente.entidad);
+        }
+        BatchResult resultado;
+        boolean excepcion = false;
+        try {
+            resultado = dao.saveAll(entidades);
+        } catch (RuntimeException e) {
+            logger.error("Error al escribir un lote diferido de {}", nombre, e);
+            resultado = BatchResult.failed(0);
+            excepcion = true;
+        }
+        if (resultado.isSuccessful()) {
+            lotes.increment();
+            escritos.add(lote.size());
+            for (Pendiente<T> pendiente : lote) {
+                pendiente.futuro.complete(getId.applyAsInt(pendiente.entidad));
+            }
+            return;
+        }
+        logger.warn("Falló un lote diferido de {} con {} altas ({} confirmadas), se reintentan de a una las demás",
+                nombre, box(lote.size()), box(resultado.getRows()));
+        for (Pendiente<T> pendiente : lote) {
+            if (getId.applyAsInt(pendiente.entidad) > 0) {
+                if (excepcion) {
+                    // Sin resultado del DAO no se sabe si se guardó: reintentarla podría duplicarla
+                    fallidos.increment();
+                    pendiente.futuro.completeExceptionally(new IllegalStateException(
+                            "Estado desconocido del alta diferida en " + nombre + ": " + pendiente.entidad));
+                } else {
+                    escritos.increment();
+                    pendiente.futuro.complete(getId.applyAsInt(pendiente.entidad));
+                }
+                continue;
+            }
+            try {
+                dao.save(pendiente.entidad);
+            } catch (RuntimeException e) {
+                logger.error("Error al escribir un alta diferida de {}", nombre, e);
+            }
+            int id = getId.applyAsInt(pendiente.entidad);
+            if (id > 0) {
+                escritos.increment();
+                pendiente.futuro.complete(id);
+            } else {
+                fallidos.increment();
+                pendiente.futuro.completeExceptionally(
+                        new IllegalStateException("No se pudo guardar en " + nombre + ": " + pendiente.entidad));
+            }
+        }
+    }
+
+    public int getPendientes() { return cola.size(); }
+    public long getEscritos() { return escritos.sum(); }
+    public long getFallidos() { return fallidos.sum(); }
+    public long getLotes() { return lotes.sum(); }
+
+    // Deja de aceptar altas, escribe todas las encoladas y espera al escritor
+    @Override
+    public void close() {
+        cierre.writeLock().lock();
+        try {
+            if (cerrado) {
+                return;
+            }
+            cerrado = true;
+        } finally {
+            cierre.writeLock().unlock();
+        }
+        int pendientes = cola.size();
+        try {
+            escritor.join(TimeUnit.SECONDS.toMillis(ESPERA_CIERRE_SEGUNDOS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (escritor.isAlive()) {
+            logger.warn("La cola de escritura de {} no terminó de vaciarse; quedan {} altas",
+                    nombre, box(cola.size()));
+        } else {
+            logger.info("Cola de escritura de {} cerrada; se vaciaron {} altas pendientes", nombre, box(pendientes));
+        }
+    }
+
+    private static final class Pendiente<T> {
+        private final T entidad;
+        private final CompletableFuture<Integer> futuro = new CompletableFuture<>();
+
+        private Pendiente(T entidad) {
+            this.entidad = entidad;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.biblioteca.cache;
+
+import com.biblioteca.dao.AutorDAO;
+import com.biblioteca.dao.BatchResult;
+import com.biblioteca.dao.Page;
+import com.biblioteca.dao.PageRequest;
+import com.biblioteca.dao.VersionedBatchResult;
+import com.biblioteca.dao.WriteResult;
+import com.biblioteca.model.Autor;
+import com.biblioteca.tx.TransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Decorador de {@link AutorDAO} que cachea búsquedas por id y listados. Toda escritura
+ * invalida las entradas afectadas; las entidades se copian al entrar y salir de la caché.
+ */
+public class CachingAutorDAO implements AutorDAO {
+    private static final String FIND_ALL = "findAll";
+    private static final String NACIONALIDAD = "nacionalidad:";
+
+    private final AutorDAO delegate;
+    private final LruCache<Integer, Autor> porId;
+    private final LruCache<String, List<Autor>> consultas;
+
+    public CachingAutorDAO(AutorDAO delegate, int maxSize, long ttlMillis) {
+        this.delegate = delegate;
+        this.porId = new LruCache<>(maxSize, ttlMillis);
+        this.consultas = new LruCache<>(64, ttlMillis);
+    }
+
+    @Override
+    public Optional<Autor> findById(int id) {
+        Autor cached = porId.get(id);
+        if (cached != null) {
+            return Optional.of(new Autor(cached));
+        }
+        long generacion = porId.generation();
+        Optional<Autor> autor = delegate.findById(id);
+        autor.ifPresent(a -> cachear(id, new Autor(a), generacion));
+        return autor;
+    }
+
+    @Override
+    public List<Autor> findByIds(Collection<Integer> ids) {
+        Map<Integer, Autor> encontrados = new HashMap<>(ids.size() * 2);
+        List<Integer> faltantes = new ArrayList<>();
+        for (Integer id : ids) {
+            Autor cached = porId.get(id);
+            if (cached != null) {
+                encontrados.put(id, new Autor(cached));
+            } else {
+                faltantes.add(id);
+            }
+        }
+        // Los que no están en caché se cargan con una sola consulta
+        if (!faltantes.isEmpty()) {
+            long generacion = porId.generation();
+            for (Autor cargado : delegate.findByIds(faltantes)) {
+                cachear(cargado.getId(), new Autor(cargado), generacion);
+                encontrados.put(cargado.getId(), cargado);
+            }
+        }
+        List<Autor> resultado = new ArrayList<>(encontrados.size());
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            Autor encontrado = encontrados.get(id);
+            if (encontrado != null) {
+                resultado.add(encontrado);
+            }
+        }
+        return resultado;
+    }
+
+    @Override
+    public List<Autor> findAll() {
+        return cachedQuery(FIND_ALL, delegate::findAll);
+    }
+
+    @Override
+    public Page<Autor> findAll(PageRequest pageRequest) {
+        return delegate.findAll(pageRequest);
+    }
+
+    @Override
+    public Stream<Autor> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public List<Autor> findByNacionalidad(String nacionalidad) {
+        return cachedQuery(NACIONALIDAD + nacionalidad, () -> delegate.findByNacionalidad(nacionalidad));
+    }
+
+    @Override
+    public Page<Autor> findByNacionalidad(String nacionalidad, PageRequest pageRequest) {
+        return delegate.findByNacionalidad(nacionalidad, pageRequest);
+    }
+
+    @Override
+    public void save(Autor autor) {
+        delegate.save(autor);
+        invalidarConsultas();
+    }
+
+    @Override
+    public void update(Autor autor) {
+        try {
+            delegate.update(autor);
+        } finally {
+            invalidar(autor.getId());
+            invalidarConsultas();
+        }
+    }
+
+    @Override
+    public void delete(int id) {
+        try {
+            delegate.delete(id);
+        } finally {
+            invalidar(id);
+            invalidarConsultas();
+        }
+    }
+
+    @Override
+    public BatchResult saveAll(Collection<Autor> autores) {
+        BatchResult result = delegate.saveAll(autores);
+        invalidarConsultas();
+        return result;
+    }
+
+    @Override
+    public BatchResult updateAll(Collection<Autor> autores) {
+        try {
+            return delegate.updateAll(autores);
+        } finally {
+            autores.forEach(a -> invalidar(a.getId()));
+            invalidarConsultas();
+        }
+    }
+
+    @Override
+    public BatchResult deleteAll(int[] ids) {
+        try {
+            return delegate.deleteAll(ids);
+        } finally {
+            for (int id : ids) {
+                invalidar(id);
+            }
+            invalidarConsultas();
+        }
+    }
+
+    @Override
+    public WriteResult updateIfVersion(Autor autor) {
+        try {
+            return delegate.updateIfVersion(autor);
+        } finally {
+            invalidar(autor.getId());
+            invalidarConsultas();
+        }
+    }
+
+    @Override
+    public WriteResult deleteIfVersion(int id, int version) {
+        try {
+            return delegate.deleteIfVersion(id, version);
+        } finally {
+            invalidar(id);
+            invalidarConsultas();
+        }
+    }
+
+    @Override
+    public VersionedBatchResult updateAllIfVersion(Collection<Autor> autores) {
+        try {
+            return delegate.updateAllIfVersion(autores);
+        } finally {
+            autores.forEach(a -> invalidar(a.getId()));
+            invalidarConsultas();
+        }
+    }
+
+    @Override
+    public VersionedBatchResult deleteAllIfVersion(Collection<Autor> autores) {
+        try {
+            return delegate.deleteAllIfVersion(autores);
+        } finally {
+            autores.forEach(a -> invalidar(a.getId()));
+            invalidarConsultas();
+        }
+    }
+
+    public CacheStats getStats() {
+        return porId.getStats();
+    }
+
+    public CacheStats getQueryStats() {
+        return consultas.getStats();
+    }
+
+    // Dentro de una transacción se leen datos no confirmados: no se guardan en la caché. Tampoco lo que se
+    // leyó antes de una invalidación concurrente, que podría ser la fila ya reemplazada
+    private void cachear(int id, Autor autor, long generacion) {
+        if (!TransactionManager.isTransactionActive()) {
+            porId.putIfGeneration(id, autor, generacion);
+        }
+    }
+
+    // Si hay una transacción abierta se invalida otra vez al terminar, por si otro hilo recargó el valor anterior
+    private void invalidar(int id) {
+        porId.invalidate(id);
+        TransactionManager.afterCompletion(() -> porId.invalidate(id));
+    }
+
+    private void invalidarConsultas() {
+        consultas.invalidateAll();
+        TransactionManager.afterCompletion(consultas::invalidateAll);
+    }
+
+    private List<Autor> cachedQuery(String key, Supplier<List<Autor>> loader) {
+        List<Autor> cached = consultas.get(key);
+        if (cached == null) {
+            long generacion = consultas.generation();
+            cached = copy(loader.get());
+            if (!TransactionManager.isTransactionActive()) {
+                consultas.putIfGeneration(key, cached, generacion);
+            }
+        }
+        return copy(cached);
+    }
+
+    private static List<Autor> copy(List<Autor> autores) {
+        return autores.stream().map(Autor::new).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,260 @@
+package com.biblioteca.cache;
+
+import com.biblioteca.dao.BatchResult;
+import com.biblioteca.dao.LibroDAO;
+import com.biblioteca.dao.Page;
+import com.biblioteca.dao.PageRequest;
+import com.biblioteca.dao.VersionedBatchResult;
+import com.biblioteca.dao.WriteResult;
+import com.biblioteca.model.Libro;
+import com.biblioteca.model.LibroConAutor;
+import com.biblioteca.tx.TransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Decorador de {@link LibroDAO} que cachea las búsquedas por id. Los listados van siempre
+ * a la base de datos; las escrituras invalidan las entradas de los libros afectados.
+ */
+public class CachingLibroDAO implements LibroDAO {
+    private final LibroDAO delegate;
+    private final LruCache<Integer, Libro> porId;
+
+    public CachingLibroDAO(LibroDAO delegate, int maxSize, long ttlMillis) {
+        this.delegate = delegate;
+        this.porId = new LruCache<>(maxSize, ttlMillis);
+    }
+
+    @Override
+    public Optional<Libro> findById(int id) {
+        Libro cached = porId.get(id);
+        if (cached != null) {
+            return Optional.of(new Libro(cached));
+        }
+        long generacion = porId.generation();
+        Optional<Libro> libro = delegate.findById(id);
+        libro.ifPresent(l -> cachear(id, new Libro(l), generacion));
+        return libro;
+    }
+
+    @Override
+    public List<Libro> findByIds(Collection<Integer> ids) {
+        Map<Integer, Libro> encontrados = new HashMap<>(ids.size() * 2);
+        List<Integer> faltantes = new ArrayList<>();
+        for (Integer id : ids) {
+            Libro cached = porId.get(id);
+            if (cached != null) {
+                encontrados.put(id, new Libro(cached));
+            } else {
+                faltantes.add(id);
+            }
+        }
+        // Los que no están en caché se cargan con una sola consulta
+        if (!faltantes.isEmpty()) {
+            long generacion = porId.generation();
+            for (Libro cargado : delegate.findByIds(faltantes)) {
+                cachear(cargado.getId(), new Libro(cargado), generacion);
+                encontrados.put(cargado.getId(), cargado);
+            }
+        }
+        List<Libro> resultado = new ArrayList<>(encontrados.size());
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            Libro encontrado = encontrados.get(id);
+            if (encontrado != null) {
+                resultado.add(encontrado);
+            }
+        }
+        return resultado;
+    }
+
+    @Override
+    public List<Libro> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Page<Libro> findAll(PageRequest pageRequest) {
+        return delegate.findAll(pageRequest);
+    }
+
+    @Override
+    public Stream<Libro> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public List<Libro> findByTitulo(String titulo) {
+        return delegate.findByTitulo(titulo);
+    }
+
+    @Override
+    public Page<Libro> findByTitulo(String titulo, PageRequest pageRequest) {
+        return delegate.findByTitulo(titulo, pageRequest);
+    }
+
+    @Override
+    public List<Libro> findByFechaPublicacionAfter(LocalDate fecha) {
+        return delegate.findByFechaPublicacionAfter(fecha);
+    }
+
+    @Override
+    public Page<Libro> findByFechaPublicacionAfter(LocalDate fecha, PageRequest pageRequest) {
+        return delegate.findByFechaPublicacionAfter(fecha, pageRequest);
+    }
+
+    @Override
+    public List<Libro> findByAutorId(int autorId) {
+        return delegate.findByAutorId(autorId);
+    }
+
+    @Override
+    public Page<Libro> findByAutorId(int autorId, PageRequest pageRequest) {
+        return delegate.findByAutorId(autorId, pageRequest);
+    }
+
+    @Override
+    public List<LibroConAutor> findAllConAutor() {
+        return delegate.findAllConAutor();
+    }
+
+    @Override
+    public Page<LibroConAutor> findAllConAutor(PageRequest pageRequest) {
+        return delegate.findAllConAutor(pageRequest);
+    }
+
+    // Por ISBN se consulta siempre a la base, pero lo encontrado queda cacheado por id
+    @Override
+    public Optional<Libro> findByIsbn(String isbn) {
+        long generacion = porId.generation();
+        Optional<Libro> libro = delegate.findByIsbn(isbn);
+        libro.ifPresent(l -> cachear(l.getId(), new Libro(l), generacion));
+        return libro;
+    }
+
+    @Override
+    public List<Libro> findByIsbns(Collection<String> isbns) {
+        long generacion = porId.generation();
+        List<Libro> libros = delegate.findByIsbns(isbns);
+        libros.forEach(l -> cachear(l.getId(), new Libro(l), generacion));
+        return libros;
+    }
+
+    @Override
+    public void save(Libro libro) {
+        delegate.save(libro);
+    }
+
+    @Override
+    public void update(Libro libro) {
+        try {
+            delegate.update(libro);
+        } finally {
+            invalidar(libro.getId());
+        }
+    }
+
+    @Override
+    public void delete(int id) {
+        try {
+            delegate.delete(id);
+        } finally {
+            invalidar(id);
+        }
+    }
+
+    @Override
+    public BatchResult saveAll(Collection<Libro> libros) {
+        return delegate.saveAll(libros);
+    }
+
+    @Override
+    public BatchResult updateAll(Collection<Libro> libros) {
+        try {
+            return delegate.updateAll(libros);
+        } finally {
+            libros.forEach(l -> invalidar(l.getId()));
+        }
+    }
+
+    @Override
+    public BatchResult deleteAll(int[] ids) {
+        try {
+            return delegate.deleteAll(ids);
+        } finally {
+            for (int id : ids) {
+                invalidar(id);
+            }
+        }
+    }
+
+    @Override
+    public WriteResult updateIfVersion(Libro libro) {
+        try {
+            return delegate.updateIfVersion(libro);
+        } finally {
+            invalidar(libro.getId());
+        }
+    }
+
+    @Override
+    public WriteResult deleteIfVersion(int id, int version) {
+        try {
+            return delegate.deleteIfVersion(id, version);
+        } finally {
+            invalidar(id);
+        }
+    }
+
+    @Override
+    public VersionedBatchResult updateAllIfVersion(Collection<Libro> libros) {
+        try {
+            return delegate.updateAllIfVersion(libros);
+        } finally {
+            libros.forEach(l -> invalidar(l.getId()));
+        }
+    }
+
+    @Override
+    public VersionedBatchResult deleteAllIfVersion(Collection<Libro> libros) {
+        try {
+            return delegate.deleteAllIfVersion(libros);
+        } finally {
+            libros.forEach(l -> invalidar(l.getId()));
+        }
+    }
+
+    @Override
+    public BatchResult upsertByIsbn(Collection<Libro> libros) {
+        try {
+            return delegate.upsertByIsbn(libros);
+        } finally {
+            // Los ids quedan asignados tras el upsert; los libros nuevos no estaban en caché
+            libros.forEach(l -> invalidar(l.getId()));
+        }
+    }
+
+    public CacheStats getStats() {
+        return porId.getStats();
+    }
+
+    // Igual que en CachingAutorDAO: sin lecturas no confirmadas, sin valores cargados antes de una invalidación
+    // y con una segunda invalidación al cerrar la transacción
+    private void cachear(int id, Libro libro, long generacion) {
+        if (!TransactionManager.isTransactionActive()) {
+            porId.putIfGeneration(id, libro, generacion);
+        }
+    }
+
+    private void invalidar(int id) {
+        porId.invalidate(id);
+        TransactionManager.afterCompletion(() -> porId.invalidate(id));
+    }
+}
@@ -0,0 +1,30 @@
+package com.biblioteca.cdc;
+
+import com.biblioteca.util.LoggerUtil;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * Suscriptor que deja en el log cada cambio confirmado con sus imágenes previa y final. Se
+ * activa con {@code -Dbiblioteca.auditoriaCambios=true}; con él activo los DAOs leen la imagen
+ * previa de cada fila que modifican.
+ */
+public class AuditoriaCambios implements SuscriptorCambios {
+    // Entre WARN (300) e INFO (400): pasa el umbral de descarte de log4j2.component.properties, así que
+    // con el ring buffer lleno estos eventos esperan lugar en vez de perderse
+    public static final Level AUDITORIA = Level.forName("AUDITORIA", 350);
+
+    private static final Logger logger = LoggerUtil.getLogger(AuditoriaCambios.class);
+
+    @Override
+    public void onCambios(List<Cambio<?>> cambios) {
+        for (Cambio<?> cambio : cambios) {
+            logger.log(AUDITORIA, "{} en {} con ID {}: {} -> {}", cambio.getTipo(), cambio.getTabla(),
+                    box(cambio.getId()), cambio.getAntes(), cambio.getDespues());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.biblioteca.cdc;
+
+/**
+ * Cambio sobre una fila de {@code tabla}. {@code antes} es null en los INSERT y {@code despues}
+ * en los DELETE; las imágenes son copias y no deben modificarse.
+ */
+public final class Cambio<T> {
+    private final String tabla;
+    private final TipoCambio tipo;
+    private final int id;
+    private final T antes;
+    private final T despues;
+
+    public Cambio(String tabla, TipoCambio tipo, int id, T antes, T despues) {
+        this.tabla = tabla;
+        this.tipo = tipo;
+        this.id = id;
+        this.antes = antes;
+        this.despues = despues;
+    }
+
+    public static <T> Cambio<T> insert(String tabla, int id, T despues) {
+        return new Cambio<>(tabla, TipoCambio.INSERT, id, null, despues);
+    }
+
+    public static <T> Cambio<T> update(String tabla, int id, T antes, T despues) {
+        return new Cambio<>(tabla, TipoCambio.UPDATE, id, antes, despues);
+    }
+
+    public static <T> Cambio<T> delete(String tabla, int id, T antes) {
+        return new Cambio<>(tabla, TipoCambio.DELETE, id, antes, null);
+    }
+
+    public String getTabla() { return tabla; }
+    public TipoCambio getTipo() { return tipo; }
+    public int getId() { return id; }
+    public T getAntes() { return antes; }
+    public T getDespues() { return despues; }
+
+    /**
+     * Combina este cambio con uno posterior sobre la misma fila. Devuelve null si se anulan
+     * (una fila insertada y borrada dentro del mismo lote).
+     */
+    Cambio<T> seguidoDe(Cambio<T> siguiente) {
+        switch (tipo) {
+            case INSERT:
+                return siguiente.tipo == TipoCambio.DELETE ? null : insert(tabla, id, siguiente.despues);
+            case DELETE:
+                // Sólo ocurre si la fila se vuelve a insertar con el mismo id
+                return siguiente.tipo == TipoCambio.DELETE ? this : update(tabla, id, antes, siguiente.despues);
+            default:
+                return siguiente.tipo == TipoCambio.DELETE
+                        ? delete(tabla, id, antes)
+                        : update(tabla, id, antes, siguiente.despues);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Cambio{" +
+                "tabla='" + tabla + '\'' +
+                ", tipo=" + tipo +
+                ", id=" + id +
+                ", antes=" + antes +
+                ", despues=" + despues +
+                '}';
+    }
+}
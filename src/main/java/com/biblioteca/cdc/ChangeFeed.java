@@ -0,0 +1,195 @@
+package com.biblioteca.cdc;
+
+import com.biblioteca.tx.TransactionManager;
+import com.biblioteca.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Canal de cambios de las tablas. Los DAOs publican cada escritura en un {@link RingBuffer}
+ * acotado y un hilo despachador los entrega a los suscriptores en lotes de hasta
+ * {@code maxLote} eventos, combinando los cambios repetidos sobre la misma fila (por ejemplo,
+ * dos UPDATE seguidos llegan como uno con la imagen previa del primero y la final del segundo).
+ *
+ * <p>Dentro de una transacción los cambios se publican recién al confirmarse; si se deshace,
+ * se descartan. Si el buffer está lleno el productor espera hasta {@code esperaMaximaMillis} y
+ * luego descarta el evento, lo registra y lo cuenta en {@link #getDescartados()}.
+ */
+public class ChangeFeed implements AutoCloseable {
+    private static final Logger logger = LoggerUtil.getLogger(ChangeFeed.class);
+    private static final long ESPERA_DESPACHADOR_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final RingBuffer<Cambio<?>> buffer;
+    private final int maxLote;
+    private final long esperaMaximaNanos;
+    private final List<SuscriptorCambios> suscriptores = new CopyOnWriteArrayList<>();
+    private final Thread despachador;
+    private final LongAdder publicados = new LongAdder();
+    private final LongAdder descartados = new LongAdder();
+    private final LongAdder combinados = new LongAdder();
+    private final LongAdder entregados = new LongAdder();
+    private volatile boolean durmiendo;
+    private volatile boolean cerrado;
+
+    public ChangeFeed(int capacidad, int maxLote, long esperaMaximaMillis) {
+        if (maxLote < 1) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser positivo: " + maxLote);
+        }
+        this.buffer = new RingBuffer<>(capacidad);
+        this.maxLote = maxLote;
+        this.esperaMaximaNanos = TimeUnit.MILLISECONDS.toNanos(esperaMaximaMillis);
+        this.despachador = new Thread(this::despachar, "cdc-despachador");
+        despachador.setDaemon(true);
+        despachador.start();
+    }
+
+    public void subscribe(SuscriptorCambios suscriptor) {
+        suscriptores.add(suscriptor);
+    }
+
+    public void unsubscribe(SuscriptorCambios suscriptor) {
+        suscriptores.remove(suscriptor);
+    }
+
+    // Los DAOs lo consultan para no leer imágenes previas que nadie va a usar
+    public boolean hasSubscribers() {
+        return !suscriptores.isEmpty();
+    }
+
+    public void publish(Cambio<?> cambio) {
+        if (cerrado || suscriptores.isEmpty()) {
+            return;
+        }
+        if (!TransactionManager.afterCommit(() -> encolar(cambio))) {
+            encolar(cambio);
+        }
+    }
+
+    private void encolar(Cambio<?> cambio) {
+        if (!buffer.offer(cambio)) {
+            long limite = System.nanoTime() + esperaMaximaNanos;
+            do {
+                despertar();
+                LockSupport.parkNanos(50_000);
+                if (System.nanoTime() - limite > 0) {
+                    descartados.increment();
+                    logger.warn("Buffer de cambios lleno, se descarta: {}", cambio);
+                    return;
+                }
+            } while (!buffer.offer(cambio));
+        }
+        publicados.increment();
+        if (durmiendo) {
+            despertar();
+        }
+    }
+
+    private void despertar() {
+        LockSupport.unpark(despachador);
+    }
+
+    private void despachar() {
+        Map<Clave, Cambio<?>> lote = new LinkedHashMap<>();
+        while (true) {
+            int leidos = 0;
+            Cambio<?> cambio;
+            while (leidos < maxLote && (cambio = buffer.poll()) != null) {
+                combinar(lote, cambio);
+                leidos++;
+            }
+            if (!lote.isEmpty()) {
+                entregar(new ArrayList<>(lote.values()));
+                lote.clear();
+            }
+            if (leidos == 0) {
+                if (cerrado) {
+                    return;
+                }
+                durmiendo = true;
+                if (buffer.isEmpty()) {
+                    LockSupport.parkNanos(this, ESPERA_DESPACHADOR_NANOS);
+                }
+                durmiendo = false;
+            }
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void combinar(Map<Clave, Cambio<?>> lote, Cambio<?> cambio) {
+        Clave clave = new Clave(cambio.getTabla(), cambio.getId());
+        Cambio previo = lote.get(clave);
+        if (previo == null) {
+            lote.put(clave, cambio);
+            return;
+        }
+        combinados.increment();
+        Cambio combinado = previo.seguidoDe(cambio);
+        if (combinado == null) {
+            lote.remove(clave);
+        } else {
+            lote.put(clave, combinado);
+        }
+    }
+
+    private void entregar(List<Cambio<?>> cambios) {
+        List<Cambio<?>> vista = Collections.unmodifiableList(cambios);
+        for (SuscriptorCambios suscriptor : suscriptores) {
+            try {
+                suscriptor.onCambios(vista);
+            } catch (RuntimeException e) {
+                logger.error("Error en un suscriptor de cambios", e);
+            }
+        }
+        entregados.add(cambios.size());
+    }
+
+    public long getPublicados() { return publicados.sum(); }
+    public long getDescartados() { return descartados.sum(); }
+    public long getCombinados() { return combinados.sum(); }
+    public long getEntregados() { return entregados.sum(); }
+
+    // Deja de aceptar cambios, entrega los pendientes y espera al despachador
+    @Override
+    public void close() {
+        cerrado = true;
+        despertar();
+        try {
+            despachador.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Clave {
+        private final String tabla;
+        private final int id;
+
+        private Clave(String tabla, int id) {
+            this.tabla = tabla;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Clave clave = (Clave) o;
+            return id == clave.id && tabla.equals(clave.tabla);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tabla, id);
+        }
+    }
+}
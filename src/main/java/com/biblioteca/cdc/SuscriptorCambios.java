@@ -0,0 +1,13 @@
+package com.biblioteca.cdc;
+
+import java.util.List;
+
+/**
+ * Recibe los cambios en lotes, ya combinados por fila y en el orden en que ocurrió el primer
+ * cambio de cada fila. Se invoca siempre desde el hilo despachador de {@link ChangeFeed}, de a
+ * un lote por vez, así que no necesita sincronización propia para su estado derivado.
+ */
+@FunctionalInterface
+public interface SuscriptorCambios {
+    void onCambios(List<Cambio<?>> cambios);
+}
@@ -0,0 +1,7 @@
+package com.biblioteca.cdc;
+
+public enum TipoCambio {
+    INSERT,
+    UPDATE,
+    DELETE
+}
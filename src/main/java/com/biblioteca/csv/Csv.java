@@ -0,0 +1,61 @@
+package com.biblioteca.csv;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lectura y escritura de campos CSV separados por coma, con comillas dobles para los
+ * campos que contienen comas o comillas. Cada registro ocupa una única línea.
+ */
+final class Csv {
+
+    private Csv() {}
+
+    static List<String> parseLine(String line) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (entreComillas) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        actual.append('"');
+                        i++;
+                    } else {
+                        entreComillas = false;
+                    }
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        if (entreComillas) {
+            throw new IllegalArgumentException("Comillas sin cerrar");
+        }
+        campos.add(actual.toString());
+        return campos;
+    }
+
+    static String escape(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        boolean requiereComillas = false;
+        for (int i = 0; i < valor.length() && !requiereComillas; i++) {
+            char c = valor.charAt(i);
+            requiereComillas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!requiereComillas) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"").replace('\n', ' ').replace('\r', ' ') + '"';
+    }
+}
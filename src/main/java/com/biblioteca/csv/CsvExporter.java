@@ -0,0 +1,76 @@
+package com.biblioteca.csv;
+
+import com.biblioteca.dao.AutorDAO;
+import com.biblioteca.dao.LibroDAO;
+import com.biblioteca.model.Autor;
+import com.biblioteca.model.Libro;
+import com.biblioteca.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * Exporta las tablas a CSV recorriéndolas con {@code streamAll()}, de modo que la memoria
+ * usada no depende del tamaño de la tabla. Los archivos generados pueden volver a
+ * importarse con {@link CsvImporter}.
+ */
+public class CsvExporter {
+    private static final Logger logger = LoggerUtil.getLogger(CsvExporter.class);
+    private static final int BUFFER_ESCRITURA = 1 << 16;
+
+    private final AutorDAO autorDAO;
+    private final LibroDAO libroDAO;
+
+    public CsvExporter(AutorDAO autorDAO, LibroDAO libroDAO) {
+        this.autorDAO = autorDAO;
+        this.libroDAO = libroDAO;
+    }
+
+    public long exportarAutores(Path archivo) throws IOException {
+        try (Stream<Autor> autores = autorDAO.streamAll()) {
+            return exportar(archivo, "id,nombre,nacionalidad", autores, autor ->
+                    autor.getId() + "," + Csv.escape(autor.getNombre()) + "," + Csv.escape(autor.getNacionalidad()));
+        }
+    }
+
+    public long exportarLibros(Path archivo) throws IOException {
+        try (Stream<Libro> libros = libroDAO.streamAll()) {
+            return exportar(archivo, "id,titulo,isbn,fecha_publicacion,autor_id", libros, libro ->
+                    libro.getId() + "," + Csv.escape(libro.getTitulo()) + "," + Csv.escape(libro.getIsbn()) + ","
+                            + (libro.getFechaPublicacion() != null ? libro.getFechaPublicacion() : "") + ","
+                            + libro.getAutorId());
+        }
+    }
+
+    private static <T> long exportar(Path archivo, String encabezado, Stream<T> filas,
+                                     Function<T, String> formato) throws IOException {
+        long inicio = System.nanoTime();
+        long escritas = 0;
+        try (BufferedWriter writer = new BufferedWriter(
+                Files.newBufferedWriter(archivo, StandardCharsets.UTF_8), BUFFER_ESCRITURA)) {
+            writer.write(encabezado);
+            writer.newLine();
+            Iterator<T> iterator = filas.iterator();
+            while (iterator.hasNext()) {
+                writer.write(formato.apply(iterator.next()));
+                writer.newLine();
+                escritas++;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        logger.info("Exportadas {} filas a {} en {} ms", box(escritas), archivo,
+                box((System.nanoTime() - inicio) / 1_000_000));
+        return escritas;
+    }
+}
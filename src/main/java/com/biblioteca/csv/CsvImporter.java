@@ -0,0 +1,464 @@
+package com.biblioteca.csv;
+
+import com.biblioteca.dao.AutorDAO;
+import com.biblioteca.dao.BatchResult;
+import com.biblioteca.dao.LibroDAO;
+import com.biblioteca.model.Autor;
+import com.biblioteca.model.Libro;
+import com.biblioteca.util.IsbnUtil;
+import com.biblioteca.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * Importa autores y libros desde CSV en tres etapas: un hilo lector agrupa líneas en
+ * bloques, un pool de hilos los parsea y valida en paralelo, y el hilo llamador inserta
+ * las filas válidas en lotes con un commit cada {@code commitInterval} filas. Los bloques
+ * se consumen en el orden del archivo y las filas rechazadas se escriben, con su motivo,
+ * en un archivo de rechazos.
+ *
+ * <p>Formatos esperados (con encabezado): {@code id,nombre,nacionalidad} para autores y
+ * {@code titulo,isbn,fecha_publicacion,autor_id} para libros; en ambos las columnas
+ * adicionales se ignoran. Si en la misma instancia se importaron antes autores con columna
+ * {@code id}, el {@code autor_id} de los libros se traduce a los ids generados.
+ */
+public class CsvImporter {
+    private static final Logger logger = LoggerUtil.getLogger(CsvImporter.class);
+    private static final int LINEAS_POR_BLOQUE = 2_000;
+    private static final long INTERVALO_PROGRESO = 100_000;
+    private static final int BUFFER_LECTURA = 1 << 16;
+
+    private final AutorDAO autorDAO;
+    private final LibroDAO libroDAO;
+    private final int hilosParseo;
+    private final int commitInterval;
+    // id del archivo de autores -> id generado en la base
+    private final Map<Integer, Integer> autoresImportados = new ConcurrentHashMap<>();
+
+    public CsvImporter(AutorDAO autorDAO, LibroDAO libroDAO, int hilosParseo, int commitInterval) {
+        if (hilosParseo < 1 || commitInterval < 1) {
+            throw new IllegalArgumentException("Hilos y commitInterval deben ser positivos");
+        }
+        this.autorDAO = autorDAO;
+        this.libroDAO = libroDAO;
+        this.hilosParseo = hilosParseo;
+        this.commitInterval = commitInterval;
+    }
+
+    public ImportResult importarAutores(Path archivo, Path rechazos) throws IOException {
+        return importar(archivo, rechazos, "autores", this::parsearAutor, this::guardarAutores);
+    }
+
+    public ImportResult importarLibros(Path archivo, Path rechazos) throws IOException {
+        Set<Integer> autoresExistentes = ConcurrentHashMap.newKeySet();
+        try (Stream<Autor> autores = autorDAO.streamAll()) {
+            autores.forEach(autor -> autoresExistentes.add(autor.getId()));
+        }
+        Set<String> isbnsVistos = ConcurrentHashMap.newKeySet();
+        return importar(archivo, rechazos, "libros",
+                (campos, columnas) -> parsearLibro(campos, columnas, autoresExistentes, isbnsVistos),
+                this::guardarLibros);
+    }
+
+    private <T> ImportResult importar(Path archivo, Path rechazos, String entidad,
+                                      RowParser<T> parser, BatchWriter<T> writer) throws IOException {
+        long inicio = System.nanoTime();
+        ExecutorService parsers = Executors.newFixedThreadPool(hilosParseo, daemonThreads("csv-parser"));
+        BlockingQueue<Future<Bloque<T>>> pendientes = new ArrayBlockingQueue<>(hilosParseo * 4);
+        AtomicReference<IOException> errorLectura = new AtomicReference<>();
+        Thread lector = null;
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(archivo), StandardCharsets.UTF_8), BUFFER_LECTURA);
+             BufferedWriter rechazosWriter = Files.newBufferedWriter(rechazos, StandardCharsets.UTF_8)) {
+            String encabezado = reader.readLine();
+            if (encabezado == null) {
+                return new ImportResult(0, 0, 0, System.nanoTime() - inicio);
+            }
+            Map<String, Integer> columnas = indexarColumnas(encabezado);
+            rechazosWriter.write("linea,motivo,contenido");
+            rechazosWriter.newLine();
+
+            lector = new Thread(() -> leerBloques(reader, columnas, parser, parsers, pendientes, errorLectura),
+                    "csv-lector");
+            lector.setDaemon(true);
+            lector.start();
+
+            long leidas = 0;
+            long importadas = 0;
+            long rechazadas = 0;
+            long proximoReporte = INTERVALO_PROGRESO;
+            List<Fila<T>> lote = new ArrayList<>(commitInterval);
+            while (true) {
+                Bloque<T> bloque = esperar(pendientes.take());
+                if (bloque.ultimo) {
+                    break;
+                }
+                leidas += bloque.lineas;
+                for (Rechazo rechazo : bloque.rechazos) {
+                    escribirRechazo(rechazosWriter, rechazo);
+                    rechazadas++;
+                }
+                for (Fila<T> fila : bloque.filas) {
+                    lote.add(fila);
+                    if (lote.size() >= commitInterval) {
+                        List<Rechazo> fallidas = writer.write(lote);
+                        importadas += lote.size() - fallidas.size();
+                        rechazadas += escribirRechazos(rechazosWriter, fallidas);
+                        lote.clear();
+                    }
+                }
+                if (importadas >= proximoReporte) {
+                    reportarProgreso(entidad, importadas, rechazadas, inicio);
+                    proximoReporte = importadas + INTERVALO_PROGRESO;
+                }
+            }
+            if (!lote.isEmpty()) {
+                List<Rechazo> fallidas = writer.write(lote);
+                importadas += lote.size() - fallidas.size();
+                rechazadas += escribirRechazos(rechazosWriter, fallidas);
+            }
+            if (errorLectura.get() != null) {
+                throw errorLectura.get();
+            }
+            ImportResult resultado = new ImportResult(leidas, importadas, rechazadas, System.nanoTime() - inicio);
+            logger.info("Importación de {} finalizada: {}", entidad, resultado);
+            return resultado;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Importación interrumpida", e);
+        } finally {
+            // Si el consumo falló, el lector puede estar bloqueado esperando lugar en la cola
+            if (lector != null) {
+                lector.interrupt();
+            }
+            parsers.shutdownNow();
+        }
+    }
+
+    private <T> void leerBloques(BufferedReader reader, Map<String, Integer> columnas, RowParser<T> parser,
+                                 ExecutorService parsers, BlockingQueue<Future<Bloque<T>>> pendientes,
+                                 AtomicReference<IOException> errorLectura) {
+        try {
+            long numeroLinea = 1;
+            List<String> lineas = new ArrayList<>(LINEAS_POR_BLOQUE);
+            String linea;
+            while ((linea = reader.readLine()) != null) {
+                lineas.add(linea);
+                if (lineas.size() == LINEAS_POR_BLOQUE) {
+                    List<String> bloque = lineas;
+                    long primeraLinea = numeroLinea + 1;
+                    pendientes.put(parsers.submit(() -> parsearBloque(bloque, primeraLinea, columnas, parser)));
+                    numeroLinea += bloque.size();
+                    lineas = new ArrayList<>(LINEAS_POR_BLOQUE);
+                }
+            }
+            if (!lineas.isEmpty()) {
+                List<String> bloque = lineas;
+                long primeraLinea = numeroLinea + 1;
+                pendientes.put(parsers.submit(() -> parsearBloque(bloque, primeraLinea, columnas, parser)));
+            }
+        } catch (IOException e) {
+            errorLectura.set(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                pendientes.put(CompletableFuture.completedFuture(Bloque.fin()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static <T> Bloque<T> parsearBloque(List<String> lineas, long primeraLinea,
+                                               Map<String, Integer> columnas, RowParser<T> parser) {
+        Bloque<T> bloque = new Bloque<>(lineas.size());
+        for (int i = 0; i < lineas.size(); i++) {
+            String linea = lineas.get(i);
+            long numero = primeraLinea + i;
+            if (linea.isBlank()) {
+                continue;
+            }
+            try {
+                T entidad = parser.parse(Csv.parseLine(linea), columnas);
+                bloque.filas.add(new Fila<>(numero, linea, entidad));
+            } catch (FilaInvalidaException | IllegalArgumentException e) {
+                bloque.rechazos.add(new Rechazo(numero, linea, e.getMessage()));
+            }
+        }
+        return bloque;
+    }
+
+    private Autor parsearAutor(List<String> campos, Map<String, Integer> columnas) throws FilaInvalidaException {
+        String nombre = campo(campos, columnas, "nombre", true);
+        if (nombre.length() > 100) {
+            throw new FilaInvalidaException("Nombre demasiado largo");
+        }
+        String nacionalidad = campo(campos, columnas, "nacionalidad", false);
+        if (nacionalidad != null && nacionalidad.length() > 50) {
+            throw new FilaInvalidaException("Nacionalidad demasiado larga");
+        }
+        Autor autor = new Autor(nombre, nacionalidad == null || nacionalidad.isEmpty() ? null : nacionalidad);
+        String id = campo(campos, columnas, "id", false);
+        if (id != null && !id.isEmpty()) {
+            autor.setId(entero(id, "id"));
+        }
+        return autor;
+    }
+
+    private Libro parsearLibro(List<String> campos, Map<String, Integer> columnas,
+                               Set<Integer> autoresExistentes, Set<String> isbnsVistos) throws FilaInvalidaException {
+        String titulo = campo(campos, columnas, "titulo", true);
+        if (titulo.length() > 100) {
+            throw new FilaInvalidaException("Título demasiado largo");
+        }
+        String isbn = campo(campos, columnas, "isbn", true);
+        if (!IsbnUtil.esValido(isbn)) {
+            throw new FilaInvalidaException("ISBN inválido: " + isbn);
+        }
+        LocalDate fecha;
+        try {
+            fecha = LocalDate.parse(campo(campos, columnas, "fecha_publicacion", true));
+        } catch (DateTimeParseException e) {
+            throw new FilaInvalidaException("Fecha de publicación inválida");
+        }
+        int autorId = entero(campo(campos, columnas, "autor_id", true), "autor_id");
+        autorId = autoresImportados.getOrDefault(autorId, autorId);
+        if (!autoresExistentes.contains(autorId)) {
+            throw new FilaInvalidaException("No existe un autor con ID: " + autorId);
+        }
+        if (!isbnsVistos.add(IsbnUtil.normalizar(isbn))) {
+            throw new FilaInvalidaException("ISBN repetido en el archivo: " + isbn);
+        }
+        return new Libro(titulo, isbn, fecha, autorId);
+    }
+
+    private List<Rechazo> guardarAutores(List<Fila<Autor>> lote) {
+        List<Autor> autores = new ArrayList<>(lote.size());
+        int[] idsArchivo = new int[lote.size()];
+        for (int i = 0; i < lote.size(); i++) {
+            Autor autor = lote.get(i).entidad;
+            idsArchivo[i] = autor.getId();
+            autor.setId(0);
+            autores.add(autor);
+        }
+        List<Rechazo> fallidas = guardar(lote, autores, autorDAO::saveAll, autorDAO::save, Autor::getId, Autor::setId);
+        for (int i = 0; i < autores.size(); i++) {
+            if (idsArchivo[i] != 0 && autores.get(i).getId() != 0) {
+                autoresImportados.put(idsArchivo[i], autores.get(i).getId());
+            }
+        }
+        return fallidas;
+    }
+
+    // Los ISBN ya registrados se rechazan antes de insertar, así el lote no falla por el UNIQUE y no
+    // se reintenta fila por fila; con el filtro de ISBN delante del DAO los nuevos no consultan la base
+    private List<Rechazo> guardarLibros(List<Fila<Libro>> lote) {
+        List<String> isbns = new ArrayList<>(lote.size());
+        for (Fila<Libro> fila : lote) {
+            isbns.add(fila.entidad.getIsbn());
+        }
+        Set<String> registrados = new HashSet<>();
+        libroDAO.findByIsbns(isbns).forEach(libro -> registrados.add(libro.getIsbn()));
+        if (registrados.isEmpty()) {
+            return guardar(lote, lote.stream().map(fila -> fila.entidad).collect(Collectors.toList()),
+                    libroDAO::saveAll, libroDAO::save, Libro::getId, Libro::setId);
+        }
+        List<Rechazo> rechazadas = new ArrayList<>();
+        List<Fila<Libro>> nuevas = new ArrayList<>(lote.size());
+        List<Libro> libros = new ArrayList<>(lote.size());
+        for (Fila<Libro> fila : lote) {
+            if (registrados.contains(fila.entidad.getIsbn())) {
+                rechazadas.add(new Rechazo(fila.linea, fila.texto, "ISBN ya registrado: " + fila.entidad.getIsbn()));
+            } else {
+                nuevas.add(fila);
+                libros.add(fila.entidad);
+            }
+        }
+        if (!libros.isEmpty()) {
+            rechazadas.addAll(guardar(nuevas, libros, libroDAO::saveAll, libroDAO::save, Libro::getId, Libro::setId));
+        }
+        return rechazadas;
+    }
+
+    // Intenta el lote completo en una transacción; si falla, reintenta fila por fila para aislar las culpables
+    private static <T> List<Rechazo> guardar(List<Fila<T>> lote, List<T> entidades,
+                                             Function<List<T>, BatchResult> guardarLote,
+                                             Consumer<T> guardarUna,
+                                             ToIntFunction<T> id,
+                                             ObjIntConsumer<T> asignarId) {
+        if (guardarLote.apply(entidades).isSuccessful()) {
+            return List.of();
+        }
+        List<Rechazo> fallidas = new ArrayList<>();
+        for (int i = 0; i < entidades.size(); i++) {
+            T entidad = entidades.get(i);
+            asignarId.accept(entidad, 0);
+            guardarUna.accept(entidad);
+            if (id.applyAsInt(entidad) == 0) {
+                Fila<T> fila = lote.get(i);
+                fallidas.add(new Rechazo(fila.linea, fila.texto, "Error de base de datos (¿registro duplicado?)"));
+            }
+        }
+        return fallidas;
+    }
+
+    private static String campo(List<String> campos, Map<String, Integer> columnas, String nombre,
+                                boolean obligatorio) throws FilaInvalidaException {
+        Integer indice = columnas.get(nombre);
+        String valor = indice != null && indice < campos.size() ? campos.get(indice).trim() : null;
+        if (obligatorio && (valor == null || valor.isEmpty())) {
+            throw new FilaInvalidaException("Falta el campo " + nombre);
+        }
+        return valor;
+    }
+
+    private static int entero(String valor, String nombre) throws FilaInvalidaException {
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new FilaInvalidaException("Valor no numérico en " + nombre + ": " + valor);
+        }
+    }
+
+    private static Map<String, Integer> indexarColumnas(String encabezado) {
+        Map<String, Integer> columnas = new HashMap<>();
+        List<String> nombres = Csv.parseLine(encabezado.replace("\uFEFF", ""));
+        for (int i = 0; i < nombres.size(); i++) {
+            columnas.put(nombres.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        return columnas;
+    }
+
+    private static <T> Bloque<T> esperar(Future<Bloque<T>> future) throws InterruptedException, IOException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Error al procesar un bloque del archivo", e.getCause());
+        }
+    }
+
+    private static long escribirRechazos(BufferedWriter writer, List<Rechazo> rechazos) throws IOException {
+        for (Rechazo rechazo : rechazos) {
+            escribirRechazo(writer, rechazo);
+        }
+        return rechazos.size();
+    }
+
+    private static void escribirRechazo(BufferedWriter writer, Rechazo rechazo) throws IOException {
+        writer.write(rechazo.linea + "," + Csv.escape(rechazo.motivo) + "," + Csv.escape(rechazo.texto));
+        writer.newLine();
+    }
+
+    private static void reportarProgreso(String entidad, long importadas, long rechazadas, long inicio) {
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        logger.info("Importando {}: {} filas importadas, {} rechazadas, {} filas/s",
+                entidad, box(importadas), box(rechazadas), box(Math.round(importadas / segundos)));
+    }
+
+    private static ThreadFactory daemonThreads(String prefijo) {
+        AtomicInteger contador = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefijo + "-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @FunctionalInterface
+    private interface RowParser<T> {
+        T parse(List<String> campos, Map<String, Integer> columnas) throws FilaInvalidaException;
+    }
+
+    @FunctionalInterface
+    private interface BatchWriter<T> {
+        List<Rechazo> write(List<Fila<T>> lote);
+    }
+
+    private static final class FilaInvalidaException extends Exception {
+        private FilaInvalidaException(String motivo) {
+            super(motivo, null, false, false);
+        }
+    }
+
+    private static final class Fila<T> {
+        private final long linea;
+        private final String texto;
+        private final T entidad;
+
+        private Fila(long linea, String texto, T entidad) {
+            this.linea = linea;
+            this.texto = texto;
+            this.entidad = entidad;
+        }
+    }
+
+    private static final class Rechazo {
+        private final long linea;
+        private final String texto;
+        private final String motivo;
+
+        private Rechazo(long linea, String texto, String motivo) {
+            this.linea = linea;
+            this.texto = texto;
+            this.motivo = motivo;
+        }
+    }
+
+    private static final class Bloque<T> {
+        private final int lineas;
+        private final boolean ultimo;
+        private final List<Fila<T>> filas;
+        private final List<Rechazo> rechazos = new ArrayList<>();
+
+        private Bloque(int lineas) {
+            this(lineas, false);
+        }
+
+        private Bloque(int lineas, boolean ultimo) {
+            this.lineas = lineas;
+            this.ultimo = ultimo;
+            this.filas = new ArrayList<>(lineas);
+        }
+
+        private static <T> Bloque<T> fin() {
+            return new Bloque<>(0, true);
+        }
+    }
+}
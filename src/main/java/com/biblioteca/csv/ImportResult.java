@@ -0,0 +1,37 @@
+package com.biblioteca.csv;
+
+import java.util.concurrent.TimeUnit;
+
+public class ImportResult {
+    private final long leidas;
+    private final long importadas;
+    private final long rechazadas;
+    private final long elapsedNanos;
+
+    public ImportResult(long leidas, long importadas, long rechazadas, long elapsedNanos) {
+        this.leidas = leidas;
+        this.importadas = importadas;
+        this.rechazadas = rechazadas;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getLeidas() { return leidas; }
+    public long getImportadas() { return importadas; }
+    public long getRechazadas() { return rechazadas; }
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : importadas * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportResult{" +
+                "leidas=" + leidas +
+                ", importadas=" + importadas +
+                ", rechazadas=" + rechazadas +
+                ", elapsedMillis=" + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) +
+                ", rowsPerSecond=" + String.format("%.0f", getRowsPerSecond()) +
+                '}';
+    }
+}
@@ -1,44 +1,132 @@
 package com.biblioteca.dao;
 
+import com.biblioteca.cdc.Cambio;
+import com.biblioteca.cdc.ChangeFeed;
 import com.biblioteca.model.Autor;
+import com.biblioteca.util.ConnectionProvider;
 import com.biblioteca.util.DatabaseConnection;
 import com.biblioteca.util.LoggerUtil;
 import org.apache.logging.log4j.Logger;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.apache.logging.log4j.util.Unbox.box;
 
 public class AutorDAOImpl implements AutorDAO {
     private static final Logger logger = LoggerUtil.getLogger(AutorDAOImpl.class);
-    private final Connection connection;
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final int DEFAULT_FETCH_SIZE = 500;
+    private static final String TABLA = "autores";
+    private static final String INSERT = "INSERT INTO autores (nombre, nacionalidad) VALUES (?, ?)";
+    // id y versión en las mismas posiciones que en UPDATE_SI_VERSION, así se enlazan con bindConVersion
+    private static final String INSERT_CON_ID = "INSERT INTO autores (nombre, nacionalidad, id, version) VALUES (?, ?, ?, ?)";
+    private static final String UPDATE = "UPDATE autores SET nombre = ?, nacionalidad = ?, version = version + 1 WHERE id = ?";
+    private static final String UPDATE_SI_VERSION = "UPDATE autores SET nombre = ?, nacionalidad = ?, " +
+            "version = version + 1 WHERE id = ? AND version = ?";
+    private static final String DELETE_SI_VERSION = "DELETE FROM autores WHERE id = ? AND version = ?";
+    private static final String SELECT_PARA_ESCRITURA = "SELECT * FROM autores WHERE id = ANY(?) FOR UPDATE";
+    private final ConnectionProvider connectionProvider;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+    private volatile ChangeFeed changeFeed;
+    private volatile boolean assignedIds;
 
     public AutorDAOImpl() {
-        this.connection = DatabaseConnection.getConnection();
+        this(DatabaseConnection.getProvider());
+    }
+
+    public AutorDAOImpl(ConnectionProvider connectionProvider) {
+        this.connectionProvider = connectionProvider;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser positivo: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("El tamaño de fetch debe ser positivo: " + fetchSize);
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    public void setChangeFeed(ChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    // Las altas usan el id que ya trae la entidad en lugar del generado por la base (lo usa el
+    // almacenamiento con shards); si el alta falla, el id vuelve a 0 como cuando no se asigna
+    public void enableAssignedIds() {
+        this.assignedIds = true;
     }
 
     @Override
     public Optional<Autor> findById(int id) {
         String sql = "SELECT * FROM autores WHERE id = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setInt(1, id);
             ResultSet resultSet = statement.executeQuery();
             if (resultSet.next()) {
                 return Optional.of(mapResultSetToAutor(resultSet));
             }
         } catch (SQLException e) {
-            logger.error("Error al buscar autor por ID: " + id, e);
+            logger.error("Error al buscar autor por ID: {}", id, e);
         }
         return Optional.empty();
     }
 
+    @Override
+    public List<Autor> findByIds(Collection<Integer> ids) {
+        List<Autor> autores = new ArrayList<>(ids.size());
+        if (ids.isEmpty()) {
+            return autores;
+        }
+        String sql = "SELECT * FROM autores WHERE id = ANY(?)";
+        Map<Integer, Autor> porId = new HashMap<>(ids.size() * 2);
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setObject(1, ids.toArray(new Integer[0]));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    Autor autor = mapResultSetToAutor(resultSet);
+                    porId.put(autor.getId(), autor);
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error al buscar autores por IDs", e);
+        }
+        // Se respeta el orden de los ids recibidos
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            Autor autor = porId.get(id);
+            if (autor != null) {
+                autores.add(autor);
+            }
+        }
+        return autores;
+    }
+
     @Override
     public List<Autor> findAll() {
         List<Autor> autores = new ArrayList<>();
-        String sql = "SELECT * FROM autores";
-        try (Statement statement = connection.createStatement();
-             ResultSet resultSet = statement.executeQuery(sql)) {
+        String sql = "SELECT * FROM autores ORDER BY id";
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet resultSet = statement.executeQuery()) {
             while (resultSet.next()) {
                 autores.add(mapResultSetToAutor(resultSet));
             }
@@ -48,34 +136,78 @@ public class AutorDAOImpl implements AutorDAO {
         return autores;
     }
 
+    @Override
+    public Page<Autor> findAll(PageRequest pageRequest) {
+        String sql = "SELECT * FROM autores WHERE id > ? ORDER BY id LIMIT ?";
+        return queryPage(sql, statement -> {
+            statement.setInt(1, pageRequest.getAfterIdOrMin());
+            statement.setInt(2, pageRequest.getFetchLimit());
+        }, pageRequest, "Error al obtener página de autores después del ID: {}", box(pageRequest.getAfterIdOrMin()));
+    }
+
+    @Override
+    public Stream<Autor> streamAll() {
+        String sql = "SELECT * FROM autores ORDER BY id";
+        try {
+            return JdbcStreams.stream(connectionProvider, sql, fetchSize, statement -> {}, this::mapResultSetToAutor);
+        } catch (SQLException e) {
+            logger.error("Error al recorrer todos los autores", e);
+            return Stream.empty();
+        }
+    }
+
     @Override
     public void save(Autor autor) {
-        String sql = "INSERT INTO autores (nombre, nacionalidad) VALUES (?, ?)";
-        try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            statement.setString(1, autor.getNombre());
-            statement.setString(2, autor.getNacionalidad());
-            statement.executeUpdate();
-            
-            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    autor.setId(generatedKeys.getInt(1));
+        boolean conId = assignedIds;
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement statement = conId ? connection.prepareStatement(INSERT_CON_ID)
+                     : connection.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            if (conId) {
+                bindConVersion(statement, autor);
+                statement.executeUpdate();
+            } else {
+                bindInsert(statement, autor);
+                statement.executeUpdate();
+                try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        autor.setId(generatedKeys.getInt(1));
+                    }
                 }
             }
-            logger.info("Autor guardado: " + autor);
+            if (capturaCambios()) {
+                publicar(Cambio.insert(TABLA, autor.getId(), new Autor(autor)));
+            }
+            logger.info("Autor guardado: {}", autor);
         } catch (SQLException e) {
+            if (conId) {
+                autor.setId(0);
+            }
             logger.error("Error al guardar autor", e);
         }
     }
 
     @Override
     public void update(Autor autor) {
-        String sql = "UPDATE autores SET nombre = ?, nacionalidad = ? WHERE id = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, autor.getNombre());
-            statement.setString(2, autor.getNacionalidad());
-            statement.setInt(3, autor.getId());
-            statement.executeUpdate();
-            logger.info("Autor actualizado: " + autor);
+        try (Connection connection = connectionProvider.getConnection()) {
+            // La imagen previa y la versión nueva se leen en la misma transacción, sin que otra escritura se cuele
+            Autor[] antes = new Autor[1];
+            Integer version = JdbcBatch.inTransaction(connection, () -> {
+                antes[0] = imagenPrevia(connection, autor.getId());
+                try (PreparedStatement statement = connection.prepareStatement(UPDATE)) {
+                    bindUpdate(statement, autor);
+                    if (statement.executeUpdate() == 0) {
+                        return null;
+                    }
+                }
+                return JdbcBatch.versions(connection, TABLA, Collections.singletonList(autor.getId())).get(autor.getId());
+            });
+            if (version != null) {
+                autor.setVersion(version);
+                if (antes[0] != null) {
+                    publicar(Cambio.update(TABLA, autor.getId(), antes[0], new Autor(autor)));
+                }
+            }
+            logger.info("Autor actualizado: {}", autor);
         } catch (SQLException e) {
             logger.error("Error al actualizar autor", e);
         }
@@ -84,36 +216,320 @@ public class AutorDAOImpl implements AutorDAO {
     @Override
     public void delete(int id) {
         String sql = "DELETE FROM autores WHERE id = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, id);
-            statement.executeUpdate();
-            logger.info("Autor eliminado con ID: " + id);
+        try (Connection connection = connectionProvider.getConnection()) {
+            Autor[] antes = new Autor[1];
+            int filas = JdbcBatch.inTransaction(connection, () -> {
+                antes[0] = imagenPrevia(connection, id);
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    statement.setInt(1, id);
+                    return statement.executeUpdate();
+                }
+            });
+            if (filas > 0 && antes[0] != null) {
+                publicar(Cambio.delete(TABLA, id, antes[0]));
+            }
+            logger.info("Autor eliminado con ID: {}", box(id));
+        } catch (SQLException e) {
+            logger.error("Error al eliminar autor con ID: {}", id, e);
+        }
+    }
+
+    @Override
+    public WriteResult updateIfVersion(Autor autor) {
+        try (Connection connection = connectionProvider.getConnection()) {
+            Autor[] antes = new Autor[1];
+            WriteResult resultado = JdbcBatch.inTransaction(connection, () -> {
+                antes[0] = imagenPrevia(connection, autor.getId());
+                int filas;
+                try (PreparedStatement statement = connection.prepareStatement(UPDATE_SI_VERSION)) {
+                    bindConVersion(statement, autor);
+                    filas = statement.executeUpdate();
+                }
+                return JdbcBatch.resolve(connection, TABLA, Collections.singletonList(autor.getId()),
+                        new int[] {filas}).get(0);
+            });
+            if (resultado == WriteResult.APPLIED) {
+                autor.setVersion(autor.getVersion() + 1);
+                if (antes[0] != null) {
+                    publicar(Cambio.update(TABLA, autor.getId(), antes[0], new Autor(autor)));
+                }
+                logger.info("Autor actualizado: {}", autor);
+            } else {
+                logger.warn("Autor no actualizado ({}): {}", resultado, autor);
+            }
+            return resultado;
         } catch (SQLException e) {
-            logger.error("Error al eliminar autor con ID: " + id, e);
+            logger.error("Error al actualizar autor", e);
+            return WriteResult.FAILED;
+        }
+    }
+
+    @Override
+    public WriteResult deleteIfVersion(int id, int version) {
+        try (Connection connection = connectionProvider.getConnection()) {
+            Autor[] antes = new Autor[1];
+            WriteResult resultado = JdbcBatch.inTransaction(connection, () -> {
+                antes[0] = imagenPrevia(connection, id);
+                int filas;
+                try (PreparedStatement statement = connection.prepareStatement(DELETE_SI_VERSION)) {
+                    statement.setInt(1, id);
+                    statement.setInt(2, version);
+                    filas = statement.executeUpdate();
+                }
+                return JdbcBatch.resolve(connection, TABLA, Collections.singletonList(id), new int[] {filas}).get(0);
+            });
+            if (resultado == WriteResult.APPLIED) {
+                if (antes[0] != null) {
+                    publicar(Cambio.delete(TABLA, id, antes[0]));
+                }
+                logger.info("Autor eliminado con ID: {}", box(id));
+            } else {
+                logger.warn("Autor con ID {} no eliminado ({})", box(id), resultado);
+            }
+            return resultado;
+        } catch (SQLException e) {
+            logger.error("Error al eliminar autor con ID: {}", id, e);
+            return WriteResult.FAILED;
         }
     }
 
     @Override
     public List<Autor> findByNacionalidad(String nacionalidad) {
         List<Autor> autores = new ArrayList<>();
-        String sql = "SELECT * FROM autores WHERE nacionalidad = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        String sql = "SELECT * FROM autores WHERE nacionalidad = ? ORDER BY id";
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setString(1, nacionalidad);
             ResultSet resultSet = statement.executeQuery();
             while (resultSet.next()) {
                 autores.add(mapResultSetToAutor(resultSet));
             }
         } catch (SQLException e) {
-            logger.error("Error al buscar autores por nacionalidad: " + nacionalidad, e);
+            logger.error("Error al buscar autores por nacionalidad: {}", nacionalidad, e);
         }
         return autores;
     }
 
+    @Override
+    public Page<Autor> findByNacionalidad(String nacionalidad, PageRequest pageRequest) {
+        String sql = "SELECT * FROM autores WHERE nacionalidad = ? AND id > ? ORDER BY id LIMIT ?";
+        return queryPage(sql, statement -> {
+            statement.setString(1, nacionalidad);
+            statement.setInt(2, pageRequest.getAfterIdOrMin());
+            statement.setInt(3, pageRequest.getFetchLimit());
+        }, pageRequest, "Error al buscar página de autores por nacionalidad: {}", nacionalidad);
+    }
+
+    @Override
+    public BatchResult saveAll(Collection<Autor> autores) {
+        boolean conId = assignedIds;
+        long start = System.nanoTime();
+        try (Connection connection = connectionProvider.getConnection()) {
+            int rows = conId
+                    ? JdbcBatch.execute(connection, INSERT_CON_ID, autores, batchSize, this::bindConVersion, null)
+                    : JdbcBatch.execute(connection, INSERT, autores, batchSize, this::bindInsert, Autor::setId);
+            BatchResult result = new BatchResult(rows, System.nanoTime() - start, true);
+            if (capturaCambios()) {
+                autores.forEach(autor -> publicar(Cambio.insert(TABLA, autor.getId(), new Autor(autor))));
+            }
+            logger.info("Autores guardados en lote: {}", result);
+            return result;
+        } catch (SQLException e) {
+            // También los ids generados antes del error: el lote se deshizo entero
+            autores.forEach(autor -> autor.setId(0));
+            logger.error("Error al guardar autores en lote", e);
+            return BatchResult.failed(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public BatchResult updateAll(Collection<Autor> autores) {
+        List<Integer> ids = autores.stream().map(Autor::getId).collect(Collectors.toList());
+        long start = System.nanoTime();
+        try (Connection connection = connectionProvider.getConnection()) {
+            int[] rows = new int[1];
+            Map<Integer, Autor> antes = new HashMap<>();
+            Map<Integer, Integer> versiones = JdbcBatch.inTransaction(connection, () -> {
+                antes.putAll(imagenesPrevias(connection, ids));
+                rows[0] = JdbcBatch.execute(connection, UPDATE, autores, batchSize, this::bindUpdate, null);
+                return JdbcBatch.versions(connection, TABLA, ids);
+            });
+            BatchResult result = new BatchResult(rows[0], System.nanoTime() - start, true);
+            for (Autor autor : autores) {
+                Integer version = versiones.get(autor.getId());
+                if (version != null) {
+                    autor.setVersion(version);
+                }
+                Autor previo = antes.get(autor.getId());
+                if (previo != null && version != null) {
+                    publicar(Cambio.update(TABLA, autor.getId(), previo, new Autor(autor)));
+                }
+            }
+            logger.info("Autores actualizados en lote: {}", result);
+            return result;
+        } catch (SQLException e) {
+            logger.error("Error al actualizar autores en lote", e);
+            return BatchResult.failed(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public BatchResult deleteAll(int[] ids) {
+        String sql = "DELETE FROM autores WHERE id = ?";
+        long start = System.nanoTime();
+        try (Connection connection = connectionProvider.getConnection()) {
+            List<Integer> idList = Arrays.stream(ids).boxed().collect(Collectors.toList());
+            Map<Integer, Autor> antes = new HashMap<>();
+            int rows = JdbcBatch.inTransaction(connection, () -> {
+                antes.putAll(imagenesPrevias(connection, idList));
+                return JdbcBatch.execute(connection, sql, idList, batchSize,
+                        (statement, id) -> statement.setInt(1, id), null);
+            });
+            BatchResult result = new BatchResult(rows, System.nanoTime() - start, true);
+            antes.forEach((id, previo) -> publicar(Cambio.delete(TABLA, id, previo)));
+            logger.info("Autores eliminados en lote: {}", result);
+            return result;
+        } catch (SQLException e) {
+            logger.error("Error al eliminar autores en lote", e);
+            return BatchResult.failed(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public VersionedBatchResult updateAllIfVersion(Collection<Autor> autores) {
+        List<Integer> ids = autores.stream().map(Autor::getId).collect(Collectors.toList());
+        long start = System.nanoTime();
+        try (Connection connection = connectionProvider.getConnection()) {
+            Map<Integer, Autor> antes = new HashMap<>();
+            List<WriteResult> resultados = JdbcBatch.inTransaction(connection, () -> {
+                antes.putAll(imagenesPrevias(connection, ids));
+                int[] filas = JdbcBatch.executeEach(connection, UPDATE_SI_VERSION, autores, batchSize, this::bindConVersion);
+                return JdbcBatch.resolve(connection, TABLA, ids, filas);
+            });
+            VersionedBatchResult result = new VersionedBatchResult(resultados, System.nanoTime() - start, true);
+            int i = 0;
+            for (Autor autor : autores) {
+                if (resultados.get(i++) == WriteResult.APPLIED) {
+                    autor.setVersion(autor.getVersion() + 1);
+                    Autor previo = antes.get(autor.getId());
+                    if (previo != null) {
+                        publicar(Cambio.update(TABLA, autor.getId(), previo, new Autor(autor)));
+                    }
+                }
+            }
+            logger.info("Autores actualizados en lote con control de versión: {}", result);
+            return result;
+        } catch (SQLException e) {
+            logger.error("Error al actualizar autores en lote", e);
+            return VersionedBatchResult.failed(autores.size(), System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public VersionedBatchResult deleteAllIfVersion(Collection<Autor> autores) {
+        List<Integer> ids = autores.stream().map(Autor::getId).collect(Collectors.toList());
+        long start = System.nanoTime();
+        try (Connection connection = connectionProvider.getConnection()) {
+            Map<Integer, Autor> antes = new HashMap<>();
+            List<WriteResult> resultados = JdbcBatch.inTransaction(connection, () -> {
+                antes.putAll(imagenesPrevias(connection, ids));
+                int[] filas = JdbcBatch.executeEach(connection, DELETE_SI_VERSION, autores, batchSize,
+                        (statement, autor) -> {
+                            statement.setInt(1, autor.getId());
+                            statement.setInt(2, autor.getVersion());
+                        });
+                return JdbcBatch.resolve(connection, TABLA, ids, filas);
+            });
+            VersionedBatchResult result = new VersionedBatchResult(resultados, System.nanoTime() - start, true);
+            for (int i = 0; i < ids.size(); i++) {
+                Autor previo = antes.get(ids.get(i));
+                if (resultados.get(i) == WriteResult.APPLIED && previo != null) {
+                    publicar(Cambio.delete(TABLA, ids.get(i), previo));
+                }
+            }
+            logger.info("Autores eliminados en lote con control de versión: {}", result);
+            return result;
+        } catch (SQLException e) {
+            logger.error("Error al eliminar autores en lote", e);
+            return VersionedBatchResult.failed(autores.size(), System.nanoTime() - start);
+        }
+    }
+
+    // Las imágenes previas y las copias sólo se arman si alguien escucha el canal de cambios
+    private boolean capturaCambios() {
+        ChangeFeed feed = changeFeed;
+        return feed != null && feed.hasSubscribers();
+    }
+
+    private Autor imagenPrevia(Connection connection, int id) throws SQLException {
+        return imagenesPrevias(connection, Collections.singletonList(id)).get(id);
+    }
+
+    // Se leen en la transacción de la escritura y con FOR UPDATE: nadie cambia las filas entre la
+    // imagen previa y la escritura, y si la escritura se deshace no se publica nada
+    private Map<Integer, Autor> imagenesPrevias(Connection connection, Collection<Integer> ids) throws SQLException {
+        if (!capturaCambios() || ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Integer, Autor> imagenes = new HashMap<>(ids.size() * 2);
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_PARA_ESCRITURA)) {
+            statement.setObject(1, ids.toArray(new Integer[0]));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    Autor autor = mapResultSetToAutor(resultSet);
+                    imagenes.put(autor.getId(), autor);
+                }
+            }
+        }
+        return imagenes;
+    }
+
+    private void publicar(Cambio<Autor> cambio) {
+        ChangeFeed feed = changeFeed;
+        if (feed != null) {
+            feed.publish(cambio);
+        }
+    }
+
+    private void bindInsert(PreparedStatement statement, Autor autor) throws SQLException {
+        statement.setString(1, autor.getNombre());
+        statement.setString(2, autor.getNacionalidad());
+    }
+
+    private void bindUpdate(PreparedStatement statement, Autor autor) throws SQLException {
+        statement.setString(1, autor.getNombre());
+        statement.setString(2, autor.getNacionalidad());
+        statement.setInt(3, autor.getId());
+    }
+
+    private void bindConVersion(PreparedStatement statement, Autor autor) throws SQLException {
+        bindUpdate(statement, autor);
+        statement.setInt(4, autor.getVersion());
+    }
+
+    private Page<Autor> queryPage(String sql, JdbcStreams.Parameters parameters, PageRequest pageRequest,
+                                  String errorMessage, Object errorParam) {
+        List<Autor> autores = new ArrayList<>(pageRequest.getFetchLimit());
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            parameters.apply(statement);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    autores.add(mapResultSetToAutor(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error(errorMessage, errorParam, e);
+        }
+        return Page.fromSlice(autores, pageRequest, ultimo -> PageRequest.after(ultimo.getId(), pageRequest.getSize()));
+    }
+
     private Autor mapResultSetToAutor(ResultSet resultSet) throws SQLException {
         Autor autor = new Autor();
         autor.setId(resultSet.getInt("id"));
         autor.setNombre(resultSet.getString("nombre"));
         autor.setNacionalidad(resultSet.getString("nacionalidad"));
+        autor.setVersion(resultSet.getInt("version"));
         return autor;
     }
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.biblioteca.dao;
+
+import com.biblioteca.model.Autor;
+import java.util.List;
+
+public interface AutorReadOnlyDAO extends ReadOnlyDAO<Autor> {
+    List<Autor> findByNacionalidad(String nacionalidad);
+    Page<Autor> findByNacionalidad(String nacionalidad, PageRequest pageRequest);
+}
@@ -0,0 +1,44 @@
+package com.biblioteca.dao;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resultado de una operación por lotes: filas afectadas, duración y throughput.
+ */
+public class BatchResult {
+    private final int rows;
+    private final long elapsedNanos;
+    private final boolean successful;
+
+    public BatchResult(int rows, long elapsedNanos, boolean successful) {
+        this.rows = rows;
+        this.elapsedNanos = elapsedNanos;
+        this.successful = successful;
+    }
+
+    public static BatchResult failed(long elapsedNanos) {
+        return new BatchResult(0, elapsedNanos, false);
+    }
+
+    public int getRows() { return rows; }
+    public long getElapsedNanos() { return elapsedNanos; }
+    public boolean isSuccessful() { return successful; }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rows * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{" +
+                "rows=" + rows +
+                ", elapsedMillis=" + getElapsedMillis() +
+                ", rowsPerSecond=" + String.format("%.0f", getRowsPerSecond()) +
+                ", successful=" + successful +
+                '}';
+    }
+}
@@ -0,0 +1,58 @@
+package com.biblioteca.dao;
+
+import java.util.Arrays;
+
+/**
+ * Cantidades por clave de texto (por ejemplo, autores por nacionalidad) en dos arreglos
+ * paralelos. Las filas quedan en el orden de la consulta que lo generó.
+ */
+public final class ConteoPorClave {
+    private final String[] claves;
+    private final int[] cantidades;
+
+    public ConteoPorClave(String[] claves, int[] cantidades) {
+        if (claves.length != cantidades.length) {
+            throw new IllegalArgumentException("claves y cantidades deben tener el mismo largo");
+        }
+        this.claves = claves;
+        this.cantidades = cantidades;
+    }
+
+    public int size() {
+        return claves.length;
+    }
+
+    public String getClave(int fila) {
+        return claves[fila];
+    }
+
+    public int getCantidad(int fila) {
+        return cantidades[fila];
+    }
+
+    // Cantidad de la clave indicada, o 0 si no figura; recorre las filas
+    public int cantidadDe(String clave) {
+        for (int fila = 0; fila < claves.length; fila++) {
+            if (claves[fila].equals(clave)) {
+                return cantidades[fila];
+            }
+        }
+        return 0;
+    }
+
+    public long getTotal() {
+        long total = 0;
+        for (int cantidad : cantidades) {
+            total += cantidad;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "ConteoPorClave{" +
+                "claves=" + Arrays.toString(claves) +
+                ", cantidades=" + Arrays.toString(cantidades) +
+                '}';
+    }
+}
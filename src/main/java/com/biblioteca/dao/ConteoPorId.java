@@ -0,0 +1,58 @@
+package com.biblioteca.dao;
+
+import java.util.Arrays;
+
+/**
+ * Cantidades por id (por ejemplo, libros por autor) en dos arreglos paralelos, sin un objeto
+ * por fila. Las filas quedan en el orden de la consulta que lo generó.
+ */
+public final class ConteoPorId {
+    private final int[] ids;
+    private final int[] cantidades;
+
+    public ConteoPorId(int[] ids, int[] cantidades) {
+        if (ids.length != cantidades.length) {
+            throw new IllegalArgumentException("ids y cantidades deben tener el mismo largo");
+        }
+        this.ids = ids;
+        this.cantidades = cantidades;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int getId(int fila) {
+        return ids[fila];
+    }
+
+    public int getCantidad(int fila) {
+        return cantidades[fila];
+    }
+
+    // Cantidad del id indicado, o 0 si no figura; recorre las filas
+    public int cantidadDe(int id) {
+        for (int fila = 0; fila < ids.length; fila++) {
+            if (ids[fila] == id) {
+                return cantidades[fila];
+            }
+        }
+        return 0;
+    }
+
+    public long getTotal() {
+        long total = 0;
+        for (int cantidad : cantidades) {
+            total += cantidad;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "ConteoPorId{" +
+                "ids=" + Arrays.toString(ids) +
+                ", cantidades=" + Arrays.toString(cantidades) +
+                '}';
+    }
+}
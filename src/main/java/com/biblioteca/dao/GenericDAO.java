@@ -1,12 +1,20 @@
 package com.biblioteca.dao;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.Collection;
 
-public interface GenericDAO<T> {
-    Optional<T> findById(int id);
-    List<T> findAll();
+public interface GenericDAO<T> extends ReadOnlyDAO<T> {
     void save(T entity);
     void update(T entity);
     void delete(int id);
-}
\ No newline at end of file
+    // Si el lote falla, las entidades que quedaron con id 0 no se guardaron; las que conservan
+    // su id sí (con shards, cada uno confirma su parte por separado)
+    BatchResult saveAll(Collection<T> entities);
+    BatchResult updateAll(Collection<T> entities);
+    BatchResult deleteAll(int[] ids);
+    // Escrituras condicionadas a la versión leída: no pisan cambios ajenos. Un update aplicado
+    // deja en la entidad la versión nueva; update y delete sin condición no la verifican.
+    WriteResult updateIfVersion(T entity);
+    WriteResult deleteIfVersion(int id, int version);
+    VersionedBatchResult updateAllIfVersion(Collection<T> entities);
+    VersionedBatchResult deleteAllIfVersion(Collection<T> entities);
+}
@@ -0,0 +1,65 @@
+package com.biblioteca.dao;
+
+import java.util.Arrays;
+
+/**
+ * Histograma de intervalos consecutivos de igual ancho: el intervalo i cubre
+ * [inicio + i * ancho, inicio + (i + 1) * ancho). Los intervalos intermedios sin datos
+ * figuran con cantidad 0, así que el arreglo es denso entre el primero y el último con datos.
+ */
+public final class Histograma {
+    private final int inicio;
+    private final int ancho;
+    private final int[] cantidades;
+
+    public Histograma(int inicio, int ancho, int[] cantidades) {
+        if (ancho < 1) {
+            throw new IllegalArgumentException("El ancho del intervalo debe ser positivo: " + ancho);
+        }
+        this.inicio = inicio;
+        this.ancho = ancho;
+        this.cantidades = cantidades;
+    }
+
+    public static Histograma vacio(int ancho) {
+        return new Histograma(0, ancho, new int[0]);
+    }
+
+    public int getInicio() { return inicio; }
+    public int getAncho() { return ancho; }
+
+    public int size() {
+        return cantidades.length;
+    }
+
+    public int getInicioIntervalo(int i) {
+        return inicio + i * ancho;
+    }
+
+    public int getCantidad(int i) {
+        return cantidades[i];
+    }
+
+    // Cantidad del intervalo que contiene el valor, o 0 si queda fuera del histograma
+    public int cantidadPara(int valor) {
+        int i = Math.floorDiv(valor - inicio, ancho);
+        return i >= 0 && i < cantidades.length ? cantidades[i] : 0;
+    }
+
+    public long getTotal() {
+        long total = 0;
+        for (int cantidad : cantidades) {
+            total += cantidad;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "Histograma{" +
+                "inicio=" + inicio +
+                ", ancho=" + ancho +
+                ", cantidades=" + Arrays.toString(cantidades) +
+                '}';
+    }
+}
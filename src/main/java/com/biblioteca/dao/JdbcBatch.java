@@ -0,0 +1,191 @@
+package com.biblioteca.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ejecución de sentencias con addBatch/executeBatch en bloques de tamaño fijo dentro de una
+ * única transacción. Si la conexión ya participa de una transacción no se hace commit aquí.
+ */
+final class JdbcBatch {
+
+    @FunctionalInterface
+    interface StatementBinder<T> {
+        void bind(PreparedStatement statement, T item) throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface KeyConsumer<T> {
+        void accept(T item, int generatedKey);
+    }
+
+    @FunctionalInterface
+    interface Work<R> {
+        R run() throws SQLException;
+    }
+
+    private JdbcBatch() {}
+
+    static <T> int execute(Connection connection, String sql, Collection<T> items, int batchSize,
+                           StatementBinder<T> binder, KeyConsumer<T> keyConsumer) throws SQLException {
+        return inTransaction(connection, () -> {
+            if (keyConsumer != null) {
+                try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    return executeChunks(statement, items, batchSize, binder, keyConsumer, null);
+                }
+            }
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                return executeChunks(statement, items, batchSize, binder, null, null);
+            }
+        });
+    }
+
+    /**
+     * Como {@link #execute} pero devuelve las filas afectadas por cada elemento, en el orden
+     * recibido. Lo usan las escrituras condicionadas a la versión, donde 0 es un conflicto o
+     * una fila inexistente (ver {@link #resolve}).
+     */
+    static <T> int[] executeEach(Connection connection, String sql, Collection<T> items, int batchSize,
+                                 StatementBinder<T> binder) throws SQLException {
+        int[] counts = new int[items.size()];
+        inTransaction(connection, () -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                return executeChunks(statement, items, batchSize, binder, null, counts);
+            }
+        });
+        return counts;
+    }
+
+    // Versión actual de cada id; los que no existen no figuran en el mapa
+    static Map<Integer, Integer> versions(Connection connection, String table, Collection<Integer> ids)
+            throws SQLException {
+        Map<Integer, Integer> versions = new HashMap<>(ids.size() * 2);
+        if (ids.isEmpty()) {
+            return versions;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT id, version FROM " + table + " WHERE id = ANY(?)")) {
+            statement.setObject(1, ids.toArray(new Integer[0]));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    versions.put(resultSet.getInt(1), resultSet.getInt(2));
+                }
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * Traduce las filas afectadas por cada escritura condicional a su {@link WriteResult}: las que
+     * no afectaron ninguna fila se buscan por id para distinguir un conflicto de versión de una
+     * fila que no existe.
+     */
+    static List<WriteResult> resolve(Connection connection, String table, List<Integer> ids, int[] counts)
+            throws SQLException {
+        List<Integer> missed = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                missed.add(ids.get(i));
+            }
+        }
+        Set<Integer> existing = new HashSet<>(missed.size() * 2);
+        if (!missed.isEmpty()) {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT id FROM " + table + " WHERE id = ANY(?)")) {
+                statement.setObject(1, missed.toArray(new Integer[0]));
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        existing.add(resultSet.getInt(1));
+                    }
+                }
+            }
+        }
+        List<WriteResult> results = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                results.add(WriteResult.APPLIED);
+            } else {
+                results.add(existing.contains(ids.get(i)) ? WriteResult.CONFLICT : WriteResult.NOT_FOUND);
+            }
+        }
+        return results;
+    }
+
+    // Ejecuta work en una transacción propia si la conexión está en autocommit, o en la abierta si no
+    static <R> R inTransaction(Connection connection, Work<R> work) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        if (autoCommit) {
+            connection.setAutoCommit(false);
+        }
+        try {
+            R result = work.run();
+            if (autoCommit) {
+                connection.commit();
+            }
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            if (autoCommit) {
+                connection.rollback();
+            }
+            throw e;
+        } finally {
+            if (autoCommit) {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static <T> int executeChunks(PreparedStatement statement, Collection<T> items, int batchSize,
+                                         StatementBinder<T> binder, KeyConsumer<T> keyConsumer,
+                                         int[] counts) throws SQLException {
+        int rows = 0;
+        int done = 0;
+        List<T> chunk = new ArrayList<>(Math.min(batchSize, items.size()));
+        for (T item : items) {
+            binder.bind(statement, item);
+            statement.addBatch();
+            chunk.add(item);
+            if (chunk.size() == batchSize) {
+                rows += flush(statement, chunk, keyConsumer, counts, done);
+                done += chunk.size();
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            rows += flush(statement, chunk, keyConsumer, counts, done);
+        }
+        return rows;
+    }
+
+    private static <T> int flush(PreparedStatement statement, List<T> chunk, KeyConsumer<T> keyConsumer,
+                                 int[] counts, int offset) throws SQLException {
+        int rows = 0;
+        int[] batchCounts = statement.executeBatch();
+        for (int i = 0; i < batchCounts.length; i++) {
+            int count = batchCounts[i] == Statement.SUCCESS_NO_INFO ? 1 : Math.max(batchCounts[i], 0);
+            rows += count;
+            if (counts != null) {
+                counts[offset + i] = count;
+            }
+        }
+        if (keyConsumer != null) {
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                int index = 0;
+                while (generatedKeys.next() && index < chunk.size()) {
+                    keyConsumer.accept(chunk.get(index++), generatedKeys.getInt(1));
+                }
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,107 @@
+package com.biblioteca.dao;
+
+import com.biblioteca.util.ConnectionProvider;
+import com.biblioteca.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Consultas que se recorren como {@link Stream} sobre un ResultSet de sólo avance, sin
+ * materializar las filas. La conexión queda prestada hasta que se cierra el stream, por lo
+ * que siempre debe usarse dentro de un try-with-resources.
+ */
+final class JdbcStreams {
+    private static final Logger logger = LoggerUtil.getLogger(JdbcStreams.class);
+
+    @FunctionalInterface
+    interface Parameters {
+        void apply(PreparedStatement statement) throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface RowMapper<T> {
+        T map(ResultSet resultSet) throws SQLException;
+    }
+
+    private JdbcStreams() {}
+
+    static <T> Stream<T> stream(ConnectionProvider provider, String sql, int fetchSize,
+                                Parameters parameters, RowMapper<T> mapper) throws SQLException {
+        Connection connection = provider.getConnection();
+        PreparedStatement statement = null;
+        try {
+            // Sin ejecución diferida H2 materializa el resultado completo antes de devolverlo
+            setLazyExecution(connection, true);
+            statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            parameters.apply(statement);
+            ResultSet resultSet = statement.executeQuery();
+            PreparedStatement openStatement = statement;
+            return StreamSupport.stream(new ResultSetSpliterator<>(resultSet, mapper), false)
+                    .onClose(() -> close(connection, openStatement, resultSet));
+        } catch (SQLException | RuntimeException e) {
+            close(connection, statement, null);
+            throw e;
+        }
+    }
+
+    private static void setLazyExecution(Connection connection, boolean lazy) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LAZY_QUERY_EXECUTION " + (lazy ? "TRUE" : "FALSE"));
+        }
+    }
+
+    private static void close(Connection connection, Statement statement, ResultSet resultSet) {
+        try {
+            if (resultSet != null) {
+                resultSet.close();
+            }
+            if (statement != null) {
+                statement.close();
+            }
+            setLazyExecution(connection, false);
+        } catch (SQLException e) {
+            logger.warn("Error al cerrar el recorrido de resultados", e);
+        } finally {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                logger.warn("Error al devolver la conexión del recorrido", e);
+            }
+        }
+    }
+
+    private static final class ResultSetSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+        private final ResultSet resultSet;
+        private final RowMapper<T> mapper;
+
+        private ResultSetSpliterator(ResultSet resultSet, RowMapper<T> mapper) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.resultSet = resultSet;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            try {
+                if (!resultSet.next()) {
+                    return false;
+                }
+                action.accept(mapper.map(resultSet));
+                return true;
+            } catch (SQLException e) {
+                throw new RuntimeException("Error al recorrer los resultados", e);
+            }
+        }
+    }
+}
@@ -1,11 +1,9 @@
 package com.biblioteca.dao;
 
 import com.biblioteca.model.Libro;
-import java.time.LocalDate;
-import java.util.List;
+import java.util.Collection;
 
-public interface LibroDAO extends GenericDAO<Libro> {
-    List<Libro> findByTitulo(String titulo);
-    List<Libro> findByFechaPublicacionAfter(LocalDate fecha);
-    List<Libro> findByAutorId(int autorId);
+public interface LibroDAO extends GenericDAO<Libro>, LibroReadOnlyDAO {
+    // Inserta los libros cuyo ISBN no existe y actualiza los demás; deja asignado el id de cada uno
+    BatchResult upsertByIsbn(Collection<Libro> libros);
 }
\ No newline at end of file
@@ -1,6 +1,13 @@
 package com.biblioteca.dao;
 
+import com.biblioteca.cdc.Cambio;
+import com.biblioteca.cdc.ChangeFeed;
+import com.biblioteca.model.Autor;
 import com.biblioteca.model.Libro;
+import com.biblioteca.model.LibroConAutor;
+import com.biblioteca.search.TituloIndex;
+import com.biblioteca.tx.TransactionManager;
+import com.biblioteca.util.ConnectionProvider;
 import com.biblioteca.util.DatabaseConnection;
 import com.biblioteca.util.LoggerUtil;
 import org.apache.logging.log4j.Logger;
@@ -8,38 +15,184 @@ import org.apache.logging.log4j.Logger;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.apache.logging.log4j.util.Unbox.box;
 
 public class LibroDAOImpl implements LibroDAO {
     private static final Logger logger = LoggerUtil.getLogger(LibroDAOImpl.class);
-    private final Connection connection;
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final int DEFAULT_FETCH_SIZE = 500;
+    private static final String TABLA = "libros";
+    private static final String INSERT = "INSERT INTO libros (titulo, isbn, fecha_publicacion, autor_id) VALUES (?, ?, ?, ?)";
+    // id y versión en las mismas posiciones que en UPDATE_SI_VERSION, así se enlazan con bindConVersion
+    private static final String INSERT_CON_ID = "INSERT INTO libros (titulo, isbn, fecha_publicacion, autor_id, id, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE = "UPDATE libros SET titulo = ?, isbn = ?, fecha_publicacion = ?, autor_id = ?, " +
+            "version = version + 1 WHERE id = ?";
+    private static final String UPDATE_SI_VERSION = "UPDATE libros SET titulo = ?, isbn = ?, fecha_publicacion = ?, " +
+            "autor_id = ?, version = version + 1 WHERE id = ? AND version = ?";
+    private static final String DELETE_SI_VERSION = "DELETE FROM libros WHERE id = ? AND version = ?";
+    // Mismo orden que TituloIndex con o sin índice; RELEVANCIA_TITULO se registra en la migración V5
+    private static final String SELECT_POR_TITULO = "SELECT * FROM (SELECT l.*, RELEVANCIA_TITULO(l.titulo, ?) " +
+            "AS relevancia FROM libros l) t WHERE relevancia >= 0";
+    // La clave de orden es (fecha_publicacion, id) para que las fechas repetidas no se pierdan entre páginas.
+    // H2 no arma el rango del índice con la comparación de filas (fecha_publicacion, id) > (?, ?), así que
+    // el ">=" sobre la fecha del cursor es el que hace que cada página empiece a recorrer desde ahí
+    // Inserta si el ISBN no existe y actualiza, con la versión, sólo si algún dato cambió: reenviar
+    // el mismo libro no escribe la fila ni invalida la versión que tienen los clientes
+    private static final String UPSERT_POR_ISBN = "MERGE INTO libros l USING (VALUES (CAST(? AS VARCHAR(100)), " +
+            "CAST(? AS VARCHAR(20)), CAST(? AS DATE), CAST(? AS INT))) v (titulo, isbn, fecha_publicacion, autor_id) " +
+            "ON l.isbn = v.isbn " +
+            "WHEN MATCHED AND (l.titulo IS DISTINCT FROM v.titulo " +
+            "OR l.fecha_publicacion IS DISTINCT FROM v.fecha_publicacion OR l.autor_id IS DISTINCT FROM v.autor_id) " +
+            "THEN UPDATE SET titulo = v.titulo, fecha_publicacion = v.fecha_publicacion, autor_id = v.autor_id, " +
+            "version = l.version + 1 " +
+            "WHEN NOT MATCHED THEN INSERT (titulo, isbn, fecha_publicacion, autor_id) " +
+            "VALUES (v.titulo, v.isbn, v.fecha_publicacion, v.autor_id)";
+    static final String SELECT_PAGINA_POR_FECHA = "SELECT * FROM libros WHERE fecha_publicacion >= ? " +
+            "AND (fecha_publicacion > ? OR id > ?) ORDER BY fecha_publicacion, id LIMIT ?";
+    // Un único SELECT con JOIN evita una consulta de autor por cada libro listado
+    private static final String SELECT_CON_AUTOR = "SELECT l.*, a.nombre AS autor_nombre, " +
+            "a.nacionalidad AS autor_nacionalidad, a.version AS autor_version " +
+            "FROM libros l LEFT JOIN autores a ON a.id = l.autor_id";
+    private final ConnectionProvider connectionProvider;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+    private volatile ChangeFeed changeFeed;
+    private volatile boolean assignedIds;
+    private volatile TituloIndex tituloIndex;
 
     public LibroDAOImpl() {
-        this.connection = DatabaseConnection.getConnection();
+        this(DatabaseConnection.getProvider());
+    }
+
+    public LibroDAOImpl(ConnectionProvider connectionProvider) {
+        this.connectionProvider = connectionProvider;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser positivo: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("El tamaño de fetch debe ser positivo: " + fetchSize);
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    public void setChangeFeed(ChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    // Las altas usan el id que ya trae la entidad en lugar del generado por la base (lo usa el
+    // almacenamiento con shards); si el alta falla, el id vuelve a 0 como cuando no se asigna.
+    // upsertByIsbn sigue dejando que la base genere los ids
+    public void enableAssignedIds() {
+        this.assignedIds = true;
+    }
+
+    // Construye el índice de títulos en memoria; desde entonces findByTitulo no recorre la tabla y
+    // devuelve lo mismo que la consulta por SQL, en el mismo orden.
+    // El índice sólo ve las escrituras hechas a través de esta instancia.
+    public void enableTituloIndex() {
+        TituloIndex index = new TituloIndex();
+        try (Stream<Libro> libros = streamAll()) {
+            libros.forEach(libro -> index.add(libro.getId(), libro.getTitulo()));
+        }
+        this.tituloIndex = index;
+        logger.info("Índice de títulos construido con {} libros", index.size());
     }
 
     @Override
     public Optional<Libro> findById(int id) {
         String sql = "SELECT * FROM libros WHERE id = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setInt(1, id);
             ResultSet resultSet = statement.executeQuery();
             if (resultSet.next()) {
                 return Optional.of(mapResultSetToLibro(resultSet));
             }
         } catch (SQLException e) {
-            logger.error("Error al buscar libro por ID: " + id, e);
+            logger.error("Error al buscar libro por ID: {}", id, e);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public List<Libro> findByIds(Collection<Integer> ids) {
+        return findByIdsInOrder(ids.stream().mapToInt(Integer::intValue).distinct().toArray());
+    }
+
+    @Override
+    public Optional<Libro> findByIsbn(String isbn) {
+        String sql = "SELECT * FROM libros WHERE isbn = ?";
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, isbn);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return Optional.of(mapResultSetToLibro(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error al buscar libro por ISBN: {}", isbn, e);
         }
         return Optional.empty();
     }
 
+    @Override
+    public List<Libro> findByIsbns(Collection<String> isbns) {
+        List<Libro> libros = new ArrayList<>(isbns.size());
+        if (isbns.isEmpty()) {
+            return libros;
+        }
+        String sql = "SELECT * FROM libros WHERE isbn = ANY(?)";
+        Map<String, Libro> porIsbn = new HashMap<>(isbns.size() * 2);
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setObject(1, isbns.toArray(new String[0]));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    Libro libro = mapResultSetToLibro(resultSet);
+                    porIsbn.put(libro.getIsbn(), libro);
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error al buscar libros por ISBN", e);
+        }
+        // Se respeta el orden de los ISBN recibidos
+        for (String isbn : new LinkedHashSet<>(isbns)) {
+            Libro libro = porIsbn.get(isbn);
+            if (libro != null) {
+                libros.add(libro);
+            }
+        }
+        return libros;
+    }
+
     @Override
     public List<Libro> findAll() {
         List<Libro> libros = new ArrayList<>();
-        String sql = "SELECT * FROM libros";
-        try (Statement statement = connection.createStatement();
-             ResultSet resultSet = statement.executeQuery(sql)) {
+        String sql = "SELECT * FROM libros ORDER BY id";
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet resultSet = statement.executeQuery()) {
             while (resultSet.next()) {
                 libros.add(mapResultSetToLibro(resultSet));
             }
@@ -49,38 +202,80 @@ public class LibroDAOImpl implements LibroDAO {
         return libros;
     }
 
+    @Override
+    public Page<Libro> findAll(PageRequest pageRequest) {
+        String sql = "SELECT * FROM libros WHERE id > ? ORDER BY id LIMIT ?";
+        return queryPage(sql, statement -> {
+            statement.setInt(1, pageRequest.getAfterIdOrMin());
+            statement.setInt(2, pageRequest.getFetchLimit());
+        }, pageRequest, false, "Error al obtener página de libros después del ID: {}", box(pageRequest.getAfterIdOrMin()));
+    }
+
+    @Override
+    public Stream<Libro> streamAll() {
+        String sql = "SELECT * FROM libros ORDER BY id";
+        try {
+            return JdbcStreams.stream(connectionProvider, sql, fetchSize, statement -> {}, this::mapResultSetToLibro);
+        } catch (SQLException e) {
+            logger.error("Error al recorrer todos los libros", e);
+            return Stream.empty();
+        }
+    }
+
     @Override
     public void save(Libro libro) {
-        String sql = "INSERT INTO libros (titulo, isbn, fecha_publicacion, autor_id) VALUES (?, ?, ?, ?)";
-        try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            statement.setString(1, libro.getTitulo());
-            statement.setString(2, libro.getIsbn());
-            statement.setDate(3, Date.valueOf(libro.getFechaPublicacion()));
-            statement.setInt(4, libro.getAutorId());
-            statement.executeUpdate();
-            
-            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    libro.setId(generatedKeys.getInt(1));
+        boolean conId = assignedIds;
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement statement = conId ? connection.prepareStatement(INSERT_CON_ID)
+                     : connection.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            if (conId) {
+                bindConVersion(statement, libro);
+                statement.executeUpdate();
+            } else {
+                bindInsert(statement, libro);
+                statement.executeUpdate();
+                try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        libro.setId(generatedKeys.getInt(1));
+                    }
                 }
             }
-            logger.info("Libro guardado: " + libro);
+            indexar(libro);
+            if (capturaCambios()) {
+                publicar(Cambio.insert(TABLA, libro.getId(), new Libro(libro)));
+            }
+            logger.info("Libro guardado: {}", libro);
         } catch (SQLException e) {
+            if (conId) {
+                libro.setId(0);
+            }
             logger.error("Error al guardar libro", e);
         }
     }
 
     @Override
     public void update(Libro libro) {
-        String sql = "UPDATE libros SET titulo = ?, isbn = ?, fecha_publicacion = ?, autor_id = ? WHERE id = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, libro.getTitulo());
-            statement.setString(2, libro.getIsbn());
-            statement.setDate(3, Date.valueOf(libro.getFechaPublicacion()));
-            statement.setInt(4, libro.getAutorId());
-            statement.setInt(5, libro.getId());
-            statement.executeUpdate();
-            logger.info("Libro actualizado: " + libro);
+        try (Connection connection = connectionProvider.getConnection()) {
+            // La imagen previa y la versión nueva se leen en la misma transacción, sin que otra escritura se cuele
+            Libro[] antes = new Libro[1];
+            Integer version = JdbcBatch.inTransaction(connection, () -> {
+                antes[0] = imagenPrevia(connection, libro.getId());
+                try (PreparedStatement statement = connection.prepareStatement(UPDATE)) {
+                    bindUpdate(statement, libro);
+                    if (statement.executeUpdate() == 0) {
+                        return null;
+                    }
+                }
+                return JdbcBatch.versions(connection, TABLA, Collections.singletonList(libro.getId())).get(libro.getId());
+            });
+            if (version != null) {
+                libro.setVersion(version);
+                indexar(libro);
+                if (antes[0] != null) {
+                    publicar(Cambio.update(TABLA, libro.getId(), antes[0], new Libro(libro)));
+                }
+            }
+            logger.info("Libro actualizado: {}", libro);
         } catch (SQLException e) {
             logger.error("Error al actualizar libro", e);
         }
@@ -89,63 +284,619 @@ public class LibroDAOImpl implements LibroDAO {
     @Override
     public void delete(int id) {
         String sql = "DELETE FROM libros WHERE id = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setInt(1, id);
-            statement.executeUpdate();
-            logger.info("Libro eliminado con ID: " + id);
+        try (Connection connection = connectionProvider.getConnection()) {
+            Libro[] antes = new Libro[1];
+            int filas = JdbcBatch.inTransaction(connection, () -> {
+                antes[0] = imagenPrevia(connection, id);
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    statement.setInt(1, id);
+                    return statement.executeUpdate();
+                }
+            });
+            if (filas > 0) {
+                desindexar(id);
+                if (antes[0] != null) {
+                    publicar(Cambio.delete(TABLA, id, antes[0]));
+                }
+            }
+            logger.info("Libro eliminado con ID: {}", box(id));
         } catch (SQLException e) {
-            logger.error("Error al eliminar libro con ID: " + id, e);
+            logger.error("Error al eliminar libro con ID: {}", id, e);
+        }
+    }
+
+    @Override
+    public WriteResult updateIfVersion(Libro libro) {
+        try (Connection connection = connectionProvider.getConnection()) {
+            Libro[] antes = new Libro[1];
+            WriteResult resultado = JdbcBatch.inTransaction(connection, () -> {
+                antes[0] = imagenPrevia(connection, libro.getId());
+                int filas;
+                try (PreparedStatement statement = connection.prepareStatement(UPDATE_SI_VERSION)) {
+                    bindConVersion(statement, libro);
+                    filas = statement.executeUpdate();
+                }
+                return JdbcBatch.resolve(connection, TABLA, Collections.singletonList(libro.getId()),
+                        new int[] {filas}).get(0);
+            });
+            if (resultado == WriteResult.APPLIED) {
+                libro.setVersion(libro.getVersion() + 1);
+                indexar(libro);
+                if (antes[0] != null) {
+                    publicar(Cambio.update(TABLA, libro.getId(), antes[0], new Libro(libro)));
+                }
+                logger.info("Libro actualizado: {}", libro);
+            } else {
+                logger.warn("Libro no actualizado ({}): {}", resultado, libro);
+            }
+            return resultado;
+        } catch (SQLException e) {
+            logger.error("Error al actualizar libro", e);
+            return WriteResult.FAILED;
+        }
+    }
+
+    @Override
+    public WriteResult deleteIfVersion(int id, int version) {
+        try (Connection connection = connectionProvider.getConnection()) {
+            Libro[] antes = new Libro[1];
+            WriteResult resultado = JdbcBatch.inTransaction(connection, () -> {
+                antes[0] = imagenPrevia(connection, id);
+                int filas;
+                try (PreparedStatement statement = connection.prepareStatement(DELETE_SI_VERSION)) {
+                    statement.setInt(1, id);
+                    statement.setInt(2, version);
+                    filas = statement.executeUpdate();
+                }
+                return JdbcBatch.resolve(connection, TABLA, Collections.singletonList(id), new int[] {filas}).get(0);
+            });
+            if (resultado == WriteResult.APPLIED) {
+                desindexar(id);
+                if (antes[0] != null) {
+                    publicar(Cambio.delete(TABLA, id, antes[0]));
+                }
+                logger.info("Libro eliminado con ID: {}", box(id));
+            } else {
+                logger.warn("Libro con ID {} no eliminado ({})", box(id), resultado);
+            }
+            return resultado;
+        } catch (SQLException e) {
+            logger.error("Error al eliminar libro con ID: {}", id, e);
+            return WriteResult.FAILED;
         }
     }
 
     @Override
     public List<Libro> findByTitulo(String titulo) {
+        TituloIndex index = tituloIndex;
+        if (index != null) {
+            return findByIdsInOrder(index.search(titulo));
+        }
         List<Libro> libros = new ArrayList<>();
-        String sql = "SELECT * FROM libros WHERE titulo LIKE ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, "%" + titulo + "%");
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_POR_TITULO + " ORDER BY relevancia, id")) {
+            statement.setString(1, titulo);
             ResultSet resultSet = statement.executeQuery();
             while (resultSet.next()) {
                 libros.add(mapResultSetToLibro(resultSet));
             }
         } catch (SQLException e) {
-            logger.error("Error al buscar libros por título: " + titulo, e);
+            logger.error("Error al buscar libros por título: {}", titulo, e);
         }
         return libros;
     }
 
+    @Override
+    public Page<Libro> findByTitulo(String titulo, PageRequest pageRequest) {
+        int afterRelevancia = relevanciaDelCursor(titulo, pageRequest);
+        int afterId = afterRelevancia < 0 ? Integer.MAX_VALUE : pageRequest.getAfterIdOrMin();
+        TituloIndex index = tituloIndex;
+        if (index != null) {
+            int[] ids = index.searchAfter(titulo, afterRelevancia, afterId, pageRequest.getFetchLimit());
+            return Page.fromSlice(findByIdsInOrder(ids), pageRequest, siguientePorTitulo(titulo, pageRequest));
+        }
+        String sql = SELECT_POR_TITULO + " AND (relevancia > ? OR (relevancia = ? AND id > ?)) " +
+                "ORDER BY relevancia, id LIMIT ?";
+        List<Libro> libros = new ArrayList<>(pageRequest.getFetchLimit());
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, titulo);
+            statement.setInt(2, afterRelevancia);
+            statement.setInt(3, afterRelevancia);
+            statement.setInt(4, afterId);
+            statement.setInt(5, pageRequest.getFetchLimit());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    libros.add(mapResultSetToLibro(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error al buscar página de libros por título: {}", titulo, e);
+        }
+        return Page.fromSlice(libros, pageRequest, siguientePorTitulo(titulo, pageRequest));
+    }
+
+    // -1 en la primera página; un cursor con sólo el id (?despues= sin relevancia) se completa con el título de ese libro
+    private int relevanciaDelCursor(String titulo, PageRequest pageRequest) {
+        if (pageRequest.getAfterRelevancia() != null) {
+            return pageRequest.getAfterRelevancia();
+        }
+        if (pageRequest.isFirst()) {
+            return -1;
+        }
+        return findById(pageRequest.getAfterId())
+                .map(libro -> TituloIndex.relevancia(libro.getTitulo(), titulo))
+                .orElse(-1);
+    }
+
+    private static Function<Libro, PageRequest> siguientePorTitulo(String titulo, PageRequest pageRequest) {
+        return ultimo -> PageRequest.afterRelevancia(TituloIndex.relevancia(ultimo.getTitulo(), titulo),
+                ultimo.getId(), pageRequest.getSize());
+    }
+
     @Override
     public List<Libro> findByFechaPublicacionAfter(LocalDate fecha) {
         List<Libro> libros = new ArrayList<>();
-        String sql = "SELECT * FROM libros WHERE fecha_publicacion > ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        String sql = "SELECT * FROM libros WHERE fecha_publicacion > ? ORDER BY fecha_publicacion, id";
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setDate(1, Date.valueOf(fecha));
             ResultSet resultSet = statement.executeQuery();
             while (resultSet.next()) {
                 libros.add(mapResultSetToLibro(resultSet));
             }
         } catch (SQLException e) {
-            logger.error("Error al buscar libros después de la fecha: " + fecha, e);
+            logger.error("Error al buscar libros después de la fecha: {}", fecha, e);
         }
         return libros;
     }
 
+    @Override
+    public Page<Libro> findByFechaPublicacionAfter(LocalDate fecha, PageRequest pageRequest) {
+        return queryPage(SELECT_PAGINA_POR_FECHA, statement -> bindPaginaPorFecha(statement, fecha, pageRequest),
+                pageRequest, true, "Error al buscar página de libros después de la fecha: {}", fecha);
+    }
+
+    // La primera página arranca en (fecha, MAX_VALUE): excluye la fecha pedida sin una condición aparte
+    static void bindPaginaPorFecha(PreparedStatement statement, LocalDate fecha, PageRequest pageRequest)
+            throws SQLException {
+        LocalDate cursorFecha = fecha;
+        int cursorId = Integer.MAX_VALUE;
+        if (pageRequest.getAfterFecha() != null && pageRequest.getAfterFecha().isAfter(fecha)) {
+            cursorFecha = pageRequest.getAfterFecha();
+            cursorId = pageRequest.getAfterIdOrMin();
+        }
+        statement.setDate(1, Date.valueOf(cursorFecha));
+        statement.setDate(2, Date.valueOf(cursorFecha));
+        statement.setInt(3, cursorId);
+        statement.setInt(4, pageRequest.getFetchLimit());
+    }
+
     @Override
     public List<Libro> findByAutorId(int autorId) {
         List<Libro> libros = new ArrayList<>();
         String sql = "SELECT * FROM libros WHERE autor_id = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setInt(1, autorId);
             ResultSet resultSet = statement.executeQuery();
             while (resultSet.next()) {
                 libros.add(mapResultSetToLibro(resultSet));
             }
         } catch (SQLException e) {
-            logger.error("Error al buscar libros por autor ID: " + autorId, e);
+            logger.error("Error al buscar libros por autor ID: {}", autorId, e);
+        }
+        return libros;
+    }
+
+    @Override
+    public Page<Libro> findByAutorId(int autorId, PageRequest pageRequest) {
+        String sql = "SELECT * FROM libros WHERE autor_id = ? AND id > ? ORDER BY id LIMIT ?";
+        return queryPage(sql, statement -> {
+            statement.setInt(1, autorId);
+            statement.setInt(2, pageRequest.getAfterIdOrMin());
+            statement.setInt(3, pageRequest.getFetchLimit());
+        }, pageRequest, false, "Error al buscar página de libros por autor ID: {}", box(autorId));
+    }
+
+    @Override
+    public List<LibroConAutor> findAllConAutor() {
+        List<LibroConAutor> libros = new ArrayList<>();
+        String sql = SELECT_CON_AUTOR + " ORDER BY l.id";
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                libros.add(mapResultSetToLibroConAutor(resultSet));
+            }
+        } catch (SQLException e) {
+            logger.error("Error al obtener todos los libros con su autor", e);
+        }
+        return libros;
+    }
+
+    @Override
+    public Page<LibroConAutor> findAllConAutor(PageRequest pageRequest) {
+        List<LibroConAutor> libros = new ArrayList<>(pageRequest.getFetchLimit());
+        String sql = SELECT_CON_AUTOR + " WHERE l.id > ? ORDER BY l.id LIMIT ?";
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, pageRequest.getAfterIdOrMin());
+            statement.setInt(2, pageRequest.getFetchLimit());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    libros.add(mapResultSetToLibroConAutor(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error al obtener página de libros con su autor", e);
+        }
+        return Page.fromSlice(libros, pageRequest,
+                ultimo -> PageRequest.after(ultimo.getLibro().getId(), pageRequest.getSize()));
+    }
+
+    @Override
+    public BatchResult saveAll(Collection<Libro> libros) {
+        boolean conId = assignedIds;
+        long start = System.nanoTime();
+        try (Connection connection = connectionProvider.getConnection()) {
+            int rows = conId
+                    ? JdbcBatch.execute(connection, INSERT_CON_ID, libros, batchSize, this::bindConVersion, null)
+                    : JdbcBatch.execute(connection, INSERT, libros, batchSize, this::bindInsert, Libro::setId);
+            BatchResult result = new BatchResult(rows, System.nanoTime() - start, true);
+            libros.forEach(this::indexar);
+            if (capturaCambios()) {
+                libros.forEach(libro -> publicar(Cambio.insert(TABLA, libro.getId(), new Libro(libro))));
+            }
+            logger.info("Libros guardados en lote: {}", result);
+            return result;
+        } catch (SQLException e) {
+            // También los ids generados antes del error: el lote se deshizo entero
+            libros.forEach(libro -> libro.setId(0));
+            logger.error("Error al guardar libros en lote", e);
+            return BatchResult.failed(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public BatchResult updateAll(Collection<Libro> libros) {
+        List<Integer> ids = libros.stream().map(Libro::getId).collect(Collectors.toList());
+        long start = System.nanoTime();
+        try (Connection connection = connectionProvider.getConnection()) {
+            int[] rows = new int[1];
+            Map<Integer, Libro> antes = new HashMap<>();
+            Map<Integer, Integer> versiones = JdbcBatch.inTransaction(connection, () -> {
+                antes.putAll(imagenesPrevias(connection, ids));
+                rows[0] = JdbcBatch.execute(connection, UPDATE, libros, batchSize, this::bindUpdate, null);
+                return JdbcBatch.versions(connection, TABLA, ids);
+            });
+            BatchResult result = new BatchResult(rows[0], System.nanoTime() - start, true);
+            for (Libro libro : libros) {
+                Integer version = versiones.get(libro.getId());
+                if (version != null) {
+                    libro.setVersion(version);
+                    indexar(libro);
+                }
+                Libro previo = antes.get(libro.getId());
+                if (previo != null && version != null) {
+                    publicar(Cambio.update(TABLA, libro.getId(), previo, new Libro(libro)));
+                }
+            }
+            logger.info("Libros actualizados en lote: {}", result);
+            return result;
+        } catch (SQLException e) {
+            logger.error("Error al actualizar libros en lote", e);
+            return BatchResult.failed(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public BatchResult deleteAll(int[] ids) {
+        String sql = "DELETE FROM libros WHERE id = ?";
+        long start = System.nanoTime();
+        try (Connection connection = connectionProvider.getConnection()) {
+            List<Integer> idList = Arrays.stream(ids).boxed().collect(Collectors.toList());
+            Map<Integer, Libro> antes = new HashMap<>();
+            int rows = JdbcBatch.inTransaction(connection, () -> {
+                antes.putAll(imagenesPrevias(connection, idList));
+                return JdbcBatch.execute(connection, sql, idList, batchSize,
+                        (statement, id) -> statement.setInt(1, id), null);
+            });
+            BatchResult result = new BatchResult(rows, System.nanoTime() - start, true);
+            Arrays.stream(ids).forEach(this::desindexar);
+            antes.forEach((id, previo) -> publicar(Cambio.delete(TABLA, id, previo)));
+            logger.info("Libros eliminados en lote: {}", result);
+            return result;
+        } catch (SQLException e) {
+            logger.error("Error al eliminar libros en lote", e);
+            return BatchResult.failed(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public VersionedBatchResult updateAllIfVersion(Collection<Libro> libros) {
+        List<Integer> ids = libros.stream().map(Libro::getId).collect(Collectors.toList());
+        long start = System.nanoTime();
+        try (Connection connection = connectionProvider.getConnection()) {
+            Map<Integer, Libro> antes = new HashMap<>();
+            List<WriteResult> resultados = JdbcBatch.inTransaction(connection, () -> {
+                antes.putAll(imagenesPrevias(connection, ids));
+                int[] filas = JdbcBatch.executeEach(connection, UPDATE_SI_VERSION, libros, batchSize, this::bindConVersion);
+                return JdbcBatch.resolve(connection, TABLA, ids, filas);
+            });
+            VersionedBatchResult result = new VersionedBatchResult(resultados, System.nanoTime() - start, true);
+            int i = 0;
+            for (Libro libro : libros) {
+                if (resultados.get(i++) == WriteResult.APPLIED) {
+                    libro.setVersion(libro.getVersion() + 1);
+                    indexar(libro);
+                    Libro previo = antes.get(libro.getId());
+                    if (previo != null) {
+                        publicar(Cambio.update(TABLA, libro.getId(), previo, new Libro(libro)));
+                    }
+                }
+            }
+            logger.info("Libros actualizados en lote con control de versión: {}", result);
+            return result;
+        } catch (SQLException e) {
+            logger.error("Error al actualizar libros en lote", e);
+            return VersionedBatchResult.failed(libros.size(), System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public VersionedBatchResult deleteAllIfVersion(Collection<Libro> libros) {
+        List<Integer> ids = libros.stream().map(Libro::getId).collect(Collectors.toList());
+        long start = System.nanoTime();
+        try (Connection connection = connectionProvider.getConnection()) {
+            Map<Integer, Libro> antes = new HashMap<>();
+            List<WriteResult> resultados = JdbcBatch.inTransaction(connection, () -> {
+                antes.putAll(imagenesPrevias(connection, ids));
+                int[] filas = JdbcBatch.executeEach(connection, DELETE_SI_VERSION, libros, batchSize,
+                        (statement, libro) -> {
+                            statement.setInt(1, libro.getId());
+                            statement.setInt(2, libro.getVersion());
+                        });
+                return JdbcBatch.resolve(connection, TABLA, ids, filas);
+            });
+            VersionedBatchResult result = new VersionedBatchResult(resultados, System.nanoTime() - start, true);
+            for (int i = 0; i < ids.size(); i++) {
+                if (resultados.get(i) == WriteResult.APPLIED) {
+                    desindexar(ids.get(i));
+                    Libro previo = antes.get(ids.get(i));
+                    if (previo != null) {
+                        publicar(Cambio.delete(TABLA, ids.get(i), previo));
+                    }
+                }
+            }
+            logger.info("Libros eliminados en lote con control de versión: {}", result);
+            return result;
+        } catch (SQLException e) {
+            logger.error("Error al eliminar libros en lote", e);
+            return VersionedBatchResult.failed(libros.size(), System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public BatchResult upsertByIsbn(Collection<Libro> libros) {
+        List<String> isbns = new ArrayList<>(libros.size());
+        for (Libro libro : libros) {
+            if (libro.getIsbn() == null) {
+                throw new IllegalArgumentException("No se puede sincronizar por ISBN un libro sin ISBN: " + libro);
+            }
+            isbns.add(libro.getIsbn());
+        }
+        long start = System.nanoTime();
+        try (Connection connection = connectionProvider.getConnection()) {
+            // Imágenes previas, MERGE e ids en una sola transacción
+            Map<String, Libro> antes = new HashMap<>();
+            int rows = JdbcBatch.inTransaction(connection, () -> {
+                antes.putAll(imagenesPreviasPorIsbn(connection, isbns));
+                int filas = JdbcBatch.execute(connection, UPSERT_POR_ISBN, libros, batchSize, this::bindInsert, null);
+                asignarIdsPorIsbn(connection, libros, isbns);
+                return filas;
+            });
+            BatchResult result = new BatchResult(rows, System.nanoTime() - start, true);
+            for (Libro libro : libros) {
+                indexar(libro);
+                Libro previo = antes.get(libro.getIsbn());
+                if (previo == null) {
+                    if (capturaCambios()) {
+                        publicar(Cambio.insert(TABLA, libro.getId(), new Libro(libro)));
+                    }
+                } else if (previo.getVersion() != libro.getVersion()) {
+                    // Con la misma versión el MERGE no tocó la fila: no hay cambio que publicar
+                    publicar(Cambio.update(TABLA, libro.getId(), previo, new Libro(libro)));
+                }
+            }
+            logger.info("Libros sincronizados por ISBN en lote: {}", result);
+            return result;
+        } catch (SQLException e) {
+            logger.error("Error al sincronizar libros por ISBN en lote", e);
+            return BatchResult.failed(System.nanoTime() - start);
+        }
+    }
+
+    // MERGE no devuelve de forma fiable las claves de las filas actualizadas, así que los ids (y las
+    // versiones, para que un updateIfVersion posterior no dé conflicto) se leen por ISBN
+    private void asignarIdsPorIsbn(Connection connection, Collection<Libro> libros, List<String> isbns)
+            throws SQLException {
+        if (isbns.isEmpty()) {
+            return;
+        }
+        Map<String, int[]> ids = new HashMap<>(isbns.size() * 2);
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT id, isbn, version FROM libros WHERE isbn = ANY(?)")) {
+            statement.setObject(1, isbns.toArray(new String[0]));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.put(resultSet.getString("isbn"), new int[] {resultSet.getInt("id"), resultSet.getInt("version")});
+                }
+            }
+        }
+        for (Libro libro : libros) {
+            int[] fila = ids.get(libro.getIsbn());
+            if (fila != null) {
+                libro.setId(fila[0]);
+                libro.setVersion(fila[1]);
+            }
+        }
+    }
+
+    // Carga los libros indicados respetando el orden de los ids recibidos
+    private List<Libro> findByIdsInOrder(int[] ids) {
+        List<Libro> libros = new ArrayList<>(ids.length);
+        if (ids.length == 0) {
+            return libros;
+        }
+        String sql = "SELECT * FROM libros WHERE id = ANY(?)";
+        Map<Integer, Libro> porId = new HashMap<>(ids.length * 2);
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setObject(1, Arrays.stream(ids).boxed().toArray(Integer[]::new));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    Libro libro = mapResultSetToLibro(resultSet);
+                    porId.put(libro.getId(), libro);
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error al cargar libros por IDs", e);
+        }
+        for (int id : ids) {
+            Libro libro = porId.get(id);
+            if (libro != null) {
+                libros.add(libro);
+            }
+        }
+        return libros;
+    }
+
+    // El índice se toca recién al confirmar la transacción en curso: un rollback no deja títulos fantasma
+    private void indexar(Libro libro) {
+        TituloIndex index = tituloIndex;
+        if (index != null && libro.getId() > 0) {
+            int id = libro.getId();
+            String titulo = libro.getTitulo();
+            alConfirmar(() -> index.add(id, titulo));
+        }
+    }
+
+    private void desindexar(int id) {
+        TituloIndex index = tituloIndex;
+        if (index != null) {
+            alConfirmar(() -> index.remove(id));
+        }
+    }
+
+    private static void alConfirmar(Runnable accion) {
+        if (!TransactionManager.afterCommit(accion)) {
+            accion.run();
+        }
+    }
+
+    // Las imágenes previas y las copias sólo se arman si alguien escucha el canal de cambios
+    private boolean capturaCambios() {
+        ChangeFeed feed = changeFeed;
+        return feed != null && feed.hasSubscribers();
+    }
+
+    private Libro imagenPrevia(Connection connection, int id) throws SQLException {
+        return imagenesPrevias(connection, Collections.singletonList(id)).get(id);
+    }
+
+    // Como en AutorDAOImpl: en la transacción de la escritura y con las filas bloqueadas hasta el commit
+    private Map<Integer, Libro> imagenesPrevias(Connection connection, Collection<Integer> ids) throws SQLException {
+        if (!capturaCambios() || ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Integer, Libro> imagenes = new HashMap<>(ids.size() * 2);
+        for (Libro libro : paraEscritura(connection, "id", ids.toArray(new Integer[0]))) {
+            imagenes.put(libro.getId(), libro);
+        }
+        return imagenes;
+    }
+
+    private Map<String, Libro> imagenesPreviasPorIsbn(Connection connection, List<String> isbns) throws SQLException {
+        if (!capturaCambios() || isbns.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Libro> imagenes = new HashMap<>(isbns.size() * 2);
+        for (Libro libro : paraEscritura(connection, "isbn", isbns.toArray(new String[0]))) {
+            imagenes.put(libro.getIsbn(), libro);
+        }
+        return imagenes;
+    }
+
+    private List<Libro> paraEscritura(Connection connection, String columna, Object[] valores) throws SQLException {
+        List<Libro> libros = new ArrayList<>(valores.length);
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT * FROM libros WHERE " + columna + " = ANY(?) FOR UPDATE")) {
+            statement.setObject(1, valores);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    libros.add(mapResultSetToLibro(resultSet));
+                }
+            }
         }
         return libros;
     }
 
+    private void publicar(Cambio<Libro> cambio) {
+        ChangeFeed feed = changeFeed;
+        if (feed != null) {
+            feed.publish(cambio);
+        }
+    }
+
+    private void bindInsert(PreparedStatement statement, Libro libro) throws SQLException {
+        statement.setString(1, libro.getTitulo());
+        statement.setString(2, libro.getIsbn());
+        statement.setDate(3, Date.valueOf(libro.getFechaPublicacion()));
+        statement.setInt(4, libro.getAutorId());
+    }
+
+    private void bindUpdate(PreparedStatement statement, Libro libro) throws SQLException {
+        bindInsert(statement, libro);
+        statement.setInt(5, libro.getId());
+    }
+
+    private void bindConVersion(PreparedStatement statement, Libro libro) throws SQLException {
+        bindUpdate(statement, libro);
+        statement.setInt(6, libro.getVersion());
+    }
+
+    private Page<Libro> queryPage(String sql, JdbcStreams.Parameters parameters, PageRequest pageRequest,
+                                  boolean keyedByFecha, String errorMessage, Object errorParam) {
+        List<Libro> libros = new ArrayList<>(pageRequest.getFetchLimit());
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            parameters.apply(statement);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    libros.add(mapResultSetToLibro(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error(errorMessage, errorParam, e);
+        }
+        return Page.fromSlice(libros, pageRequest, ultimo -> keyedByFecha
+                ? PageRequest.after(ultimo.getFechaPublicacion(), ultimo.getId(), pageRequest.getSize())
+                : PageRequest.after(ultimo.getId(), pageRequest.getSize()));
+    }
+
+    private LibroConAutor mapResultSetToLibroConAutor(ResultSet resultSet) throws SQLException {
+        Libro libro = mapResultSetToLibro(resultSet);
+        Autor autor = null;
+        String nombre = resultSet.getString("autor_nombre");
+        if (nombre != null) {
+            autor = new Autor(nombre, resultSet.getString("autor_nacionalidad"));
+            autor.setId(libro.getAutorId());
+            autor.setVersion(resultSet.getInt("autor_version"));
+        }
+        return new LibroConAutor(libro, autor);
+    }
+
     private Libro mapResultSetToLibro(ResultSet resultSet) throws SQLException {
         Libro libro = new Libro();
         libro.setId(resultSet.getInt("id"));
@@ -153,6 +904,7 @@ public class LibroDAOImpl implements LibroDAO {
         libro.setIsbn(resultSet.getString("isbn"));
         libro.setFechaPublicacion(resultSet.getDate("fecha_publicacion").toLocalDate());
         libro.setAutorId(resultSet.getInt("autor_id"));
+        libro.setVersion(resultSet.getInt("version"));
         return libro;
     }
 }
\ No newline at end of file
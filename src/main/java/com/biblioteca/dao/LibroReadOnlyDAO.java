@@ -0,0 +1,23 @@
+package com.biblioteca.dao;
+
+import com.biblioteca.model.Libro;
+import com.biblioteca.model.LibroConAutor;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface LibroReadOnlyDAO extends ReadOnlyDAO<Libro> {
+    // Todos los libros cuyo título contiene el texto sin distinguir mayúsculas ni tildes, ordenados por
+    // relevancia y después por id (ver TituloIndex.relevancia); las páginas siguen ese mismo orden
+    List<Libro> findByTitulo(String titulo);
+    Page<Libro> findByTitulo(String titulo, PageRequest pageRequest);
+    List<Libro> findByFechaPublicacionAfter(LocalDate fecha);
+    Page<Libro> findByFechaPublicacionAfter(LocalDate fecha, PageRequest pageRequest);
+    List<Libro> findByAutorId(int autorId);
+    Page<Libro> findByAutorId(int autorId, PageRequest pageRequest);
+    List<LibroConAutor> findAllConAutor();
+    Page<LibroConAutor> findAllConAutor(PageRequest pageRequest);
+    Optional<Libro> findByIsbn(String isbn);
+    List<Libro> findByIsbns(Collection<String> isbns);
+}
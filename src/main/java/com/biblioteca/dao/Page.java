@@ -0,0 +1,38 @@
+package com.biblioteca.dao;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+public class Page<T> {
+    private final List<T> content;
+    private final PageRequest nextPageRequest;
+
+    public Page(List<T> content, PageRequest nextPageRequest) {
+        this.content = Collections.unmodifiableList(content);
+        this.nextPageRequest = nextPageRequest;
+    }
+
+    /**
+     * Construye la página a partir de hasta {@code size + 1} filas leídas; si sobra una fila
+     * se descarta y la última fila conservada define la clave de la página siguiente.
+     */
+    public static <T> Page<T> fromSlice(List<T> rows, PageRequest request, Function<T, PageRequest> nextRequest) {
+        if (rows.size() <= request.getSize()) {
+            return new Page<>(rows, null);
+        }
+        List<T> content = rows.subList(0, request.getSize());
+        return new Page<>(content, nextRequest.apply(content.get(content.size() - 1)));
+    }
+
+    public List<T> getContent() { return content; }
+    public PageRequest getNextPageRequest() { return nextPageRequest; }
+
+    public boolean hasNext() {
+        return nextPageRequest != null;
+    }
+
+    public boolean isEmpty() {
+        return content.isEmpty();
+    }
+}
@@ -0,0 +1,70 @@
+package com.biblioteca.dao;
+
+import java.time.LocalDate;
+
+/**
+ * Petición de página para paginación por clave (keyset). En lugar de un offset guarda la
+ * clave de la última fila vista, de modo que cualquier página cuesta lo mismo que la primera.
+ */
+public final class PageRequest {
+    private final int size;
+    private final Integer afterId;
+    private final LocalDate afterFecha;
+    private final Integer afterRelevancia;
+
+    private PageRequest(int size, Integer afterId, LocalDate afterFecha, Integer afterRelevancia) {
+        if (size < 1) {
+            throw new IllegalArgumentException("El tamaño de página debe ser positivo: " + size);
+        }
+        this.size = size;
+        this.afterId = afterId;
+        this.afterFecha = afterFecha;
+        this.afterRelevancia = afterRelevancia;
+    }
+
+    public static PageRequest first(int size) {
+        return new PageRequest(size, null, null, null);
+    }
+
+    public static PageRequest after(int afterId, int size) {
+        return new PageRequest(size, afterId, null, null);
+    }
+
+    public static PageRequest after(LocalDate afterFecha, int afterId, int size) {
+        return new PageRequest(size, afterId, afterFecha, null);
+    }
+
+    // Búsqueda por título: el orden es (relevancia, id), ver TituloIndex.relevancia
+    public static PageRequest afterRelevancia(int afterRelevancia, int afterId, int size) {
+        return new PageRequest(size, afterId, null, afterRelevancia);
+    }
+
+    public int getSize() { return size; }
+    public Integer getAfterId() { return afterId; }
+    public LocalDate getAfterFecha() { return afterFecha; }
+    public Integer getAfterRelevancia() { return afterRelevancia; }
+
+    public boolean isFirst() {
+        return afterId == null;
+    }
+
+    // Valor que se compara con "id > ?"; en la primera página no excluye nada
+    public int getAfterIdOrMin() {
+        return afterId != null ? afterId : Integer.MIN_VALUE;
+    }
+
+    // La consulta pide una fila extra para saber si existe una página siguiente
+    public int getFetchLimit() {
+        return size + 1;
+    }
+
+    @Override
+    public String toString() {
+        return "PageRequest{" +
+                "size=" + size +
+                ", afterId=" + afterId +
+                ", afterFecha=" + afterFecha +
+                ", afterRelevancia=" + afterRelevancia +
+                '}';
+    }
+}
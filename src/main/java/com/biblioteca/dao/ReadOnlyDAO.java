@@ -0,0 +1,15 @@
+package com.biblioteca.dao;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Lado de lectura de GenericDAO; las vistas que no admiten escrituras (CatalogSnapshot) implementan sólo esta parte
+public interface ReadOnlyDAO<T> {
+    Optional<T> findById(int id);
+    List<T> findByIds(Collection<Integer> ids);
+    List<T> findAll();
+    Page<T> findAll(PageRequest pageRequest);
+    Stream<T> streamAll();
+}
@@ -0,0 +1,12 @@
+package com.biblioteca.dao;
+
+public interface ReporteDAO {
+    // Ordenado por id de autor; los autores sin libros no figuran
+    ConteoPorId librosPorAutor();
+    // De mayor a menor cantidad de libros y, a igual cantidad, por id
+    ConteoPorId topAutoresPorLibros(int limite);
+    Histograma librosPorAnio();
+    Histograma librosPorDecada();
+    // Ordenado por nacionalidad; los autores sin nacionalidad no figuran
+    ConteoPorClave autoresPorNacionalidad();
+}
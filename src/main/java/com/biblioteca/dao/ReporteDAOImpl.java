@@ -0,0 +1,174 @@
+package com.biblioteca.dao;
+
+import com.biblioteca.util.ConnectionProvider;
+import com.biblioteca.util.DatabaseConnection;
+import com.biblioteca.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Reportes agregados resueltos en la base con GROUP BY; a Java sólo llega una fila por grupo.
+ *
+ * <p>Con resúmenes activados (el valor por defecto) los conteos de libros se leen de las tablas
+ * {@code resumen_libros_autor} y {@code resumen_libros_anio}, que {@link ResumenLibrosTrigger}
+ * mantiene al día con cada escritura, en lugar de recorrer {@code libros}. Sin resúmenes se
+ * agrupa directamente sobre {@code libros}; sirve para contrastar ambos caminos.
+ */
+public class ReporteDAOImpl implements ReporteDAO {
+    private static final Logger logger = LoggerUtil.getLogger(ReporteDAOImpl.class);
+    private static final int FILAS_INICIALES = 64;
+
+    private static final String LIBROS_POR_AUTOR =
+            "SELECT autor_id, COUNT(*) FROM libros WHERE autor_id IS NOT NULL GROUP BY autor_id ORDER BY autor_id";
+    private static final String LIBROS_POR_AUTOR_RESUMEN =
+            "SELECT autor_id, cantidad FROM resumen_libros_autor WHERE cantidad > 0 ORDER BY autor_id";
+    private static final String TOP_AUTORES =
+            "SELECT autor_id, COUNT(*) AS cantidad FROM libros WHERE autor_id IS NOT NULL GROUP BY autor_id " +
+            "ORDER BY cantidad DESC, autor_id LIMIT ?";
+    private static final String TOP_AUTORES_RESUMEN =
+            "SELECT autor_id, cantidad FROM resumen_libros_autor WHERE cantidad > 0 " +
+            "ORDER BY cantidad DESC, autor_id LIMIT ?";
+    // El intervalo se calcula en una subconsulta para agrupar por su alias sin repetir los parámetros
+    private static final String LIBROS_POR_INTERVALO =
+            "SELECT desde, COUNT(*) FROM (SELECT EXTRACT(YEAR FROM fecha_publicacion) / ? * ? AS desde " +
+            "FROM libros WHERE fecha_publicacion IS NOT NULL) t GROUP BY desde ORDER BY desde";
+    private static final String LIBROS_POR_INTERVALO_RESUMEN =
+            "SELECT desde, SUM(cantidad) FROM (SELECT anio / ? * ? AS desde, cantidad " +
+            "FROM resumen_libros_anio WHERE cantidad > 0) t GROUP BY desde ORDER BY desde";
+    private static final String AUTORES_POR_NACIONALIDAD =
+            "SELECT nacionalidad, COUNT(*) FROM autores WHERE nacionalidad IS NOT NULL " +
+            "GROUP BY nacionalidad ORDER BY nacionalidad";
+
+    private final ConnectionProvider connectionProvider;
+    private final boolean usarResumenes;
+
+    public ReporteDAOImpl() {
+        this(DatabaseConnection.getProvider());
+    }
+
+    public ReporteDAOImpl(ConnectionProvider connectionProvider) {
+        this(connectionProvider, true);
+    }
+
+    public ReporteDAOImpl(ConnectionProvider connectionProvider, boolean usarResumenes) {
+        this.connectionProvider = connectionProvider;
+        this.usarResumenes = usarResumenes;
+    }
+
+    @Override
+    public ConteoPorId librosPorAutor() {
+        return conteoPorId(usarResumenes ? LIBROS_POR_AUTOR_RESUMEN : LIBROS_POR_AUTOR, -1,
+                "Error al contar libros por autor");
+    }
+
+    @Override
+    public ConteoPorId topAutoresPorLibros(int limite) {
+        if (limite < 1) {
+            throw new IllegalArgumentException("El límite debe ser positivo: " + limite);
+        }
+        return conteoPorId(usarResumenes ? TOP_AUTORES_RESUMEN : TOP_AUTORES, limite,
+                "Error al obtener los autores con más libros");
+    }
+
+    @Override
+    public Histograma librosPorAnio() {
+        return histograma(1);
+    }
+
+    @Override
+    public Histograma librosPorDecada() {
+        return histograma(10);
+    }
+
+    @Override
+    public ConteoPorClave autoresPorNacionalidad() {
+        String[] claves = new String[FILAS_INICIALES];
+        int[] cantidades = new int[FILAS_INICIALES];
+        int filas = 0;
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement statement = connection.prepareStatement(AUTORES_POR_NACIONALIDAD);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                if (filas == claves.length) {
+                    claves = Arrays.copyOf(claves, filas * 2);
+                    cantidades = Arrays.copyOf(cantidades, filas * 2);
+                }
+                claves[filas] = resultSet.getString(1);
+                cantidades[filas] = resultSet.getInt(2);
+                filas++;
+            }
+        } catch (SQLException e) {
+            logger.error("Error al contar autores por nacionalidad", e);
+            filas = 0;
+        }
+        return new ConteoPorClave(Arrays.copyOf(claves, filas), Arrays.copyOf(cantidades, filas));
+    }
+
+    private ConteoPorId conteoPorId(String sql, int limite, String errorMessage) {
+        int[] ids = new int[limite > 0 ? limite : FILAS_INICIALES];
+        int[] cantidades = new int[ids.length];
+        int filas = 0;
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            if (limite > 0) {
+                statement.setInt(1, limite);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    if (filas == ids.length) {
+                        ids = Arrays.copyOf(ids, filas * 2);
+                        cantidades = Arrays.copyOf(cantidades, filas * 2);
+                    }
+                    ids[filas] = resultSet.getInt(1);
+                    cantidades[filas] = resultSet.getInt(2);
+                    filas++;
+                }
+            }
+        } catch (SQLException e) {
+            logger.error(errorMessage, e);
+            filas = 0;
+        }
+        return new ConteoPorId(Arrays.copyOf(ids, filas), Arrays.copyOf(cantidades, filas));
+    }
+
+    private Histograma histograma(int ancho) {
+        int[] desdes = new int[FILAS_INICIALES];
+        int[] cantidades = new int[FILAS_INICIALES];
+        int filas = 0;
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     usarResumenes ? LIBROS_POR_INTERVALO_RESUMEN : LIBROS_POR_INTERVALO)) {
+            statement.setInt(1, ancho);
+            statement.setInt(2, ancho);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    if (filas == desdes.length) {
+                        desdes = Arrays.copyOf(desdes, filas * 2);
+                        cantidades = Arrays.copyOf(cantidades, filas * 2);
+                    }
+                    desdes[filas] = resultSet.getInt(1);
+                    cantidades[filas] = resultSet.getInt(2);
+                    filas++;
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error al armar el histograma de publicaciones cada {} años", ancho, e);
+            return Histograma.vacio(ancho);
+        }
+        if (filas == 0) {
+            return Histograma.vacio(ancho);
+        }
+        // Las filas llegan ordenadas; se completan con 0 los intervalos sin libros
+        int inicio = desdes[0];
+        int[] densas = new int[(desdes[filas - 1] - inicio) / ancho + 1];
+        for (int fila = 0; fila < filas; fila++) {
+            densas[(desdes[fila] - inicio) / ancho] = cantidades[fila];
+        }
+        return new Histograma(inicio, ancho, densas);
+    }
+}
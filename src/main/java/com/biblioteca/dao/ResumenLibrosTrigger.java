@@ -0,0 +1,98 @@
+package com.biblioteca.dao;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Trigger de H2 sobre {@code libros} que mantiene {@code resumen_libros_autor} y
+ * {@code resumen_libros_anio} (migración V3) con cada alta, baja o modificación. Corre dentro de
+ * la transacción de la escritura, así que los resúmenes se confirman o se deshacen con ella.
+ *
+ * <p>H2 la instancia por nombre, por eso es pública y tiene constructor sin argumentos; la
+ * aplicación debe estar en el classpath de cualquier proceso que escriba en {@code libros}.
+ */
+public class ResumenLibrosTrigger implements Trigger {
+    private static final String SUMAR_AUTOR =
+            "MERGE INTO resumen_libros_autor r USING (VALUES (CAST(? AS INT), CAST(? AS INT))) d (autor_id, delta) " +
+            "ON r.autor_id = d.autor_id " +
+            "WHEN MATCHED THEN UPDATE SET cantidad = r.cantidad + d.delta " +
+            "WHEN NOT MATCHED THEN INSERT (autor_id, cantidad) VALUES (d.autor_id, d.delta)";
+    private static final String SUMAR_ANIO =
+            "MERGE INTO resumen_libros_anio r USING (VALUES (CAST(? AS INT), CAST(? AS INT))) d (anio, delta) " +
+            "ON r.anio = d.anio " +
+            "WHEN MATCHED THEN UPDATE SET cantidad = r.cantidad + d.delta " +
+            "WHEN NOT MATCHED THEN INSERT (anio, cantidad) VALUES (d.anio, d.delta)";
+
+    private int columnaAutor = -1;
+    private int columnaFecha = -1;
+
+    @Override
+    public void init(Connection conn, String schemaName, String triggerName, String tableName,
+                     boolean before, int type) throws SQLException {
+        // Las posiciones se buscan por nombre para no depender del orden de las columnas
+        try (ResultSet columnas = conn.getMetaData().getColumns(null, schemaName, tableName, null)) {
+            while (columnas.next()) {
+                String nombre = columnas.getString("COLUMN_NAME");
+                int posicion = columnas.getInt("ORDINAL_POSITION") - 1;
+                if ("AUTOR_ID".equalsIgnoreCase(nombre)) {
+                    columnaAutor = posicion;
+                } else if ("FECHA_PUBLICACION".equalsIgnoreCase(nombre)) {
+                    columnaFecha = posicion;
+                }
+            }
+        }
+        if (columnaAutor < 0 || columnaFecha < 0) {
+            throw new SQLException("La tabla " + tableName + " no tiene las columnas autor_id y fecha_publicacion");
+        }
+    }
+
+    @Override
+    public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+        Integer autorAnterior = oldRow != null ? entero(oldRow[columnaAutor]) : null;
+        Integer autorNuevo = newRow != null ? entero(newRow[columnaAutor]) : null;
+        if (!Objects.equals(autorAnterior, autorNuevo)) {
+            sumar(conn, SUMAR_AUTOR, autorAnterior, -1);
+            sumar(conn, SUMAR_AUTOR, autorNuevo, 1);
+        }
+        Integer anioAnterior = oldRow != null ? anio(oldRow[columnaFecha]) : null;
+        Integer anioNuevo = newRow != null ? anio(newRow[columnaFecha]) : null;
+        if (!Objects.equals(anioAnterior, anioNuevo)) {
+            sumar(conn, SUMAR_ANIO, anioAnterior, -1);
+            sumar(conn, SUMAR_ANIO, anioNuevo, 1);
+        }
+    }
+
+    private static void sumar(Connection conn, String sql, Integer clave, int delta) throws SQLException {
+        if (clave == null) {
+            return;
+        }
+        try (PreparedStatement statement = conn.prepareStatement(sql)) {
+            statement.setInt(1, clave);
+            statement.setInt(2, delta);
+            statement.executeUpdate();
+        }
+    }
+
+    private static Integer entero(Object valor) {
+        return valor != null ? ((Number) valor).intValue() : null;
+    }
+
+    private static Integer anio(Object fecha) {
+        if (fecha == null) {
+            return null;
+        }
+        if (fecha instanceof LocalDate) {
+            return ((LocalDate) fecha).getYear();
+        }
+        if (fecha instanceof java.sql.Date) {
+            return ((java.sql.Date) fecha).toLocalDate().getYear();
+        }
+        return LocalDate.parse(fecha.toString()).getYear();
+    }
+}
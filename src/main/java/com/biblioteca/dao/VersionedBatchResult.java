@@ -0,0 +1,53 @@
+package com.biblioteca.dao;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link BatchResult} de una escritura por lotes condicionada a la versión, con el resultado de
+ * cada entidad en el orden en que se recibieron. Las filas sin conflicto se escriben igual; quien
+ * necesite todo o nada lo ejecuta dentro de una transacción y la deshace si {@link #hasConflicts()}.
+ */
+public class VersionedBatchResult extends BatchResult {
+    private final List<WriteResult> results;
+
+    public VersionedBatchResult(List<WriteResult> results, long elapsedNanos, boolean successful) {
+        super(contar(results, WriteResult.APPLIED), elapsedNanos, successful);
+        this.results = Collections.unmodifiableList(results);
+    }
+
+    public static VersionedBatchResult failed(int size, long elapsedNanos) {
+        return new VersionedBatchResult(Collections.nCopies(size, WriteResult.FAILED), elapsedNanos, false);
+    }
+
+    public List<WriteResult> getResults() { return results; }
+
+    public int count(WriteResult result) {
+        return contar(results, result);
+    }
+
+    public boolean hasConflicts() {
+        return results.contains(WriteResult.CONFLICT);
+    }
+
+    private static int contar(List<WriteResult> results, WriteResult buscado) {
+        int cantidad = 0;
+        for (WriteResult result : results) {
+            if (result == buscado) {
+                cantidad++;
+            }
+        }
+        return cantidad;
+    }
+
+    @Override
+    public String toString() {
+        return "VersionedBatchResult{" +
+                "applied=" + getRows() +
+                ", conflicts=" + count(WriteResult.CONFLICT) +
+                ", notFound=" + count(WriteResult.NOT_FOUND) +
+                ", elapsedMillis=" + getElapsedMillis() +
+                ", successful=" + isSuccessful() +
+                '}';
+    }
+}
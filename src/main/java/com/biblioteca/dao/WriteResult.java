@@ -0,0 +1,14 @@
+package com.biblioteca.dao;
+
+/**
+ * Resultado de una escritura condicionada a la versión de la fila.
+ */
+public enum WriteResult {
+    // La fila tenía la versión esperada y se escribió
+    APPLIED,
+    // La fila existe pero otro la modificó desde que se leyó
+    CONFLICT,
+    NOT_FOUND,
+    // Error de base de datos; ya quedó registrado en el log
+    FAILED
+}
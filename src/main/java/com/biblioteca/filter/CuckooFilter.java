@@ -0,0 +1,161 @@
+package com.biblioteca.filter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Filtro cuckoo de pertenencia aproximada: {@link #mightContain} puede dar falsos positivos
+ * (alrededor de 1 en 8.000 con huellas de 16 bits) pero nunca falsos negativos. A diferencia de
+ * un filtro de Bloom admite {@link #remove}, siempre que sólo se quiten claves que se agregaron.
+ * Una clave agregada dos veces ocupa dos lugares y hay que quitarla dos veces.
+ *
+ * <p>Cada clave deja una huella de 16 bits en una de dos cubetas de 4 lugares; si las dos están
+ * llenas, desplaza huellas a su cubeta alternativa. Si tras {@link #MAX_DESPLAZAMIENTOS} no
+ * encuentra lugar, una huella queda sin ubicar y el filtro pasa a saturado: desde entonces
+ * responde que cualquier clave puede estar, así un filtro lleno nunca produce falsos negativos.
+ */
+public final class CuckooFilter {
+    private static final int LUGARES_POR_CUBETA = 4;
+    private static final int MAX_DESPLAZAMIENTOS = 500;
+
+    // Una huella 0 marca un lugar vacío
+    private final short[] huellas;
+    private final int mascara;
+    private int elementos;
+    private boolean saturado;
+
+    public CuckooFilter(int capacidad) {
+        if (capacidad < 1) {
+            throw new IllegalArgumentException("La capacidad debe ser positiva: " + capacidad);
+        }
+        int cubetas = Integer.highestOneBit(Math.max(1, (capacidad + LUGARES_POR_CUBETA - 1) / LUGARES_POR_CUBETA));
+        if (cubetas * LUGARES_POR_CUBETA < capacidad) {
+            cubetas <<= 1;
+        }
+        huellas = new short[cubetas * LUGARES_POR_CUBETA];
+        mascara = cubetas - 1;
+    }
+
+    public static long hash(int clave) {
+        return mezclar(clave * 0x9E3779B97F4A7C15L);
+    }
+
+    // FNV-1a sobre los bytes UTF-8 y un mezclado final para repartir bien los bits altos
+    public static long hash(String clave) {
+        long h = 0xCBF29CE484222325L;
+        for (byte b : clave.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xFF;
+            h *= 0x100000001B3L;
+        }
+        return mezclar(h);
+    }
+
+    public synchronized boolean add(long hash) {
+        short huella = huella(hash);
+        int i1 = cubeta(hash);
+        int i2 = alternativa(i1, huella);
+        if (ubicar(i1, huella) || ubicar(i2, huella)) {
+            elementos++;
+            return true;
+        }
+        int i = ThreadLocalRandom.current().nextBoolean() ? i1 : i2;
+        for (int n = 0; n < MAX_DESPLAZAMIENTOS; n++) {
+            int lugar = i * LUGARES_POR_CUBETA + ThreadLocalRandom.current().nextInt(LUGARES_POR_CUBETA);
+            short desplazada = huellas[lugar];
+            huellas[lugar] = huella;
+            huella = desplazada;
+            i = alternativa(i, huella);
+            if (ubicar(i, huella)) {
+                elementos++;
+                return true;
+            }
+        }
+        saturado = true;
+        return false;
+    }
+
+    public synchronized boolean mightContain(long hash) {
+        if (saturado) {
+            return true;
+        }
+        short huella = huella(hash);
+        int i1 = cubeta(hash);
+        return buscar(i1, huella) >= 0 || buscar(alternativa(i1, huella), huella) >= 0;
+    }
+
+    // Quita una aparición de la clave; devuelve false si no estaba
+    public synchronized boolean remove(long hash) {
+        short huella = huella(hash);
+        int i1 = cubeta(hash);
+        int lugar = buscar(i1, huella);
+        if (lugar < 0) {
+            lugar = buscar(alternativa(i1, huella), huella);
+        }
+        if (lugar < 0) {
+            return false;
+        }
+        huellas[lugar] = 0;
+        elementos--;
+        return true;
+    }
+
+    public synchronized int size() {
+        return elementos;
+    }
+
+    public int capacity() {
+        return huellas.length;
+    }
+
+    public synchronized boolean isSaturado() {
+        return saturado;
+    }
+
+    public long getBytes() {
+        return huellas.length * (long) Short.BYTES;
+    }
+
+    private boolean ubicar(int cubeta, short huella) {
+        int inicio = cubeta * LUGARES_POR_CUBETA;
+        for (int lugar = inicio; lugar < inicio + LUGARES_POR_CUBETA; lugar++) {
+            if (huellas[lugar] == 0) {
+                huellas[lugar] = huella;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int buscar(int cubeta, short huella) {
+        int inicio = cubeta * LUGARES_POR_CUBETA;
+        for (int lugar = inicio; lugar < inicio + LUGARES_POR_CUBETA; lugar++) {
+            if (huellas[lugar] == huella) {
+                return lugar;
+            }
+        }
+        return -1;
+    }
+
+    private int cubeta(long hash) {
+        return (int) hash & mascara;
+    }
+
+    // XOR con el hash de la huella: aplicada dos veces vuelve a la cubeta original
+    private int alternativa(int cubeta, short huella) {
+        return (cubeta ^ (int) mezclar(huella)) & mascara;
+    }
+
+    private static short huella(long hash) {
+        short huella = (short) (hash >>> 48);
+        return huella == 0 ? 1 : huella;
+    }
+
+    private static long mezclar(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
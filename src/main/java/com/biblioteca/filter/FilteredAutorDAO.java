@@ -0,0 +1,212 @@
+package com.biblioteca.filter;
+
+import com.biblioteca.dao.AutorDAO;
+import com.biblioteca.dao.BatchResult;
+import com.biblioteca.dao.Page;
+import com.biblioteca.dao.PageRequest;
+import com.biblioteca.dao.VersionedBatchResult;
+import com.biblioteca.dao.WriteResult;
+import com.biblioteca.model.Autor;
+import com.biblioteca.tx.TransactionManager;
+import com.biblioteca.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * Decorador de {@link AutorDAO} con un {@link CuckooFilter} de los ids de autores, construido al
+ * crearlo y mantenido por las escrituras que pasan por él. {@link #findById} y {@link #findByIds}
+ * responden sin consultar la base los ids que el filtro descarta; los demás siguen al delegado.
+ * Las altas se agregan al filtro enseguida y las bajas se quitan recién cuando se confirman, así
+ * que un error o un rollback sólo deja falsos positivos.
+ */
+public class FilteredAutorDAO implements AutorDAO {
+    private static final Logger logger = LoggerUtil.getLogger(FilteredAutorDAO.class);
+    static final int CAPACIDAD_MINIMA = 1 << 20;
+
+    private final AutorDAO delegate;
+    private final CuckooFilter ids;
+    private final LongAdder consultasEvitadas = new LongAdder();
+
+    public FilteredAutorDAO(AutorDAO delegate) {
+        this.delegate = delegate;
+        List<Integer> existentes;
+        try (Stream<Autor> autores = delegate.streamAll()) {
+            existentes = autores.map(Autor::getId).collect(Collectors.toList());
+        }
+        ids = new CuckooFilter(Math.max(CAPACIDAD_MINIMA, existentes.size() * 2));
+        existentes.forEach(this::agregar);
+        logger.info("Filtro de ids de autores construido con {} autores ({} KB)",
+                box(ids.size()), box(ids.getBytes() / 1024));
+    }
+
+    @Override
+    public Optional<Autor> findById(int id) {
+        if (!ids.mightContain(CuckooFilter.hash(id))) {
+            consultasEvitadas.increment();
+            return Optional.empty();
+        }
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Autor> findByIds(Collection<Integer> ids) {
+        List<Integer> posibles = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            if (this.ids.mightContain(CuckooFilter.hash(id))) {
+                posibles.add(id);
+            }
+        }
+        if (posibles.isEmpty()) {
+            consultasEvitadas.increment();
+            return new ArrayList<>();
+        }
+        return delegate.findByIds(posibles);
+    }
+
+    @Override
+    public List<Autor> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Page<Autor> findAll(PageRequest pageRequest) {
+        return delegate.findAll(pageRequest);
+    }
+
+    @Override
+    public Stream<Autor> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public List<Autor> findByNacionalidad(String nacionalidad) {
+        return delegate.findByNacionalidad(nacionalidad);
+    }
+
+    @Override
+    public Page<Autor> findByNacionalidad(String nacionalidad, PageRequest pageRequest) {
+        return delegate.findByNacionalidad(nacionalidad, pageRequest);
+    }
+
+    @Override
+    public void save(Autor autor) {
+        delegate.save(autor);
+        if (autor.getId() != 0) {
+            agregar(autor.getId());
+        }
+    }
+
+    @Override
+    public void update(Autor autor) {
+        delegate.update(autor);
+    }
+
+    @Override
+    public void delete(int id) {
+        // Sólo se quitan del filtro los ids que existían: quitar uno ausente podría borrar la huella de otro
+        boolean existia = findById(id).isPresent();
+        delegate.delete(id);
+        if (existia && delegate.findById(id).isEmpty()) {
+            quitar(id);
+        }
+    }
+
+    @Override
+    public BatchResult saveAll(Collection<Autor> autores) {
+        BatchResult result = delegate.saveAll(autores);
+        // Un lote fallido puede haber quedado confirmado en parte: los que conservan el id existen
+        for (Autor autor : autores) {
+            if (autor.getId() > 0) {
+                agregar(autor.getId());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public BatchResult updateAll(Collection<Autor> autores) {
+        return delegate.updateAll(autores);
+    }
+
+    @Override
+    public BatchResult deleteAll(int[] ids) {
+        List<Integer> lista = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            lista.add(id);
+        }
+        List<Autor> existentes = findByIds(lista);
+        BatchResult result = delegate.deleteAll(ids);
+        if (result.isSuccessful()) {
+            existentes.forEach(autor -> quitar(autor.getId()));
+        }
+        return result;
+    }
+
+    @Override
+    public WriteResult updateIfVersion(Autor autor) {
+        return delegate.updateIfVersion(autor);
+    }
+
+    @Override
+    public WriteResult deleteIfVersion(int id, int version) {
+        if (!ids.mightContain(CuckooFilter.hash(id))) {
+            consultasEvitadas.increment();
+            return WriteResult.NOT_FOUND;
+        }
+        WriteResult resultado = delegate.deleteIfVersion(id, version);
+        if (resultado == WriteResult.APPLIED) {
+            quitar(id);
+        }
+        return resultado;
+    }
+
+    @Override
+    public VersionedBatchResult updateAllIfVersion(Collection<Autor> autores) {
+        return delegate.updateAllIfVersion(autores);
+    }
+
+    @Override
+    public VersionedBatchResult deleteAllIfVersion(Collection<Autor> autores) {
+        VersionedBatchResult result = delegate.deleteAllIfVersion(autores);
+        int i = 0;
+        for (Autor autor : autores) {
+            if (result.getResults().get(i++) == WriteResult.APPLIED) {
+                quitar(autor.getId());
+            }
+        }
+        return result;
+    }
+
+    public long getConsultasEvitadas() {
+        return consultasEvitadas.sum();
+    }
+
+    public boolean isSaturado() {
+        return ids.isSaturado();
+    }
+
+    private void agregar(int id) {
+        boolean saturado = ids.isSaturado();
+        if (!ids.add(CuckooFilter.hash(id)) && !saturado) {
+            logger.warn("El filtro de ids de autores se llenó; las búsquedas vuelven a consultar la base " +
+                    "hasta reiniciar la aplicación");
+        }
+    }
+
+    // Dentro de una transacción se quita al confirmarla; si se deshace, el autor sigue existiendo
+    private void quitar(int id) {
+        long hash = CuckooFilter.hash(id);
+        if (!TransactionManager.afterCommit(() -> ids.remove(hash))) {
+            ids.remove(hash);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.biblioteca.filter;
+
+import com.biblioteca.dao.BatchResult;
+import com.biblioteca.dao.LibroDAO;
+import com.biblioteca.dao.Page;
+import com.biblioteca.dao.PageRequest;
+import com.biblioteca.dao.VersionedBatchResult;
+import com.biblioteca.dao.WriteResult;
+import com.biblioteca.model.Libro;
+import com.biblioteca.model.LibroConAutor;
+import com.biblioteca.tx.TransactionManager;
+import com.biblioteca.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * Decorador de {@link LibroDAO} con un {@link CuckooFilter} de los ISBN registrados.
+ * {@link #findByIsbn} y {@link #findByIsbns} no consultan la base por los ISBN que el filtro
+ * descarta, y las altas con un ISBN que ya existe se rechazan antes de llegar al {@code UNIQUE}:
+ * {@link #save} deja el id en 0 como cualquier alta fallida y {@link #saveAll} devuelve un lote
+ * fallido sin enviarlo. Con ISBN nuevos, que son la mayoría en una importación, ninguna de estas
+ * comprobaciones toca la base.
+ *
+ * <p>El filtro guarda una huella por libro. Un cambio de ISBN agrega el nuevo y deja el anterior
+ * como falso positivo; las bajas lo quitan recién cuando se confirman.
+ */
+public class FilteredLibroDAO implements LibroDAO {
+    private static final Logger logger = LoggerUtil.getLogger(FilteredLibroDAO.class);
+
+    private final LibroDAO delegate;
+    private final CuckooFilter isbns;
+    private final LongAdder consultasEvitadas = new LongAdder();
+
+    public FilteredLibroDAO(LibroDAO delegate) {
+        this.delegate = delegate;
+        long[] hashes = new long[1024];
+        int cantidad = 0;
+        try (Stream<Libro> libros = delegate.streamAll()) {
+            for (Libro libro : (Iterable<Libro>) libros::iterator) {
+                if (libro.getIsbn() != null) {
+                    if (cantidad == hashes.length) {
+                        hashes = Arrays.copyOf(hashes, cantidad * 2);
+                    }
+                    hashes[cantidad++] = CuckooFilter.hash(libro.getIsbn());
+                }
+            }
+        }
+        isbns = new CuckooFilter(Math.max(FilteredAutorDAO.CAPACIDAD_MINIMA, cantidad * 2));
+        for (int i = 0; i < cantidad; i++) {
+            agregar(hashes[i]);
+        }
+        logger.info("Filtro de ISBN construido con {} libros ({} KB)",
+                box(isbns.size()), box(isbns.getBytes() / 1024));
+    }
+
+    @Override
+    public Optional<Libro> findById(int id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Libro> findByIds(Collection<Integer> ids) {
+        return delegate.findByIds(ids);
+    }
+
+    @Override
+    public Optional<Libro> findByIsbn(String isbn) {
+        if (isbn == null || !isbns.mightContain(CuckooFilter.hash(isbn))) {
+            consultasEvitadas.increment();
+            return Optional.empty();
+        }
+        return delegate.findByIsbn(isbn);
+    }
+
+    @Override
+    public List<Libro> findByIsbns(Collection<String> isbns) {
+        List<String> posibles = new ArrayList<>(isbns.size());
+        for (String isbn : isbns) {
+            if (isbn != null && this.isbns.mightContain(CuckooFilter.hash(isbn))) {
+                posibles.add(isbn);
+            }
+        }
+        if (posibles.isEmpty()) {
+            consultasEvitadas.increment();
+            return new ArrayList<>();
+        }
+        return delegate.findByIsbns(posibles);
+    }
+
+    @Override
+    public List<Libro> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Page<Libro> findAll(PageRequest pageRequest) {
+        return delegate.findAll(pageRequest);
+    }
+
+    @Override
+    public Stream<Libro> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public List<Libro> findByTitulo(String titulo) {
+        return delegate.findByTitulo(titulo);
+    }
+
+    @Override
+    public Page<Libro> findByTitulo(String titulo, PageRequest pageRequest) {
+        return delegate.findByTitulo(titulo, pageRequest);
+    }
+
+    @Override
+    public List<Libro> findByFechaPublicacionAfter(LocalDate fecha) {
+        return delegate.findByFechaPublicacionAfter(fecha);
+    }
+
+    @Override
+    public Page<Libro> findByFechaPublicacionAfter(LocalDate fecha, PageRequest pageRequest) {
+        return delegate.findByFechaPublicacionAfter(fecha, pageRequest);
+    }
+
+    @Override
+    public List<Libro> findByAutorId(int autorId) {
+        return delegate.findByAutorId(autorId);
+    }
+
+    @Override
+    public Page<Libro> findByAutorId(int autorId, PageRequest pageRequest) {
+        return delegate.findByAutorId(autorId, pageRequest);
+    }
+
+    @Override
+    public List<LibroConAutor> findAllConAutor() {
+        return delegate.findAllConAutor();
+    }
+
+    @Override
+    public Page<LibroConAutor> findAllConAutor(PageRequest pageRequest) {
+        return delegate.findAllConAutor(pageRequest);
+    }
+
+    @Override
+    public void save(Libro libro) {
+        if (findByIsbn(libro.getIsbn()).isPresent()) {
+            logger.error("Error al guardar libro: ya existe un libro con ISBN {}", libro.getIsbn());
+            return;
+        }
+        delegate.save(libro);
+        if (libro.getId() != 0) {
+            agregar(libro.getIsbn());
+        }
+    }
+
+    @Override
+    public void update(Libro libro) {
+        String anterior = delegate.findById(libro.getId()).map(Libro::getIsbn).orElse(null);
+        delegate.update(libro);
+        if (libro.getIsbn() != null && !libro.getIsbn().equals(anterior)) {
+            agregar(libro.getIsbn());
+        }
+    }
+
+    @Override
+    public void delete(int id) {
+        Optional<Libro> antes = delegate.findById(id);
+        delegate.delete(id);
+        if (antes.isPresent() && delegate.findById(id).isEmpty()) {
+            quitar(antes.get().getIsbn());
+        }
+    }
+
+    @Override
+    public BatchResult saveAll(Collection<Libro> libros) {
+        long start = System.nanoTime();
+        List<Libro> registrados = findByIsbns(libros.stream().map(Libro::getIsbn).collect(Collectors.toList()));
+        if (!registrados.isEmpty()) {
+            logger.error("Error al guardar libros en lote: {} ISBN ya registrados, el primero {}",
+                    box(registrados.size()), registrados.get(0).getIsbn());
+            return BatchResult.failed(System.nanoTime() - start);
+        }
+        BatchResult result = delegate.saveAll(libros);
+        // Un lote fallido puede haber quedado confirmado en parte: los que conservan el id existen
+        for (Libro libro : libros) {
+            if (libro.getId() > 0) {
+                agregar(libro.getIsbn());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public BatchResult updateAll(Collection<Libro> libros) {
+        Map<Integer, String> anteriores = isbnsPorId(libros.stream().map(Libro::getId).collect(Collectors.toList()));
+        BatchResult result = delegate.updateAll(libros);
+        for (Libro libro : libros) {
+            if (libro.getIsbn() != null && !libro.getIsbn().equals(anteriores.get(libro.getId()))) {
+                agregar(libro.getIsbn());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public BatchResult deleteAll(int[] ids) {
+        Map<Integer, String> anteriores = isbnsPorId(Arrays.stream(ids).boxed().collect(Collectors.toList()));
+        BatchResult result = delegate.deleteAll(ids);
+        if (result.isSuccessful()) {
+            anteriores.values().forEach(this::quitar);
+        }
+        return result;
+    }
+
+    @Override
+    public BatchResult upsertByIsbn(Collection<Libro> libros) {
+        Set<String> registrados = new HashSet<>();
+        findByIsbns(libros.stream().map(Libro::getIsbn).collect(Collectors.toList()))
+                .forEach(libro -> registrados.add(libro.getIsbn()));
+        BatchResult result = delegate.upsertByIsbn(libros);
+        if (result.isSuccessful()) {
+            // Un ISBN repetido dentro del lote es una sola fila
+            libros.stream().map(Libro::getIsbn).filter(registrados::add).forEach(this::agregar);
+        }
+        return result;
+    }
+
+    @Override
+    public WriteResult updateIfVersion(Libro libro) {
+        String anterior = delegate.findById(libro.getId()).map(Libro::getIsbn).orElse(null);
+        WriteResult resultado = delegate.updateIfVersion(libro);
+        if (resultado == WriteResult.APPLIED && libro.getIsbn() != null && !libro.getIsbn().equals(anterior)) {
+            agregar(libro.getIsbn());
+        }
+        return resultado;
+    }
+
+    @Override
+    public WriteResult deleteIfVersion(int id, int version) {
+        Optional<Libro> antes = delegate.findById(id);
+        WriteResult resultado = delegate.deleteIfVersion(id, version);
+        // Si la versión leída no es la eliminada, el ISBN pudo cambiar entre la lectura y la baja
+        if (resultado == WriteResult.APPLIED && antes.isPresent() && antes.get().getVersion() == version) {
+            quitar(antes.get().getIsbn());
+        }
+        return resultado;
+    }
+
+    @Override
+    public VersionedBatchResult updateAllIfVersion(Collection<Libro> libros) {
+        Map<Integer, String> anteriores = isbnsPorId(libros.stream().map(Libro::getId).collect(Collectors.toList()));
+        VersionedBatchResult result = delegate.updateAllIfVersion(libros);
+        int i = 0;
+        for (Libro libro : libros) {
+            if (result.getResults().get(i++) == WriteResult.APPLIED && libro.getIsbn() != null
+                    && !libro.getIsbn().equals(anteriores.get(libro.getId()))) {
+                agregar(libro.getIsbn());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public VersionedBatchResult deleteAllIfVersion(Collection<Libro> libros) {
+        Map<Integer, Libro> anteriores = new HashMap<>(libros.size() * 2);
+        delegate.findByIds(libros.stream().map(Libro::getId).collect(Collectors.toList()))
+                .forEach(libro -> anteriores.put(libro.getId(), libro));
+        VersionedBatchResult result = delegate.deleteAllIfVersion(libros);
+        int i = 0;
+        for (Libro libro : libros) {
+            Libro anterior = anteriores.get(libro.getId());
+            if (result.getResults().get(i++) == WriteResult.APPLIED && anterior != null
+                    && anterior.getVersion() == libro.getVersion()) {
+                quitar(anterior.getIsbn());
+            }
+        }
+        return result;
+    }
+
+    public long getConsultasEvitadas() {
+        return consultasEvitadas.sum();
+    }
+
+    public boolean isSaturado() {
+        return isbns.isSaturado();
+    }
+
+    private Map<Integer, String> isbnsPorId(List<Integer> ids) {
+        Map<Integer, String> porId = new HashMap<>(ids.size() * 2);
+        delegate.findByIds(ids).forEach(libro -> porId.put(libro.getId(), libro.getIsbn()));
+        return porId;
+    }
+
+    private void agregar(String isbn) {
+        if (isbn != null) {
+            agregar(CuckooFilter.hash(isbn));
+        }
+    }
+
+    private void agregar(long hash) {
+        boolean saturado = isbns.isSaturado();
+        if (!isbns.add(hash) && !saturado) {
+            logger.warn("El filtro de ISBN se llenó; las búsquedas por ISBN vuelven a consultar la base " +
+                    "hasta reiniciar la aplicación");
+        }
+    }
+
+    // Dentro de una transacción se quita al confirmarla; si se deshace, el libro sigue existiendo
+    private void quitar(String isbn) {
+        if (isbn == null) {
+            return;
+        }
+        long hash = CuckooFilter.hash(isbn);
+        if (!TransactionManager.afterCommit(() -> isbns.remove(hash))) {
+            isbns.remove(hash);
+        }
+    }
+}
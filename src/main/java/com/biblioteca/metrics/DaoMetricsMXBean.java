@@ -0,0 +1,20 @@
+package com.biblioteca.metrics;
+
+import java.util.List;
+
+/**
+ * Vista JMX de las métricas de los DAOs, registrada como {@code com.biblioteca:type=DaoMetrics}.
+ */
+public interface DaoMetricsMXBean {
+    List<MethodStats> getMethods();
+
+    long getTotalCalls();
+
+    long getSlowQueries();
+
+    long getSlowQueryThresholdMillis();
+
+    void setSlowQueryThresholdMillis(long millis);
+
+    void reset();
+}
@@ -0,0 +1,172 @@
+package com.biblioteca.metrics;
+
+import com.biblioteca.util.ConnectionProvider;
+import com.biblioteca.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Proveedor que mide cada ejecución de sentencia y registra en el log las que superan el umbral
+ * de consultas lentas del {@link MetricsRegistry}, con su SQL y los parámetros enlazados. Los
+ * parámetros se guardan en un arreglo por sentencia y sólo se formatean si la consulta es lenta.
+ */
+public class InstrumentedConnectionProvider implements ConnectionProvider {
+    private static final Logger logger = LoggerUtil.getLogger(InstrumentedConnectionProvider.class);
+
+    private final ConnectionProvider delegate;
+    private final MetricsRegistry registry;
+    private final MethodMetrics executions;
+
+    public InstrumentedConnectionProvider(ConnectionProvider delegate, MetricsRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+        this.executions = registry.metrics("JDBC.execute");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection;
+        try {
+            connection = delegate.getConnection();
+        } catch (SQLException e) {
+            SqlErrors.increment();
+            throw e;
+        }
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection));
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException) {
+                SqlErrors.increment();
+            }
+            throw e.getCause();
+        }
+    }
+
+    private static boolean isExecute(String name) {
+        return name.startsWith("execute");
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+
+        private ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            Object result = InstrumentedConnectionProvider.invoke(connection, method, args);
+            if (result instanceof Statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                Class<?> type = method.getReturnType();
+                return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                        new StatementHandler((Statement) result, sql));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final String sql;
+        private Object[] parameters = new Object[8];
+        private int batchSize;
+
+        private StatementHandler(Statement statement, String sql) {
+            this.statement = statement;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                bind((Integer) args[0], args[1]);
+            } else if ("clearParameters".equals(name)) {
+                Arrays.fill(parameters, null);
+            } else if ("addBatch".equals(name)) {
+                batchSize++;
+            } else if (isExecute(name)) {
+                return execute(method, args);
+            } else if ("equals".equals(name)) {
+                return proxy == args[0];
+            } else if ("hashCode".equals(name)) {
+                return System.identityHashCode(proxy);
+            }
+            return InstrumentedConnectionProvider.invoke(statement, method, args);
+        }
+
+        private void bind(int index, Object value) {
+            if (index >= parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(index + 1, parameters.length * 2));
+            }
+            parameters[index] = value;
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            long start = System.nanoTime();
+            boolean error = true;
+            try {
+                Object result = InstrumentedConnectionProvider.invoke(statement, method, args);
+                error = false;
+                return result;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                executions.record(elapsed, 0, error);
+                if (elapsed >= registry.getSlowQueryThresholdNanos()) {
+                    logSlowQuery(args, elapsed);
+                }
+                if ("executeBatch".equals(method.getName())) {
+                    batchSize = 0;
+                }
+            }
+        }
+
+        private void logSlowQuery(Object[] args, long elapsedNanos) {
+            registry.recordSlowQuery();
+            String text = sql != null ? sql : args != null && args.length > 0 ? String.valueOf(args[0]) : "?";
+            StringBuilder message = new StringBuilder("Consulta lenta (")
+                    .append(TimeUnit.NANOSECONDS.toMillis(elapsedNanos)).append(" ms): ").append(text);
+            int last = parameters.length - 1;
+            while (last > 0 && parameters[last] == null) {
+                last--;
+            }
+            if (last > 0) {
+                message.append(" parámetros=").append(Arrays.deepToString(Arrays.copyOfRange(parameters, 1, last + 1)));
+            }
+            if (batchSize > 0) {
+                message.append(" lote=").append(batchSize);
+            }
+            logger.warn(message.toString());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.biblioteca.metrics;
+
+import com.biblioteca.util.LatencyHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de un método instrumentado. Se actualizan sin bloqueos desde cualquier hilo.
+ */
+final class MethodMetrics {
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    MethodMetrics(String name) {
+        this.name = name;
+    }
+
+    void record(long nanos, long rowCount, boolean error) {
+        calls.increment();
+        latencies.record(nanos);
+        if (rowCount > 0) {
+            rows.add(rowCount);
+        }
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    void addRows(long rowCount) {
+        rows.add(rowCount);
+    }
+
+    long getCalls() {
+        return calls.sum();
+    }
+
+    MethodStats snapshot() {
+        return new MethodStats(name, calls.sum(), errors.sum(), rows.sum(), latencies);
+    }
+
+    void reset() {
+        calls.reset();
+        errors.reset();
+        rows.reset();
+        latencies.reset();
+    }
+}
@@ -0,0 +1,56 @@
+package com.biblioteca.metrics;
+
+import com.biblioteca.util.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Instantánea de las métricas de un método. Las latencias están en microsegundos.
+ */
+public class MethodStats {
+    private final String name;
+    private final long calls;
+    private final long errors;
+    private final long rows;
+    private final long p50;
+    private final long p99;
+    private final long p999;
+    private final long max;
+
+    MethodStats(String name, long calls, long errors, long rows, LatencyHistogram latencies) {
+        this.name = name;
+        this.calls = calls;
+        this.errors = errors;
+        this.rows = rows;
+        this.p50 = toMicros(latencies.getPercentile(0.50));
+        this.p99 = toMicros(latencies.getPercentile(0.99));
+        this.p999 = toMicros(latencies.getPercentile(0.999));
+        this.max = toMicros(latencies.getMax());
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    public String getName() { return name; }
+    public long getCalls() { return calls; }
+    public long getErrors() { return errors; }
+    public long getRows() { return rows; }
+    public long getP50() { return p50; }
+    public long getP99() { return p99; }
+    public long getP999() { return p999; }
+    public long getMax() { return max; }
+
+    @Override
+    public String toString() {
+        return name + "{" +
+                "calls=" + calls +
+                ", errors=" + errors +
+                ", rows=" + rows +
+                ", p50=" + p50 + "us" +
+                ", p99=" + p99 + "us" +
+                ", p999=" + p999 + "us" +
+                ", max=" + max + "us" +
+                '}';
+    }
+}
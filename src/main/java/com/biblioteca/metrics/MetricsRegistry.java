@@ -0,0 +1,86 @@
+package com.biblioteca.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas por método de los DAOs instrumentados, de las sentencias SQL y de las rutas del
+ * servicio HTTP, junto con el umbral y el contador de consultas lentas.
+ */
+public class MetricsRegistry {
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry(200);
+
+    private final ConcurrentMap<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+    private final LongAdder slowQueries = new LongAdder();
+    private volatile long slowQueryThresholdNanos;
+
+    public MetricsRegistry(long slowQueryThresholdMillis) {
+        setSlowQueryThresholdMillis(slowQueryThresholdMillis);
+    }
+
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    // Los instrumentadores guardan la referencia devuelta para no buscarla en cada llamada
+    MethodMetrics metrics(String name) {
+        return methods.computeIfAbsent(name, MethodMetrics::new);
+    }
+
+    // Para instrumentar desde fuera de este paquete, como las rutas del servicio HTTP
+    public void record(String name, long nanos, long rowCount, boolean error) {
+        metrics(name).record(nanos, rowCount, error);
+    }
+
+    public List<MethodStats> snapshot() {
+        List<MethodStats> stats = new ArrayList<>(methods.size());
+        for (MethodMetrics metrics : methods.values()) {
+            if (metrics.getCalls() > 0) {
+                stats.add(metrics.snapshot());
+            }
+        }
+        stats.sort(Comparator.comparing(MethodStats::getName));
+        return stats;
+    }
+
+    public long getTotalCalls() {
+        long total = 0;
+        for (MethodMetrics metrics : methods.values()) {
+            total += metrics.getCalls();
+        }
+        return total;
+    }
+
+    public long getSlowQueries() {
+        return slowQueries.sum();
+    }
+
+    void recordSlowQuery() {
+        slowQueries.increment();
+    }
+
+    public long getSlowQueryThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(slowQueryThresholdNanos);
+    }
+
+    long getSlowQueryThresholdNanos() {
+        return slowQueryThresholdNanos;
+    }
+
+    public void setSlowQueryThresholdMillis(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("El umbral de consultas lentas no puede ser negativo");
+        }
+        this.slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    public void reset() {
+        methods.values().forEach(MethodMetrics::reset);
+        slowQueries.reset();
+    }
+}
@@ -0,0 +1,119 @@
+package com.biblioteca.metrics;
+
+import com.biblioteca.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publica un {@link MetricsRegistry} por JMX y escribe periódicamente una instantánea en el log.
+ * La instantánea sólo se escribe si hubo llamadas desde la anterior.
+ */
+public class MetricsReporter implements AutoCloseable, DaoMetricsMXBean {
+    private static final Logger logger = LoggerUtil.getLogger(MetricsReporter.class);
+    private static final String OBJECT_NAME = "com.biblioteca:type=DaoMetrics";
+
+    private final MetricsRegistry registry;
+    private final ScheduledExecutorService scheduler;
+    private ObjectName objectName;
+    private long lastReportedCalls;
+
+    public MetricsReporter(MetricsRegistry registry, long periodSeconds) {
+        this.registry = registry;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        registerMBean();
+        if (periodSeconds > 0) {
+            scheduler.scheduleAtFixedRate(this::report, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    private void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+                objectName = name;
+            }
+        } catch (JMException e) {
+            logger.warn("No se pudieron publicar las métricas por JMX", e);
+        }
+    }
+
+    private void report() {
+        try {
+            long calls = registry.getTotalCalls();
+            if (calls == lastReportedCalls) {
+                return;
+            }
+            lastReportedCalls = calls;
+            logSnapshot();
+        } catch (RuntimeException e) {
+            logger.error("Error al escribir la instantánea de métricas", e);
+        }
+    }
+
+    public void logSnapshot() {
+        StringBuilder message = new StringBuilder("Métricas de DAOs (consultas lentas: ")
+                .append(registry.getSlowQueries()).append(')');
+        for (MethodStats stats : registry.snapshot()) {
+            message.append(System.lineSeparator()).append("  ").append(stats);
+        }
+        logger.info(message.toString());
+    }
+
+    @Override
+    public List<MethodStats> getMethods() {
+        return registry.snapshot();
+    }
+
+    @Override
+    public long getTotalCalls() {
+        return registry.getTotalCalls();
+    }
+
+    @Override
+    public long getSlowQueries() {
+        return registry.getSlowQueries();
+    }
+
+    @Override
+    public long getSlowQueryThresholdMillis() {
+        return registry.getSlowQueryThresholdMillis();
+    }
+
+    @Override
+    public void setSlowQueryThresholdMillis(long millis) {
+        registry.setSlowQueryThresholdMillis(millis);
+    }
+
+    @Override
+    public void reset() {
+        registry.reset();
+        lastReportedCalls = 0;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (JMException e) {
+                logger.warn("No se pudo retirar el MBean de métricas", e);
+            }
+            objectName = null;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.biblioteca.metrics;
+
+/**
+ * Cuenta, por hilo, los errores SQL vistos por {@link InstrumentedConnectionProvider}. Los DAOs
+ * registran y ocultan sus excepciones, así que {@link InstrumentedDAO} compara el contador antes
+ * y después de cada llamada para saber si falló.
+ */
+final class SqlErrors {
+    private static final ThreadLocal<long[]> counter = ThreadLocal.withInitial(() -> new long[1]);
+
+    private SqlErrors() {}
+
+    static long current() {
+        return counter.get()[0];
+    }
+
+    static void increment() {
+        counter.get()[0]++;
+    }
+}
@@ -0,0 +1,68 @@
+package com.biblioteca.migration;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Script de migración versionado. El nombre sigue el formato {@code V<version>__<descripcion>.sql}.
+ */
+public class Migration {
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    private final int version;
+    private final String description;
+    private final String script;
+    private final int checksum;
+
+    public Migration(int version, String description, String script) {
+        this.version = version;
+        this.description = description;
+        this.script = script.replace("\r\n", "\n");
+        CRC32 crc = new CRC32();
+        crc.update(this.script.getBytes(StandardCharsets.UTF_8));
+        this.checksum = (int) crc.getValue();
+    }
+
+    public static Migration fromFile(String fileName, String script) {
+        Matcher matcher = FILE_NAME.matcher(fileName);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Nombre de migración inválido: " + fileName);
+        }
+        return new Migration(Integer.parseInt(matcher.group(1)), matcher.group(2).replace('_', ' '), script);
+    }
+
+    public int getVersion() { return version; }
+    public String getDescription() { return description; }
+    public int getChecksum() { return checksum; }
+
+    // Separa el script en sentencias, descartando las líneas de comentario
+    public List<String> getStatements() {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : script.split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+            current.append(line).append('\n');
+            if (trimmed.endsWith(";")) {
+                String statement = current.toString().trim();
+                statements.add(statement.substring(0, statement.length() - 1));
+                current.setLength(0);
+            }
+        }
+        if (current.toString().trim().length() > 0) {
+            statements.add(current.toString().trim());
+        }
+        return statements;
+    }
+
+    @Override
+    public String toString() {
+        return "V" + version + " (" + description + ")";
+    }
+}
@@ -0,0 +1,155 @@
+package com.biblioteca.migration;
+
+import com.biblioteca.util.ConnectionProvider;
+import com.biblioteca.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * Aplica en orden los scripts listados en {@code <location>/migraciones.txt} que todavía no
+ * figuran en la tabla {@code schema_version}. Antes de aplicar nada valida que los scripts
+ * ya aplicados no hayan cambiado comparando sus checksums.
+ */
+public class MigrationRunner {
+    private static final Logger logger = LoggerUtil.getLogger(MigrationRunner.class);
+    private static final String DEFAULT_LOCATION = "db/migration";
+    private static final String INDEX_FILE = "migraciones.txt";
+
+    private final ConnectionProvider connectionProvider;
+    private final String location;
+
+    public MigrationRunner(ConnectionProvider connectionProvider) {
+        this(connectionProvider, DEFAULT_LOCATION);
+    }
+
+    public MigrationRunner(ConnectionProvider connectionProvider, String location) {
+        this.connectionProvider = connectionProvider;
+        this.location = location;
+    }
+
+    public int migrate() throws SQLException {
+        List<Migration> migrations = loadMigrations();
+        try (Connection connection = connectionProvider.getConnection()) {
+            createVersionTable(connection);
+            Map<Integer, Integer> applied = validate(connection, migrations);
+            int count = 0;
+            for (Migration migration : migrations) {
+                if (!applied.containsKey(migration.getVersion())) {
+                    apply(connection, migration);
+                    count++;
+                }
+            }
+            if (count > 0) {
+                logger.info("Migraciones aplicadas: {}", box(count));
+            }
+            return count;
+        }
+    }
+
+    public List<Migration> loadMigrations() {
+        List<Migration> migrations = new ArrayList<>();
+        for (String fileName : readResource(location + "/" + INDEX_FILE).split("\n")) {
+            String trimmed = fileName.trim();
+            if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                migrations.add(Migration.fromFile(trimmed, readResource(location + "/" + trimmed)));
+            }
+        }
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).getVersion() <= migrations.get(i - 1).getVersion()) {
+                throw new IllegalStateException("Las migraciones deben estar en orden creciente: " + migrations.get(i));
+            }
+        }
+        return migrations;
+    }
+
+    private void createVersionTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                    "version INT PRIMARY KEY, " +
+                    "descripcion VARCHAR(200) NOT NULL, " +
+                    "checksum INT NOT NULL, " +
+                    "instalado_en TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                    "duracion_ms BIGINT)");
+        }
+    }
+
+    private Map<Integer, Integer> validate(Connection connection, List<Migration> migrations) throws SQLException {
+        Map<Integer, Integer> applied = new TreeMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (resultSet.next()) {
+                applied.put(resultSet.getInt("version"), resultSet.getInt("checksum"));
+            }
+        }
+        Map<Integer, Migration> known = migrations.stream()
+                .collect(Collectors.toMap(Migration::getVersion, m -> m));
+        for (Map.Entry<Integer, Integer> entry : applied.entrySet()) {
+            Migration migration = known.get(entry.getKey());
+            if (migration == null) {
+                throw new IllegalStateException("La base tiene aplicada la versión " + entry.getKey() +
+                        " que no existe en esta aplicación");
+            }
+            if (migration.getChecksum() != entry.getValue()) {
+                throw new IllegalStateException("El checksum de la migración " + migration +
+                        " no coincide con el aplicado en la base");
+            }
+        }
+        return applied;
+    }
+
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        long start = System.nanoTime();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : migration.getStatements()) {
+                statement.execute(sql);
+            }
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO schema_version (version, descripcion, checksum, duracion_ms) VALUES (?, ?, ?, ?)")) {
+                insert.setInt(1, migration.getVersion());
+                insert.setString(2, migration.getDescription());
+                insert.setInt(3, migration.getChecksum());
+                insert.setLong(4, (System.nanoTime() - start) / 1_000_000);
+                insert.executeUpdate();
+            }
+            connection.commit();
+            logger.info("Migración aplicada: {}", migration);
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new SQLException("Error al aplicar la migración " + migration, e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static String readResource(String path) {
+        InputStream input = MigrationRunner.class.getClassLoader().getResourceAsStream(path);
+        if (input == null) {
+            throw new IllegalStateException("No se encontró el recurso de migración: " + path);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.joining("\n"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -6,6 +6,7 @@ public class Autor {
     private int id;
     private String nombre;
     private String nacionalidad;
+    private int version;
 
     public Autor() {}
 
@@ -14,6 +15,13 @@ public class Autor {
         this.nacionalidad = nacionalidad;
     }
 
+    public Autor(Autor otro) {
+        this.id = otro.id;
+        this.nombre = otro.nombre;
+        this.nacionalidad = otro.nacionalidad;
+        this.version = otro.version;
+    }
+
     // Getters y Setters
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
@@ -21,6 +29,8 @@ public class Autor {
     public void setNombre(String nombre) { this.nombre = nombre; }
     public String getNacionalidad() { return nacionalidad; }
     public void setNacionalidad(String nacionalidad) { this.nacionalidad = nacionalidad; }
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
 
     @Override
     public boolean equals(Object o) {
@@ -41,6 +51,7 @@ public class Autor {
                 "id=" + id +
                 ", nombre='" + nombre + '\'' +
                 ", nacionalidad='" + nacionalidad + '\'' +
+                ", version=" + version +
                 '}';
     }
 }
\ No newline at end of file
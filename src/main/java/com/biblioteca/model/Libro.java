@@ -9,6 +9,7 @@ public class Libro {
     private String isbn;
     private LocalDate fechaPublicacion;
     private int autorId;
+    private int version;
 
     public Libro() {}
 
@@ -19,6 +20,15 @@ public class Libro {
         this.autorId = autorId;
     }
 
+    public Libro(Libro otro) {
+        this.id = otro.id;
+        this.titulo = otro.titulo;
+        this.isbn = otro.isbn;
+        this.fechaPublicacion = otro.fechaPublicacion;
+        this.autorId = otro.autorId;
+        this.version = otro.version;
+    }
+
     // Getters y Setters
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
@@ -30,6 +40,8 @@ public class Libro {
     public void setFechaPublicacion(LocalDate fechaPublicacion) { this.fechaPublicacion = fechaPublicacion; }
     public int getAutorId() { return autorId; }
     public void setAutorId(int autorId) { this.autorId = autorId; }
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
 
     @Override
     public boolean equals(Object o) {
@@ -52,6 +64,7 @@ public class Libro {
                 ", isbn='" + isbn + '\'' +
                 ", fechaPublicacion=" + fechaPublicacion +
                 ", autorId=" + autorId +
+                ", version=" + version +
                 '}';
     }
 }
\ No newline at end of file
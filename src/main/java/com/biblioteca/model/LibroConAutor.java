@@ -0,0 +1,35 @@
+package com.biblioteca.model;
+
+import java.util.Objects;
+
+public class LibroConAutor {
+    private final Libro libro;
+    private final Autor autor;
+
+    public LibroConAutor(Libro libro, Autor autor) {
+        this.libro = libro;
+        this.autor = autor;
+    }
+
+    // Getters
+    public Libro getLibro() { return libro; }
+    public Autor getAutor() { return autor; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LibroConAutor that = (LibroConAutor) o;
+        return Objects.equals(libro, that.libro);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(libro);
+    }
+
+    @Override
+    public String toString() {
+        return libro + " - Autor: " + (autor != null ? autor.getNombre() : "(desconocido)");
+    }
+}
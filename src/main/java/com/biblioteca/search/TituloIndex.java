@@ -0,0 +1,265 @@
+package com.biblioteca.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido de trigramas sobre títulos normalizados. Una búsqueda intersecta las
+ * listas de ids de los trigramas de la consulta, empezando por la más corta, verifica que
+ * el título contenga la consulta completa y ordena por {@link #relevancia}. Las consultas
+ * de menos de tres caracteres no tienen trigramas y se verifican contra todos los títulos.
+ */
+public class TituloIndex {
+    private static final int GRAM = 3;
+    private static final int MAX_LARGO = 0xFF_FFFF;
+
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private String[] titulos = new String[1024];
+    private int size;
+
+    public void add(int id, String titulo) {
+        String normalizado = TextNormalizer.normalize(titulo);
+        lock.writeLock().lock();
+        try {
+            ensureCapacity(id);
+            if (titulos[id] != null) {
+                removeLocked(id);
+            }
+            titulos[id] = normalizado;
+            size++;
+            for (long gram : trigramsOf(normalizado)) {
+                postings.computeIfAbsent(gram, g -> new PostingList()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void update(int id, String titulo) {
+        add(id, titulo);
+    }
+
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Clave de orden de un título para la consulta, o -1 si el título normalizado no la contiene.
+     * Menor es más relevante: coincidencia exacta, prefijo del título, inicio de palabra y cualquier
+     * otra posición; a igual posición, el título más corto. Los empates se ordenan por id.
+     * La migración V5 la registra en H2 como RELEVANCIA_TITULO para que la búsqueda por SQL
+     * ordene igual que el índice.
+     */
+    public static int relevancia(String titulo, String consulta) {
+        return clave(TextNormalizer.normalize(titulo), TextNormalizer.normalize(consulta));
+    }
+
+    // Igual que relevancia, para quien ya tiene título y consulta normalizados con TextNormalizer
+    public static int relevanciaNormalizada(String tituloNormalizado, String consultaNormalizada) {
+        return clave(tituloNormalizado, consultaNormalizada);
+    }
+
+    /** Ids de todos los libros cuyo título contiene la consulta, por relevancia. */
+    public int[] search(String consulta) {
+        long[] claves = coincidencias(TextNormalizer.normalize(consulta));
+        Arrays.sort(claves);
+        return ids(claves, claves.length);
+    }
+
+    /**
+     * Hasta {@code limit} ids que siguen a ({@code afterRelevancia}, {@code afterId}) en el orden de
+     * {@link #search}; con {@code afterRelevancia} -1 devuelve la primera página.
+     */
+    public int[] searchAfter(String consulta, int afterRelevancia, int afterId, int limit) {
+        if (limit <= 0) {
+            return new int[0];
+        }
+        long[] claves = coincidencias(TextNormalizer.normalize(consulta));
+        long cursor = afterRelevancia < 0 ? -1 : empaquetar(afterRelevancia, afterId);
+        int count = 0;
+        for (long clave : claves) {
+            if (clave > cursor) {
+                claves[count++] = clave;
+            }
+        }
+        Arrays.sort(claves, 0, count);
+        return ids(claves, Math.min(limit, count));
+    }
+
+    // (relevancia, id) de cada título que contiene la consulta, empaquetados para ordenar como long
+    private long[] coincidencias(String normalizada) {
+        lock.readLock().lock();
+        try {
+            int[] candidatos = normalizada.length() >= GRAM ? intersect(trigramsOf(normalizada)) : todos();
+            long[] claves = new long[candidatos.length];
+            int count = 0;
+            for (int id : candidatos) {
+                int relevancia = clave(titulos[id], normalizada);
+                if (relevancia >= 0) {
+                    claves[count++] = empaquetar(relevancia, id);
+                }
+            }
+            return Arrays.copyOf(claves, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] todos() {
+        int[] ids = new int[size];
+        int count = 0;
+        for (int id = 0; id < titulos.length && count < ids.length; id++) {
+            if (titulos[id] != null) {
+                ids[count++] = id;
+            }
+        }
+        return ids;
+    }
+
+    private static int clave(String titulo, String consulta) {
+        int position = titulo.indexOf(consulta);
+        if (position < 0) {
+            return -1;
+        }
+        return score(titulo, consulta, position) << 24 | Math.min(titulo.length(), MAX_LARGO);
+    }
+
+    private static int score(String titulo, String consulta, int position) {
+        if (titulo.length() == consulta.length()) {
+            return 0;
+        }
+        if (position == 0) {
+            return 1;
+        }
+        if (titulo.charAt(position - 1) == ' ') {
+            return 2;
+        }
+        return 3;
+    }
+
+    private static long empaquetar(int relevancia, int id) {
+        return (long) relevancia << 32 | id;
+    }
+
+    private static int[] ids(long[] claves, int count) {
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = (int) claves[i];
+        }
+        return ids;
+    }
+
+    private int[] intersect(Set<Long> grams) {
+        List<PostingList> lists = new ArrayList<>(grams.size());
+        for (long gram : grams) {
+            PostingList list = postings.get(gram);
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        int[] result = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+        int count = result.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            PostingList list = lists.get(i);
+            int kept = 0;
+            for (int j = 0; j < count; j++) {
+                if (Arrays.binarySearch(list.ids, 0, list.size, result[j]) >= 0) {
+                    result[kept++] = result[j];
+                }
+            }
+            count = kept;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private void removeLocked(int id) {
+        if (id < 0 || id >= titulos.length || titulos[id] == null) {
+            return;
+        }
+        for (long gram : trigramsOf(titulos[id])) {
+            PostingList list = postings.get(gram);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+        titulos[id] = null;
+        size--;
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("ID de libro inválido: " + id);
+        }
+        if (id >= titulos.length) {
+            titulos = Arrays.copyOf(titulos, Math.max(id + 1, titulos.length * 2));
+        }
+    }
+
+    // Cada trigrama se empaqueta en un long con 16 bits por carácter
+    private static Set<Long> trigramsOf(String texto) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= texto.length(); i++) {
+            grams.add(((long) texto.charAt(i) << 32) | ((long) texto.charAt(i + 1) << 16) | texto.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    // Lista ordenada de ids; las altas con id creciente (el caso habitual) se agregan al final
+    private static final class PostingList {
+        private int[] ids = new int[4];
+        private int size;
+
+        private void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            if (size == 0 || ids[size - 1] < id) {
+                ids[size++] = id;
+                return;
+            }
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        private boolean remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.biblioteca.servicio;
+
+import com.biblioteca.async.WriteBehindQueue;
+import com.biblioteca.dao.AutorDAO;
+import com.biblioteca.dao.PageRequest;
+import com.biblioteca.dao.WriteResult;
+import com.biblioteca.metrics.MetricsRegistry;
+import com.biblioteca.model.Autor;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * {@code /autores}: GET lista en streaming (todos o por {@code ?nacionalidad=}) o paginada con
+ * {@code ?tamanio=&despues=}, y POST crea; {@code /autores/{id}} admite GET, PUT y DELETE.
+ */
+final class AutoresHandler extends RecursoHandler {
+    private final AutorDAO autorDAO;
+    // Con cola, las altas se agrupan con las de otras solicitudes en un solo commit
+    private final WriteBehindQueue<Autor> altas;
+
+    AutoresHandler(AutorDAO autorDAO, WriteBehindQueue<Autor> altas, MetricsRegistry metricas) {
+        super("/autores", metricas);
+        this.autorDAO = autorDAO;
+        this.altas = altas;
+    }
+
+    @Override
+    long atender(HttpExchange exchange, String metodo, Integer id, Map<String, String> parametros)
+            throws IOException {
+        if (id == null) {
+            switch (metodo) {
+                case "GET":
+                    return listar(exchange, parametros);
+                case "POST":
+                    return crear(exchange);
+                default:
+                    throw metodoNoPermitido();
+            }
+        }
+        switch (metodo) {
+            case "GET":
+                Autor autor = autorDAO.findById(id).orElseThrow(RecursoHandler::noEncontrado);
+                enviar(exchange, 200, json -> escribir(json, autor));
+                return 1;
+            case "PUT":
+                return actualizar(exchange, id);
+            case "DELETE":
+                return eliminar(exchange, id, parametros);
+            default:
+                throw metodoNoPermitido();
+        }
+    }
+
+    private long listar(HttpExchange exchange, Map<String, String> parametros) throws IOException {
+        PageRequest pagina = pagina(parametros);
+        String nacionalidad = parametros.get("nacionalidad");
+        if (nacionalidad != null) {
+            return pagina != null
+                    ? enviarPagina(exchange, autorDAO.findByNacionalidad(nacionalidad, pagina), AutoresHandler::escribir)
+                    : enviarStream(exchange, porPaginas(p -> autorDAO.findByNacionalidad(nacionalidad, p)),
+                            AutoresHandler::escribir);
+        }
+        return pagina != null
+                ? enviarPagina(exchange, autorDAO.findAll(pagina), AutoresHandler::escribir)
+                : enviarStream(exchange, autorDAO.streamAll(), AutoresHandler::escribir);
+    }
+
+    private long crear(HttpExchange exchange) throws IOException {
+        Autor autor = leer(leerCuerpo(exchange));
+        if (altas != null) {
+            autor.setId(esperarId(altas.save(autor)));
+        } else {
+            autorDAO.save(autor);
+        }
+        // El DAO registra y oculta sus errores; sin id asignado el alta no se hizo, igual que en /libros
+        if (autor.getId() == 0) {
+            throw new HttpError(409, "No se pudo guardar el autor");
+        }
+        exchange.getResponseHeaders().set("Location", "/autores/" + autor.getId());
+        enviar(exchange, 201, json -> escribir(json, autor));
+        return 1;
+    }
+
+    // Con "version" en el cuerpo sólo se aplica si nadie modificó el autor desde que se leyó
+    private long actualizar(HttpExchange exchange, int id) throws IOException {
+        Map<String, Object> cuerpo = leerCuerpo(exchange);
+        Autor autor = leer(cuerpo);
+        autor.setId(id);
+        if (cuerpo.containsKey("version")) {
+            autor.setVersion(entero(cuerpo, "version"));
+        } else {
+            // Sin versión se usa la que tiene ahora; si otra solicitud lo modifica en el medio, 409
+            autor.setVersion(autorDAO.findById(id).orElseThrow(RecursoHandler::noEncontrado).getVersion());
+        }
+        verificarEscritura(autorDAO.updateIfVersion(autor));
+        enviar(exchange, 200, json -> escribir(json, autor));
+        return 1;
+    }
+
+    // Con ?version=N sólo se elimina si nadie modificó el autor desde que se leyó
+    private long eliminar(HttpExchange exchange, int id, Map<String, String> parametros) throws IOException {
+        String version = parametros.get("version");
+        if (version != null) {
+            WriteResult resultado = autorDAO.deleteIfVersion(id, entero(version, "version"));
+            if (resultado == WriteResult.FAILED) {
+                verificarSinLibros(id);
+            }
+            verificarEscritura(resultado);
+        } else {
+            if (!autorDAO.findById(id).isPresent()) {
+                throw noEncontrado();
+            }
+            autorDAO.delete(id);
+            verificarSinLibros(id);
+        }
+        sinContenido(exchange);
+        return 1;
+    }
+
+    // La clave foránea impide borrar un autor con libros y el DAO sólo lo registra
+    private void verificarSinLibros(int id) {
+        if (autorDAO.findById(id).isPresent()) {
+            throw new HttpError(409, "El autor tiene libros asociados");
+        }
+    }
+
+    private static Autor leer(Map<String, Object> cuerpo) {
+        return new Autor(cadena(cuerpo, "nombre", true), cadena(cuerpo, "nacionalidad", false));
+    }
+
+    static void escribir(JsonWriter json, Autor autor) throws IOException {
+        json.beginObject()
+                .name("id").value(autor.getId())
+                .name("nombre").value(autor.getNombre())
+                .name("nacionalidad").value(autor.getNacionalidad())
+                .name("version").value(autor.getVersion())
+                .endObject();
+    }
+}
@@ -0,0 +1,156 @@
+package com.biblioteca.servicio;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Lector de los cuerpos de las solicitudes: un objeto JSON plano cuyos valores son cadenas,
+ * números enteros, booleanos o null. Cualquier otra cosa lanza {@link IllegalArgumentException}.
+ */
+final class JsonParser {
+    private final String texto;
+    private int pos;
+
+    private JsonParser(String texto) {
+        this.texto = texto;
+    }
+
+    static Map<String, Object> parseObject(String texto) {
+        JsonParser parser = new JsonParser(texto);
+        parser.espacios();
+        Map<String, Object> objeto = parser.objeto();
+        parser.espacios();
+        if (parser.pos != texto.length()) {
+            throw parser.error("contenido después del objeto");
+        }
+        return objeto;
+    }
+
+    private Map<String, Object> objeto() {
+        Map<String, Object> objeto = new LinkedHashMap<>();
+        esperar('{');
+        espacios();
+        if (consumir('}')) {
+            return objeto;
+        }
+        do {
+            espacios();
+            String nombre = cadena();
+            espacios();
+            esperar(':');
+            espacios();
+            objeto.put(nombre, valor());
+            espacios();
+        } while (consumir(','));
+        esperar('}');
+        return objeto;
+    }
+
+    private Object valor() {
+        if (pos >= texto.length()) {
+            throw error("se esperaba un valor");
+        }
+        char c = texto.charAt(pos);
+        if (c == '"') {
+            return cadena();
+        }
+        if (c == '-' || (c >= '0' && c <= '9')) {
+            return numero();
+        }
+        if (texto.startsWith("true", pos)) {
+            pos += 4;
+            return Boolean.TRUE;
+        }
+        if (texto.startsWith("false", pos)) {
+            pos += 5;
+            return Boolean.FALSE;
+        }
+        if (texto.startsWith("null", pos)) {
+            pos += 4;
+            return null;
+        }
+        throw error("valor no soportado");
+    }
+
+    private Long numero() {
+        int inicio = pos;
+        if (texto.charAt(pos) == '-') {
+            pos++;
+        }
+        while (pos < texto.length() && Character.isDigit(texto.charAt(pos))) {
+            pos++;
+        }
+        try {
+            return Long.parseLong(texto.substring(inicio, pos));
+        } catch (NumberFormatException e) {
+            throw error("número inválido");
+        }
+    }
+
+    private String cadena() {
+        esperar('"');
+        StringBuilder sb = new StringBuilder();
+        while (pos < texto.length()) {
+            char c = texto.charAt(pos++);
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos >= texto.length()) {
+                break;
+            }
+            char escape = texto.charAt(pos++);
+            switch (escape) {
+                case '"': sb.append('"'); break;
+                case '\\': sb.append('\\'); break;
+                case '/': sb.append('/'); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'n': sb.append('\n'); break;
+                case 'r': sb.append('\r'); break;
+                case 't': sb.append('\t'); break;
+                case 'u':
+                    if (pos + 4 > texto.length()) {
+                        throw error("escape unicode incompleto");
+                    }
+                    try {
+                        sb.append((char) Integer.parseInt(texto.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("escape unicode inválido");
+                    }
+                    pos += 4;
+                    break;
+                default:
+                    throw error("escape inválido");
+            }
+        }
+        throw error("cadena sin cerrar");
+    }
+
+    private void espacios() {
+        while (pos < texto.length() && Character.isWhitespace(texto.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private boolean consumir(char c) {
+        if (pos < texto.length() && texto.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void esperar(char c) {
+        if (!consumir(c)) {
+            throw error("se esperaba '" + c + "'");
+        }
+    }
+
+    private IllegalArgumentException error(String mensaje) {
+        return new IllegalArgumentException("JSON inválido en la posición " + pos + ": " + mensaje);
+    }
+}
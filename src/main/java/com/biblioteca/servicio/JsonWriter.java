@@ -0,0 +1,137 @@
+package com.biblioteca.servicio;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Escritor de JSON en streaming: cada valor va directo al {@link Writer}, sin armar el
+ * documento en memoria. Sólo lleva la cuenta de si hace falta una coma antes del próximo valor.
+ */
+final class JsonWriter {
+    private static final int MAX_PROFUNDIDAD = 32;
+
+    private final Writer out;
+    // primero[n] indica si el contenedor abierto en el nivel n todavía no tiene elementos
+    private final boolean[] primero = new boolean[MAX_PROFUNDIDAD];
+    private int profundidad;
+    private boolean despuesDeNombre;
+
+    JsonWriter(Writer out) {
+        this.out = out;
+    }
+
+    JsonWriter beginObject() throws IOException {
+        return abrir('{');
+    }
+
+    JsonWriter endObject() throws IOException {
+        return cerrar('}');
+    }
+
+    JsonWriter beginArray() throws IOException {
+        return abrir('[');
+    }
+
+    JsonWriter endArray() throws IOException {
+        return cerrar(']');
+    }
+
+    JsonWriter name(String nombre) throws IOException {
+        separar();
+        cadena(nombre);
+        out.write(':');
+        despuesDeNombre = true;
+        return this;
+    }
+
+    JsonWriter value(String valor) throws IOException {
+        separar();
+        if (valor == null) {
+            out.write("null");
+        } else {
+            cadena(valor);
+        }
+        return this;
+    }
+
+    JsonWriter value(long valor) throws IOException {
+        separar();
+        out.write(Long.toString(valor));
+        return this;
+    }
+
+    JsonWriter value(boolean valor) throws IOException {
+        separar();
+        out.write(valor ? "true" : "false");
+        return this;
+    }
+
+    JsonWriter nullValue() throws IOException {
+        separar();
+        out.write("null");
+        return this;
+    }
+
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    private JsonWriter abrir(char c) throws IOException {
+        separar();
+        if (profundidad == MAX_PROFUNDIDAD) {
+            throw new IllegalStateException("JSON demasiado anidado");
+        }
+        out.write(c);
+        primero[profundidad++] = true;
+        return this;
+    }
+
+    private JsonWriter cerrar(char c) throws IOException {
+        profundidad--;
+        out.write(c);
+        return this;
+    }
+
+    private void separar() throws IOException {
+        if (despuesDeNombre) {
+            despuesDeNombre = false;
+            return;
+        }
+        if (profundidad > 0) {
+            if (primero[profundidad - 1]) {
+                primero[profundidad - 1] = false;
+            } else {
+                out.write(',');
+            }
+        }
+    }
+
+    private void cadena(String s) throws IOException {
+        out.write('"');
+        int desde = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            String escape;
+            if (c == '"') {
+                escape = "\\\"";
+            } else if (c == '\\') {
+                escape = "\\\\";
+            } else if (c == '\n') {
+                escape = "\\n";
+            } else if (c == '\r') {
+                escape = "\\r";
+            } else if (c == '\t') {
+                escape = "\\t";
+            } else if (c < 0x20) {
+                escape = String.format("\\u%04x", (int) c);
+            } else {
+                continue;
+            }
+            out.write(s, desde, i - desde);
+            out.write(escape);
+            desde = i + 1;
+        }
+        out.write(s, desde, s.length() - desde);
+        out.write('"');
+    }
+}
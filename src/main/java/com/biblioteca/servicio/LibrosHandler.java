@@ -0,0 +1,151 @@
+package com.biblioteca.servicio;
+
+import com.biblioteca.async.WriteBehindQueue;
+import com.biblioteca.dao.LibroDAO;
+import com.biblioteca.dao.PageRequest;
+import com.biblioteca.metrics.MetricsRegistry;
+import com.biblioteca.model.Libro;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * {@code /libros}: GET lista en streaming (todos o filtrados por {@code ?autorId=},
+ * {@code ?titulo=}, {@code ?publicadosDesde=} o {@code ?isbn=}, paginables con
+ * {@code ?tamanio=&despues=}) y POST crea; {@code /libros/{id}} admite GET, PUT y DELETE.
+ */
+final class LibrosHandler extends RecursoHandler {
+    private final LibroDAO libroDAO;
+    // Con cola, las altas se agrupan con las de otras solicitudes en un solo commit
+    private final WriteBehindQueue<Libro> altas;
+
+    LibrosHandler(LibroDAO libroDAO, WriteBehindQueue<Libro> altas, MetricsRegistry metricas) {
+        super("/libros", metricas);
+        this.libroDAO = libroDAO;
+        this.altas = altas;
+    }
+
+    @Override
+    long atender(HttpExchange exchange, String metodo, Integer id, Map<String, String> parametros)
+            throws IOException {
+        if (id == null) {
+            switch (metodo) {
+                case "GET":
+                    return listar(exchange, parametros);
+                case "POST":
+                    return crear(exchange);
+                default:
+                    throw metodoNoPermitido();
+            }
+        }
+        switch (metodo) {
+            case "GET":
+                Libro libro = libroDAO.findById(id).orElseThrow(RecursoHandler::noEncontrado);
+                enviar(exchange, 200, json -> escribir(json, libro));
+                return 1;
+            case "PUT":
+                return actualizar(exchange, id);
+            case "DELETE":
+                // Con ?version=N sólo se elimina si nadie modificó el libro desde que se leyó
+                String version = parametros.get("version");
+                if (version != null) {
+                    verificarEscritura(libroDAO.deleteIfVersion(id, entero(version, "version")));
+                } else {
+                    if (!libroDAO.findById(id).isPresent()) {
+                        throw noEncontrado();
+                    }
+                    libroDAO.delete(id);
+                }
+                sinContenido(exchange);
+                return 1;
+            default:
+                throw metodoNoPermitido();
+        }
+    }
+
+    private long listar(HttpExchange exchange, Map<String, String> parametros) throws IOException {
+        String isbn = parametros.get("isbn");
+        if (isbn != null) {
+            return enviarLista(exchange, libroDAO.findByIsbn(isbn).map(Collections::singletonList)
+                    .orElse(Collections.emptyList()), LibrosHandler::escribir);
+        }
+        PageRequest pagina = pagina(parametros);
+        String autorId = parametros.get("autorId");
+        if (autorId != null) {
+            int autor = entero(autorId, "autorId");
+            return pagina != null
+                    ? enviarPagina(exchange, libroDAO.findByAutorId(autor, pagina), LibrosHandler::escribir)
+                    : enviarStream(exchange, porPaginas(p -> libroDAO.findByAutorId(autor, p)), LibrosHandler::escribir);
+        }
+        String titulo = parametros.get("titulo");
+        if (titulo != null) {
+            return pagina != null
+                    ? enviarPagina(exchange, libroDAO.findByTitulo(titulo, pagina), LibrosHandler::escribir)
+                    : enviarStream(exchange, porPaginas(p -> libroDAO.findByTitulo(titulo, p)), LibrosHandler::escribir);
+        }
+        String publicadosDesde = parametros.get("publicadosDesde");
+        if (publicadosDesde != null) {
+            LocalDate fecha = LocalDate.parse(publicadosDesde);
+            return pagina != null
+                    ? enviarPagina(exchange, libroDAO.findByFechaPublicacionAfter(fecha, pagina), LibrosHandler::escribir)
+                    : enviarStream(exchange, porPaginas(p -> libroDAO.findByFechaPublicacionAfter(fecha, p)),
+                            LibrosHandler::escribir);
+        }
+        return pagina != null
+                ? enviarPagina(exchange, libroDAO.findAll(pagina), LibrosHandler::escribir)
+                : enviarStream(exchange, libroDAO.streamAll(), LibrosHandler::escribir);
+    }
+
+    private long crear(HttpExchange exchange) throws IOException {
+        Libro libro = leer(leerCuerpo(exchange));
+        if (altas != null) {
+            libro.setId(esperarId(altas.save(libro)));
+        } else {
+            libroDAO.save(libro);
+        }
+        // El DAO registra y oculta sus errores (ISBN repetido, autor inexistente); sin id el alta no se hizo
+        if (libro.getId() == 0) {
+            throw new HttpError(409, "No se pudo guardar el libro");
+        }
+        exchange.getResponseHeaders().set("Location", "/libros/" + libro.getId());
+        enviar(exchange, 201, json -> escribir(json, libro));
+        return 1;
+    }
+
+    // Con "version" en el cuerpo sólo se aplica si nadie modificó el libro desde que se leyó
+    private long actualizar(HttpExchange exchange, int id) throws IOException {
+        Map<String, Object> cuerpo = leerCuerpo(exchange);
+        Libro libro = leer(cuerpo);
+        libro.setId(id);
+        if (cuerpo.containsKey("version")) {
+            libro.setVersion(entero(cuerpo, "version"));
+        } else {
+            // Sin versión se usa la que tiene ahora; si otra solicitud lo modifica en el medio, 409
+            libro.setVersion(libroDAO.findById(id).orElseThrow(RecursoHandler::noEncontrado).getVersion());
+        }
+        verificarEscritura(libroDAO.updateIfVersion(libro));
+        enviar(exchange, 200, json -> escribir(json, libro));
+        return 1;
+    }
+
+    private static Libro leer(Map<String, Object> cuerpo) {
+        // El DAO lee y escribe la fecha como obligatoria; sin ella responde 400 en lugar de fallar al guardar
+        return new Libro(cadena(cuerpo, "titulo", true), cadena(cuerpo, "isbn", false),
+                LocalDate.parse(cadena(cuerpo, "fechaPublicacion", true)), entero(cuerpo, "autorId"));
+    }
+
+    static void escribir(JsonWriter json, Libro libro) throws IOException {
+        json.beginObject()
+                .name("id").value(libro.getId())
+                .name("titulo").value(libro.getTitulo())
+                .name("isbn").value(libro.getIsbn())
+                .name("fechaPublicacion").value(libro.getFechaPublicacion() != null
+                        ? libro.getFechaPublicacion().toString() : null)
+                .name("autorId").value(libro.getAutorId())
+                .name("version").value(libro.getVersion())
+                .endObject();
+    }
+}
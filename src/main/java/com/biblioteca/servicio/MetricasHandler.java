@@ -0,0 +1,44 @@
+package com.biblioteca.servicio;
+
+import com.biblioteca.metrics.MethodStats;
+import com.biblioteca.metrics.MetricsRegistry;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code GET /metricas}: instantánea del {@link MetricsRegistry} (DAOs, SQL y rutas HTTP),
+ * con latencias en microsegundos.
+ */
+final class MetricasHandler extends RecursoHandler {
+    private final MetricsRegistry metricas;
+
+    MetricasHandler(MetricsRegistry metricas) {
+        super("/metricas", metricas);
+        this.metricas = metricas;
+    }
+
+    @Override
+    long atender(HttpExchange exchange, String metodo, Integer id, Map<String, String> parametros)
+            throws IOException {
+        if (id != null) {
+            throw noEncontrado();
+        }
+        if (!"GET".equals(metodo)) {
+            throw metodoNoPermitido();
+        }
+        List<MethodStats> estadisticas = metricas.snapshot();
+        return enviarLista(exchange, estadisticas, (json, stats) -> json.beginObject()
+                .name("nombre").value(stats.getName())
+                .name("llamadas").value(stats.getCalls())
+                .name("errores").value(stats.getErrors())
+                .name("filas").value(stats.getRows())
+                .name("p50").value(stats.getP50())
+                .name("p99").value(stats.getP99())
+                .name("p999").value(stats.getP999())
+                .name("max").value(stats.getMax())
+                .endObject());
+    }
+}
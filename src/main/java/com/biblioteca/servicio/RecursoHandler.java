@@ -0,0 +1,392 @@
+package com.biblioteca.servicio;
+
+import com.biblioteca.dao.Page;
+import com.biblioteca.dao.PageRequest;
+import com.biblioteca.dao.WriteResult;
+import com.biblioteca.metrics.MetricsRegistry;
+import com.biblioteca.util.LoggerUtil;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Base de los handlers de un recurso REST. Separa el id de la ruta ({@code /recurso/{id}}),
+ * mide cada solicitud en el {@link MetricsRegistry} como {@code HTTP <método> <ruta>} y traduce
+ * los errores a códigos de estado. Siempre cierra el intercambio, así la conexión queda
+ * disponible para la siguiente solicitud del mismo cliente (keep-alive).
+ *
+ * <p>Las respuestas chicas se arman en memoria y se envían con Content-Length; los listados
+ * completos se escriben a medida que se leen de la base, con codificación chunked.
+ */
+abstract class RecursoHandler implements HttpHandler {
+    private static final Logger logger = LoggerUtil.getLogger(RecursoHandler.class);
+    private static final int MAX_CUERPO = 64 * 1024;
+    private static final int BUFFER_RESPUESTA = 16 * 1024;
+    private static final int MAX_TAMANIO_PAGINA = 1000;
+    private static final long ESPERA_ALTA_SEGUNDOS = 10;
+    private static final String TIPO_JSON = "application/json; charset=utf-8";
+
+    @FunctionalInterface
+    interface Escritura {
+        void escribir(JsonWriter json) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface Serializador<T> {
+        void escribir(JsonWriter json, T valor) throws IOException;
+    }
+
+    static final class HttpError extends RuntimeException {
+        private final int status;
+
+        HttpError(int status, String mensaje) {
+            super(mensaje);
+            this.status = status;
+        }
+    }
+
+    private final String recurso;
+    private final MetricsRegistry metricas;
+
+    RecursoHandler(String recurso, MetricsRegistry metricas) {
+        this.recurso = recurso;
+        this.metricas = metricas;
+    }
+
+    // Atiende la solicitud y devuelve la cantidad de filas enviadas, para las métricas
+    abstract long atender(HttpExchange exchange, String metodo, Integer id, Map<String, String> parametros)
+            throws IOException;
+
+    @Override
+    public void handle(HttpExchange exchange) {
+        long inicio = System.nanoTime();
+        String metodo = exchange.getRequestMethod();
+        String ruta = recurso;
+        long filas = 0;
+        boolean error = false;
+        try {
+            Integer id = idDeRuta(exchange.getRequestURI().getPath());
+            if (id != null) {
+                ruta = recurso + "/{id}";
+            }
+            filas = atender(exchange, metodo, id, parametros(exchange.getRequestURI().getRawQuery()));
+        } catch (HttpError e) {
+            error = e.status >= 500;
+            enviarError(exchange, e.status, e.getMessage());
+        } catch (IllegalArgumentException | DateTimeException e) {
+            enviarError(exchange, 400, e.getMessage());
+        } catch (IOException e) {
+            // Normalmente el cliente cerró la conexión a mitad de la respuesta
+            error = true;
+            logger.debug("Error de E/S al atender {} {}", metodo, exchange.getRequestURI(), e);
+        } catch (RuntimeException e) {
+            error = true;
+            logger.error("Error al atender {} {}", metodo, exchange.getRequestURI(), e);
+            enviarError(exchange, 500, "Error interno");
+        } finally {
+            // close() descarta lo que quede del cuerpo, así la conexión puede reutilizarse
+            exchange.close();
+            metricas.record("HTTP " + metodo + " " + ruta, System.nanoTime() - inicio, filas, error);
+        }
+    }
+
+    static HttpError noEncontrado() {
+        return new HttpError(404, "No encontrado");
+    }
+
+    // Traduce el resultado de una escritura condicionada a la versión; APPLIED no lanza nada
+    static void verificarEscritura(WriteResult resultado) {
+        switch (resultado) {
+            case APPLIED:
+                return;
+            case CONFLICT:
+                throw new HttpError(409, "La versión no coincide: el recurso fue modificado por otra solicitud");
+            case NOT_FOUND:
+                throw noEncontrado();
+            default:
+                throw new HttpError(500, "No se pudo guardar el cambio");
+        }
+    }
+
+    static HttpError metodoNoPermitido() {
+        return new HttpError(405, "Método no permitido");
+    }
+
+    Map<String, Object> leerCuerpo(HttpExchange exchange) throws IOException {
+        InputStream body = exchange.getRequestBody();
+        byte[] bytes = body.readNBytes(MAX_CUERPO + 1);
+        if (bytes.length > MAX_CUERPO) {
+            throw new HttpError(413, "El cuerpo supera los " + MAX_CUERPO + " bytes");
+        }
+        return JsonParser.parseObject(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    void enviar(HttpExchange exchange, int status, Escritura escritura) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        Writer writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8);
+        escritura.escribir(new JsonWriter(writer));
+        writer.flush();
+        exchange.getResponseHeaders().set("Content-Type", TIPO_JSON);
+        exchange.sendResponseHeaders(status, buffer.size());
+        buffer.writeTo(exchange.getResponseBody());
+    }
+
+    void sinContenido(HttpExchange exchange) throws IOException {
+        exchange.sendResponseHeaders(204, -1);
+    }
+
+    // Escribe cada elemento apenas llega del stream; el stream se cierra al terminar
+    <T> long enviarStream(HttpExchange exchange, Stream<T> elementos, Serializador<T> serializador) throws IOException {
+        long filas = 0;
+        try (Stream<T> stream = elementos) {
+            exchange.getResponseHeaders().set("Content-Type", TIPO_JSON);
+            exchange.sendResponseHeaders(200, 0);
+            Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), BUFFER_RESPUESTA);
+            JsonWriter json = new JsonWriter(writer);
+            json.beginArray();
+            Iterator<T> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                serializador.escribir(json, iterator.next());
+                filas++;
+            }
+            json.endArray();
+            json.flush();
+        }
+        return filas;
+    }
+
+    <T> long enviarLista(HttpExchange exchange, List<T> elementos, Serializador<T> serializador) throws IOException {
+        enviar(exchange, 200, json -> {
+            json.beginArray();
+            for (T elemento : elementos) {
+                serializador.escribir(json, elemento);
+            }
+            json.endArray();
+        });
+        return elementos.size();
+    }
+
+    // Recorre una consulta paginada de a MAX_TAMANIO_PAGINA filas, así un listado filtrado sin
+    // tamanio se envía en streaming sin tener el resultado entero en memoria
+    static <T> Stream<T> porPaginas(Function<PageRequest, Page<T>> consulta) {
+        Iterator<T> filas = new Iterator<T>() {
+            private Iterator<T> actual = Collections.emptyIterator();
+            private PageRequest siguiente = PageRequest.first(MAX_TAMANIO_PAGINA);
+
+            @Override
+            public boolean hasNext() {
+                while (!actual.hasNext() && siguiente != null) {
+                    Page<T> pagina = consulta.apply(siguiente);
+                    actual = pagina.getContent().iterator();
+                    siguiente = pagina.getNextPageRequest();
+                }
+                return actual.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return actual.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(filas,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    // {"contenido": [...], "siguiente": {"despues": id[, "despuesFecha": fecha][, "despuesRelevancia": n]} o null}
+    <T> long enviarPagina(HttpExchange exchange, Page<T> pagina, Serializador<T> serializador) throws IOException {
+        enviar(exchange, 200, json -> {
+            json.beginObject().name("contenido").beginArray();
+            for (T elemento : pagina.getContent()) {
+                serializador.escribir(json, elemento);
+            }
+            json.endArray().name("siguiente");
+            PageRequest siguiente = pagina.getNextPageRequest();
+            if (siguiente == null) {
+                json.nullValue();
+            } else {
+                json.beginObject().name("despues").value(siguiente.getAfterId());
+                if (siguiente.getAfterFecha() != null) {
+                    json.name("despuesFecha").value(siguiente.getAfterFecha().toString());
+                }
+                if (siguiente.getAfterRelevancia() != null) {
+                    json.name("despuesRelevancia").value(siguiente.getAfterRelevancia());
+                }
+                json.endObject();
+            }
+            json.endObject();
+        });
+        return pagina.getContent().size();
+    }
+
+    // Página pedida con ?tamanio=N[&despues=id[&despuesFecha=aaaa-mm-dd|&despuesRelevancia=n]]; null si la
+    // solicitud no pide paginar
+    static PageRequest pagina(Map<String, String> parametros) {
+        String tamanio = parametros.get("tamanio");
+        if (tamanio == null) {
+            return null;
+        }
+        int size = entero(tamanio, "tamanio");
+        if (size < 1 || size > MAX_TAMANIO_PAGINA) {
+            throw new IllegalArgumentException("tamanio debe estar entre 1 y " + MAX_TAMANIO_PAGINA);
+        }
+        String despues = parametros.get("despues");
+        if (despues == null) {
+            return PageRequest.first(size);
+        }
+        String despuesFecha = parametros.get("despuesFecha");
+        if (despuesFecha != null) {
+            return PageRequest.after(LocalDate.parse(despuesFecha), entero(despues, "despues"), size);
+        }
+        String despuesRelevancia = parametros.get("despuesRelevancia");
+        return despuesRelevancia == null
+                ? PageRequest.after(entero(despues, "despues"), size)
+                : PageRequest.afterRelevancia(entero(despuesRelevancia, "despuesRelevancia"), entero(despues, "despues"), size);
+    }
+
+    // Espera el id de un alta diferida; 0 si el alta falló, igual que cuando save no asigna id
+    static int esperarId(CompletableFuture<Integer> alta) {
+        try {
+            return alta.get(ESPERA_ALTA_SEGUNDOS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                throw new HttpError(503, "Hay demasiadas altas pendientes; reintente más tarde");
+            }
+            return 0;
+        } catch (TimeoutException e) {
+            throw new HttpError(503, "El alta sigue pendiente");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpError(503, "Solicitud interrumpida");
+        }
+    }
+
+    static int entero(String valor, String nombre) {
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(nombre + " debe ser un entero: " + valor);
+        }
+    }
+
+    static String cadena(Map<String, Object> cuerpo, String nombre, boolean requerido) {
+        Object valor = cuerpo.get(nombre);
+        if (valor == null) {
+            if (requerido) {
+                throw new IllegalArgumentException("Falta el campo " + nombre);
+            }
+            return null;
+        }
+        if (!(valor instanceof String)) {
+            throw new IllegalArgumentException("El campo " + nombre + " debe ser una cadena");
+        }
+        return (String) valor;
+    }
+
+    static int entero(Map<String, Object> cuerpo, String nombre) {
+        Object valor = cuerpo.get(nombre);
+        if (!(valor instanceof Long)) {
+            throw new IllegalArgumentException("El campo " + nombre + " debe ser un entero");
+        }
+        long numero = (Long) valor;
+        if (numero < Integer.MIN_VALUE || numero > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("El campo " + nombre + " está fuera de rango");
+        }
+        return (int) numero;
+    }
+
+    // El contexto del servidor coincide por prefijo, así que /autoresX también llega aquí
+    private Integer idDeRuta(String path) {
+        if (path.length() == recurso.length() || path.equals(recurso + "/")) {
+            return null;
+        }
+        if (path.charAt(recurso.length()) != '/') {
+            throw noEncontrado();
+        }
+        String resto = path.substring(recurso.length() + 1);
+        try {
+            return Integer.parseInt(resto);
+        } catch (NumberFormatException e) {
+            throw noEncontrado();
+        }
+    }
+
+    private static Map<String, String> parametros(String query) {
+        if (query == null || query.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> parametros = new HashMap<>();
+        for (String par : query.split("&")) {
+            int igual = par.indexOf('=');
+            String nombre = igual < 0 ? par : par.substring(0, igual);
+            String valor = igual < 0 ? "" : par.substring(igual + 1);
+            parametros.put(decodificar(nombre), decodificar(valor));
+        }
+        return parametros;
+    }
+
+    private static String decodificar(String texto) {
+        try {
+            return URLDecoder.decode(texto, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void enviarError(HttpExchange exchange, int status, String mensaje) {
+        // Si la respuesta ya empezó no se puede cambiar el estado; sólo queda cerrar
+        if (exchange.getResponseCode() != -1) {
+            return;
+        }
+        try {
+            byte[] cuerpo = ("{\"error\":" + comillas(mensaje) + "}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", TIPO_JSON);
+            exchange.sendResponseHeaders(status, cuerpo.length);
+            exchange.getResponseBody().write(cuerpo);
+        } catch (IOException e) {
+            logger.debug("No se pudo enviar el error {} al cliente", status, e);
+        }
+    }
+
+    private static String comillas(String texto) {
+        StringWriter out = new StringWriter();
+        try {
+            new JsonWriter(out).value(texto != null ? texto : "");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,104 @@
+package com.biblioteca.servicio;
+
+import com.biblioteca.async.WriteBehindQueue;
+import com.biblioteca.dao.AutorDAO;
+import com.biblioteca.dao.LibroDAO;
+import com.biblioteca.metrics.MetricsRegistry;
+import com.biblioteca.model.Autor;
+import com.biblioteca.model.Libro;
+import com.biblioteca.util.LoggerUtil;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * Servicio HTTP/JSON sobre los DAOs, con el servidor incluido en el JDK. Las solicitudes se
+ * atienden en un pool fijo de trabajadores con una cola acotada; si la cola se llena, el hilo
+ * que acepta conexiones ejecuta la solicitud él mismo y deja de aceptar mientras tanto, lo que
+ * frena a los clientes en lugar de acumular trabajo sin límite.
+ *
+ * <p>Rutas: {@code /autores}, {@code /autores/{id}}, {@code /libros}, {@code /libros/{id}} y
+ * {@code /metricas}. La latencia de cada ruta queda en el {@link MetricsRegistry} recibido.
+ */
+public class ServicioHttp implements AutoCloseable {
+    private static final Logger logger = LoggerUtil.getLogger(ServicioHttp.class);
+    private static final int BACKLOG = 1024;
+    private static final int COLA_POR_HILO = 64;
+    private static final int ESPERA_CIERRE_SEGUNDOS = 5;
+
+    static {
+        // Con keep-alive las respuestas chicas no deben esperar al algoritmo de Nagle;
+        // el servidor del JDK lee la propiedad una sola vez, antes de crear el primer servidor
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ThreadPoolExecutor trabajadores;
+
+    public ServicioHttp(AutorDAO autorDAO, LibroDAO libroDAO, MetricsRegistry metricas, int puerto, int hilos) {
+        this(autorDAO, libroDAO, null, null, metricas, puerto, hilos);
+    }
+
+    // Con colas de escritura diferida, cada POST espera el commit del lote que incluye su alta
+    public ServicioHttp(AutorDAO autorDAO, LibroDAO libroDAO, WriteBehindQueue<Autor> altasAutores,
+                        WriteBehindQueue<Libro> altasLibros, MetricsRegistry metricas, int puerto, int hilos) {
+        if (hilos < 1) {
+            throw new IllegalArgumentException("La cantidad de hilos debe ser positiva: " + hilos);
+        }
+        AtomicInteger numero = new AtomicInteger();
+        trabajadores = new ThreadPoolExecutor(hilos, hilos, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(hilos * COLA_POR_HILO),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "http-trabajador-" + numero.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            server = HttpServer.create(new InetSocketAddress(puerto), BACKLOG);
+        } catch (IOException e) {
+            trabajadores.shutdown();
+            throw new UncheckedIOException("No se pudo abrir el puerto " + puerto, e);
+        }
+        server.setExecutor(trabajadores);
+        server.createContext("/autores", new AutoresHandler(autorDAO, altasAutores, metricas));
+        server.createContext("/libros", new LibrosHandler(libroDAO, altasLibros, metricas));
+        server.createContext("/metricas", new MetricasHandler(metricas));
+    }
+
+    public void start() {
+        server.start();
+        logger.info("Servicio HTTP escuchando en el puerto {} con {} trabajadores",
+                box(getPuerto()), box(trabajadores.getCorePoolSize()));
+    }
+
+    public int getPuerto() {
+        return server.getAddress().getPort();
+    }
+
+    // Deja de aceptar conexiones y espera a que terminen las solicitudes en curso
+    @Override
+    public void close() {
+        server.stop(ESPERA_CIERRE_SEGUNDOS);
+        trabajadores.shutdown();
+        try {
+            if (!trabajadores.awaitTermination(ESPERA_CIERRE_SEGUNDOS, TimeUnit.SECONDS)) {
+                logger.warn("Quedaron solicitudes sin terminar al detener el servicio HTTP");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Servicio HTTP detenido");
+    }
+}
@@ -0,0 +1,45 @@
+package com.biblioteca.shard;
+
+import com.biblioteca.util.ConnectionProvider;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Reparte valores únicos de una secuencia del catálogo en bloques: cada {@code NEXT VALUE FOR}
+ * reserva {@link #BLOQUE} valores consecutivos, así que sólo una de cada {@code BLOQUE} altas
+ * consulta el shard 0. Los valores de un bloque que no se usen antes de cerrar se pierden.
+ */
+final class IdAllocator {
+    static final int BLOQUE = 100;
+
+    private final ConnectionProvider catalogo;
+    private final String secuencia;
+    private long siguiente;
+    private long limite;
+
+    IdAllocator(ConnectionProvider catalogo, String secuencia) {
+        this.catalogo = catalogo;
+        this.secuencia = secuencia;
+    }
+
+    synchronized long next() throws SQLException {
+        if (siguiente == limite) {
+            reservar();
+        }
+        return siguiente++;
+    }
+
+    private void reservar() throws SQLException {
+        try (Connection connection = catalogo.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT NEXT VALUE FOR " + secuencia)) {
+            resultSet.next();
+            // La secuencia empieza en 1, así que ningún valor entregado es 0
+            siguiente = resultSet.getLong(1) * BLOQUE;
+            limite = siguiente + BLOQUE;
+        }
+    }
+}
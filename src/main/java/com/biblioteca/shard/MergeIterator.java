@@ -0,0 +1,132 @@
+package com.biblioteca.shard;
+
+import com.biblioteca.dao.Page;
+import com.biblioteca.dao.PageRequest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Mezcla de k fuentes ya ordenadas: un montículo guarda el próximo elemento de cada fuente y
+ * {@link #next()} devuelve el menor y avanza sólo esa fuente. Nunca tiene en memoria más de un
+ * elemento por fuente, así que sirve para mezclar los recorridos en streaming de cada shard.
+ */
+final class MergeIterator<T> implements Iterator<T> {
+    private final PriorityQueue<Cabeza<T>> cabezas;
+
+    private MergeIterator(List<? extends Iterator<T>> fuentes, Comparator<? super T> orden) {
+        Comparator<Cabeza<T>> porValor = (a, b) -> orden.compare(a.valor, b.valor);
+        // A igual valor sale primero la fuente de menor índice, así la mezcla es estable
+        cabezas = new PriorityQueue<>(Math.max(1, fuentes.size()), porValor.thenComparingInt(c -> c.indice));
+        for (int i = 0; i < fuentes.size(); i++) {
+            Iterator<T> fuente = fuentes.get(i);
+            if (fuente.hasNext()) {
+                cabezas.add(new Cabeza<>(i, fuente.next(), fuente));
+            }
+        }
+    }
+
+    static <T> Iterator<T> merge(List<? extends Iterator<T>> fuentes, Comparator<? super T> orden) {
+        return new MergeIterator<>(fuentes, orden);
+    }
+
+    static <T> List<T> mergeLists(List<List<T>> listas, Comparator<? super T> orden) {
+        List<Iterator<T>> fuentes = new ArrayList<>(listas.size());
+        int total = 0;
+        for (List<T> lista : listas) {
+            fuentes.add(lista.iterator());
+            total += lista.size();
+        }
+        List<T> mezcla = new ArrayList<>(total);
+        merge(fuentes, orden).forEachRemaining(mezcla::add);
+        return mezcla;
+    }
+
+    // El stream resultante cierra todos los streams de origen al cerrarse
+    static <T> Stream<T> mergeStreams(List<Stream<T>> streams, Comparator<? super T> orden) {
+        List<Iterator<T>> fuentes = new ArrayList<>(streams.size());
+        for (Stream<T> stream : streams) {
+            fuentes.add(stream.iterator());
+        }
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(merge(fuentes, orden),
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(() -> cerrar(streams, 0));
+    }
+
+    /**
+     * Une las páginas que devolvió cada shard para el mismo pedido. Cada shard ya devolvió sus
+     * primeras {@code size} filas después del cursor, así que las primeras {@code size} de la
+     * mezcla son las de la página global; hay página siguiente si sobra alguna fila o si algún
+     * shard tenía más.
+     */
+    static <T> Page<T> mergePages(List<Page<T>> paginas, PageRequest pedido, Comparator<? super T> orden,
+                                   Function<T, PageRequest> siguiente) {
+        List<Iterator<T>> fuentes = new ArrayList<>(paginas.size());
+        boolean quedan = false;
+        for (Page<T> pagina : paginas) {
+            fuentes.add(pagina.getContent().iterator());
+            quedan |= pagina.hasNext();
+        }
+        Iterator<T> mezcla = merge(fuentes, orden);
+        List<T> filas = new ArrayList<>(pedido.getFetchLimit());
+        while (filas.size() < pedido.getFetchLimit() && mezcla.hasNext()) {
+            filas.add(mezcla.next());
+        }
+        if (quedan && filas.size() == pedido.getSize()) {
+            return new Page<>(filas, siguiente.apply(filas.get(filas.size() - 1)));
+        }
+        return Page.fromSlice(filas, pedido, siguiente);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !cabezas.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        Cabeza<T> cabeza = cabezas.poll();
+        if (cabeza == null) {
+            throw new NoSuchElementException();
+        }
+        T valor = cabeza.valor;
+        if (cabeza.fuente.hasNext()) {
+            cabeza.valor = cabeza.fuente.next();
+            cabezas.add(cabeza);
+        }
+        return valor;
+    }
+
+    // Cierra todos aunque alguno falle
+    private static <T> void cerrar(List<Stream<T>> streams, int desde) {
+        if (desde >= streams.size()) {
+            return;
+        }
+        try {
+            streams.get(desde).close();
+        } finally {
+            cerrar(streams, desde + 1);
+        }
+    }
+
+    private static final class Cabeza<T> {
+        private final int indice;
+        private T valor;
+        private final Iterator<T> fuente;
+
+        private Cabeza(int indice, T valor, Iterator<T> fuente) {
+            this.indice = indice;
+            this.valor = valor;
+            this.fuente = fuente;
+        }
+    }
+}
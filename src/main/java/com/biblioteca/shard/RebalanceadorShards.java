@@ -0,0 +1,189 @@
+package com.biblioteca.shard;
+
+import com.biblioteca.util.DatabaseConfig;
+import com.biblioteca.util.LoggerUtil;
+import com.biblioteca.util.PooledConnectionProvider;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.StringJoiner;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * Cambia la cantidad de shards moviendo particiones enteras; los ids no cambian. Se ejecuta con
+ * el servicio detenido: {@code gradle rebalancear --args=<cantidad>}.
+ *
+ * <ol>
+ *   <li>Copia cada partición que cambia de dueño a su shard nuevo, borrando antes lo que haya
+ *   quedado en el destino de una ejecución interrumpida.</li>
+ *   <li>Guarda la cantidad nueva en el catálogo; desde ese momento los DAOs leen los shards nuevos.</li>
+ *   <li>Borra de cada shard las filas de particiones que ya no le pertenecen.</li>
+ * </ol>
+ *
+ * Si se interrumpe, volver a ejecutarlo con la misma cantidad termina el trabajo.
+ */
+public final class RebalanceadorShards {
+    private static final Logger logger = LoggerUtil.getLogger(RebalanceadorShards.class);
+    private static final int BATCH_SIZE = 1000;
+    // Los libros viven en la partición de su autor, no en la de su propio id
+    private static final String PARTICION_AUTOR = "MOD(id, " + ShardedDatabase.PARTICIONES + ")";
+    private static final String PARTICION_LIBRO = "MOD(COALESCE(autor_id, 0), " + ShardedDatabase.PARTICIONES + ")";
+
+    private final PooledConnectionProvider[] providers;
+
+    private RebalanceadorShards(PooledConnectionProvider[] providers) {
+        this.providers = providers;
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Uso: RebalanceadorShards <cantidad de shards>");
+            System.exit(2);
+        }
+        int nueva = ShardedDatabase.validarCantidad(Integer.parseInt(args[0].trim()));
+        DatabaseConfig config = DatabaseConfig.load();
+        if (config.isReadOnly()) {
+            throw new IllegalArgumentException("No se puede rebalancear con el perfil solo_lectura");
+        }
+        try {
+            rebalancear(config, nueva);
+        } catch (SQLException e) {
+            logger.error("Error al rebalancear los shards", e);
+            System.exit(1);
+        }
+    }
+
+    public static void rebalancear(DatabaseConfig config, int nueva) throws SQLException {
+        PooledConnectionProvider catalogo = ShardedDatabase.abrirShard(config, 0);
+        PooledConnectionProvider[] providers = null;
+        try {
+            ShardCatalog.crear(catalogo);
+            Integer leida = ShardCatalog.leerCantidad(catalogo);
+            int actual = leida != null ? leida : 1;
+            int total = Math.max(actual, nueva);
+            providers = new PooledConnectionProvider[total];
+            providers[0] = catalogo;
+            for (int i = 1; i < total; i++) {
+                providers[i] = ShardedDatabase.abrirShard(config, i);
+            }
+            new RebalanceadorShards(providers).ejecutar(actual, nueva);
+        } finally {
+            if (providers == null) {
+                catalogo.close();
+            } else {
+                for (PooledConnectionProvider provider : providers) {
+                    if (provider != null) {
+                        provider.close();
+                    }
+                }
+            }
+        }
+    }
+
+    private void ejecutar(int actual, int nueva) throws SQLException {
+        logger.info("Rebalanceando de {} a {} shards", box(actual), box(nueva));
+        int movidas = 0;
+        for (int particion = 0; particion < ShardedDatabase.PARTICIONES; particion++) {
+            int origen = particion % actual;
+            int destino = particion % nueva;
+            if (origen != destino) {
+                copiarParticion(particion, origen, destino);
+                movidas++;
+            }
+        }
+        ShardCatalog.guardarCantidad(providers[0], nueva);
+        logger.info("Catálogo actualizado: {} shards, {} particiones copiadas", box(nueva), box(movidas));
+        for (int shard = 0; shard < providers.length; shard++) {
+            limpiarShard(shard, nueva);
+        }
+        if (actual > nueva) {
+            logger.info("Los shards {} a {} quedaron vacíos y pueden eliminarse", box(nueva), box(actual - 1));
+        }
+    }
+
+    private void copiarParticion(int particion, int origen, int destino) throws SQLException {
+        try (Connection desde = providers[origen].getConnection();
+             Connection hacia = providers[destino].getConnection()) {
+            hacia.setAutoCommit(false);
+            try {
+                // Restos de una ejecución anterior interrumpida; los libros primero por la clave foránea
+                borrar(hacia, "libros", PARTICION_LIBRO + " = " + particion);
+                borrar(hacia, "autores", PARTICION_AUTOR + " = " + particion);
+                int autores = copiar(desde, hacia, "autores", PARTICION_AUTOR + " = " + particion);
+                int libros = copiar(desde, hacia, "libros", PARTICION_LIBRO + " = " + particion);
+                hacia.commit();
+                logger.info("Partición {} copiada del shard {} al {}: {} autores, {} libros",
+                        box(particion), box(origen), box(destino), box(autores), box(libros));
+            } catch (SQLException | RuntimeException e) {
+                hacia.rollback();
+                throw e;
+            } finally {
+                hacia.setAutoCommit(true);
+            }
+        }
+    }
+
+    private void limpiarShard(int shard, int nueva) throws SQLException {
+        String ajenas = "MOD(%s, " + nueva + ") <> " + shard;
+        try (Connection connection = providers[shard].getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                int libros = borrar(connection, "libros", String.format(ajenas, PARTICION_LIBRO));
+                int autores = borrar(connection, "autores", String.format(ajenas, PARTICION_AUTOR));
+                connection.commit();
+                if (libros + autores > 0) {
+                    logger.info("Shard {}: eliminados {} autores y {} libros de otras particiones",
+                            box(shard), box(autores), box(libros));
+                }
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static int borrar(Connection connection, String tabla, String condicion) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("DELETE FROM " + tabla + " WHERE " + condicion)) {
+            return statement.executeUpdate();
+        }
+    }
+
+    // Copia todas las columnas tal cual, así el rebalanceo no depende de la versión del esquema
+    private static int copiar(Connection desde, Connection hacia, String tabla, String condicion) throws SQLException {
+        try (PreparedStatement select = desde.prepareStatement("SELECT * FROM " + tabla + " WHERE " + condicion);
+             ResultSet resultSet = select.executeQuery()) {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            int columnas = metaData.getColumnCount();
+            StringJoiner nombres = new StringJoiner(", ");
+            for (int i = 1; i <= columnas; i++) {
+                nombres.add(metaData.getColumnName(i));
+            }
+            String insert = "INSERT INTO " + tabla + " (" + nombres + ") VALUES ("
+                    + String.join(", ", Collections.nCopies(columnas, "?")) + ")";
+            int filas = 0;
+            try (PreparedStatement statement = hacia.prepareStatement(insert)) {
+                while (resultSet.next()) {
+                    for (int i = 1; i <= columnas; i++) {
+                        statement.setObject(i, resultSet.getObject(i));
+                    }
+                    statement.addBatch();
+                    if (++filas % BATCH_SIZE == 0) {
+                        statement.executeBatch();
+                    }
+                }
+                if (filas % BATCH_SIZE != 0) {
+                    statement.executeBatch();
+                }
+            }
+            return filas;
+        }
+    }
+}
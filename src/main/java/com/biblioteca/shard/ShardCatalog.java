@@ -0,0 +1,53 @@
+package com.biblioteca.shard;
+
+import com.biblioteca.util.ConnectionProvider;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Catálogo del almacenamiento repartido, guardado en el shard 0: la cantidad de shards vigente y
+ * las secuencias de las que salen los ids de autores y libros. El shard 0 nunca se elimina al
+ * rebalancear, así que las secuencias siguen siendo únicas para todos los shards.
+ */
+final class ShardCatalog {
+    static final String SECUENCIA_AUTORES = "shard_autores_seq";
+    static final String SECUENCIA_LIBROS = "shard_libros_seq";
+    private static final String CLAVE_CANTIDAD = "cantidad";
+
+    private ShardCatalog() {}
+
+    static void crear(ConnectionProvider provider) throws SQLException {
+        try (Connection connection = provider.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS shard_catalogo (" +
+                    "clave VARCHAR(50) PRIMARY KEY, valor INT NOT NULL)");
+            statement.execute("CREATE SEQUENCE IF NOT EXISTS " + SECUENCIA_AUTORES);
+            statement.execute("CREATE SEQUENCE IF NOT EXISTS " + SECUENCIA_LIBROS);
+        }
+    }
+
+    // null si el catálogo todavía no registra una cantidad de shards
+    static Integer leerCantidad(ConnectionProvider provider) throws SQLException {
+        try (Connection connection = provider.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT valor FROM shard_catalogo WHERE clave = ?")) {
+            statement.setString(1, CLAVE_CANTIDAD);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getInt(1) : null;
+            }
+        }
+    }
+
+    static void guardarCantidad(ConnectionProvider provider, int cantidad) throws SQLException {
+        try (Connection connection = provider.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "MERGE INTO shard_catalogo (clave, valor) KEY (clave) VALUES (?, ?)")) {
+            statement.setString(1, CLAVE_CANTIDAD);
+            statement.setInt(2, cantidad);
+            statement.executeUpdate();
+        }
+    }
+}
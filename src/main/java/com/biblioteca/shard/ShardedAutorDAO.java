@@ -0,0 +1,163 @@
+package com.biblioteca.shard;
+
+import com.biblioteca.dao.AutorDAO;
+import com.biblioteca.dao.BatchResult;
+import com.biblioteca.dao.Page;
+import com.biblioteca.dao.PageRequest;
+import com.biblioteca.dao.VersionedBatchResult;
+import com.biblioteca.dao.WriteResult;
+import com.biblioteca.model.Autor;
+import com.biblioteca.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * AutorDAO sobre {@link ShardedDatabase}: las operaciones por id van al shard dueño del id y
+ * las consultas por otros criterios se reparten entre todos los shards y se unen en orden de id.
+ */
+public class ShardedAutorDAO implements AutorDAO {
+    private static final Logger logger = LoggerUtil.getLogger(ShardedAutorDAO.class);
+    private static final Comparator<Autor> POR_ID = Comparator.comparingInt(Autor::getId);
+
+    private final ShardedDatabase db;
+
+    public ShardedAutorDAO(ShardedDatabase db) {
+        this.db = db;
+    }
+
+    @Override
+    public Optional<Autor> findById(int id) {
+        return db.autores(db.shardDeId(id)).findById(id);
+    }
+
+    @Override
+    public List<Autor> findByIds(Collection<Integer> ids) {
+        List<List<Integer>> grupos = db.agrupar(new LinkedHashSet<>(ids), db::shardDeId);
+        List<List<Autor>> encontrados = db.enTodos(shard -> grupos.get(shard).isEmpty()
+                ? new ArrayList<>() : db.autores(shard).findByIds(grupos.get(shard)));
+        Map<Integer, Autor> porId = new HashMap<>(ids.size() * 2);
+        encontrados.forEach(autores -> autores.forEach(autor -> porId.put(autor.getId(), autor)));
+        // Se respeta el orden de los ids recibidos
+        List<Autor> autores = new ArrayList<>(porId.size());
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            Autor autor = porId.get(id);
+            if (autor != null) {
+                autores.add(autor);
+            }
+        }
+        return autores;
+    }
+
+    @Override
+    public List<Autor> findAll() {
+        return MergeIterator.mergeLists(db.enTodos(shard -> db.autores(shard).findAll()), POR_ID);
+    }
+
+    @Override
+    public Page<Autor> findAll(PageRequest pageRequest) {
+        return MergeIterator.mergePages(db.enTodos(shard -> db.autores(shard).findAll(pageRequest)),
+                pageRequest, POR_ID, ultimo -> PageRequest.after(ultimo.getId(), pageRequest.getSize()));
+    }
+
+    @Override
+    public Stream<Autor> streamAll() {
+        return MergeIterator.mergeStreams(db.enTodos(shard -> db.autores(shard).streamAll()), POR_ID);
+    }
+
+    @Override
+    public void save(Autor autor) {
+        try {
+            autor.setId(db.nuevoIdAutor());
+        } catch (SQLException e) {
+            logger.error("Error al reservar id para el autor: {}", autor, e);
+            return;
+        }
+        db.autores(db.shardDeId(autor.getId())).save(autor);
+    }
+
+    @Override
+    public void update(Autor autor) {
+        db.autores(db.shardDeId(autor.getId())).update(autor);
+    }
+
+    @Override
+    public void delete(int id) {
+        db.autores(db.shardDeId(id)).delete(id);
+    }
+
+    @Override
+    public WriteResult updateIfVersion(Autor autor) {
+        return db.autores(db.shardDeId(autor.getId())).updateIfVersion(autor);
+    }
+
+    @Override
+    public WriteResult deleteIfVersion(int id, int version) {
+        return db.autores(db.shardDeId(id)).deleteIfVersion(id, version);
+    }
+
+    @Override
+    public List<Autor> findByNacionalidad(String nacionalidad) {
+        return MergeIterator.mergeLists(
+                db.enTodos(shard -> db.autores(shard).findByNacionalidad(nacionalidad)), POR_ID);
+    }
+
+    @Override
+    public Page<Autor> findByNacionalidad(String nacionalidad, PageRequest pageRequest) {
+        return MergeIterator.mergePages(
+                db.enTodos(shard -> db.autores(shard).findByNacionalidad(nacionalidad, pageRequest)),
+                pageRequest, POR_ID, ultimo -> PageRequest.after(ultimo.getId(), pageRequest.getSize()));
+    }
+
+    @Override
+    public BatchResult saveAll(Collection<Autor> autores) {
+        long start = System.nanoTime();
+        try {
+            for (Autor autor : autores) {
+                autor.setId(db.nuevoIdAutor());
+            }
+        } catch (SQLException e) {
+            autores.forEach(autor -> autor.setId(0));
+            logger.error("Error al reservar ids para autores en lote", e);
+            return BatchResult.failed(System.nanoTime() - start);
+        }
+        return db.enLotes(db.agrupar(autores, autor -> db.shardDeId(autor.getId())),
+                (shard, grupo) -> db.autores(shard).saveAll(grupo));
+    }
+
+    @Override
+    public BatchResult updateAll(Collection<Autor> autores) {
+        return db.enLotes(db.agrupar(autores, autor -> db.shardDeId(autor.getId())),
+                (shard, grupo) -> db.autores(shard).updateAll(grupo));
+    }
+
+    @Override
+    public BatchResult deleteAll(int[] ids) {
+        List<Integer> lista = Arrays.stream(ids).boxed().collect(Collectors.toList());
+        return db.enLotes(db.agrupar(lista, db::shardDeId),
+                (shard, grupo) -> db.autores(shard).deleteAll(grupo.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    @Override
+    public VersionedBatchResult updateAllIfVersion(Collection<Autor> autores) {
+        return db.enLotesVersionados(autores, autor -> db.shardDeId(autor.getId()),
+                (shard, grupo) -> db.autores(shard).updateAllIfVersion(grupo));
+    }
+
+    @Override
+    public VersionedBatchResult deleteAllIfVersion(Collection<Autor> autores) {
+        return db.enLotesVersionados(autores, autor -> db.shardDeId(autor.getId()),
+                (shard, grupo) -> db.autores(shard).deleteAllIfVersion(grupo));
+    }
+}
@@ -0,0 +1,309 @@
+package com.biblioteca.shard;
+
+import com.biblioteca.cdc.ChangeFeed;
+import com.biblioteca.dao.AutorDAOImpl;
+import com.biblioteca.dao.BatchResult;
+import com.biblioteca.dao.LibroDAOImpl;
+import com.biblioteca.dao.VersionedBatchResult;
+import com.biblioteca.dao.WriteResult;
+import com.biblioteca.migration.MigrationRunner;
+import com.biblioteca.util.DatabaseConfig;
+import com.biblioteca.util.LoggerUtil;
+import com.biblioteca.util.PooledConnectionProvider;
+import com.biblioteca.util.StorageProfile;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * Almacenamiento repartido en varias bases H2 locales, guardadas como {@code <ruta>-shard0},
+ * {@code <ruta>-shard1}, etc. Cada id pertenece a una de {@link #PARTICIONES} particiones
+ * ({@code id % PARTICIONES}) y cada partición vive en el shard {@code particion % cantidad}.
+ * Los ids de autor salen de una secuencia global; los de libro se eligen para caer en la misma
+ * partición que su autor, así cada libro queda en el shard de su autor y tanto autores como
+ * libros se ubican por id sin consultar los demás shards.
+ *
+ * <p>Cambiar la cantidad de shards mueve particiones enteras sin cambiar ningún id (ver
+ * {@link RebalanceadorShards}). El shard 0 guarda el catálogo con la cantidad vigente y las
+ * secuencias de ids. No hay transacciones entre shards: una operación que toca varios se
+ * confirma por separado en cada uno.
+ */
+public class ShardedDatabase implements AutoCloseable {
+    private static final Logger logger = LoggerUtil.getLogger(ShardedDatabase.class);
+    public static final int PARTICIONES = 64;
+    private static final int POOL_MIN_SIZE = 1;
+    private static final int POOL_MAX_SIZE = 8;
+    private static final long ACQUIRE_TIMEOUT_MILLIS = 5_000;
+    private static final long IDLE_TIMEOUT_MILLIS = 60_000;
+    private static final int STATEMENT_CACHE_SIZE = 32;
+
+    private final int cantidad;
+    private final PooledConnectionProvider[] providers;
+    private final AutorDAOImpl[] autores;
+    private final LibroDAOImpl[] libros;
+    private final IdAllocator idsAutores;
+    private final IdAllocator idsLibros;
+    private final ExecutorService consultas;
+
+    private ShardedDatabase(DatabaseConfig config, PooledConnectionProvider catalogo, int cantidad) throws SQLException {
+        this.cantidad = cantidad;
+        providers = new PooledConnectionProvider[cantidad];
+        autores = new AutorDAOImpl[cantidad];
+        libros = new LibroDAOImpl[cantidad];
+        providers[0] = catalogo;
+        try {
+            for (int i = 1; i < cantidad; i++) {
+                providers[i] = abrirShard(config, i);
+            }
+        } catch (SQLException | RuntimeException e) {
+            cerrarProviders();
+            throw e;
+        }
+        for (int i = 0; i < cantidad; i++) {
+            autores[i] = new AutorDAOImpl(providers[i]);
+            autores[i].enableAssignedIds();
+            libros[i] = new LibroDAOImpl(providers[i]);
+            libros[i].enableAssignedIds();
+        }
+        idsAutores = new IdAllocator(catalogo, ShardCatalog.SECUENCIA_AUTORES);
+        idsLibros = new IdAllocator(catalogo, ShardCatalog.SECUENCIA_LIBROS);
+        AtomicInteger numero = new AtomicInteger();
+        consultas = Executors.newFixedThreadPool(Math.max(2, cantidad * 2), tarea -> {
+            Thread hilo = new Thread(tarea, "shard-consulta-" + numero.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Abre los shards de la configuración. La cantidad sale del catálogo del shard 0; si todavía
+     * no existe, se crea con {@link DatabaseConfig#getShards()}.
+     */
+    public static ShardedDatabase open(DatabaseConfig config) {
+        if (config.getProfile() == StorageProfile.MEMORIA) {
+            throw new IllegalArgumentException("El perfil memoria no admite shards");
+        }
+        PooledConnectionProvider catalogo = null;
+        try {
+            catalogo = abrirShard(config, 0);
+            Integer cantidad = config.isReadOnly() ? ShardCatalog.leerCantidad(catalogo) : null;
+            if (!config.isReadOnly()) {
+                ShardCatalog.crear(catalogo);
+                cantidad = ShardCatalog.leerCantidad(catalogo);
+                if (cantidad == null) {
+                    cantidad = validarCantidad(config.getShards());
+                    ShardCatalog.guardarCantidad(catalogo, cantidad);
+                }
+            }
+            if (cantidad == null) {
+                throw new IllegalStateException("El shard 0 no tiene catálogo; créelo antes con un perfil de escritura");
+            }
+            if (config.getShards() > 0 && config.getShards() != cantidad) {
+                logger.warn("La configuración pide {} shards pero el catálogo tiene {}; se usa el catálogo. " +
+                        "Para cambiarla ejecute RebalanceadorShards", box(config.getShards()), box(cantidad));
+            }
+            ShardedDatabase db = new ShardedDatabase(config, catalogo, cantidad);
+            logger.info("Almacenamiento repartido abierto con {} shards", box(cantidad));
+            return db;
+        } catch (SQLException | RuntimeException e) {
+            if (catalogo != null) {
+                catalogo.close();
+            }
+            throw new RuntimeException("Error al abrir los shards", e);
+        }
+    }
+
+    static PooledConnectionProvider abrirShard(DatabaseConfig config, int indice) throws SQLException {
+        DatabaseConfig shard = config.forShard(indice);
+        PooledConnectionProvider provider = new PooledConnectionProvider(shard.getUrl(), shard.getUser(),
+                shard.getPassword(), POOL_MIN_SIZE, POOL_MAX_SIZE, ACQUIRE_TIMEOUT_MILLIS, IDLE_TIMEOUT_MILLIS,
+                STATEMENT_CACHE_SIZE);
+        if (!shard.isReadOnly()) {
+            try {
+                new MigrationRunner(provider).migrate();
+            } catch (SQLException | RuntimeException e) {
+                provider.close();
+                throw e;
+            }
+        }
+        return provider;
+    }
+
+    static int validarCantidad(int cantidad) {
+        if (cantidad < 1 || cantidad > PARTICIONES) {
+            throw new IllegalArgumentException("La cantidad de shards debe estar entre 1 y " + PARTICIONES + ": " + cantidad);
+        }
+        return cantidad;
+    }
+
+    // Las escrituras de todos los shards se publican en el mismo canal
+    public void setChangeFeed(ChangeFeed changeFeed) {
+        for (int i = 0; i < cantidad; i++) {
+            autores[i].setChangeFeed(changeFeed);
+            libros[i].setChangeFeed(changeFeed);
+        }
+    }
+
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    static int particion(int id) {
+        return Math.floorMod(id, PARTICIONES);
+    }
+
+    int shardDeId(int id) {
+        return particion(id) % cantidad;
+    }
+
+    AutorDAOImpl autores(int shard) {
+        return autores[shard];
+    }
+
+    LibroDAOImpl libros(int shard) {
+        return libros[shard];
+    }
+
+    int nuevoIdAutor() throws SQLException {
+        return aEntero(idsAutores.next(), "autores");
+    }
+
+    // El resto del id es la partición del autor, así el libro se ubica en el shard de su autor
+    int nuevoIdLibro(int autorId) throws SQLException {
+        return aEntero(idsLibros.next() * PARTICIONES + particion(autorId), "libros");
+    }
+
+    // Ejecuta la consulta en todos los shards en paralelo y devuelve los resultados en orden de shard
+    <R> List<R> enTodos(IntFunction<R> consulta) {
+        if (cantidad == 1) {
+            return Collections.singletonList(consulta.apply(0));
+        }
+        List<Future<R>> pendientes = new ArrayList<>(cantidad - 1);
+        for (int i = 1; i < cantidad; i++) {
+            int shard = i;
+            pendientes.add(consultas.submit(() -> consulta.apply(shard)));
+        }
+        List<R> resultados = new ArrayList<>(cantidad);
+        // El shard 0 lo consulta el hilo que llama mientras el pool atiende los demás
+        resultados.add(consulta.apply(0));
+        for (Future<R> pendiente : pendientes) {
+            resultados.add(esperar(pendiente));
+        }
+        return resultados;
+    }
+
+    // Reparte los elementos por shard, conservando el orden de llegada dentro de cada uno
+    <T> List<List<T>> agrupar(Collection<T> elementos, ToIntFunction<T> shardDe) {
+        List<List<T>> grupos = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            grupos.add(new ArrayList<>());
+        }
+        for (T elemento : elementos) {
+            grupos.get(shardDe.applyAsInt(elemento)).add(elemento);
+        }
+        return grupos;
+    }
+
+    // Cada shard confirma su lote por separado; el resultado sólo es exitoso si lo fue en todos.
+    // Las filas son la suma de los shards que confirmaron, así un fallo parcial no las oculta
+    <T> BatchResult enLotes(List<List<T>> grupos, BiFunction<Integer, List<T>, BatchResult> operacion) {
+        long start = System.nanoTime();
+        List<BatchResult> resultados = enTodos(shard -> grupos.get(shard).isEmpty()
+                ? null : operacion.apply(shard, grupos.get(shard)));
+        int rows = 0;
+        boolean successful = true;
+        for (BatchResult resultado : resultados) {
+            if (resultado != null) {
+                rows += resultado.getRows();
+                successful &= resultado.isSuccessful();
+            }
+        }
+        return new BatchResult(rows, System.nanoTime() - start, successful);
+    }
+
+    // Como enLotes, con el resultado de cada elemento en el orden recibido; los elementos cuyo
+    // shard es -1 (no se encontraron) quedan como NOT_FOUND sin enviarse a ningún shard
+    <T> VersionedBatchResult enLotesVersionados(Collection<T> elementos, ToIntFunction<T> shardDe,
+                                                BiFunction<Integer, List<T>, VersionedBatchResult> operacion) {
+        long start = System.nanoTime();
+        int[] shards = new int[elementos.size()];
+        List<List<T>> grupos = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            grupos.add(new ArrayList<>());
+        }
+        int n = 0;
+        for (T elemento : elementos) {
+            int shard = shardDe.applyAsInt(elemento);
+            shards[n++] = shard;
+            if (shard >= 0) {
+                grupos.get(shard).add(elemento);
+            }
+        }
+        List<VersionedBatchResult> parciales = enTodos(shard -> grupos.get(shard).isEmpty()
+                ? null : operacion.apply(shard, grupos.get(shard)));
+        int[] siguiente = new int[cantidad];
+        List<WriteResult> resultados = new ArrayList<>(shards.length);
+        boolean successful = true;
+        for (int shard : shards) {
+            if (shard < 0) {
+                resultados.add(WriteResult.NOT_FOUND);
+            } else {
+                VersionedBatchResult parcial = parciales.get(shard);
+                resultados.add(parcial.getResults().get(siguiente[shard]++));
+                successful &= parcial.isSuccessful();
+            }
+        }
+        return new VersionedBatchResult(resultados, System.nanoTime() - start, successful);
+    }
+
+    private static <R> R esperar(Future<R> pendiente) {
+        try {
+            return pendiente.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Error al consultar un shard", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Consulta a los shards interrumpida", e);
+        }
+    }
+
+    private static int aEntero(long id, String tabla) {
+        if (id > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Se agotaron los ids de " + tabla);
+        }
+        return (int) id;
+    }
+
+    @Override
+    public void close() {
+        if (consultas != null) {
+            consultas.shutdown();
+        }
+        cerrarProviders();
+    }
+
+    private void cerrarProviders() {
+        for (PooledConnectionProvider provider : providers) {
+            if (provider != null) {
+                provider.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,436 @@
+package com.biblioteca.shard;
+
+import com.biblioteca.dao.BatchResult;
+import com.biblioteca.dao.LibroDAO;
+import com.biblioteca.dao.Page;
+import com.biblioteca.dao.PageRequest;
+import com.biblioteca.dao.VersionedBatchResult;
+import com.biblioteca.dao.WriteResult;
+import com.biblioteca.model.Libro;
+import com.biblioteca.model.LibroConAutor;
+import com.biblioteca.search.TituloIndex;
+import com.biblioteca.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * LibroDAO sobre {@link ShardedDatabase}. Cada libro vive en el shard de su autor, así que
+ * {@link #findByAutorId} y el JOIN de {@link #findAllConAutor} se resuelven dentro de un shard.
+ * Si un libro cambia de autor y el nuevo está en otro shard, se mueve conservando el id; por eso
+ * la búsqueda por id mira primero el shard en el que se creó y, si no está, todos los demás.
+ * El ISBN sólo es único dentro de cada shard.
+ */
+public class ShardedLibroDAO implements LibroDAO {
+    private static final Logger logger = LoggerUtil.getLogger(ShardedLibroDAO.class);
+    private static final Comparator<Libro> POR_ID = Comparator.comparingInt(Libro::getId);
+    private static final Comparator<Libro> POR_FECHA = Comparator.comparing(Libro::getFechaPublicacion)
+            .thenComparingInt(Libro::getId);
+    private static final Comparator<LibroConAutor> CON_AUTOR_POR_ID =
+            Comparator.comparingInt(libro -> libro.getLibro().getId());
+
+    private final ShardedDatabase db;
+
+    public ShardedLibroDAO(ShardedDatabase db) {
+        this.db = db;
+    }
+
+    @Override
+    public Optional<Libro> findById(int id) {
+        int origen = db.shardDeId(id);
+        Optional<Libro> libro = db.libros(origen).findById(id);
+        if (libro.isPresent()) {
+            return libro;
+        }
+        return db.enTodos(shard -> shard == origen ? Optional.<Libro>empty() : db.libros(shard).findById(id))
+                .stream()
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .findFirst();
+    }
+
+    @Override
+    public List<Libro> findByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Integer, Libro> porId = new HashMap<>(ids.size() * 2);
+        for (List<Libro> libros : db.enTodos(shard -> db.libros(shard).findByIds(ids))) {
+            libros.forEach(libro -> porId.put(libro.getId(), libro));
+        }
+        // Se respeta el orden de los ids recibidos
+        List<Libro> libros = new ArrayList<>(porId.size());
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            Libro libro = porId.get(id);
+            if (libro != null) {
+                libros.add(libro);
+            }
+        }
+        return libros;
+    }
+
+    @Override
+    public Optional<Libro> findByIsbn(String isbn) {
+        return db.enTodos(shard -> db.libros(shard).findByIsbn(isbn))
+                .stream()
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .findFirst();
+    }
+
+    @Override
+    public List<Libro> findByIsbns(Collection<String> isbns) {
+        if (isbns.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<String, Libro> porIsbn = new HashMap<>(isbns.size() * 2);
+        for (List<Libro> libros : db.enTodos(shard -> db.libros(shard).findByIsbns(isbns))) {
+            libros.forEach(libro -> porIsbn.putIfAbsent(libro.getIsbn(), libro));
+        }
+        // Se respeta el orden de los ISBN recibidos
+        List<Libro> libros = new ArrayList<>(porIsbn.size());
+        for (String isbn : new LinkedHashSet<>(isbns)) {
+            Libro libro = porIsbn.get(isbn);
+            if (libro != null) {
+                libros.add(libro);
+            }
+        }
+        return libros;
+    }
+
+    @Override
+    public List<Libro> findAll() {
+        return MergeIterator.mergeLists(db.enTodos(shard -> db.libros(shard).findAll()), POR_ID);
+    }
+
+    @Override
+    public Page<Libro> findAll(PageRequest pageRequest) {
+        return MergeIterator.mergePages(db.enTodos(shard -> db.libros(shard).findAll(pageRequest)),
+                pageRequest, POR_ID, ultimo -> PageRequest.after(ultimo.getId(), pageRequest.getSize()));
+    }
+
+    @Override
+    public Stream<Libro> streamAll() {
+        return MergeIterator.mergeStreams(db.enTodos(shard -> db.libros(shard).streamAll()), POR_ID);
+    }
+
+    @Override
+    public void save(Libro libro) {
+        try {
+            libro.setId(db.nuevoIdLibro(libro.getAutorId()));
+        } catch (SQLException e) {
+            logger.error("Error al reservar id para el libro: {}", libro, e);
+            return;
+        }
+        db.libros(db.shardDeId(libro.getAutorId())).save(libro);
+    }
+
+    @Override
+    public void update(Libro libro) {
+        int destino = db.shardDeId(libro.getAutorId());
+        int actual = ubicar(libro.getId(), destino);
+        if (actual < 0 || actual == destino) {
+            db.libros(destino).update(libro);
+        } else {
+            mover(libro, actual, destino);
+        }
+    }
+
+    @Override
+    public void delete(int id) {
+        int actual = ubicar(id, db.shardDeId(id));
+        db.libros(actual < 0 ? db.shardDeId(id) : actual).delete(id);
+    }
+
+    @Override
+    public WriteResult updateIfVersion(Libro libro) {
+        int destino = db.shardDeId(libro.getAutorId());
+        int actual = ubicar(libro.getId(), destino);
+        if (actual < 0) {
+            return WriteResult.NOT_FOUND;
+        }
+        return actual == destino ? db.libros(destino).updateIfVersion(libro) : moverSiVersion(libro, actual, destino);
+    }
+
+    @Override
+    public WriteResult deleteIfVersion(int id, int version) {
+        int actual = ubicar(id, db.shardDeId(id));
+        return actual < 0 ? WriteResult.NOT_FOUND : db.libros(actual).deleteIfVersion(id, version);
+    }
+
+    // Cada shard devuelve sus libros por relevancia, así que la mezcla mantiene el orden global
+    @Override
+    public List<Libro> findByTitulo(String titulo) {
+        return MergeIterator.mergeLists(db.enTodos(shard -> db.libros(shard).findByTitulo(titulo)),
+                porRelevancia(titulo));
+    }
+
+    @Override
+    public Page<Libro> findByTitulo(String titulo, PageRequest pageRequest) {
+        PageRequest pedido = pageRequest;
+        // Sólo el shard del libro podría completar un cursor sin relevancia; se completa acá para todos
+        if (!pageRequest.isFirst() && pageRequest.getAfterRelevancia() == null) {
+            int relevancia = findById(pageRequest.getAfterId())
+                    .map(libro -> TituloIndex.relevancia(libro.getTitulo(), titulo))
+                    .orElse(-1);
+            pedido = relevancia < 0 ? PageRequest.first(pageRequest.getSize())
+                    : PageRequest.afterRelevancia(relevancia, pageRequest.getAfterId(), pageRequest.getSize());
+        }
+        PageRequest porShard = pedido;
+        return MergeIterator.mergePages(db.enTodos(shard -> db.libros(shard).findByTitulo(titulo, porShard)),
+                porShard, porRelevancia(titulo), ultimo -> PageRequest.afterRelevancia(
+                        TituloIndex.relevancia(ultimo.getTitulo(), titulo), ultimo.getId(), pageRequest.getSize()));
+    }
+
+    @Override
+    public List<Libro> findByFechaPublicacionAfter(LocalDate fecha) {
+        return MergeIterator.mergeLists(
+                db.enTodos(shard -> db.libros(shard).findByFechaPublicacionAfter(fecha)), POR_FECHA);
+    }
+
+    @Override
+    public Page<Libro> findByFechaPublicacionAfter(LocalDate fecha, PageRequest pageRequest) {
+        return MergeIterator.mergePages(
+                db.enTodos(shard -> db.libros(shard).findByFechaPublicacionAfter(fecha, pageRequest)),
+                pageRequest, POR_FECHA,
+                ultimo -> PageRequest.after(ultimo.getFechaPublicacion(), ultimo.getId(), pageRequest.getSize()));
+    }
+
+    @Override
+    public List<Libro> findByAutorId(int autorId) {
+        return db.libros(db.shardDeId(autorId)).findByAutorId(autorId);
+    }
+
+    @Override
+    public Page<Libro> findByAutorId(int autorId, PageRequest pageRequest) {
+        return db.libros(db.shardDeId(autorId)).findByAutorId(autorId, pageRequest);
+    }
+
+    @Override
+    public List<LibroConAutor> findAllConAutor() {
+        return MergeIterator.mergeLists(db.enTodos(shard -> db.libros(shard).findAllConAutor()), CON_AUTOR_POR_ID);
+    }
+
+    @Override
+    public Page<LibroConAutor> findAllConAutor(PageRequest pageRequest) {
+        return MergeIterator.mergePages(db.enTodos(shard -> db.libros(shard).findAllConAutor(pageRequest)),
+                pageRequest, CON_AUTOR_POR_ID,
+                ultimo -> PageRequest.after(ultimo.getLibro().getId(), pageRequest.getSize()));
+    }
+
+    @Override
+    public BatchResult saveAll(Collection<Libro> libros) {
+        long start = System.nanoTime();
+        try {
+            for (Libro libro : libros) {
+                libro.setId(db.nuevoIdLibro(libro.getAutorId()));
+            }
+        } catch (SQLException e) {
+            libros.forEach(libro -> libro.setId(0));
+            logger.error("Error al reservar ids para libros en lote", e);
+            return BatchResult.failed(System.nanoTime() - start);
+        }
+        return db.enLotes(db.agrupar(libros, libro -> db.shardDeId(libro.getAutorId())),
+                (shard, grupo) -> db.libros(shard).saveAll(grupo));
+    }
+
+    @Override
+    public BatchResult updateAll(Collection<Libro> libros) {
+        long start = System.nanoTime();
+        Map<Integer, Integer> ubicaciones = ubicarTodos(libros.stream().map(Libro::getId).collect(Collectors.toList()));
+        List<Libro> enSuShard = new ArrayList<>(libros.size());
+        List<Libro> aMover = new ArrayList<>();
+        for (Libro libro : libros) {
+            Integer actual = ubicaciones.get(libro.getId());
+            if (actual == null || actual == db.shardDeId(libro.getAutorId())) {
+                enSuShard.add(libro);
+            } else {
+                aMover.add(libro);
+            }
+        }
+        BatchResult actualizados = db.enLotes(db.agrupar(enSuShard, libro -> db.shardDeId(libro.getAutorId())),
+                (shard, grupo) -> db.libros(shard).updateAll(grupo));
+        int movidos = 0;
+        for (Libro libro : aMover) {
+            if (mover(libro, ubicaciones.get(libro.getId()), db.shardDeId(libro.getAutorId()))) {
+                movidos++;
+            }
+        }
+        return new BatchResult(actualizados.getRows() + movidos, System.nanoTime() - start,
+                actualizados.isSuccessful() && movidos == aMover.size());
+    }
+
+    @Override
+    public BatchResult deleteAll(int[] ids) {
+        List<Integer> lista = Arrays.stream(ids).boxed().collect(Collectors.toList());
+        Map<Integer, Integer> ubicaciones = ubicarTodos(lista);
+        List<Integer> existentes = lista.stream().filter(ubicaciones::containsKey).collect(Collectors.toList());
+        return db.enLotes(db.agrupar(existentes, ubicaciones::get),
+                (shard, grupo) -> db.libros(shard).deleteAll(grupo.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    @Override
+    public VersionedBatchResult updateAllIfVersion(Collection<Libro> libros) {
+        long start = System.nanoTime();
+        Map<Integer, Integer> ubicaciones = ubicarTodos(libros.stream().map(Libro::getId).collect(Collectors.toList()));
+        // Los que hay que mover y los inexistentes quedan fuera de los lotes; los primeros se resuelven después
+        VersionedBatchResult enSuShard = db.enLotesVersionados(libros, libro -> {
+            Integer actual = ubicaciones.get(libro.getId());
+            return actual != null && actual == db.shardDeId(libro.getAutorId()) ? actual : -1;
+        }, (shard, grupo) -> db.libros(shard).updateAllIfVersion(grupo));
+        List<WriteResult> resultados = new ArrayList<>(enSuShard.getResults());
+        boolean successful = enSuShard.isSuccessful();
+        int i = 0;
+        for (Libro libro : libros) {
+            Integer actual = ubicaciones.get(libro.getId());
+            int destino = db.shardDeId(libro.getAutorId());
+            if (actual != null && actual != destino) {
+                WriteResult resultado = moverSiVersion(libro, actual, destino);
+                resultados.set(i, resultado);
+                successful &= resultado != WriteResult.FAILED;
+            }
+            i++;
+        }
+        return new VersionedBatchResult(resultados, System.nanoTime() - start, successful);
+    }
+
+    @Override
+    public VersionedBatchResult deleteAllIfVersion(Collection<Libro> libros) {
+        Map<Integer, Integer> ubicaciones = ubicarTodos(libros.stream().map(Libro::getId).collect(Collectors.toList()));
+        return db.enLotesVersionados(libros, libro -> ubicaciones.getOrDefault(libro.getId(), -1),
+                (shard, grupo) -> db.libros(shard).deleteAllIfVersion(grupo));
+    }
+
+    /**
+     * Los ISBN que ya existen en algún shard se actualizan (moviendo el libro si cambió de autor)
+     * y los demás se dan de alta en el shard de su autor. A diferencia de la base única no es un
+     * MERGE atómico: dos altas concurrentes del mismo ISBN en shards distintos quedan duplicadas.
+     */
+    @Override
+    public BatchResult upsertByIsbn(Collection<Libro> libros) {
+        List<String> isbns = new ArrayList<>(libros.size());
+        for (Libro libro : libros) {
+            if (libro.getIsbn() == null) {
+                throw new IllegalArgumentException("No se puede sincronizar por ISBN un libro sin ISBN: " + libro);
+            }
+            isbns.add(libro.getIsbn());
+        }
+        long start = System.nanoTime();
+        Map<String, Integer> existentes = new HashMap<>(isbns.size() * 2);
+        findByIsbns(isbns).forEach(libro -> existentes.put(libro.getIsbn(), libro.getId()));
+        List<Libro> actualizar = new ArrayList<>();
+        // Como en el MERGE, si el lote repite un ISBN nuevo gana la última fila
+        Map<String, Libro> nuevos = new LinkedHashMap<>();
+        for (Libro libro : libros) {
+            Integer id = existentes.get(libro.getIsbn());
+            if (id != null) {
+                libro.setId(id);
+                actualizar.add(libro);
+            } else {
+                nuevos.put(libro.getIsbn(), libro);
+            }
+        }
+        BatchResult actualizados = actualizar.isEmpty() ? null : updateAll(actualizar);
+        BatchResult insertados = nuevos.isEmpty() ? null : saveAll(nuevos.values());
+        for (Libro libro : libros) {
+            Libro guardado = nuevos.get(libro.getIsbn());
+            if (guardado != null) {
+                libro.setId(guardado.getId());
+            }
+        }
+        int rows = 0;
+        boolean successful = true;
+        for (BatchResult parcial : Arrays.asList(actualizados, insertados)) {
+            if (parcial != null) {
+                rows += parcial.getRows();
+                successful &= parcial.isSuccessful();
+            }
+        }
+        return new BatchResult(rows, System.nanoTime() - start, successful);
+    }
+
+    // Shard en el que está hoy el libro, o -1 si no existe; mira primero el shard esperado y el de origen del id
+    private int ubicar(int id, int esperado) {
+        if (db.libros(esperado).findById(id).isPresent()) {
+            return esperado;
+        }
+        int origen = db.shardDeId(id);
+        if (origen != esperado && db.libros(origen).findById(id).isPresent()) {
+            return origen;
+        }
+        return db.enTodos(shard -> shard != esperado && shard != origen && db.libros(shard).findById(id).isPresent())
+                .indexOf(Boolean.TRUE);
+    }
+
+    // Una consulta por shard para ubicar todos los ids; los que no existen no figuran en el mapa
+    private Map<Integer, Integer> ubicarTodos(List<Integer> ids) {
+        Map<Integer, Integer> ubicaciones = new HashMap<>(ids.size() * 2);
+        if (ids.isEmpty()) {
+            return ubicaciones;
+        }
+        List<List<Libro>> encontrados = db.enTodos(shard -> db.libros(shard).findByIds(ids));
+        for (int shard = 0; shard < encontrados.size(); shard++) {
+            for (Libro libro : encontrados.get(shard)) {
+                ubicaciones.putIfAbsent(libro.getId(), shard);
+            }
+        }
+        return ubicaciones;
+    }
+
+    // El alta en el shard nuevo y la baja en el anterior se confirman por separado; si falla la baja
+    // el libro queda repetido en los dos shards hasta que se vuelva a actualizar o eliminar
+    private boolean mover(Libro libro, int origen, int destino) {
+        Libro copia = new Libro(libro);
+        // Como el UPDATE, la versión nueva sale de la que tiene la fila, no de la que trae la entidad
+        db.libros(origen).findById(libro.getId()).ifPresent(actual -> copia.setVersion(actual.getVersion() + 1));
+        db.libros(destino).save(copia);
+        if (copia.getId() == 0) {
+            logger.error("No se pudo mover el libro {} del shard {} al {}", box(libro.getId()), box(origen), box(destino));
+            return false;
+        }
+        db.libros(origen).delete(libro.getId());
+        libro.setVersion(copia.getVersion());
+        logger.info("Libro {} movido del shard {} al {}", box(libro.getId()), box(origen), box(destino));
+        return true;
+    }
+
+    // La copia se da de alta con la versión nueva y la baja en el origen es la que verifica la versión;
+    // si no se aplica, la copia se elimina y el libro queda como estaba
+    private WriteResult moverSiVersion(Libro libro, int origen, int destino) {
+        Libro copia = new Libro(libro);
+        copia.setVersion(libro.getVersion() + 1);
+        db.libros(destino).save(copia);
+        if (copia.getId() == 0) {
+            logger.error("No se pudo mover el libro {} del shard {} al {}", box(libro.getId()), box(origen), box(destino));
+            return WriteResult.FAILED;
+        }
+        WriteResult resultado = db.libros(origen).deleteIfVersion(libro.getId(), libro.getVersion());
+        if (resultado != WriteResult.APPLIED) {
+            db.libros(destino).delete(libro.getId());
+            return resultado;
+        }
+        libro.setVersion(copia.getVersion());
+        logger.info("Libro {} movido del shard {} al {}", box(libro.getId()), box(origen), box(destino));
+        return WriteResult.APPLIED;
+    }
+
+    private static Comparator<Libro> porRelevancia(String titulo) {
+        return Comparator.comparingInt((Libro libro) -> TituloIndex.relevancia(libro.getTitulo(), titulo))
+                .thenComparingInt(Libro::getId);
+    }
+}
@@ -0,0 +1,689 @@
+package com.biblioteca.snapshot;
+
+import com.biblioteca.dao.AutorReadOnlyDAO;
+import com.biblioteca.dao.LibroReadOnlyDAO;
+import com.biblioteca.dao.Page;
+import com.biblioteca.dao.PageRequest;
+import com.biblioteca.model.Autor;
+import com.biblioteca.model.Libro;
+import com.biblioteca.model.LibroConAutor;
+import com.biblioteca.search.TextNormalizer;
+import com.biblioteca.search.TituloIndex;
+import com.biblioteca.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Copia inmutable del catálogo en memoria, guardada por columnas: un arreglo por campo en lugar
+ * de un objeto por fila. Los ids, autores y fechas (como días desde la época) son {@code int[]},
+ * las cadenas repetidas se comparten y los índices usan mapas int→int sin objetos por entrada:
+ * <ul>
+ *   <li>id → fila, para autores y libros;</li>
+ *   <li>autor → libros en formato CSR (un arreglo de inicios y uno de filas);</li>
+ *   <li>filas de libros ordenadas por (fecha, id), para buscar por fecha con búsqueda binaria;</li>
+ *   <li>filas de libros ordenadas por ISBN, para buscar por ISBN con búsqueda binaria.</li>
+ * </ul>
+ *
+ * <p>{@link #libros()} y {@link #autores()} implementan sólo las interfaces de lectura de los DAOs,
+ * con la misma semántica y orden que las consultas SQL; la búsqueda por título recorre los títulos
+ * ya normalizados y ordena con {@link TituloIndex#relevancia}. Para reflejar cambios hay que
+ * cargar un snapshot nuevo. La carga lee primero los autores y
+ * luego los libros; si se necesita una vista consistente debe hacerse dentro de una transacción.
+ */
+public final class CatalogSnapshot {
+    private static final Logger logger = LoggerUtil.getLogger(CatalogSnapshot.class);
+    private static final int SIN_FECHA = Integer.MIN_VALUE;
+    private static final int[] VACIO = new int[0];
+
+    // Autores, en orden de id
+    private final int[] autorIds;
+    private final String[] autorNombres;
+    private final String[] autorNacionalidades;
+    private final int[] autorVersiones;
+    private final IntIntHashMap autorFilaPorId;
+    private final Map<String, int[]> autoresPorNacionalidad;
+
+    // Libros, en orden de id
+    private final int[] libroIds;
+    private final String[] titulos;
+    private final String[] titulosNormalizados;
+    private final String[] isbns;
+    private final int[] fechas;
+    private final int[] libroAutorIds;
+    private final int[] libroVersiones;
+    private final IntIntHashMap libroFilaPorId;
+
+    // Los libros del autor en la fila a son librosPorAutor[librosPorAutorInicio[a] .. librosPorAutorInicio[a + 1])
+    private final int[] librosPorAutorInicio;
+    private final int[] librosPorAutor;
+
+    // Filas de libros con fecha, ordenadas por (fecha, id), y sus fechas en paralelo
+    private final int[] filasPorFecha;
+    private final int[] fechasOrdenadas;
+
+    // Filas de libros con ISBN, ordenadas por ISBN
+    private final int[] filasPorIsbn;
+
+    private final long bytesCadenas;
+    private final LibroReadOnlyDAO libros = new LibrosSnapshot();
+    private final AutorReadOnlyDAO autores = new AutoresSnapshot();
+
+    private CatalogSnapshot(Cargador cargador) {
+        autorIds = cargador.autorIds.toArray();
+        autorNombres = Arrays.copyOf(cargador.autorNombres, autorIds.length);
+        autorNacionalidades = Arrays.copyOf(cargador.autorNacionalidades, autorIds.length);
+        autorVersiones = cargador.autorVersiones.toArray();
+        libroIds = cargador.libroIds.toArray();
+        titulos = Arrays.copyOf(cargador.titulos, libroIds.length);
+        titulosNormalizados = Arrays.copyOf(cargador.titulosNormalizados, libroIds.length);
+        isbns = Arrays.copyOf(cargador.isbns, libroIds.length);
+        fechas = cargador.fechas.toArray();
+        libroAutorIds = cargador.libroAutorIds.toArray();
+        libroVersiones = cargador.libroVersiones.toArray();
+        bytesCadenas = cargador.bytesCadenas;
+
+        autorFilaPorId = new IntIntHashMap(autorIds.length);
+        for (int fila = 0; fila < autorIds.length; fila++) {
+            autorFilaPorId.put(autorIds[fila], fila);
+        }
+        libroFilaPorId = new IntIntHashMap(libroIds.length);
+        for (int fila = 0; fila < libroIds.length; fila++) {
+            libroFilaPorId.put(libroIds[fila], fila);
+        }
+
+        Map<String, IntArray> porNacionalidad = new HashMap<>();
+        for (int fila = 0; fila < autorIds.length; fila++) {
+            if (autorNacionalidades[fila] != null) {
+                porNacionalidad.computeIfAbsent(autorNacionalidades[fila], n -> new IntArray(16)).add(fila);
+            }
+        }
+        autoresPorNacionalidad = new HashMap<>(porNacionalidad.size() * 2);
+        porNacionalidad.forEach((nacionalidad, filas) -> autoresPorNacionalidad.put(nacionalidad, filas.toArray()));
+
+        // CSR: primero se cuentan los libros de cada autor, luego se acumulan los inicios y se llenan las filas
+        librosPorAutorInicio = new int[autorIds.length + 1];
+        int[] filaAutorDeLibro = new int[libroIds.length];
+        for (int fila = 0; fila < libroIds.length; fila++) {
+            int filaAutor = autorFilaPorId.get(libroAutorIds[fila]);
+            filaAutorDeLibro[fila] = filaAutor;
+            if (filaAutor >= 0) {
+                librosPorAutorInicio[filaAutor + 1]++;
+            }
+        }
+        for (int a = 0; a < autorIds.length; a++) {
+            librosPorAutorInicio[a + 1] += librosPorAutorInicio[a];
+        }
+        librosPorAutor = new int[librosPorAutorInicio[autorIds.length]];
+        int[] siguiente = Arrays.copyOf(librosPorAutorInicio, autorIds.length);
+        for (int fila = 0; fila < libroIds.length; fila++) {
+            int filaAutor = filaAutorDeLibro[fila];
+            if (filaAutor >= 0) {
+                librosPorAutor[siguiente[filaAutor]++] = fila;
+            }
+        }
+
+        // (fecha, fila) empaquetados en un long: ordenar los long ordena por fecha y, a igual fecha, por id
+        int conFecha = 0;
+        for (int fecha : fechas) {
+            if (fecha != SIN_FECHA) {
+                conFecha++;
+            }
+        }
+        long[] claves = new long[conFecha];
+        int k = 0;
+        for (int fila = 0; fila < fechas.length; fila++) {
+            if (fechas[fila] != SIN_FECHA) {
+                claves[k++] = ((long) fechas[fila] << 32) | fila;
+            }
+        }
+        Arrays.sort(claves);
+        filasPorFecha = new int[conFecha];
+        fechasOrdenadas = new int[conFecha];
+        for (int i = 0; i < conFecha; i++) {
+            filasPorFecha[i] = (int) claves[i];
+            fechasOrdenadas[i] = (int) (claves[i] >> 32);
+        }
+
+        // Se ordena una sola vez al cargar; el boxing de las filas no sobrevive a la construcción
+        filasPorIsbn = IntStream.range(0, isbns.length)
+                .filter(fila -> isbns[fila] != null)
+                .boxed()
+                .sorted(Comparator.comparing(fila -> isbns[fila]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    public static CatalogSnapshot load(AutorReadOnlyDAO autorDAO, LibroReadOnlyDAO libroDAO) {
+        long inicio = System.nanoTime();
+        Cargador cargador = new Cargador();
+        try (Stream<Autor> stream = autorDAO.streamAll()) {
+            stream.forEach(cargador::agregar);
+        }
+        try (Stream<Libro> stream = libroDAO.streamAll()) {
+            stream.forEach(cargador::agregar);
+        }
+        CatalogSnapshot snapshot = new CatalogSnapshot(cargador);
+        logger.info("Snapshot del catálogo cargado: {} autores, {} libros, ~{} KB en {} ms",
+                snapshot.autorIds.length, snapshot.libroIds.length, snapshot.getEstimatedBytes() / 1024,
+                (System.nanoTime() - inicio) / 1_000_000);
+        return snapshot;
+    }
+
+    public LibroReadOnlyDAO libros() {
+        return libros;
+    }
+
+    public AutorReadOnlyDAO autores() {
+        return autores;
+    }
+
+    public int getLibroCount() {
+        return libroIds.length;
+    }
+
+    public int getAutorCount() {
+        return autorIds.length;
+    }
+
+    // Estimación del heap ocupado, con referencias comprimidas de 4 bytes
+    public long getEstimatedBytes() {
+        long arreglos = intArrayBytes(autorIds) + refArrayBytes(autorNombres) + refArrayBytes(autorNacionalidades)
+                + intArrayBytes(autorVersiones)
+                + intArrayBytes(libroIds) + refArrayBytes(titulos) + refArrayBytes(titulosNormalizados)
+                + refArrayBytes(isbns)
+                + intArrayBytes(fechas) + intArrayBytes(libroAutorIds) + intArrayBytes(libroVersiones)
+                + intArrayBytes(librosPorAutorInicio) + intArrayBytes(librosPorAutor)
+                + intArrayBytes(filasPorFecha) + intArrayBytes(fechasOrdenadas) + intArrayBytes(filasPorIsbn);
+        long indices = autorFilaPorId.estimatedBytes() + libroFilaPorId.estimatedBytes();
+        for (int[] filas : autoresPorNacionalidad.values()) {
+            indices += 32 + intArrayBytes(filas);
+        }
+        return arreglos + indices + bytesCadenas;
+    }
+
+    private static long intArrayBytes(int[] array) {
+        return 16L + 4L * array.length;
+    }
+
+    private static long refArrayBytes(Object[] array) {
+        return 16L + 4L * array.length;
+    }
+
+    private Libro libro(int fila) {
+        Libro libro = new Libro(titulos[fila], isbns[fila],
+                fechas[fila] == SIN_FECHA ? null : LocalDate.ofEpochDay(fechas[fila]), libroAutorIds[fila]);
+        libro.setId(libroIds[fila]);
+        libro.setVersion(libroVersiones[fila]);
+        return libro;
+    }
+
+    private Autor autor(int fila) {
+        Autor autor = new Autor(autorNombres[fila], autorNacionalidades[fila]);
+        autor.setId(autorIds[fila]);
+        autor.setVersion(autorVersiones[fila]);
+        return autor;
+    }
+
+    private int filaPorIsbn(String isbn) {
+        if (isbn == null) {
+            return -1;
+        }
+        int bajo = 0;
+        int alto = filasPorIsbn.length - 1;
+        while (bajo <= alto) {
+            int medio = (bajo + alto) >>> 1;
+            int comparacion = isbns[filasPorIsbn[medio]].compareTo(isbn);
+            if (comparacion < 0) {
+                bajo = medio + 1;
+            } else if (comparacion > 0) {
+                alto = medio - 1;
+            } else {
+                return filasPorIsbn[medio];
+            }
+        }
+        return -1;
+    }
+
+    // Primera posición de ids[desde..hasta) con valor > id; ids está ordenado
+    private static int primeroMayor(int[] ids, int desde, int hasta, int id) {
+        int bajo = desde;
+        int alto = hasta;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (ids[medio] <= id) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    // Igual que primeroMayor, pero sobre una lista de filas; sirve porque el orden de filas coincide con el de ids
+    private static int primeraFilaMayor(int[] filas, int desde, int hasta, int[] ids, int id) {
+        int bajo = desde;
+        int alto = hasta;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (ids[filas[medio]] <= id) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    // (relevancia, fila) de los títulos que contienen la consulta y siguen a (afterRelevancia, afterId),
+    // empaquetados y ordenados: el orden de filas es el de ids, así que a igual relevancia ordena por id
+    private long[] coincidenciasPorTitulo(String titulo, int afterRelevancia, int afterId) {
+        String consulta = TextNormalizer.normalize(titulo);
+        int desdeFila = primeroMayor(libroIds, 0, libroIds.length, afterId);
+        long[] claves = new long[titulosNormalizados.length];
+        int count = 0;
+        for (int fila = 0; fila < titulosNormalizados.length; fila++) {
+            if (titulosNormalizados[fila] == null) {
+                continue;
+            }
+            int relevancia = TituloIndex.relevanciaNormalizada(titulosNormalizados[fila], consulta);
+            if (relevancia > afterRelevancia
+                    || (relevancia >= 0 && relevancia == afterRelevancia && fila >= desdeFila)) {
+                claves[count++] = (long) relevancia << 32 | fila;
+            }
+        }
+        claves = Arrays.copyOf(claves, count);
+        Arrays.sort(claves);
+        return claves;
+    }
+
+    private final class LibrosSnapshot implements LibroReadOnlyDAO {
+
+        @Override
+        public Optional<Libro> findById(int id) {
+            int fila = libroFilaPorId.get(id);
+            return fila >= 0 ? Optional.of(libro(fila)) : Optional.empty();
+        }
+
+        @Override
+        public List<Libro> findByIds(Collection<Integer> ids) {
+            List<Libro> resultado = new ArrayList<>(ids.size());
+            for (Integer id : new LinkedHashSet<>(ids)) {
+                int fila = libroFilaPorId.get(id);
+                if (fila >= 0) {
+                    resultado.add(libro(fila));
+                }
+            }
+            return resultado;
+        }
+
+        @Override
+        public List<Libro> findAll() {
+            List<Libro> resultado = new ArrayList<>(libroIds.length);
+            for (int fila = 0; fila < libroIds.length; fila++) {
+                resultado.add(libro(fila));
+            }
+            return resultado;
+        }
+
+        @Override
+        public Page<Libro> findAll(PageRequest pageRequest) {
+            int desde = primeroMayor(libroIds, 0, libroIds.length, pageRequest.getAfterIdOrMin());
+            int hasta = Math.min(libroIds.length, desde + pageRequest.getFetchLimit());
+            List<Libro> filas = new ArrayList<>(hasta - desde);
+            for (int fila = desde; fila < hasta; fila++) {
+                filas.add(libro(fila));
+            }
+            return porId(filas, pageRequest);
+        }
+
+        @Override
+        public Stream<Libro> streamAll() {
+            return IntStream.range(0, libroIds.length).mapToObj(CatalogSnapshot.this::libro);
+        }
+
+        @Override
+        public List<Libro> findByTitulo(String titulo) {
+            long[] claves = coincidenciasPorTitulo(titulo, -1, Integer.MAX_VALUE);
+            List<Libro> resultado = new ArrayList<>(claves.length);
+            for (long clave : claves) {
+                resultado.add(libro((int) clave));
+            }
+            return resultado;
+        }
+
+        // Como en LibroDAOImpl, un cursor con sólo el id toma la relevancia del libro de ese id
+        @Override
+        public Page<Libro> findByTitulo(String titulo, PageRequest pageRequest) {
+            int afterRelevancia = -1;
+            if (pageRequest.getAfterRelevancia() != null) {
+                afterRelevancia = pageRequest.getAfterRelevancia();
+            } else if (!pageRequest.isFirst()) {
+                int filaCursor = libroFilaPorId.get(pageRequest.getAfterId());
+                if (filaCursor >= 0 && titulosNormalizados[filaCursor] != null) {
+                    afterRelevancia = TituloIndex.relevanciaNormalizada(titulosNormalizados[filaCursor],
+                            TextNormalizer.normalize(titulo));
+                }
+            }
+            int afterId = afterRelevancia < 0 ? Integer.MAX_VALUE : pageRequest.getAfterIdOrMin();
+            long[] claves = coincidenciasPorTitulo(titulo, afterRelevancia, afterId);
+            int hasta = Math.min(claves.length, pageRequest.getFetchLimit());
+            List<Libro> filas = new ArrayList<>(hasta);
+            for (int i = 0; i < hasta; i++) {
+                filas.add(libro((int) claves[i]));
+            }
+            return Page.fromSlice(filas, pageRequest, ultimo -> PageRequest.afterRelevancia(
+                    TituloIndex.relevancia(ultimo.getTitulo(), titulo), ultimo.getId(), pageRequest.getSize()));
+        }
+
+        @Override
+        public List<Libro> findByFechaPublicacionAfter(LocalDate fecha) {
+            int desde = primeraFechaPosterior(fecha, Integer.MAX_VALUE);
+            List<Libro> resultado = new ArrayList<>(filasPorFecha.length - desde);
+            for (int i = desde; i < filasPorFecha.length; i++) {
+                resultado.add(libro(filasPorFecha[i]));
+            }
+            return resultado;
+        }
+
+        @Override
+        public Page<Libro> findByFechaPublicacionAfter(LocalDate fecha, PageRequest pageRequest) {
+            int desde = primeraFechaPosterior(fecha, Integer.MAX_VALUE);
+            if (pageRequest.getAfterFecha() != null) {
+                desde = Math.max(desde, primeraFechaPosterior(pageRequest.getAfterFecha(), pageRequest.getAfterIdOrMin()));
+            }
+            int hasta = Math.min(filasPorFecha.length, desde + pageRequest.getFetchLimit());
+            List<Libro> filas = new ArrayList<>(hasta - desde);
+            for (int i = desde; i < hasta; i++) {
+                filas.add(libro(filasPorFecha[i]));
+            }
+            return Page.fromSlice(filas, pageRequest,
+                    ultimo -> PageRequest.after(ultimo.getFechaPublicacion(), ultimo.getId(), pageRequest.getSize()));
+        }
+
+        // Primera posición de filasPorFecha cuya clave (fecha, id) es mayor que (fecha, afterId)
+        private int primeraFechaPosterior(LocalDate fecha, int afterId) {
+            long clave = fecha.toEpochDay();
+            int bajo = 0;
+            int alto = fechasOrdenadas.length;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                int comparacion = Integer.compare(fechasOrdenadas[medio], (int) clave);
+                if (comparacion == 0) {
+                    comparacion = Integer.compare(libroIds[filasPorFecha[medio]], afterId);
+                }
+                if (comparacion <= 0) {
+                    bajo = medio + 1;
+                } else {
+                    alto = medio;
+                }
+            }
+            return bajo;
+        }
+
+        @Override
+        public List<Libro> findByAutorId(int autorId) {
+            int filaAutor = autorFilaPorId.get(autorId);
+            if (filaAutor < 0) {
+                return new ArrayList<>();
+            }
+            int desde = librosPorAutorInicio[filaAutor];
+            int hasta = librosPorAutorInicio[filaAutor + 1];
+            List<Libro> resultado = new ArrayList<>(hasta - desde);
+            for (int i = desde; i < hasta; i++) {
+                resultado.add(libro(librosPorAutor[i]));
+            }
+            return resultado;
+        }
+
+        @Override
+        public Page<Libro> findByAutorId(int autorId, PageRequest pageRequest) {
+            int filaAutor = autorFilaPorId.get(autorId);
+            if (filaAutor < 0) {
+                return new Page<>(new ArrayList<>(), null);
+            }
+            int fin = librosPorAutorInicio[filaAutor + 1];
+            int desde = primeraFilaMayor(librosPorAutor, librosPorAutorInicio[filaAutor], fin,
+                    libroIds, pageRequest.getAfterIdOrMin());
+            int hasta = Math.min(fin, desde + pageRequest.getFetchLimit());
+            List<Libro> filas = new ArrayList<>(hasta - desde);
+            for (int i = desde; i < hasta; i++) {
+                filas.add(libro(librosPorAutor[i]));
+            }
+            return porId(filas, pageRequest);
+        }
+
+        @Override
+        public List<LibroConAutor> findAllConAutor() {
+            List<LibroConAutor> resultado = new ArrayList<>(libroIds.length);
+            for (int fila = 0; fila < libroIds.length; fila++) {
+                resultado.add(conAutor(fila));
+            }
+            return resultado;
+        }
+
+        @Override
+        public Page<LibroConAutor> findAllConAutor(PageRequest pageRequest) {
+            int desde = primeroMayor(libroIds, 0, libroIds.length, pageRequest.getAfterIdOrMin());
+            int hasta = Math.min(libroIds.length, desde + pageRequest.getFetchLimit());
+            List<LibroConAutor> filas = new ArrayList<>(hasta - desde);
+            for (int fila = desde; fila < hasta; fila++) {
+                filas.add(conAutor(fila));
+            }
+            return Page.fromSlice(filas, pageRequest,
+                    ultimo -> PageRequest.after(ultimo.getLibro().getId(), pageRequest.getSize()));
+        }
+
+        private LibroConAutor conAutor(int fila) {
+            int filaAutor = autorFilaPorId.get(libroAutorIds[fila]);
+            return new LibroConAutor(libro(fila), filaAutor >= 0 ? autor(filaAutor) : null);
+        }
+
+        private Page<Libro> porId(List<Libro> filas, PageRequest pageRequest) {
+            return Page.fromSlice(filas, pageRequest, ultimo -> PageRequest.after(ultimo.getId(), pageRequest.getSize()));
+        }
+
+        @Override
+        public Optional<Libro> findByIsbn(String isbn) {
+            int fila = filaPorIsbn(isbn);
+            return fila >= 0 ? Optional.of(libro(fila)) : Optional.empty();
+        }
+
+        @Override
+        public List<Libro> findByIsbns(Collection<String> isbns) {
+            List<Libro> resultado = new ArrayList<>(isbns.size());
+            for (String isbn : new LinkedHashSet<>(isbns)) {
+                int fila = filaPorIsbn(isbn);
+                if (fila >= 0) {
+                    resultado.add(libro(fila));
+                }
+            }
+            return resultado;
+        }
+    }
+
+    private final class AutoresSnapshot implements AutorReadOnlyDAO {
+
+        @Override
+        public Optional<Autor> findById(int id) {
+            int fila = autorFilaPorId.get(id);
+            return fila >= 0 ? Optional.of(autor(fila)) : Optional.empty();
+        }
+
+        @Override
+        public List<Autor> findByIds(Collection<Integer> ids) {
+            List<Autor> resultado = new ArrayList<>(ids.size());
+            for (Integer id : new LinkedHashSet<>(ids)) {
+                int fila = autorFilaPorId.get(id);
+                if (fila >= 0) {
+                    resultado.add(autor(fila));
+                }
+            }
+            return resultado;
+        }
+
+        @Override
+        public List<Autor> findAll() {
+            List<Autor> resultado = new ArrayList<>(autorIds.length);
+            for (int fila = 0; fila < autorIds.length; fila++) {
+                resultado.add(autor(fila));
+            }
+            return resultado;
+        }
+
+        @Override
+        public Page<Autor> findAll(PageRequest pageRequest) {
+            int desde = primeroMayor(autorIds, 0, autorIds.length, pageRequest.getAfterIdOrMin());
+            int hasta = Math.min(autorIds.length, desde + pageRequest.getFetchLimit());
+            List<Autor> filas = new ArrayList<>(hasta - desde);
+            for (int fila = desde; fila < hasta; fila++) {
+                filas.add(autor(fila));
+            }
+            return porId(filas, pageRequest);
+        }
+
+        @Override
+        public Stream<Autor> streamAll() {
+            return IntStream.range(0, autorIds.length).mapToObj(CatalogSnapshot.this::autor);
+        }
+
+        @Override
+        public List<Autor> findByNacionalidad(String nacionalidad) {
+            int[] filas = autoresPorNacionalidad.getOrDefault(nacionalidad, VACIO);
+            List<Autor> resultado = new ArrayList<>(filas.length);
+            for (int fila : filas) {
+                resultado.add(autor(fila));
+            }
+            return resultado;
+        }
+
+        @Override
+        public Page<Autor> findByNacionalidad(String nacionalidad, PageRequest pageRequest) {
+            int[] filas = autoresPorNacionalidad.getOrDefault(nacionalidad, VACIO);
+            int desde = primeraFilaMayor(filas, 0, filas.length, autorIds, pageRequest.getAfterIdOrMin());
+            int hasta = Math.min(filas.length, desde + pageRequest.getFetchLimit());
+            List<Autor> pagina = new ArrayList<>(hasta - desde);
+            for (int i = desde; i < hasta; i++) {
+                pagina.add(autor(filas[i]));
+            }
+            return porId(pagina, pageRequest);
+        }
+
+        private Page<Autor> porId(List<Autor> filas, PageRequest pageRequest) {
+            return Page.fromSlice(filas, pageRequest, ultimo -> PageRequest.after(ultimo.getId(), pageRequest.getSize()));
+        }
+    }
+
+    /**
+     * Acumula las filas leídas en arreglos que crecen al doble y comparte las cadenas repetidas.
+     * El pool de cadenas sólo vive durante la carga.
+     */
+    private static final class Cargador {
+        private final IntArray autorIds = new IntArray(1024);
+        private String[] autorNombres = new String[1024];
+        private String[] autorNacionalidades = new String[1024];
+        private final IntArray autorVersiones = new IntArray(1024);
+        private final IntArray libroIds = new IntArray(1024);
+        private String[] titulos = new String[1024];
+        private String[] titulosNormalizados = new String[1024];
+        private String[] isbns = new String[1024];
+        private final IntArray fechas = new IntArray(1024);
+        private final IntArray libroAutorIds = new IntArray(1024);
+        private final IntArray libroVersiones = new IntArray(1024);
+        private final Map<String, String> cadenas = new HashMap<>();
+        private long bytesCadenas;
+        private int ultimoAutorId = Integer.MIN_VALUE;
+        private int ultimoLibroId = Integer.MIN_VALUE;
+
+        private void agregar(Autor autor) {
+            if (autor.getId() <= ultimoAutorId) {
+                throw new IllegalStateException("Los autores deben llegar ordenados por id");
+            }
+            ultimoAutorId = autor.getId();
+            int fila = autorIds.size();
+            autorIds.add(autor.getId());
+            if (fila == autorNombres.length) {
+                autorNombres = Arrays.copyOf(autorNombres, fila * 2);
+                autorNacionalidades = Arrays.copyOf(autorNacionalidades, fila * 2);
+            }
+            autorNombres[fila] = compartir(autor.getNombre());
+            autorNacionalidades[fila] = compartir(autor.getNacionalidad());
+            autorVersiones.add(autor.getVersion());
+        }
+
+        private void agregar(Libro libro) {
+            if (libro.getId() <= ultimoLibroId) {
+                throw new IllegalStateException("Los libros deben llegar ordenados por id");
+            }
+            ultimoLibroId = libro.getId();
+            int fila = libroIds.size();
+            libroIds.add(libro.getId());
+            if (fila == titulos.length) {
+                titulos = Arrays.copyOf(titulos, fila * 2);
+                titulosNormalizados = Arrays.copyOf(titulosNormalizados, fila * 2);
+                isbns = Arrays.copyOf(isbns, fila * 2);
+            }
+            titulos[fila] = compartir(libro.getTitulo());
+            // Suele coincidir con el título en minúsculas; compartir evita guardarlo dos veces si ya es igual
+            titulosNormalizados[fila] = libro.getTitulo() != null
+                    ? compartir(TextNormalizer.normalize(libro.getTitulo())) : null;
+            isbns[fila] = libro.getIsbn();
+            bytesCadenas += bytesDe(libro.getIsbn());
+            fechas.add(libro.getFechaPublicacion() != null ? (int) libro.getFechaPublicacion().toEpochDay() : SIN_FECHA);
+            libroAutorIds.add(libro.getAutorId());
+            libroVersiones.add(libro.getVersion());
+        }
+
+        private String compartir(String valor) {
+            if (valor == null) {
+                return null;
+            }
+            String existente = cadenas.putIfAbsent(valor, valor);
+            if (existente != null) {
+                return existente;
+            }
+            bytesCadenas += bytesDe(valor);
+            return valor;
+        }
+
+        // String (24) + byte[] (16 + largo), suponiendo cadenas compactas Latin-1
+        private static long bytesDe(String valor) {
+            return valor == null ? 0 : 40L + valor.length();
+        }
+    }
+
+    private static final class IntArray {
+        private int[] valores;
+        private int size;
+
+        private IntArray(int capacidad) {
+            valores = new int[capacidad];
+        }
+
+        private void add(int valor) {
+            if (size == valores.length) {
+                valores = Arrays.copyOf(valores, size * 2);
+            }
+            valores[size++] = valor;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(valores, size);
+        }
+    }
+}
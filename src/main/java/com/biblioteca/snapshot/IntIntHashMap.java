@@ -0,0 +1,75 @@
+package com.biblioteca.snapshot;
+
+import java.util.Arrays;
+
+/**
+ * Mapa int→int de direccionamiento abierto con sondeo lineal, sin objetos por entrada. Las
+ * claves y valores viven en dos arreglos paralelos; {@link #get(int)} devuelve -1 si la clave
+ * no está. Pensado para llenarse una vez y luego sólo leerse.
+ */
+final class IntIntHashMap {
+    private static final int EMPTY = Integer.MIN_VALUE;
+
+    private final int[] keys;
+    private final int[] values;
+    private final int mask;
+    private int size;
+
+    IntIntHashMap(int expectedSize) {
+        // Factor de carga máximo 0.5: los sondeos se mantienen cortos y caben en pocas líneas de caché
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        this.keys = new int[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    void put(int key, int value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Clave no admitida: " + key);
+        }
+        int slot = slot(key);
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == EMPTY) {
+            if (size + 1 > keys.length / 2) {
+                throw new IllegalStateException("IntIntHashMap lleno");
+            }
+            size++;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+    }
+
+    int get(int key) {
+        if (key == EMPTY) {
+            return -1;
+        }
+        int slot = slot(key);
+        while (true) {
+            int current = keys[slot];
+            if (current == key) {
+                return values[slot];
+            }
+            if (current == EMPTY) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    long estimatedBytes() {
+        return 16L + 2L * (16 + 4L * keys.length);
+    }
+
+    private int slot(int key) {
+        // Mezcla de bits (constante de Fibonacci) para que ids consecutivos no formen racimos
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
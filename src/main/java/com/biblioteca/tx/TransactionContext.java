@@ -0,0 +1,26 @@
+package com.biblioteca.tx;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Estado de la transacción ligada a un hilo: la conexión prestada, su envoltorio para los DAOs
+ * y las acciones a ejecutar cuando termina.
+ */
+final class TransactionContext {
+    final TransactionManager owner;
+    final Connection connection;
+    final boolean readOnly;
+    final List<Runnable> afterCompletion = new ArrayList<>();
+    final List<Runnable> afterCommit = new ArrayList<>();
+    Connection proxy;
+    volatile boolean rollbackOnly;
+    volatile boolean completed;
+
+    TransactionContext(TransactionManager owner, Connection connection, boolean readOnly) {
+        this.owner = owner;
+        this.connection = connection;
+        this.readOnly = readOnly;
+    }
+}
@@ -0,0 +1,15 @@
+package com.biblioteca.tx;
+
+/**
+ * Error al iniciar, confirmar o deshacer una transacción gestionada por {@link TransactionManager}.
+ */
+public class TransactionException extends RuntimeException {
+
+    public TransactionException(String message) {
+        super(message);
+    }
+
+    public TransactionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,269 @@
+package com.biblioteca.tx;
+
+import com.biblioteca.util.ConnectionProvider;
+import com.biblioteca.util.LoggerUtil;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Transacciones explícitas ligadas al hilo. Mientras un hilo tiene una transacción abierta,
+ * {@link #getConnection()} le devuelve siempre la misma conexión, sin auto-commit, cuyo
+ * {@code close()} no hace nada; así los DAOs construidos sobre este proveedor participan de
+ * la transacción sin cambios. Fuera de una transacción las conexiones se piden al proveedor
+ * subyacente como siempre.
+ *
+ * <p>Como los DAOs registran y ocultan sus errores SQL, cualquier {@link SQLException} que
+ * ocurra sobre la conexión de la transacción la marca para rollback, y el commit final lanza
+ * {@link TransactionException} en lugar de confirmar un trabajo a medias.
+ *
+ * <p>Las operaciones asíncronas se ejecutan en otros hilos y no participan de la transacción.
+ */
+public class TransactionManager implements ConnectionProvider {
+    private static final Logger logger = LoggerUtil.getLogger(TransactionManager.class);
+    private static final ThreadLocal<TransactionContext> actual = new ThreadLocal<>();
+
+    public static final int ISOLATION_DEFAULT = -1;
+
+    private final ConnectionProvider delegate;
+
+    public TransactionManager(ConnectionProvider delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        TransactionContext context = actual.get();
+        if (context != null && context.owner == this) {
+            return context.proxy;
+        }
+        return delegate.getConnection();
+    }
+
+    public UnitOfWork begin() {
+        return begin(ISOLATION_DEFAULT, false);
+    }
+
+    public UnitOfWork begin(int isolation, boolean readOnly) {
+        TransactionContext context = actual.get();
+        if (context != null) {
+            if (context.owner != this) {
+                throw new IllegalStateException("El hilo ya tiene una transacción abierta en otra base de datos");
+            }
+            if (context.readOnly && !readOnly) {
+                throw new IllegalStateException("No se puede escribir dentro de una transacción de sólo lectura");
+            }
+            return new UnitOfWork(this, context, false);
+        }
+
+        Connection connection;
+        try {
+            connection = delegate.getConnection();
+            try {
+                connection.setAutoCommit(false);
+                if (isolation != ISOLATION_DEFAULT) {
+                    connection.setTransactionIsolation(isolation);
+                }
+                if (readOnly) {
+                    connection.setReadOnly(true);
+                }
+            } catch (SQLException | RuntimeException e) {
+                connection.close();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new TransactionException("Error al iniciar la transacción", e);
+        }
+        context = new TransactionContext(this, connection, readOnly);
+        context.proxy = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new TransactionalConnectionHandler(context));
+        actual.set(context);
+        return new UnitOfWork(this, context, true);
+    }
+
+    // Ejecuta el trabajo en una transacción (o dentro de la del hilo) y confirma si termina sin excepción
+    public <T> T execute(Supplier<T> work) {
+        return execute(ISOLATION_DEFAULT, false, work);
+    }
+
+    public <T> T execute(int isolation, boolean readOnly, Supplier<T> work) {
+        try (UnitOfWork unitOfWork = begin(isolation, readOnly)) {
+            T result = work.get();
+            unitOfWork.commit();
+            return result;
+        }
+    }
+
+    public void run(Runnable work) {
+        execute(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public <T> T executeReadOnly(Supplier<T> work) {
+        return execute(ISOLATION_DEFAULT, true, work);
+    }
+
+    public static boolean isTransactionActive() {
+        return actual.get() != null;
+    }
+
+    /**
+     * Registra una acción a ejecutar cuando termine la transacción del hilo, tanto si se
+     * confirma como si se deshace. Sin transacción activa no hace nada y devuelve false.
+     */
+    public static boolean afterCompletion(Runnable action) {
+        TransactionContext context = actual.get();
+        if (context == null) {
+            return false;
+        }
+        context.afterCompletion.add(action);
+        return true;
+    }
+
+    /**
+     * Registra una acción a ejecutar sólo si la transacción del hilo se confirma; si se deshace,
+     * se descarta. Sin transacción activa no hace nada y devuelve false.
+     */
+    public static boolean afterCommit(Runnable action) {
+        TransactionContext context = actual.get();
+        if (context == null) {
+            return false;
+        }
+        context.afterCommit.add(action);
+        return true;
+    }
+
+    void commit(TransactionContext context) {
+        try {
+            if (context.rollbackOnly) {
+                context.connection.rollback();
+                throw new TransactionException("La transacción fue marcada para rollback y se deshizo");
+            }
+            context.connection.commit();
+        } catch (SQLException e) {
+            rollbackQuietly(context);
+            throw new TransactionException("Error al confirmar la transacción", e);
+        } finally {
+            end(context);
+        }
+        runActions(context.afterCommit);
+    }
+
+    void rollback(TransactionContext context) {
+        try {
+            context.connection.rollback();
+        } catch (SQLException e) {
+            throw new TransactionException("Error al deshacer la transacción", e);
+        } finally {
+            end(context);
+        }
+    }
+
+    private void rollbackQuietly(TransactionContext context) {
+        try {
+            context.connection.rollback();
+        } catch (SQLException e) {
+            logger.warn("Error al deshacer la transacción", e);
+        }
+    }
+
+    private void end(TransactionContext context) {
+        context.completed = true;
+        actual.remove();
+        try {
+            // El pool restablece auto-commit, aislamiento y sólo lectura al recibir la conexión
+            context.connection.close();
+        } catch (SQLException e) {
+            logger.warn("Error al devolver la conexión de la transacción", e);
+        }
+        runActions(context.afterCompletion);
+    }
+
+    private static void runActions(List<Runnable> actions) {
+        for (Runnable action : actions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                logger.error("Error en una acción de fin de transacción", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private static Object invoke(TransactionContext context, Object target, Method method, Object[] args)
+            throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException) {
+                context.rollbackOnly = true;
+            }
+            throw e.getCause();
+        }
+    }
+
+    private static final class TransactionalConnectionHandler implements InvocationHandler {
+        private final TransactionContext context;
+
+        private TransactionalConnectionHandler(TransactionContext context) {
+            this.context = context;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    return null;
+                case "isClosed":
+                    return context.completed;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "TransactionalConnection[" + context.connection + "]";
+                default:
+                    break;
+            }
+            if (context.completed) {
+                throw new SQLException("La transacción ya finalizó");
+            }
+            switch (method.getName()) {
+                case "commit":
+                case "rollback":
+                    throw new SQLException("La transacción la gestiona TransactionManager");
+                case "setAutoCommit":
+                    if ((Boolean) args[0]) {
+                        throw new SQLException("La transacción la gestiona TransactionManager");
+                    }
+                    return null;
+                default:
+                    break;
+            }
+            Object result = TransactionManager.invoke(context, context.connection, method, args);
+            if (result instanceof Statement) {
+                Class<?> type = method.getReturnType();
+                return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                        (statementProxy, statementMethod, statementArgs) ->
+                                TransactionManager.invoke(context, result, statementMethod, statementArgs));
+            }
+            return result;
+        }
+    }
+}
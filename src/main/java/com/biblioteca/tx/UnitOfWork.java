@@ -0,0 +1,72 @@
+package com.biblioteca.tx;
+
+import java.sql.Connection;
+
+/**
+ * Transacción abierta con {@link TransactionManager#begin()}. Pensada para usarse con
+ * try-with-resources: si se cierra sin haber llamado a {@link #commit()}, se deshace.
+ *
+ * <p>Una unidad abierta dentro de otra del mismo hilo participa de la transacción externa:
+ * su commit no hace nada y su rollback marca toda la transacción para deshacerse.
+ */
+public class UnitOfWork implements AutoCloseable {
+    private final TransactionManager manager;
+    private final TransactionContext context;
+    private final boolean outer;
+    private boolean finished;
+
+    UnitOfWork(TransactionManager manager, TransactionContext context, boolean outer) {
+        this.manager = manager;
+        this.context = context;
+        this.outer = outer;
+    }
+
+    public void commit() {
+        checkActive();
+        finished = true;
+        if (outer) {
+            manager.commit(context);
+        }
+    }
+
+    public void rollback() {
+        checkActive();
+        finished = true;
+        context.rollbackOnly = true;
+        if (outer) {
+            manager.rollback(context);
+        }
+    }
+
+    public void setRollbackOnly() {
+        context.rollbackOnly = true;
+    }
+
+    public boolean isRollbackOnly() {
+        return context.rollbackOnly;
+    }
+
+    // true si esta unidad abrió la transacción; false si participa de una externa
+    public boolean isNewTransaction() {
+        return outer;
+    }
+
+    // Conexión de la transacción para JDBC directo; no debe cerrarse ni confirmarse a mano
+    public Connection getConnection() {
+        checkActive();
+        return context.proxy;
+    }
+
+    @Override
+    public void close() {
+        if (!finished && !context.completed) {
+            rollback();
+        }
+    }
+
+    private void checkActive() {
+        if (finished || context.completed) {
+            throw new IllegalStateException("La unidad de trabajo ya finalizó");
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.biblioteca.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Origen de conexiones JDBC. Cada llamada a {@link #getConnection()} presta una conexión
+ * que el llamador debe cerrar al terminar la operación para devolverla.
+ */
+public interface ConnectionProvider extends AutoCloseable {
+    Connection getConnection() throws SQLException;
+
+    @Override
+    void close();
+}
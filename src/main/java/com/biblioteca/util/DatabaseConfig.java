@@ -0,0 +1,147 @@
+package com.biblioteca.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Configuración de la base H2: perfil de almacenamiento, ubicación y parámetros del MVStore.
+ * {@link #load()} lee {@code biblioteca.properties} del classpath, después el archivo indicado
+ * con {@code -Dbiblioteca.config=ruta} y por último las propiedades de sistema; cada fuente pisa
+ * las claves de la anterior. Los parámetros sin valor quedan con el valor por defecto de H2.
+ */
+public final class DatabaseConfig {
+    static final String RECURSO = "biblioteca.properties";
+    static final String PREFIJO = "biblioteca.db.";
+    private static final String RUTA_POR_DEFECTO = "./database/biblioteca";
+    private static final long PERIODO_SNAPSHOT_POR_DEFECTO = 300;
+
+    private final Properties propiedades;
+    private final StorageProfile profile;
+    private final String ruta;
+    private final String user;
+    private final String password;
+    private final Integer cacheSizeKb;
+    private final Integer writeDelayMillis;
+    private final Integer lockTimeoutMillis;
+    private final boolean compress;
+    private final Path snapshotPath;
+    private final long snapshotPeriodSeconds;
+    private final int shards;
+
+    private DatabaseConfig(Properties propiedades) {
+        this.propiedades = propiedades;
+        profile = StorageProfile.parse(propiedades.getProperty(PREFIJO + "perfil", StorageProfile.DURABLE.name()));
+        ruta = propiedades.getProperty(PREFIJO + "ruta", RUTA_POR_DEFECTO);
+        user = propiedades.getProperty(PREFIJO + "usuario", "sa");
+        password = propiedades.getProperty(PREFIJO + "password", "");
+        cacheSizeKb = entero(propiedades, "cacheKb");
+        writeDelayMillis = entero(propiedades, "writeDelayMillis");
+        lockTimeoutMillis = entero(propiedades, "lockTimeoutMillis");
+        compress = Boolean.parseBoolean(propiedades.getProperty(PREFIJO + "comprimir", "false"));
+        snapshotPath = Paths.get(propiedades.getProperty(PREFIJO + "snapshot.archivo", ruta + "-snapshot.sql.gz"));
+        Integer periodo = entero(propiedades, "snapshot.periodoSegundos");
+        snapshotPeriodSeconds = periodo != null ? periodo : PERIODO_SNAPSHOT_POR_DEFECTO;
+        Integer cantidadShards = entero(propiedades, "shards");
+        shards = cantidadShards != null ? cantidadShards : 0;
+    }
+
+    public static DatabaseConfig load() {
+        Properties propiedades = new Properties();
+        try (InputStream in = DatabaseConfig.class.getClassLoader().getResourceAsStream(RECURSO)) {
+            if (in != null) {
+                propiedades.load(in);
+            }
+            String archivo = System.getProperty("biblioteca.config");
+            if (archivo != null) {
+                try (InputStream externo = Files.newInputStream(Paths.get(archivo))) {
+                    propiedades.load(externo);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer la configuración de la base de datos", e);
+        }
+        for (String nombre : System.getProperties().stringPropertyNames()) {
+            if (nombre.startsWith(PREFIJO)) {
+                propiedades.setProperty(nombre, System.getProperty(nombre));
+            }
+        }
+        return fromProperties(propiedades);
+    }
+
+    // Las claves llevan el prefijo biblioteca.db., igual que en el archivo
+    public static DatabaseConfig fromProperties(Properties propiedades) {
+        Properties copia = new Properties();
+        copia.putAll(propiedades);
+        return new DatabaseConfig(copia);
+    }
+
+    // La misma configuración para un shard, guardado junto a la ruta base como <ruta>-shard<indice>
+    public DatabaseConfig forShard(int indice) {
+        Properties shard = new Properties();
+        shard.putAll(propiedades);
+        shard.setProperty(PREFIJO + "ruta", ruta + "-shard" + indice);
+        shard.remove(PREFIJO + "snapshot.archivo");
+        shard.remove(PREFIJO + "shards");
+        return new DatabaseConfig(shard);
+    }
+
+    public String getUrl() {
+        StringBuilder url = new StringBuilder("jdbc:h2:");
+        switch (profile) {
+            case MEMORIA:
+                // DB_CLOSE_DELAY=-1 mantiene la base aunque el pool cierre todas sus conexiones
+                url.append("mem:").append(Paths.get(ruta).getFileName()).append(";DB_CLOSE_DELAY=-1");
+                break;
+            case SOLO_LECTURA:
+                url.append("file:").append(ruta).append(";ACCESS_MODE_DATA=r");
+                opcion(url, "CACHE_SIZE", cacheSizeKb);
+                break;
+            default:
+                url.append("file:").append(ruta);
+                opcion(url, "CACHE_SIZE", cacheSizeKb);
+                opcion(url, "WRITE_DELAY", writeDelayMillis);
+                if (compress) {
+                    url.append(";COMPRESS=TRUE");
+                }
+        }
+        opcion(url, "LOCK_TIMEOUT", lockTimeoutMillis);
+        return url.toString();
+    }
+
+    public StorageProfile getProfile() { return profile; }
+    public String getUser() { return user; }
+    public String getPassword() { return password; }
+    public boolean isReadOnly() { return profile == StorageProfile.SOLO_LECTURA; }
+    public Path getSnapshotPath() { return snapshotPath; }
+    public long getSnapshotPeriodSeconds() { return snapshotPeriodSeconds; }
+    // Cantidad de shards para una base nueva; 0 es una sola base sin shards
+    public int getShards() { return shards; }
+
+    private static void opcion(StringBuilder url, String nombre, Integer valor) {
+        if (valor != null) {
+            url.append(';').append(nombre).append('=').append(valor);
+        }
+    }
+
+    private static Integer entero(Properties propiedades, String clave) {
+        String valor = propiedades.getProperty(PREFIJO + clave);
+        if (valor == null || valor.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(valor.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(PREFIJO + clave + " debe ser un entero: " + valor);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return profile + " " + getUrl();
+    }
+}
@@ -1,57 +1,137 @@
 package com.biblioteca.util;
 
+import com.biblioteca.async.WriteBehindQueue;
+import com.biblioteca.cdc.ChangeFeed;
+import com.biblioteca.metrics.InstrumentedConnectionProvider;
+import com.biblioteca.metrics.MetricsRegistry;
+import com.biblioteca.migration.MigrationRunner;
+import com.biblioteca.tx.TransactionManager;
+import org.apache.logging.log4j.Logger;
+
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class DatabaseConnection {
-    private static final String URL = "jdbc:h2:file:./database/biblioteca";
-    private static final String USER = "sa";
-    private static final String PASSWORD = "";
-    
-    private static Connection connection;
-    
+    private static final Logger logger = LoggerUtil.getLogger(DatabaseConnection.class);
+    private static final int POOL_MIN_SIZE = 2;
+    private static final int POOL_MAX_SIZE = 10;
+    private static final long ACQUIRE_TIMEOUT_MILLIS = 5_000;
+    private static final long IDLE_TIMEOUT_MILLIS = 60_000;
+    private static final int STATEMENT_CACHE_SIZE = 32;
+    private static final long SLOW_QUERY_THRESHOLD_MILLIS = Long.getLong("biblioteca.slowQueryMillis", 200);
+    private static final int CAMBIOS_CAPACIDAD = 8_192;
+    private static final int CAMBIOS_LOTE = 256;
+    private static final long CAMBIOS_ESPERA_MILLIS = 50;
+
+    private static PooledConnectionProvider provider;
+    private static TransactionManager transactionManager;
+    private static InstrumentedConnectionProvider instrumentedProvider;
+    private static MemorySnapshot snapshot;
+    private static ChangeFeed changeFeed;
+    private static final List<WriteBehindQueue<?>> writeBehindQueues = new ArrayList<>();
+
     private DatabaseConnection() {}
-    
-    public static Connection getConnection() {
-        if (connection == null) {
+
+    // Los DAOs obtienen sus conexiones a través del TransactionManager para participar de sus transacciones,
+    // y cada sentencia se mide para el registro de consultas lentas
+    public static synchronized ConnectionProvider getProvider() {
+        if (instrumentedProvider == null) {
+            MetricsRegistry registry = MetricsRegistry.getDefault();
+            registry.setSlowQueryThresholdMillis(SLOW_QUERY_THRESHOLD_MILLIS);
+            instrumentedProvider = new InstrumentedConnectionProvider(getTransactionManager(), registry);
+        }
+        return instrumentedProvider;
+    }
+
+    // El perfil de almacenamiento sale de DatabaseConfig.load(): biblioteca.properties y propiedades de sistema
+    public static synchronized TransactionManager getTransactionManager() {
+        if (provider == null) {
+            DatabaseConfig config = DatabaseConfig.load();
+            PooledConnectionProvider nuevo = new PooledConnectionProvider(config.getUrl(), config.getUser(),
+                    config.getPassword(), POOL_MIN_SIZE, POOL_MAX_SIZE, ACQUIRE_TIMEOUT_MILLIS, IDLE_TIMEOUT_MILLIS,
+                    STATEMENT_CACHE_SIZE);
+            MemorySnapshot nuevoSnapshot = null;
             try {
-                connection = DriverManager.getConnection(URL, USER, PASSWORD);
-                initializeDatabase();
-            } catch (SQLException e) {
+                if (config.getProfile() == StorageProfile.MEMORIA) {
+                    nuevoSnapshot = new MemorySnapshot(nuevo, config.getSnapshotPath(), config.getSnapshotPeriodSeconds());
+                    nuevoSnapshot.restore();
+                }
+                // Una base de sólo lectura tiene que haberse migrado antes con otro perfil
+                if (!config.isReadOnly()) {
+                    new MigrationRunner(nuevo).migrate();
+                }
+            } catch (SQLException | RuntimeException e) {
+                nuevo.close();
                 throw new RuntimeException("Error al conectar con la base de datos", e);
             }
+            if (nuevoSnapshot != null) {
+                nuevoSnapshot.start();
+            }
+            provider = nuevo;
+            snapshot = nuevoSnapshot;
+            transactionManager = new TransactionManager(nuevo);
+            logger.info("Base de datos abierta con perfil {}", config.getProfile());
         }
-        return connection;
-    }
-    
-    private static void initializeDatabase() throws SQLException {
-        try (var statement = connection.createStatement()) {
-            // Crear tabla autores si no existe
-            statement.execute("CREATE TABLE IF NOT EXISTS autores (" +
-                    "id INT AUTO_INCREMENT PRIMARY KEY, " +
-                    "nombre VARCHAR(100) NOT NULL, " +
-                    "nacionalidad VARCHAR(50))");
-            
-            // Crear tabla libros si no existe
-            statement.execute("CREATE TABLE IF NOT EXISTS libros (" +
-                    "id INT AUTO_INCREMENT PRIMARY KEY, " +
-                    "titulo VARCHAR(100) NOT NULL, " +
-                    "isbn VARCHAR(20) UNIQUE, " +
-                    "fecha_publicacion DATE, " +
-                    "autor_id INT, " +
-                    "FOREIGN KEY (autor_id) REFERENCES autores(id))");
+        return transactionManager;
+    }
+
+    // Presta una conexión del pool; el llamador debe cerrarla para devolverla
+    public static Connection getConnection() throws SQLException {
+        return getProvider().getConnection();
+    }
+
+    public static synchronized PoolMetrics getPoolMetrics() {
+        return provider != null ? provider.getMetrics() : null;
+    }
+
+    // Canal de cambios compartido por los DAOs; sin suscriptores no lee imágenes previas ni encola nada
+    public static synchronized ChangeFeed getChangeFeed() {
+        if (changeFeed == null) {
+            changeFeed = new ChangeFeed(CAMBIOS_CAPACIDAD, CAMBIOS_LOTE, CAMBIOS_ESPERA_MILLIS);
         }
+        return changeFeed;
+    }
+
+    // La cola se vacía en closeConnection, antes de cerrar el pool que usan sus escrituras
+    public static synchronized void registerWriteBehind(WriteBehindQueue<?> cola) {
+        writeBehindQueues.add(cola);
     }
-    
+
     public static void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-                connection = null;
-            } catch (SQLException e) {
-                System.err.println("Error al cerrar la conexión: " + e.getMessage());
+        List<WriteBehindQueue<?>> colas;
+        synchronized (DatabaseConnection.class) {
+            colas = new ArrayList<>(writeBehindQueues);
+            writeBehindQueues.clear();
+        }
+        // Fuera del lock: el escritor de cada cola todavía necesita conexiones del pool
+        for (WriteBehindQueue<?> cola : colas) {
+            cola.close();
+        }
+        // Después de las colas, así se entregan también los cambios de sus últimas escrituras
+        cerrarCanalDeCambios();
+        cerrarPool();
+    }
+
+    private static synchronized void cerrarCanalDeCambios() {
+        if (changeFeed != null) {
+            changeFeed.close();
+            changeFeed = null;
+        }
+    }
+
+    private static synchronized void cerrarPool() {
+        if (provider != null) {
+            // Con el perfil MEMORIA la última copia se toma con todo lo que escribieron las colas
+            if (snapshot != null) {
+                snapshot.close();
+                snapshot = null;
             }
+            provider.close();
+            provider = null;
+            transactionManager = null;
+            instrumentedProvider = null;
         }
     }
-}
\ No newline at end of file
+}
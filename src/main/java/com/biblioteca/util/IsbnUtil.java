@@ -0,0 +1,57 @@
+package com.biblioteca.util;
+
+public class IsbnUtil {
+
+    private IsbnUtil() {}
+
+    // Quita guiones y espacios: "978-84-376-0494-7" -> "9788437604947"
+    public static String normalizar(String isbn) {
+        if (isbn == null) {
+            return null;
+        }
+        StringBuilder normalizado = new StringBuilder(isbn.length());
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c != '-' && c != ' ') {
+                normalizado.append(Character.toUpperCase(c));
+            }
+        }
+        return normalizado.toString();
+    }
+
+    // Valida longitud y dígito verificador de un ISBN-10 o ISBN-13
+    public static boolean esValido(String isbn) {
+        String digitos = normalizar(isbn);
+        if (digitos == null) {
+            return false;
+        }
+        if (digitos.length() == 13) {
+            int suma = 0;
+            for (int i = 0; i < 13; i++) {
+                char c = digitos.charAt(i);
+                if (c < '0' || c > '9') {
+                    return false;
+                }
+                suma += (c - '0') * (i % 2 == 0 ? 1 : 3);
+            }
+            return suma % 10 == 0;
+        }
+        if (digitos.length() == 10) {
+            int suma = 0;
+            for (int i = 0; i < 10; i++) {
+                char c = digitos.charAt(i);
+                int valor;
+                if (c >= '0' && c <= '9') {
+                    valor = c - '0';
+                } else if (c == 'X' && i == 9) {
+                    valor = 10;
+                } else {
+                    return false;
+                }
+                suma += valor * (10 - i);
+            }
+            return suma % 11 == 0;
+        }
+        return false;
+    }
+}
@@ -1,10 +1,21 @@
 package com.biblioteca.util;
 
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.config.Configurator;
 
 public class LoggerUtil {
     public static Logger getLogger(Class<?> clazz) {
         return LogManager.getLogger(clazz);
     }
-}
\ No newline at end of file
+
+    // Cambia en caliente el nivel de un logger y sus descendientes, por ejemplo "com.biblioteca.dao"
+    public static void setLevel(String loggerName, Level level) {
+        Configurator.setAllLevels(loggerName, level);
+    }
+
+    public static void setLevel(Class<?> clazz, Level level) {
+        setLevel(clazz.getName(), level);
+    }
+}
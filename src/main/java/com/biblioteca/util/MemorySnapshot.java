@@ -0,0 +1,110 @@
+package com.biblioteca.util;
+
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.logging.log4j.util.Unbox.box;
+
+/**
+ * Copia a disco de una base H2 en memoria. Cada copia es un {@code SCRIPT} comprimido que se
+ * escribe a un archivo temporal y reemplaza a la anterior con un movimiento atómico, así que en
+ * disco siempre queda una copia completa. Se copia cada {@code periodoSegundos} (0 desactiva la
+ * copia periódica) y al cerrar; {@link #restore()} carga la última copia al arrancar.
+ */
+class MemorySnapshot implements AutoCloseable {
+    private static final Logger logger = LoggerUtil.getLogger(MemorySnapshot.class);
+
+    private final ConnectionProvider provider;
+    private final Path archivo;
+    private final long periodoSegundos;
+    private ScheduledExecutorService programador;
+
+    MemorySnapshot(ConnectionProvider provider, Path archivo, long periodoSegundos) {
+        this.provider = provider;
+        this.archivo = archivo.toAbsolutePath();
+        this.periodoSegundos = periodoSegundos;
+    }
+
+    // Se llama antes de las migraciones. Si la base ya tiene tablas (se reabrió el pool en la misma
+    // JVM y la base en memoria sigue viva) no se restaura nada
+    boolean restore() throws SQLException {
+        if (!Files.exists(archivo)) {
+            return false;
+        }
+        long inicio = System.nanoTime();
+        try (Connection conn = provider.getConnection(); Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC'")) {
+                if (rs.next() && rs.getInt(1) > 0) {
+                    return false;
+                }
+            }
+            stmt.execute("RUNSCRIPT FROM " + literal(archivo) + " COMPRESSION GZIP");
+        }
+        logger.info("Base en memoria restaurada desde {} en {} ms", archivo,
+                box(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio)));
+        return true;
+    }
+
+    void start() {
+        if (periodoSegundos <= 0) {
+            return;
+        }
+        programador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "snapshot-h2");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        programador.scheduleWithFixedDelay(this::guardarRegistrandoErrores,
+                periodoSegundos, periodoSegundos, TimeUnit.SECONDS);
+    }
+
+    void save() throws SQLException, IOException {
+        long inicio = System.nanoTime();
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        Files.createDirectories(archivo.getParent());
+        try (Connection conn = provider.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("SCRIPT TO " + literal(temporal) + " COMPRESSION GZIP");
+        }
+        Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.info("Copia de la base en memoria guardada en {} en {} ms", archivo,
+                box(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio)));
+    }
+
+    private void guardarRegistrandoErrores() {
+        try {
+            save();
+        } catch (SQLException | IOException | RuntimeException e) {
+            logger.error("Error al copiar la base en memoria a {}", archivo, e);
+        }
+    }
+
+    // Detiene la copia periódica y hace una última copia
+    @Override
+    public void close() {
+        if (programador != null) {
+            programador.shutdown();
+            try {
+                programador.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        guardarRegistrandoErrores();
+    }
+
+    private static String literal(Path path) {
+        return "'" + path.toString().replace("'", "''") + "'";
+    }
+}
@@ -0,0 +1,86 @@
+package com.biblioteca.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Instantánea del estado del pool de conexiones. Los tiempos de espera están en microsegundos.
+ */
+public class PoolMetrics {
+    private final int active;
+    private final int idle;
+    private final int total;
+    private final int maxSize;
+    private final long acquisitions;
+    private final long timeouts;
+    private final long created;
+    private final long destroyed;
+    private final long waitP50;
+    private final long waitP95;
+    private final long waitP99;
+    private final long waitMax;
+    private final long statementPrepares;
+    private final long statementReuses;
+
+    PoolMetrics(int active, int idle, int total, int maxSize, long acquisitions, long timeouts,
+                long created, long destroyed, LatencyHistogram waitTimes,
+                long statementPrepares, long statementReuses) {
+        this.active = active;
+        this.idle = idle;
+        this.total = total;
+        this.maxSize = maxSize;
+        this.acquisitions = acquisitions;
+        this.timeouts = timeouts;
+        this.created = created;
+        this.destroyed = destroyed;
+        this.waitP50 = toMicros(waitTimes.getPercentile(0.50));
+        this.waitP95 = toMicros(waitTimes.getPercentile(0.95));
+        this.waitP99 = toMicros(waitTimes.getPercentile(0.99));
+        this.waitMax = toMicros(waitTimes.getMax());
+        this.statementPrepares = statementPrepares;
+        this.statementReuses = statementReuses;
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    public int getActive() { return active; }
+    public int getIdle() { return idle; }
+    public int getTotal() { return total; }
+    public int getMaxSize() { return maxSize; }
+    public long getAcquisitions() { return acquisitions; }
+    public long getTimeouts() { return timeouts; }
+    public long getCreated() { return created; }
+    public long getDestroyed() { return destroyed; }
+    public long getWaitP50() { return waitP50; }
+    public long getWaitP95() { return waitP95; }
+    public long getWaitP99() { return waitP99; }
+    public long getWaitMax() { return waitMax; }
+    public long getStatementPrepares() { return statementPrepares; }
+    public long getStatementReuses() { return statementReuses; }
+
+    public double getStatementReuseRatio() {
+        long total = statementPrepares + statementReuses;
+        return total == 0 ? 0 : (double) statementReuses / total;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolMetrics{" +
+                "active=" + active +
+                ", idle=" + idle +
+                ", total=" + total +
+                ", maxSize=" + maxSize +
+                ", acquisitions=" + acquisitions +
+                ", timeouts=" + timeouts +
+                ", created=" + created +
+                ", destroyed=" + destroyed +
+                ", waitP50=" + waitP50 + "us" +
+                ", waitP95=" + waitP95 + "us" +
+                ", waitP99=" + waitP99 + "us" +
+                ", waitMax=" + waitMax + "us" +
+                ", statementPrepares=" + statementPrepares +
+                ", statementReuses=" + statementReuses +
+                '}';
+    }
+}
@@ -0,0 +1,349 @@
+package com.biblioteca.util;
+
+import org.apache.logging.log4j.Logger;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool acotado de conexiones JDBC. Las conexiones se validan al prestarse, las ociosas que
+ * superan el mínimo se cierran tras {@code idleTimeoutMillis} y {@code close()} sobre la
+ * conexión prestada la devuelve al pool en lugar de cerrarla. Cada conexión física mantiene
+ * su propia caché de sentencias preparadas de hasta {@code statementCacheSize} entradas.
+ */
+public class PooledConnectionProvider implements ConnectionProvider {
+    private static final Logger logger = LoggerUtil.getLogger(PooledConnectionProvider.class);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final int statementCacheSize;
+
+    // Las conexiones ociosas se reutilizan en orden LIFO; las del final son las candidatas a desalojo
+    private final LinkedBlockingDeque<PooledEntry> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder destroyed = new LongAdder();
+    private final LongAdder statementPrepares = new LongAdder();
+    private final LongAdder statementReuses = new LongAdder();
+    private final LatencyHistogram waitTimes = new LatencyHistogram();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    public PooledConnectionProvider(String url, String user, String password,
+                                    int minSize, int maxSize,
+                                    long acquireTimeoutMillis, long idleTimeoutMillis,
+                                    int statementCacheSize) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Tamaños de pool inválidos: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ensureMinimum();
+        long period = Math.max(1000, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("El pool de conexiones está cerrado");
+        }
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMillis);
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.increment();
+                throw new SQLTransientConnectionException(
+                        "Tiempo de espera agotado al obtener una conexión (" + acquireTimeoutMillis + " ms)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido mientras se esperaba una conexión", e);
+        }
+
+        try {
+            PooledEntry entry = borrow(deadline);
+            active.incrementAndGet();
+            acquisitions.increment();
+            waitTimes.record(System.nanoTime() - start);
+            return wrap(entry);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledEntry borrow(long deadline) throws SQLException {
+        while (true) {
+            PooledEntry entry = idle.pollFirst();
+            if (entry == null) {
+                if (reserveSlot()) {
+                    return createEntry();
+                }
+                // Otro hilo está creando o devolviendo conexiones; esperamos a que aparezca una ociosa
+                long remaining = deadline - System.nanoTime();
+                try {
+                    entry = remaining > 0 ? idle.pollFirst(remaining, TimeUnit.NANOSECONDS) : null;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrumpido mientras se esperaba una conexión", e);
+                }
+                if (entry == null) {
+                    timeouts.increment();
+                    throw new SQLTransientConnectionException("Tiempo de espera agotado al obtener una conexión");
+                }
+            }
+            if (isValid(entry)) {
+                return entry;
+            }
+            discard(entry);
+        }
+    }
+
+    private boolean reserveSlot() {
+        while (true) {
+            int current = total.get();
+            if (current >= maxSize) {
+                return false;
+            }
+            if (total.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private PooledEntry createEntry() throws SQLException {
+        try {
+            Connection physical = DriverManager.getConnection(url, user, password);
+            created.increment();
+            return new PooledEntry(physical, statementCacheSize > 0
+                    ? new StatementCache(physical, statementCacheSize, statementPrepares, statementReuses)
+                    : null);
+        } catch (SQLException | RuntimeException e) {
+            total.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private boolean isValid(PooledEntry entry) {
+        try {
+            return entry.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection wrap(PooledEntry entry) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new PooledConnectionHandler(entry));
+    }
+
+    private void release(PooledEntry entry) {
+        active.decrementAndGet();
+        try {
+            if (closed || !reset(entry)) {
+                discard(entry);
+            } else {
+                entry.lastUsed = System.nanoTime();
+                idle.offerFirst(entry);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Deja la conexión como recién creada para el próximo usuario
+    private boolean reset(PooledEntry entry) {
+        try {
+            Connection physical = entry.physical;
+            if (entry.statements != null) {
+                entry.statements.reclaimAll();
+            }
+            if (physical.isClosed()) {
+                return false;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (physical.isReadOnly()) {
+                physical.setReadOnly(false);
+            }
+            if (physical.getTransactionIsolation() != entry.defaultIsolation) {
+                physical.setTransactionIsolation(entry.defaultIsolation);
+            }
+            physical.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            logger.warn("Descartando conexión que no pudo reiniciarse", e);
+            return false;
+        }
+    }
+
+    private void discard(PooledEntry entry) {
+        total.decrementAndGet();
+        destroyed.increment();
+        try {
+            if (entry.statements != null) {
+                entry.statements.closeAll();
+            }
+            entry.physical.close();
+        } catch (SQLException e) {
+            logger.warn("Error al cerrar conexión física", e);
+        }
+    }
+
+    private void evictIdle() {
+        try {
+            long now = System.nanoTime();
+            long idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+            Iterator<PooledEntry> iterator = idle.descendingIterator();
+            while (iterator.hasNext() && total.get() > minSize) {
+                PooledEntry entry = iterator.next();
+                if (now - entry.lastUsed > idleTimeoutNanos && idle.removeLastOccurrence(entry)) {
+                    discard(entry);
+                }
+            }
+            ensureMinimum();
+        } catch (RuntimeException e) {
+            logger.error("Error durante el desalojo de conexiones ociosas", e);
+        }
+    }
+
+    private void ensureMinimum() {
+        while (!closed && total.get() < minSize && reserveSlot()) {
+            try {
+                PooledEntry entry = createEntry();
+                idle.offerLast(entry);
+            } catch (SQLException e) {
+                logger.warn("No se pudo crear la conexión mínima del pool", e);
+                return;
+            }
+        }
+    }
+
+    public PoolMetrics getMetrics() {
+        return new PoolMetrics(active.get(), idle.size(), total.get(), maxSize,
+                acquisitions.sum(), timeouts.sum(), created.sum(), destroyed.sum(), waitTimes,
+                statementPrepares.sum(), statementReuses.sum());
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        evictor.shutdownNow();
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            discard(entry);
+        }
+        // Las conexiones prestadas se cierran cuando sus usuarios las devuelven
+        logger.info("Pool de conexiones cerrado: {}", getMetrics());
+    }
+
+    // Sólo prepareStatement(sql) y prepareStatement(sql, autoGeneratedKeys) pasan por la caché
+    private static boolean isCacheablePrepare(Method method, Object[] args) {
+        if (!"prepareStatement".equals(method.getName())) {
+            return false;
+        }
+        Class<?>[] types = method.getParameterTypes();
+        return types.length == 1 || (types.length == 2 && types[1] == int.class);
+    }
+
+    private static final class PooledEntry {
+        private final Connection physical;
+        private final int defaultIsolation;
+        private final StatementCache statements;
+        private volatile long lastUsed = System.nanoTime();
+
+        private PooledEntry(Connection physical, StatementCache statements) throws SQLException {
+            this.physical = physical;
+            this.statements = statements;
+            this.defaultIsolation = physical.getTransactionIsolation();
+        }
+    }
+
+    private final class PooledConnectionHandler implements InvocationHandler {
+        private final PooledEntry entry;
+        private boolean returned;
+
+        private PooledConnectionHandler(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || entry.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + entry.physical + "]";
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("La conexión ya fue devuelta al pool");
+            }
+            if (entry.statements != null && isCacheablePrepare(method, args)) {
+                int autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                return entry.statements.prepare((String) args[0], autoGeneratedKeys);
+            }
+            try {
+                return method.invoke(entry.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
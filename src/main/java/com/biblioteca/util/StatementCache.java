@@ -0,0 +1,222 @@
+package com.biblioteca.util;
+
+import org.apache.logging.log4j.Logger;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché LRU de sentencias preparadas de una conexión física. Las sentencias se entregan
+ * envueltas: {@code close()} las devuelve a la caché y sólo se cierran de verdad al ser
+ * desalojadas o al cerrarse la conexión física.
+ */
+final class StatementCache {
+    private static final Logger logger = LoggerUtil.getLogger(StatementCache.class);
+
+    private final Connection physical;
+    private final int maxSize;
+    private final LongAdder prepares;
+    private final LongAdder reuses;
+    private final LinkedHashMap<Key, CachedStatement> statements;
+
+    StatementCache(Connection physical, int maxSize, LongAdder prepares, LongAdder reuses) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.prepares = prepares;
+        this.reuses = reuses;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedStatement> eldest) {
+                if (size() > StatementCache.this.maxSize) {
+                    CachedStatement evicted = eldest.getValue();
+                    evicted.evicted = true;
+                    if (!evicted.inUse) {
+                        evicted.closePhysical();
+                    }
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        Key key = new Key(sql, autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS);
+        CachedStatement cached = statements.get(key);
+        if (cached != null && !cached.inUse) {
+            reuses.increment();
+            return cached.checkout();
+        }
+        prepares.increment();
+        PreparedStatement statement = key.generatedKeys
+                ? physical.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                : physical.prepareStatement(sql);
+        if (cached != null) {
+            // La misma sentencia ya está en uso en esta conexión: se entrega una sin cachear
+            return statement;
+        }
+        CachedStatement nuevo = new CachedStatement(statement);
+        statements.put(key, nuevo);
+        return nuevo.checkout();
+    }
+
+    // Recupera las sentencias que el usuario de la conexión no devolvió
+    void reclaimAll() {
+        for (CachedStatement cached : statements.values()) {
+            if (cached.inUse) {
+                cached.checkin();
+            }
+        }
+    }
+
+    void closeAll() {
+        for (CachedStatement cached : statements.values()) {
+            cached.closePhysical();
+        }
+        statements.clear();
+    }
+
+    private static final class Key {
+        private final String sql;
+        private final boolean generatedKeys;
+
+        private Key(String sql, boolean generatedKeys) {
+            this.sql = sql;
+            this.generatedKeys = generatedKeys;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return generatedKeys == key.generatedKeys && sql.equals(key.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sql, generatedKeys);
+        }
+    }
+
+    private static final class CachedStatement {
+        private final PreparedStatement physical;
+        private ResultSet lastResult;
+        private ResultSet lastKeys;
+        private boolean inUse;
+        private boolean evicted;
+        private int generation;
+
+        private CachedStatement(PreparedStatement physical) {
+            this.physical = physical;
+        }
+
+        private PreparedStatement checkout() {
+            inUse = true;
+            generation++;
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new StatementHandler(this, generation));
+        }
+
+        private void checkin() {
+            inUse = false;
+            generation++;
+            try {
+                closeResults();
+                if (evicted) {
+                    closePhysical();
+                } else {
+                    physical.clearParameters();
+                    physical.clearBatch();
+                }
+            } catch (SQLException e) {
+                logger.warn("Error al devolver sentencia a la caché", e);
+                evicted = true;
+                closePhysical();
+            }
+        }
+
+        private void closeResults() throws SQLException {
+            if (lastResult != null) {
+                lastResult.close();
+                lastResult = null;
+            }
+            if (lastKeys != null) {
+                lastKeys.close();
+                lastKeys = null;
+            }
+        }
+
+        private void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                logger.warn("Error al cerrar sentencia cacheada", e);
+            }
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final CachedStatement cached;
+        private final int generation;
+
+        private StatementHandler(CachedStatement cached, int generation) {
+            this.cached = cached;
+            this.generation = generation;
+        }
+
+        private boolean isCheckedOut() {
+            return cached.inUse && cached.generation == generation;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (isCheckedOut()) {
+                        cached.checkin();
+                    }
+                    return null;
+                case "isClosed":
+                    return !isCheckedOut() || cached.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + cached.physical + "]";
+                default:
+                    break;
+            }
+            if (!isCheckedOut()) {
+                throw new SQLException("La sentencia ya fue cerrada");
+            }
+            try {
+                Object result = method.invoke(cached.physical, args);
+                if (result instanceof ResultSet) {
+                    if ("getGeneratedKeys".equals(method.getName())) {
+                        cached.lastKeys = (ResultSet) result;
+                    } else {
+                        cached.lastResult = (ResultSet) result;
+                    }
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
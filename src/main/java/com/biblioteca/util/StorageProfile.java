@@ -0,0 +1,30 @@
+package com.biblioteca.util;
+
+import java.util.Locale;
+
+/**
+ * Cómo guarda H2 la base de la biblioteca.
+ * <ul>
+ *   <li>{@code DURABLE}: archivo en disco; cada commit llega al archivo a más tardar
+ *       {@code writeDelayMillis} después.</li>
+ *   <li>{@code MEMORIA}: la base vive en memoria y se copia a disco periódicamente y al cerrar;
+ *       lo escrito desde la última copia se pierde si el proceso termina de golpe.</li>
+ *   <li>{@code SOLO_LECTURA}: abre el archivo sin permitir escrituras ni migraciones.</li>
+ * </ul>
+ */
+public enum StorageProfile {
+    DURABLE,
+    MEMORIA,
+    SOLO_LECTURA;
+
+    // Acepta los nombres en cualquier combinación de mayúsculas y con guion o guion bajo
+    public static StorageProfile parse(String texto) {
+        String nombre = texto.trim().toUpperCase(Locale.ROOT).replace('-', '_');
+        for (StorageProfile perfil : values()) {
+            if (perfil.name().equals(nombre)) {
+                return perfil;
+            }
+        }
+        throw new IllegalArgumentException("Perfil de almacenamiento desconocido: " + texto);
+    }
+}
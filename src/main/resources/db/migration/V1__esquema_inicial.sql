@@ -0,0 +1,15 @@
+-- Esquema original. Usa IF NOT EXISTS para adoptar bases creadas antes de las migraciones.
+CREATE TABLE IF NOT EXISTS autores (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    nombre VARCHAR(100) NOT NULL,
+    nacionalidad VARCHAR(50)
+);
+
+CREATE TABLE IF NOT EXISTS libros (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    titulo VARCHAR(100) NOT NULL,
+    isbn VARCHAR(20) UNIQUE,
+    fecha_publicacion DATE,
+    autor_id INT,
+    FOREIGN KEY (autor_id) REFERENCES autores(id)
+);
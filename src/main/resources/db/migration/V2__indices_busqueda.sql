@@ -0,0 +1,5 @@
+-- Índices para findByAutorId, findByFechaPublicacionAfter y findByNacionalidad.
+-- Incluyen id como segunda columna para que la paginación por clave se resuelva recorriendo el índice.
+CREATE INDEX IF NOT EXISTS idx_libros_autor_id ON libros (autor_id, id);
+CREATE INDEX IF NOT EXISTS idx_libros_fecha_publicacion ON libros (fecha_publicacion, id);
+CREATE INDEX IF NOT EXISTS idx_autores_nacionalidad ON autores (nacionalidad, id);
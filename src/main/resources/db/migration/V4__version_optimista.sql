@@ -0,0 +1,4 @@
+-- Versión para el control optimista de concurrencia: cada UPDATE la incrementa y las escrituras
+-- condicionales (updateIfVersion/deleteIfVersion) sólo se aplican si sigue siendo la leída.
+ALTER TABLE autores ADD COLUMN IF NOT EXISTS version INT NOT NULL DEFAULT 0;
+ALTER TABLE libros ADD COLUMN IF NOT EXISTS version INT NOT NULL DEFAULT 0;
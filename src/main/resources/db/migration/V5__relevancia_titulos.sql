@@ -0,0 +1,3 @@
+-- Orden de la búsqueda por título sin el índice en memoria: la misma normalización y relevancia que
+-- TituloIndex, así el resultado no depende de si el índice está activo. -1 si el título no coincide.
+CREATE ALIAS IF NOT EXISTS RELEVANCIA_TITULO DETERMINISTIC FOR "com.biblioteca.search.TituloIndex.relevancia";
@@ -0,0 +1,55 @@
+package com.biblioteca;
+
+import com.biblioteca.dao.AutorDAOImpl;
+import com.biblioteca.dao.LibroDAOImpl;
+import com.biblioteca.migration.MigrationRunner;
+import com.biblioteca.model.Autor;
+import com.biblioteca.model.Libro;
+import com.biblioteca.tx.TransactionManager;
+import com.biblioteca.util.PooledConnectionProvider;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Base H2 en memoria, propia de cada test y migrada. Los DAOs toman sus conexiones del
+ * {@link TransactionManager}, así que participan de las transacciones que se abran con él.
+ */
+public class BaseDePrueba implements AutoCloseable {
+    public final PooledConnectionProvider provider;
+    public final TransactionManager transacciones;
+    public final AutorDAOImpl autorDAO;
+    public final LibroDAOImpl libroDAO;
+
+    public BaseDePrueba() {
+        String url = "jdbc:h2:mem:test_" + UUID.randomUUID().toString().replace("-", "") + ";DB_CLOSE_DELAY=-1";
+        provider = new PooledConnectionProvider(url, "sa", "", 1, 4, 5_000, 60_000, 32);
+        try {
+            new MigrationRunner(provider).migrate();
+        } catch (SQLException e) {
+            provider.close();
+            throw new IllegalStateException("No se pudo migrar la base de prueba", e);
+        }
+        transacciones = new TransactionManager(provider);
+        autorDAO = new AutorDAOImpl(transacciones);
+        libroDAO = new LibroDAOImpl(transacciones);
+    }
+
+    public Autor autor(String nombre, String nacionalidad) {
+        Autor autor = new Autor(nombre, nacionalidad);
+        autorDAO.save(autor);
+        return autor;
+    }
+
+    public Libro libro(String titulo, String isbn, LocalDate fecha, int autorId) {
+        Libro libro = new Libro(titulo, isbn, fecha, autorId);
+        libroDAO.save(libro);
+        return libro;
+    }
+
+    @Override
+    public void close() {
+        provider.close();
+    }
+}
@@ -0,0 +1,58 @@
+package com.biblioteca.async;
+
+import com.biblioteca.BaseDePrueba;
+import com.biblioteca.dao.BatchResult;
+import com.biblioteca.model.Autor;
+import com.biblioteca.model.Libro;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncLibroDAOImplTest {
+    private BaseDePrueba base;
+    private DAOExecutor executor;
+    private AsyncLibroDAO libros;
+
+    @BeforeEach
+    void preparar() {
+        base = new BaseDePrueba();
+        executor = new DAOExecutor(4, 8, 1_000);
+        libros = new AsyncLibroDAOImpl(base.libroDAO, executor);
+    }
+
+    @AfterEach
+    void cerrar() {
+        executor.close();
+        base.close();
+    }
+
+    @Test
+    void guardaYBuscaEnElEjecutor() {
+        Autor autor = base.autor("Borges", "Argentina");
+        List<Libro> nuevos = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            nuevos.add(new Libro("Ficciones " + i, "978-" + i, LocalDate.of(1944, 1, 1), autor.getId()));
+        }
+
+        BatchResult resultado = libros.saveAll(nuevos).join();
+        assertTrue(resultado.isSuccessful());
+
+        List<CompletableFuture<?>> busquedas = new ArrayList<>();
+        for (Libro libro : nuevos) {
+            busquedas.add(libros.findById(libro.getId())
+                    .thenAccept(encontrado -> assertEquals(libro.getTitulo(), encontrado.get().getTitulo())));
+        }
+        CompletableFuture.allOf(busquedas.toArray(new CompletableFuture[0])).join();
+
+        assertEquals(20, libros.findByAutorId(autor.getId()).join().size());
+        assertEquals(8, executor.getAvailablePermits());
+    }
+}
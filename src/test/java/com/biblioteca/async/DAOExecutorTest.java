@@ -0,0 +1,70 @@
+package com.biblioteca.async;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DAOExecutorTest {
+
+    @Test
+    void devuelveElResultadoYLiberaElPermiso() {
+        try (DAOExecutor executor = new DAOExecutor(2, 4, 100)) {
+            assertEquals("ok", executor.submit(() -> "ok").join());
+            assertEquals(4, executor.getAvailablePermits());
+        }
+    }
+
+    @Test
+    void rechazaPasadoElTiempoDeAdmisionConElLimiteOcupado() throws InterruptedException {
+        CountDownLatch liberar = new CountDownLatch(1);
+        try (DAOExecutor executor = new DAOExecutor(2, 1, 20)) {
+            CompletableFuture<Boolean> ocupada = executor.submit(() -> esperar(liberar));
+
+            long inicio = System.nanoTime();
+            CompletableFuture<String> rechazada = executor.submit(() -> "no llega");
+            long esperaMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+            assertTrue(rechazada.isCompletedExceptionally());
+            CompletionException error = assertThrows(CompletionException.class, rechazada::join);
+            assertInstanceOf(RejectedExecutionException.class, error.getCause());
+            assertTrue(esperaMillis >= 15, "debería esperar el tiempo de admisión: " + esperaMillis + " ms");
+            assertFalse(ocupada.isDone());
+
+            liberar.countDown();
+            assertTrue(ocupada.join());
+            assertEquals("ahora sí", executor.submit(() -> "ahora sí").join());
+        }
+    }
+
+    @Test
+    void unaOperacionFallidaTambienLiberaElPermiso() {
+        try (DAOExecutor executor = new DAOExecutor(1, 1, 100)) {
+            CompletableFuture<Object> fallida = executor.submit(() -> {
+                throw new IllegalStateException("falla");
+            });
+
+            CompletionException error = assertThrows(CompletionException.class, fallida::join);
+            assertInstanceOf(IllegalStateException.class, error.getCause());
+            assertEquals(1, executor.submit(() -> 1).join());
+        }
+    }
+
+    private static boolean esperar(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
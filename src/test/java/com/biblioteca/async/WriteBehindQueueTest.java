@@ -0,0 +1,120 @@
+package com.biblioteca.async;
+
+import com.biblioteca.BaseDePrueba;
+import com.biblioteca.dao.AutorDAOImpl;
+import com.biblioteca.dao.BatchResult;
+import com.biblioteca.model.Autor;
+import com.biblioteca.tx.UnitOfWork;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WriteBehindQueueTest {
+    private BaseDePrueba base;
+
+    @BeforeEach
+    void abrir() {
+        base = new BaseDePrueba();
+    }
+
+    @AfterEach
+    void cerrar() {
+        base.close();
+    }
+
+    @Test
+    void losFuturosSeCompletanConElIdRecienConfirmadoElLote() {
+        List<CompletableFuture<Integer>> futuros = new ArrayList<>();
+        try (WriteBehindQueue<Autor> cola = WriteBehindQueue.paraAutores(base.autorDAO, 100, 20, 50, 100)) {
+            for (int i = 0; i < 60; i++) {
+                futuros.add(cola.save(new Autor("Autor " + i, null)));
+            }
+            for (int i = 0; i < futuros.size(); i++) {
+                int id = futuros.get(i).join();
+                // Visible desde otra conexión del pool: el lote ya está confirmado
+                assertEquals("Autor " + i, base.autorDAO.findById(id).get().getNombre());
+            }
+            assertEquals(60, cola.getEscritos());
+            assertTrue(cola.getLotes() < 60, "lotes: " + cola.getLotes());
+        }
+        assertEquals(60, base.autorDAO.findAll().size());
+    }
+
+    @Test
+    void unaAltaInvalidaSoloHaceFallarSuFuturo() {
+        CompletableFuture<Integer> valida;
+        CompletableFuture<Integer> invalida;
+        try (WriteBehindQueue<Autor> cola = WriteBehindQueue.paraAutores(base.autorDAO, 10, 10, 200, 100)) {
+            valida = cola.save(new Autor("Borges", "Argentina"));
+            invalida = cola.save(new Autor("x".repeat(300), null));
+        }
+
+        assertTrue(valida.join() > 0);
+        CompletionException error = assertThrows(CompletionException.class, invalida::join);
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+        assertEquals(1, base.autorDAO.findAll().size());
+    }
+
+    @Test
+    void conLaColaLlenaOCerradaLasAltasSeRechazan() throws InterruptedException {
+        CountDownLatch liberar = new CountDownLatch(1);
+        AutorDAOImpl lento = new AutorDAOImpl(base.transacciones) {
+            @Override
+            public BatchResult saveAll(Collection<Autor> autores) {
+                try {
+                    liberar.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.saveAll(autores);
+            }
+        };
+        WriteBehindQueue<Autor> cola = WriteBehindQueue.paraAutores(lento, 1, 1, 0, 20);
+        try {
+            CompletableFuture<Integer> enEscritura = cola.save(new Autor("Primero", null));
+            while (cola.getPendientes() > 0) {
+                Thread.sleep(1);
+            }
+            CompletableFuture<Integer> encolada = cola.save(new Autor("Segundo", null));
+            CompletableFuture<Integer> rechazada = cola.save(new Autor("Tercero", null));
+
+            CompletionException error = assertThrows(CompletionException.class, rechazada::join);
+            assertInstanceOf(RejectedExecutionException.class, error.getCause());
+            assertFalse(enEscritura.isDone());
+
+            liberar.countDown();
+            assertTrue(enEscritura.join() > 0);
+            assertTrue(encolada.join() > 0);
+        } finally {
+            liberar.countDown();
+            cola.close();
+        }
+
+        assertInstanceOf(RejectedExecutionException.class,
+                assertThrows(CompletionException.class, () -> cola.save(new Autor("Tarde", null)).join()).getCause());
+        assertEquals(2, base.autorDAO.findAll().size());
+    }
+
+    @Test
+    void noAceptaAltasDentroDeUnaTransaccion() {
+        try (WriteBehindQueue<Autor> cola = WriteBehindQueue.paraAutores(base.autorDAO, 10, 10, 10, 10);
+             UnitOfWork ignorada = base.transacciones.begin()) {
+            assertThrows(IllegalStateException.class, () -> cola.save(new Autor("Borges", null)));
+        }
+    }
+}
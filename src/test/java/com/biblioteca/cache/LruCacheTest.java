@@ -0,0 +1,80 @@
+package com.biblioteca.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LruCacheTest {
+
+    @Test
+    void desalojaLaEntradaMenosUsada() {
+        LruCache<Integer, String> cache = new LruCache<>(2, 0);
+        cache.put(1, "uno");
+        cache.put(2, "dos");
+        cache.get(1);
+        cache.put(3, "tres");
+
+        assertEquals("uno", cache.get(1));
+        assertNull(cache.get(2));
+        assertEquals("tres", cache.get(3));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getStats().getEvictions());
+    }
+
+    @Test
+    void expiraLasEntradasVencidas() throws InterruptedException {
+        LruCache<Integer, String> cache = new LruCache<>(10, 1);
+        cache.put(1, "uno");
+        Thread.sleep(5);
+
+        assertNull(cache.get(1));
+        assertEquals(1, cache.getStats().getExpirations());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void cuentaAciertosYFallos() {
+        LruCache<Integer, String> cache = new LruCache<>(10, 0);
+        cache.put(1, "uno");
+        cache.get(1);
+        cache.get(2);
+
+        CacheStats stats = cache.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    void descartaLoCargadoAntesDeUnaInvalidacion() {
+        LruCache<Integer, String> cache = new LruCache<>(10, 0);
+        long generacion = cache.generation();
+        cache.invalidate(1);
+
+        assertFalse(cache.putIfGeneration(1, "viejo", generacion));
+        assertNull(cache.get(1));
+        assertTrue(cache.putIfGeneration(1, "nuevo", cache.generation()));
+        assertEquals("nuevo", cache.get(1));
+    }
+
+    @Test
+    void invalidaPorPredicado() {
+        LruCache<Integer, String> cache = new LruCache<>(10, 0);
+        for (int i = 0; i < 6; i++) {
+            cache.put(i, "v" + i);
+        }
+        cache.invalidateIf(clave -> clave % 2 == 0);
+
+        assertEquals(3, cache.size());
+        assertNull(cache.get(2));
+        assertEquals("v3", cache.get(3));
+    }
+
+    @Test
+    void rechazaUnTamanioNoPositivo() {
+        assertThrows(IllegalArgumentException.class, () -> new LruCache<Integer, String>(0, 0));
+    }
+}
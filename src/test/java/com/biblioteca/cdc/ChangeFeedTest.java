@@ -0,0 +1,124 @@
+package com.biblioteca.cdc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeFeedTest {
+    private static final String TABLA = "libros";
+
+    private ChangeFeed feed;
+
+    @AfterEach
+    void cerrar() {
+        if (feed != null) {
+            feed.close();
+        }
+    }
+
+    @Test
+    void sinSuscriptoresNoEncolaNada() {
+        feed = new ChangeFeed(16, 8, 10);
+        feed.publish(Cambio.insert(TABLA, 1, "uno"));
+
+        assertFalse(feed.hasSubscribers());
+        assertEquals(0, feed.getPublicados());
+    }
+
+    @Test
+    void entregaLosCambiosYAlCerrarVaciaElBuffer() {
+        feed = new ChangeFeed(64, 8, 10);
+        Map<Integer, Object> derivado = new HashMap<>();
+        feed.subscribe(cambios -> cambios.forEach(cambio -> {
+            if (cambio.getTipo() == TipoCambio.DELETE) {
+                derivado.remove(cambio.getId());
+            } else {
+                derivado.put(cambio.getId(), cambio.getDespues());
+            }
+        }));
+
+        for (int id = 1; id <= 20; id++) {
+            feed.publish(Cambio.insert(TABLA, id, "v1-" + id));
+        }
+        for (int id = 1; id <= 20; id++) {
+            feed.publish(Cambio.update(TABLA, id, "v1-" + id, "v2-" + id));
+        }
+        for (int id = 1; id <= 10; id++) {
+            feed.publish(Cambio.delete(TABLA, id, "v2-" + id));
+        }
+        feed.close();
+
+        // Combinados o no, el estado derivado termina igual que la tabla
+        assertEquals(10, derivado.size());
+        for (int id = 11; id <= 20; id++) {
+            assertEquals("v2-" + id, derivado.get(id));
+        }
+        assertEquals(50, feed.getPublicados());
+        assertEquals(0, feed.getDescartados());
+    }
+
+    @Test
+    void descartaCuandoElBufferSigueLleno() throws InterruptedException {
+        feed = new ChangeFeed(2, 1, 5);
+        CountDownLatch entregando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        List<Integer> recibidos = new ArrayList<>();
+        feed.subscribe(cambios -> {
+            entregando.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            cambios.forEach(cambio -> recibidos.add(cambio.getId()));
+        });
+
+        feed.publish(Cambio.insert(TABLA, 1, "uno"));
+        assertTrue(entregando.await(5, TimeUnit.SECONDS));
+        // El despachador está ocupado con el primero: dos llenan el buffer y el cuarto se descarta
+        feed.publish(Cambio.insert(TABLA, 2, "dos"));
+        feed.publish(Cambio.insert(TABLA, 3, "tres"));
+        feed.publish(Cambio.insert(TABLA, 4, "cuatro"));
+        assertEquals(1, feed.getDescartados());
+
+        liberar.countDown();
+        feed.close();
+        assertEquals(Arrays.asList(1, 2, 3), recibidos);
+    }
+
+    @Test
+    void combinaLosCambiosDeUnaMismaFila() {
+        Cambio<String> insert = Cambio.insert(TABLA, 1, "a");
+        Cambio<String> update = Cambio.update(TABLA, 1, "a", "b");
+        Cambio<String> otroUpdate = Cambio.update(TABLA, 1, "b", "c");
+        Cambio<String> delete = Cambio.delete(TABLA, 1, "c");
+
+        Cambio<String> insertActualizado = insert.seguidoDe(update);
+        assertEquals(TipoCambio.INSERT, insertActualizado.getTipo());
+        assertEquals("b", insertActualizado.getDespues());
+
+        Cambio<String> dosUpdates = update.seguidoDe(otroUpdate);
+        assertEquals(TipoCambio.UPDATE, dosUpdates.getTipo());
+        assertEquals("a", dosUpdates.getAntes());
+        assertEquals("c", dosUpdates.getDespues());
+
+        Cambio<String> borrado = update.seguidoDe(delete);
+        assertEquals(TipoCambio.DELETE, borrado.getTipo());
+        assertEquals("a", borrado.getAntes());
+        assertNull(borrado.getDespues());
+
+        assertNull(insert.seguidoDe(delete));
+    }
+}
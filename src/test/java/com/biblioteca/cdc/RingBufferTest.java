@@ -0,0 +1,100 @@
+package com.biblioteca.cdc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RingBufferTest {
+
+    @Test
+    void rechazaAlLlenarseYDevuelveEnOrden() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(Integer.valueOf(i), buffer.poll());
+        }
+        assertNull(buffer.poll());
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    void reutilizaLasCeldasEnCadaVuelta() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(buffer.offer(i));
+            assertTrue(buffer.offer(-i));
+            assertEquals(Integer.valueOf(i), buffer.poll());
+            assertEquals(Integer.valueOf(-i), buffer.poll());
+        }
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    void entregaTodoConVariosProductoresDandoMuchasVueltas() throws InterruptedException {
+        int productores = 4;
+        int porProductor = 50_000;
+        RingBuffer<Long> buffer = new RingBuffer<>(64);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Thread> hilos = new ArrayList<>();
+        for (int p = 0; p < productores; p++) {
+            long productor = p;
+            Thread hilo = new Thread(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (long i = 0; i < porProductor; i++) {
+                    Long elemento = productor * porProductor + i;
+                    while (!buffer.offer(elemento)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            hilo.start();
+            hilos.add(hilo);
+        }
+
+        largada.countDown();
+        long[] ultimoPorProductor = new long[productores];
+        Arrays.fill(ultimoPorProductor, -1);
+        int recibidos = 0;
+        while (recibidos < productores * porProductor) {
+            Long elemento = buffer.poll();
+            if (elemento == null) {
+                Thread.yield();
+                continue;
+            }
+            int productor = (int) (elemento / porProductor);
+            long secuencia = elemento % porProductor;
+            // Cada productor publica en orden, así que su secuencia llega sin saltos ni repetidos
+            assertEquals(ultimoPorProductor[productor] + 1, secuencia);
+            ultimoPorProductor[productor] = secuencia;
+            recibidos++;
+        }
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    void exigeUnaCapacidadPotenciaDeDos() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<Integer>(6));
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<Integer>(1));
+        assertEquals(8, new RingBuffer<Integer>(8).capacity());
+    }
+}
@@ -0,0 +1,126 @@
+package com.biblioteca.csv;
+
+import com.biblioteca.BaseDePrueba;
+import com.biblioteca.model.Autor;
+import com.biblioteca.model.Libro;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvImporterTest {
+    @TempDir
+    Path directorio;
+
+    private BaseDePrueba base;
+    private CsvImporter importer;
+
+    @BeforeEach
+    void abrir() {
+        base = new BaseDePrueba();
+        importer = new CsvImporter(base.autorDAO, base.libroDAO, 2, 2);
+    }
+
+    @AfterEach
+    void cerrar() {
+        base.close();
+    }
+
+    @Test
+    void lasFilasInvalidasVanAlArchivoDeRechazosConSuLinea() throws IOException {
+        // Un libro ya cargado antes de importar choca con el ISBN de la última fila
+        Autor previo = base.autor("Previo", null);
+        base.libro("Ya cargado", "9780000000057", LocalDate.of(1990, 1, 1), previo.getId());
+
+        Path autores = escribir("autores.csv",
+                "id,nombre,nacionalidad",
+                "10,Borges,Argentina",
+                "11,,Chile",
+                "12,Neruda,Chile",
+                "13," + "x".repeat(101) + ",Perú");
+        Path rechazosAutores = directorio.resolve("autores-rechazos.csv");
+        ImportResult resultadoAutores = importer.importarAutores(autores, rechazosAutores);
+        assertEquals(4, resultadoAutores.getLeidas());
+        assertEquals(2, resultadoAutores.getImportadas());
+        assertEquals(2, resultadoAutores.getRechazadas());
+        Map<Long, String> motivosAutores = motivos(rechazosAutores);
+        assertEquals(2, motivosAutores.size());
+        assertEquals("Falta el campo nombre", motivosAutores.get(3L));
+        assertEquals("Nombre demasiado largo", motivosAutores.get(5L));
+
+        Path libros = escribir("libros.csv",
+                "titulo,isbn,fecha_publicacion,autor_id",
+                "Ficciones,9780000000019,1944-01-01,10",
+                "Canto general,9780000000026,1950-01-01,12",
+                "Sin ISBN válido,1234,1950-01-01,10",
+                "Sin fecha,9780000000033,1950-13-01,10",
+                "Huérfano,9780000000040,1950-01-01,11",
+                "Repetido,9780000000019,1950-01-01,10",
+                "Sin número,9780000000040,1950-01-01,diez",
+                "Duplicado en la base,9780000000057,1950-01-01,12");
+        Path rechazosLibros = directorio.resolve("libros-rechazos.csv");
+        ImportResult resultadoLibros = importer.importarLibros(libros, rechazosLibros);
+        assertEquals(8, resultadoLibros.getLeidas());
+        assertEquals(2, resultadoLibros.getImportadas());
+        assertEquals(6, resultadoLibros.getRechazadas());
+
+        Map<Long, String> motivosLibros = motivos(rechazosLibros);
+        assertEquals(6, motivosLibros.size());
+        assertEquals("ISBN inválido: 1234", motivosLibros.get(4L));
+        assertEquals("Fecha de publicación inválida", motivosLibros.get(5L));
+        // El autor 11 del archivo fue rechazado, así que no tiene traducción a un id de la base
+        assertEquals("No existe un autor con ID: 11", motivosLibros.get(6L));
+        assertEquals("ISBN repetido en el archivo: 9780000000019", motivosLibros.get(7L));
+        assertEquals("Valor no numérico en autor_id: diez", motivosLibros.get(8L));
+        assertEquals("ISBN ya registrado: 9780000000057", motivosLibros.get(9L));
+
+        // Los ids del archivo se traducen a los que asignó la base al importar los autores
+        Autor borges = base.autorDAO.findByNacionalidad("Argentina").get(0);
+        Libro ficciones = base.libroDAO.findByIsbn("9780000000019").get();
+        assertEquals(borges.getId(), ficciones.getAutorId());
+        assertEquals(LocalDate.of(1944, 1, 1), ficciones.getFechaPublicacion());
+        assertEquals(3, base.libroDAO.findAll().size());
+    }
+
+    @Test
+    void sinRechazosElArchivoSoloTieneEncabezado() throws IOException {
+        Path autores = escribir("autores.csv", "id,nombre,nacionalidad", "1,\"Sabato, Ernesto\",Argentina");
+        Path rechazos = directorio.resolve("rechazos.csv");
+
+        ImportResult resultado = importer.importarAutores(autores, rechazos);
+
+        assertEquals(1, resultado.getImportadas());
+        assertEquals(0, resultado.getRechazadas());
+        assertEquals(List.of("linea,motivo,contenido"), Files.readAllLines(rechazos, StandardCharsets.UTF_8));
+        assertEquals("Sabato, Ernesto", base.autorDAO.findAll().get(0).getNombre());
+
+        Path exportado = directorio.resolve("exportado.csv");
+        assertEquals(1, new CsvExporter(base.autorDAO, base.libroDAO).exportarAutores(exportado));
+        assertTrue(Files.readString(exportado, StandardCharsets.UTF_8).contains("\"Sabato, Ernesto\""));
+    }
+
+    private Path escribir(String nombre, String... lineas) throws IOException {
+        return Files.write(directorio.resolve(nombre), List.of(lineas), StandardCharsets.UTF_8);
+    }
+
+    private static Map<Long, String> motivos(Path rechazos) throws IOException {
+        List<String> lineas = Files.readAllLines(rechazos, StandardCharsets.UTF_8);
+        assertEquals("linea,motivo,contenido", lineas.get(0));
+        return lineas.stream().skip(1).map(Csv::parseLine)
+                .collect(Collectors.toMap(campos -> Long.parseLong(campos.get(0)), campos -> campos.get(1),
+                        (a, b) -> a, TreeMap::new));
+    }
+}
@@ -0,0 +1,90 @@
+package com.biblioteca.dao;
+
+import com.biblioteca.BaseDePrueba;
+import com.biblioteca.model.Autor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AutorDAOImplTest {
+    private BaseDePrueba base;
+    private AutorDAOImpl autorDAO;
+
+    @BeforeEach
+    void preparar() {
+        base = new BaseDePrueba();
+        autorDAO = base.autorDAO;
+        // Lotes chicos, así cada operación cruza varios executeBatch
+        autorDAO.setBatchSize(4);
+    }
+
+    @AfterEach
+    void cerrar() {
+        base.close();
+    }
+
+    private static List<Autor> autores(int cantidad) {
+        List<Autor> autores = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            autores.add(new Autor("Autor " + i, i % 2 == 0 ? "Argentina" : "Chile"));
+        }
+        return autores;
+    }
+
+    @Test
+    void losLotesInformanLasFilasYAsignanIds() {
+        List<Autor> autores = autores(10);
+
+        BatchResult alta = autorDAO.saveAll(autores);
+        assertTrue(alta.isSuccessful());
+        assertEquals(10, alta.getRows());
+        assertEquals(10, autores.stream().mapToInt(Autor::getId).filter(id -> id > 0).distinct().count());
+        assertEquals(10, autorDAO.findAll().size());
+
+        autores.forEach(autor -> autor.setNacionalidad("Uruguay"));
+        BatchResult cambios = autorDAO.updateAll(autores);
+        assertTrue(cambios.isSuccessful());
+        assertEquals(10, cambios.getRows());
+        assertEquals(10, autorDAO.findByNacionalidad("Uruguay").size());
+        assertTrue(autores.stream().allMatch(autor -> autor.getVersion() == 1));
+
+        int[] ids = autores.subList(0, 6).stream().mapToInt(Autor::getId).toArray();
+        BatchResult bajas = autorDAO.deleteAll(ids);
+        assertTrue(bajas.isSuccessful());
+        assertEquals(6, bajas.getRows());
+        assertEquals(4, autorDAO.findAll().size());
+    }
+
+    @Test
+    void unLoteConUnaFilaInvalidaNoGuardaNinguna() {
+        List<Autor> autores = autores(9);
+        autores.get(6).setNombre("x".repeat(300));
+
+        BatchResult alta = autorDAO.saveAll(autores);
+
+        assertFalse(alta.isSuccessful());
+        assertTrue(autores.stream().allMatch(autor -> autor.getId() == 0));
+        assertTrue(autorDAO.findAll().isEmpty());
+    }
+
+    @Test
+    void unaBajaEnLoteQueFallaNoBorraNada() {
+        Autor conLibros = base.autor("Borges", "Argentina");
+        Autor sinLibros = base.autor("Pizarnik", "Argentina");
+        base.libro("Ficciones", "isbn-1", LocalDate.of(1944, 1, 1), conLibros.getId());
+
+        BatchResult bajas = autorDAO.deleteAll(new int[] {sinLibros.getId(), conLibros.getId()});
+
+        assertFalse(bajas.isSuccessful());
+        assertTrue(autorDAO.findById(sinLibros.getId()).isPresent());
+        assertTrue(autorDAO.findById(conLibros.getId()).isPresent());
+    }
+}
@@ -0,0 +1,313 @@
+package com.biblioteca.dao;
+
+import com.biblioteca.BaseDePrueba;
+import com.biblioteca.model.Autor;
+import com.biblioteca.model.Libro;
+import com.biblioteca.model.LibroConAutor;
+import com.biblioteca.util.PoolMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LibroDAOImplTest {
+    private static final LocalDate INICIO = LocalDate.of(1900, 1, 1);
+    private static final Pattern SCAN_COUNT = Pattern.compile("scanCount: (\\d+)");
+
+    private BaseDePrueba base;
+    private LibroDAOImpl libroDAO;
+    private Autor autor;
+
+    @BeforeEach
+    void preparar() {
+        base = new BaseDePrueba();
+        libroDAO = base.libroDAO;
+        autor = base.autor("Borges", "Argentina");
+    }
+
+    @AfterEach
+    void cerrar() {
+        base.close();
+    }
+
+    // Diez libros por fecha, así que cada fecha repetida cruza el borde de las páginas
+    private List<Libro> guardarPorFecha(int cantidad) {
+        List<Libro> libros = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            libros.add(new Libro("Libro " + i, "isbn-" + i, INICIO.plusDays(i / 10), autor.getId()));
+        }
+        assertTrue(libroDAO.saveAll(libros).isSuccessful());
+        return libros;
+    }
+
+    @Test
+    void paginaPorFechaSinPerderNiRepetirFilas() {
+        guardarPorFecha(95);
+        LocalDate desde = INICIO.plusDays(2);
+
+        List<Integer> vistos = new ArrayList<>();
+        PageRequest pagina = PageRequest.first(7);
+        Page<Libro> actual;
+        do {
+            actual = libroDAO.findByFechaPublicacionAfter(desde, pagina);
+            for (Libro libro : actual.getContent()) {
+                assertTrue(libro.getFechaPublicacion().isAfter(desde));
+                vistos.add(libro.getId());
+            }
+            pagina = actual.getNextPageRequest();
+        } while (actual.hasNext());
+
+        List<Integer> esperados = new ArrayList<>();
+        for (Libro libro : libroDAO.findByFechaPublicacionAfter(desde)) {
+            esperados.add(libro.getId());
+        }
+        assertEquals(65, vistos.size());
+        assertEquals(esperados.size(), vistos.size());
+        assertTrue(vistos.containsAll(esperados));
+    }
+
+    @Test
+    void laUltimaPaginaPorFechaRecorreTantasFilasComoLaPrimera() throws SQLException {
+        List<Libro> libros = guardarPorFecha(5_000);
+        Libro cursor = libros.get(4_500);
+
+        int primera = filasRecorridas(INICIO, PageRequest.first(20));
+        int ultima = filasRecorridas(INICIO,
+                PageRequest.after(cursor.getFechaPublicacion(), cursor.getId(), 20));
+
+        // Las 21 filas pedidas más, como mucho, las 10 de la fecha del cursor que se saltean
+        assertTrue(primera <= 31, "primera página: " + primera);
+        assertTrue(ultima <= 31, "última página: " + ultima);
+    }
+
+    @Test
+    void streamAllRecorreEnOrdenYDevuelveLaConexionAlCerrarse() {
+        List<Libro> libros = guardarPorFecha(250);
+        libroDAO.setFetchSize(16);
+
+        List<Integer> ids = new ArrayList<>();
+        try (Stream<Libro> stream = libroDAO.streamAll()) {
+            stream.forEach(libro -> ids.add(libro.getId()));
+        }
+        List<Integer> esperados = new ArrayList<>();
+        libros.forEach(libro -> esperados.add(libro.getId()));
+        assertEquals(esperados, ids);
+        assertEquals(0, base.provider.getMetrics().getActive());
+
+        // Cortado a la mitad, el stream retiene la conexión hasta que se cierra
+        Stream<Libro> parcial = libroDAO.streamAll();
+        assertEquals(10, parcial.limit(10).count());
+        assertEquals(1, base.provider.getMetrics().getActive());
+        parcial.close();
+        assertEquals(0, base.provider.getMetrics().getActive());
+    }
+
+    @Test
+    void losLibrosConAutorSeLeenEnUnaSolaConsulta() {
+        Autor sabato = base.autor("Sabato", "Argentina");
+        for (int i = 0; i < 30; i++) {
+            base.libro("Libro " + i, "isbn-" + i, INICIO, (i % 3 == 0 ? sabato : autor).getId());
+        }
+
+        long sentencias = sentenciasPreparadas();
+        List<LibroConAutor> libros = libroDAO.findAllConAutor();
+        assertEquals(1, sentenciasPreparadas() - sentencias);
+
+        assertEquals(30, libros.size());
+        for (LibroConAutor libro : libros) {
+            assertEquals(libro.getLibro().getAutorId(), libro.getAutor().getId());
+            assertEquals(libro.getAutor().getId() == sabato.getId() ? "Sabato" : "Borges",
+                    libro.getAutor().getNombre());
+        }
+        List<LibroConAutor> paginados = new ArrayList<>();
+        PageRequest pagina = PageRequest.first(7);
+        Page<LibroConAutor> actual;
+        do {
+            actual = libroDAO.findAllConAutor(pagina);
+            paginados.addAll(actual.getContent());
+            pagina = actual.getNextPageRequest();
+        } while (actual.hasNext());
+        assertEquals(libros, paginados);
+    }
+
+    @Test
+    void findByIdsRespetaElOrdenPedidoSinRepetidosNiFaltantes() {
+        Libro a = base.libro("A", "isbn-a", INICIO, autor.getId());
+        Libro b = base.libro("B", "isbn-b", INICIO, autor.getId());
+        Libro c = base.libro("C", "isbn-c", INICIO, autor.getId());
+
+        List<Libro> libros = libroDAO.findByIds(List.of(c.getId(), 999_999, a.getId(), c.getId(), b.getId()));
+
+        assertEquals(List.of("C", "A", "B"), titulos(libros));
+        assertEquals(List.of("Borges"), base.autorDAO.findByIds(List.of(999_999, autor.getId()))
+                .stream().map(Autor::getNombre).collect(Collectors.toList()));
+    }
+
+    @Test
+    void laBusquedaPorTituloDevuelveLoMismoConYSinIndice() {
+        String[] titulos = {"Historia de la guerra", "La guerra y la paz", "Guerra", "Posguerra",
+                "Guerra de los mundos", "El Aleph", "Canción de gesta", "Rayuela"};
+        for (int i = 0; i < titulos.length; i++) {
+            base.libro(titulos[i], "isbn-" + i, INICIO, autor.getId());
+        }
+
+        for (String consulta : new String[] {"guerra", "GUERRA", "el", "cancion", "ñ", "x"}) {
+            List<String> sinIndice = titulos(libroDAO.findByTitulo(consulta));
+            List<String> paginadoSinIndice = titulosPaginados(consulta, 2);
+            libroDAO.enableTituloIndex();
+            try {
+                assertEquals(sinIndice, titulos(libroDAO.findByTitulo(consulta)), consulta);
+                assertEquals(sinIndice, titulosPaginados(consulta, 2), consulta);
+                assertEquals(sinIndice, paginadoSinIndice, consulta);
+            } finally {
+                libroDAO = new LibroDAOImpl(base.transacciones);
+            }
+        }
+        assertEquals(List.of("Guerra", "Guerra de los mundos", "La guerra y la paz", "Historia de la guerra",
+                "Posguerra"), titulos(libroDAO.findByTitulo("guerra")));
+        assertEquals(List.of("El Aleph", "Rayuela"), titulos(libroDAO.findByTitulo("el")));
+        assertEquals(List.of("Canción de gesta"), titulos(libroDAO.findByTitulo("cancion")));
+    }
+
+    @Test
+    void elUpsertSoloIncrementaLaVersionSiCambianLosDatos() {
+        Libro original = new Libro("Ficciones", "isbn-1", INICIO, autor.getId());
+        BatchResult alta = libroDAO.upsertByIsbn(List.of(original));
+        assertTrue(alta.isSuccessful());
+        assertEquals(1, alta.getRows());
+        assertTrue(original.getId() > 0);
+        assertEquals(0, original.getVersion());
+
+        Libro igual = new Libro("Ficciones", "isbn-1", INICIO, autor.getId());
+        BatchResult sinCambios = libroDAO.upsertByIsbn(List.of(igual));
+        assertEquals(0, sinCambios.getRows());
+        assertEquals(original.getId(), igual.getId());
+        assertEquals(0, igual.getVersion());
+
+        Libro editado = new Libro("Ficciones (1944)", "isbn-1", INICIO, autor.getId());
+        assertEquals(1, libroDAO.upsertByIsbn(List.of(editado)).getRows());
+        assertEquals(1, editado.getVersion());
+        assertEquals("Ficciones (1944)", libroDAO.findById(original.getId()).get().getTitulo());
+
+        // El cliente que leyó la versión 0 ya no puede pisar el cambio
+        original.setTitulo("Ficciones (viejo)");
+        assertEquals(WriteResult.CONFLICT, libroDAO.updateIfVersion(original));
+    }
+
+    @Test
+    void lasEscriturasConVersionInformanConflictosYFilasInexistentes() {
+        Libro libro = base.libro("El Aleph", "isbn-1", INICIO, autor.getId());
+        Libro copia = new Libro(libro);
+
+        libro.setTitulo("El Aleph (2.a ed.)");
+        assertEquals(WriteResult.APPLIED, libroDAO.updateIfVersion(libro));
+        assertEquals(1, libro.getVersion());
+
+        copia.setTitulo("Otro título");
+        assertEquals(WriteResult.CONFLICT, libroDAO.updateIfVersion(copia));
+        assertEquals(WriteResult.CONFLICT, libroDAO.deleteIfVersion(libro.getId(), 0));
+        assertEquals("El Aleph (2.a ed.)", libroDAO.findById(libro.getId()).get().getTitulo());
+
+        Libro inexistente = new Libro("Nadie", "isbn-2", INICIO, autor.getId());
+        inexistente.setId(999_999);
+        assertEquals(WriteResult.NOT_FOUND, libroDAO.updateIfVersion(inexistente));
+
+        Libro otro = base.libro("Ficciones", "isbn-3", INICIO, autor.getId());
+        VersionedBatchResult lote = libroDAO.updateAllIfVersion(List.of(copia, otro, inexistente));
+        assertEquals(List.of(WriteResult.CONFLICT, WriteResult.APPLIED, WriteResult.NOT_FOUND), lote.getResults());
+        assertTrue(lote.hasConflicts());
+
+        assertEquals(WriteResult.APPLIED, libroDAO.deleteIfVersion(libro.getId(), 1));
+        assertFalse(libroDAO.findById(libro.getId()).isPresent());
+    }
+
+    @Test
+    void laBusquedaPorIsbnRespetaElOrdenPedidoSinRepetidos() {
+        Libro a = base.libro("A", "9780000000019", INICIO, autor.getId());
+        Libro b = base.libro("B", "9780000000026", INICIO, autor.getId());
+        Libro c = base.libro("C", "9780000000033", INICIO, autor.getId());
+
+        assertEquals(b, libroDAO.findByIsbn("9780000000026").get());
+        assertFalse(libroDAO.findByIsbn("9780000000040").isPresent());
+        assertEquals(List.of(c, a, b), libroDAO.findByIsbns(
+                List.of("9780000000033", "9780000000040", "9780000000019", "9780000000033", "9780000000026")));
+        assertTrue(libroDAO.findByIsbns(List.of()).isEmpty());
+    }
+
+    @Test
+    void elUpsertMezclaAltasYModificacionesYFallaEnteroAnteUnError() {
+        Libro existente = base.libro("Ficciones", "9780000000019", INICIO, autor.getId());
+        Libro editado = new Libro("Ficciones (1944)", "9780000000019", INICIO, autor.getId());
+        Libro nuevo = new Libro("El Aleph", "9780000000026", INICIO, autor.getId());
+
+        BatchResult lote = libroDAO.upsertByIsbn(List.of(editado, nuevo));
+        assertTrue(lote.isSuccessful());
+        assertEquals(2, lote.getRows());
+        assertEquals(existente.getId(), editado.getId());
+        assertTrue(nuevo.getId() > existente.getId());
+        assertEquals(List.of(editado, nuevo), libroDAO.findByIsbns(List.of("9780000000019", "9780000000026")));
+
+        // Un alta con un autor inexistente hace fallar el lote y deshace también la modificación
+        Libro otraEdicion = new Libro("Ficciones (otra edición)", "9780000000019", INICIO, autor.getId());
+        Libro huerfano = new Libro("Huérfano", "9780000000033", INICIO, 999_999);
+        assertFalse(libroDAO.upsertByIsbn(List.of(otraEdicion, huerfano)).isSuccessful());
+        assertEquals("Ficciones (1944)", libroDAO.findByIsbn("9780000000019").get().getTitulo());
+        assertFalse(libroDAO.findByIsbn("9780000000033").isPresent());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> libroDAO.upsertByIsbn(List.of(new Libro("Sin ISBN", null, INICIO, autor.getId()))));
+    }
+
+    private List<String> titulosPaginados(String consulta, int tamanio) {
+        List<String> titulos = new ArrayList<>();
+        PageRequest pagina = PageRequest.first(tamanio);
+        Page<Libro> actual;
+        do {
+            actual = libroDAO.findByTitulo(consulta, pagina);
+            titulos.addAll(titulos(actual.getContent()));
+            pagina = actual.getNextPageRequest();
+        } while (actual.hasNext());
+        return titulos;
+    }
+
+    private static List<String> titulos(List<Libro> libros) {
+        List<String> titulos = new ArrayList<>(libros.size());
+        libros.forEach(libro -> titulos.add(libro.getTitulo()));
+        return titulos;
+    }
+
+    private long sentenciasPreparadas() {
+        PoolMetrics metricas = base.provider.getMetrics();
+        return metricas.getStatementPrepares() + metricas.getStatementReuses();
+    }
+
+    private int filasRecorridas(LocalDate fecha, PageRequest pageRequest) throws SQLException {
+        try (Connection connection = base.provider.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "EXPLAIN ANALYZE " + LibroDAOImpl.SELECT_PAGINA_POR_FECHA)) {
+            LibroDAOImpl.bindPaginaPorFecha(statement, fecha, pageRequest);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                assertTrue(resultSet.next());
+                Matcher matcher = SCAN_COUNT.matcher(resultSet.getString(1));
+                assertTrue(matcher.find(), resultSet.getString(1));
+                return Integer.parseInt(matcher.group(1));
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.biblioteca.dao;
+
+import com.biblioteca.BaseDePrueba;
+import com.biblioteca.model.Autor;
+import com.biblioteca.model.Libro;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReporteDAOImplTest {
+    private BaseDePrueba base;
+    private ReporteDAO resumenes;
+    private ReporteDAO directo;
+    private Autor borges;
+    private Autor sabato;
+    private Autor neruda;
+
+    @BeforeEach
+    void preparar() {
+        base = new BaseDePrueba();
+        resumenes = new ReporteDAOImpl(base.transacciones);
+        directo = new ReporteDAOImpl(base.transacciones, false);
+        borges = base.autor("Borges", "Argentina");
+        sabato = base.autor("Sabato", "Argentina");
+        neruda = base.autor("Neruda", "Chile");
+        base.autor("Anónimo", null);
+    }
+
+    @AfterEach
+    void cerrar() {
+        base.close();
+    }
+
+    @Test
+    void losConteosAgrupanEnLaBase() {
+        List<Libro> libros = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            libros.add(new Libro("Borges " + i, null, LocalDate.of(1941 + i, 1, 1), borges.getId()));
+        }
+        libros.add(new Libro("Sabato", null, LocalDate.of(1948, 1, 1), sabato.getId()));
+        libros.add(new Libro("Neruda 1", null, LocalDate.of(1924, 1, 1), neruda.getId()));
+        libros.add(new Libro("Neruda 2", null, LocalDate.of(1950, 1, 1), neruda.getId()));
+        base.libroDAO.saveAll(libros);
+
+        ConteoPorId porAutor = resumenes.librosPorAutor();
+        assertEquals(3, porAutor.size());
+        assertEquals(borges.getId(), porAutor.getId(0));
+        assertEquals(6, porAutor.cantidadDe(borges.getId()));
+        assertEquals(9, porAutor.getTotal());
+
+        ConteoPorId top = resumenes.topAutoresPorLibros(2);
+        assertEquals(2, top.size());
+        assertEquals(borges.getId(), top.getId(0));
+        assertEquals(neruda.getId(), top.getId(1));
+        assertThrows(IllegalArgumentException.class, () -> resumenes.topAutoresPorLibros(0));
+
+        // Las décadas sin libros quedan en 0 entre la primera y la última
+        Histograma decadas = resumenes.librosPorDecada();
+        assertEquals(1920, decadas.getInicio());
+        assertEquals(4, decadas.size());
+        assertEquals(0, decadas.cantidadPara(1935));
+        assertEquals(7, decadas.cantidadPara(1940));
+        assertEquals(9, resumenes.librosPorAnio().getTotal());
+
+        ConteoPorClave nacionalidades = resumenes.autoresPorNacionalidad();
+        assertEquals(2, nacionalidades.size());
+        assertEquals("Argentina", nacionalidades.getClave(0));
+        assertEquals(2, nacionalidades.cantidadDe("Argentina"));
+        assertEquals(3, nacionalidades.getTotal());
+
+        assertIguales();
+    }
+
+    @Test
+    void losResumenesSiguenALasModificacionesYBajas() {
+        Libro libro = base.libro("Ficciones", null, LocalDate.of(1944, 1, 1), borges.getId());
+        Libro otro = base.libro("El túnel", null, LocalDate.of(1948, 1, 1), sabato.getId());
+        assertIguales();
+
+        libro.setAutorId(sabato.getId());
+        libro.setFechaPublicacion(LocalDate.of(1961, 1, 1));
+        base.libroDAO.update(libro);
+        assertEquals(2, resumenes.librosPorAutor().cantidadDe(sabato.getId()));
+        assertEquals(0, resumenes.librosPorAutor().cantidadDe(borges.getId()));
+        assertIguales();
+
+        base.libroDAO.delete(otro.getId());
+        assertIguales();
+
+        // Un lote que falla se deshace junto con lo que el trigger sumó en los resúmenes
+        List<Libro> lote = List.of(new Libro("Nuevo", null, LocalDate.of(2000, 1, 1), neruda.getId()),
+                new Libro("Huérfano", null, LocalDate.of(2000, 1, 1), 999_999));
+        base.libroDAO.saveAll(lote);
+        assertEquals(1, resumenes.librosPorAutor().getTotal());
+        assertIguales();
+    }
+
+    private void assertIguales() {
+        assertEquals(directo.librosPorAutor().toString(), resumenes.librosPorAutor().toString());
+        assertEquals(directo.topAutoresPorLibros(10).toString(), resumenes.topAutoresPorLibros(10).toString());
+        assertEquals(directo.librosPorAnio().toString(), resumenes.librosPorAnio().toString());
+        assertEquals(directo.librosPorDecada().toString(), resumenes.librosPorDecada().toString());
+    }
+}
@@ -0,0 +1,92 @@
+package com.biblioteca.filter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CuckooFilterTest {
+
+    @Test
+    void agregaYQuitaClaves() {
+        CuckooFilter filtro = new CuckooFilter(1024);
+        long hash = CuckooFilter.hash("978-3-16-148410-0");
+
+        assertTrue(filtro.add(hash));
+        assertTrue(filtro.mightContain(hash));
+        assertEquals(1, filtro.size());
+
+        assertTrue(filtro.remove(hash));
+        assertFalse(filtro.mightContain(hash));
+        assertFalse(filtro.remove(hash));
+        assertEquals(0, filtro.size());
+    }
+
+    @Test
+    void unaClaveAgregadaDosVecesSeQuitaDosVeces() {
+        CuckooFilter filtro = new CuckooFilter(64);
+        long hash = CuckooFilter.hash(42);
+        filtro.add(hash);
+        filtro.add(hash);
+
+        assertTrue(filtro.remove(hash));
+        assertTrue(filtro.mightContain(hash));
+        assertTrue(filtro.remove(hash));
+        assertFalse(filtro.mightContain(hash));
+    }
+
+    @Test
+    void noDaFalsosNegativos() {
+        int cantidad = 50_000;
+        CuckooFilter filtro = new CuckooFilter(cantidad * 2);
+        for (int id = 1; id <= cantidad; id++) {
+            assertTrue(filtro.add(CuckooFilter.hash(id)));
+        }
+        for (int id = 1; id <= cantidad; id++) {
+            assertTrue(filtro.mightContain(CuckooFilter.hash(id)), "falso negativo para el id " + id);
+        }
+        assertFalse(filtro.isSaturado());
+    }
+
+    @Test
+    void tieneFalsosPositivosEscasos() {
+        int cantidad = 50_000;
+        CuckooFilter filtro = new CuckooFilter(cantidad * 2);
+        for (int id = 1; id <= cantidad; id++) {
+            filtro.add(CuckooFilter.hash(id));
+        }
+        int falsosPositivos = 0;
+        for (int id = cantidad + 1; id <= cantidad * 2; id++) {
+            if (filtro.mightContain(CuckooFilter.hash(id))) {
+                falsosPositivos++;
+            }
+        }
+        // Con huellas de 16 bits se esperan unos 8 cada 50.000
+        assertTrue(falsosPositivos < 100, "falsos positivos: " + falsosPositivos);
+    }
+
+    @Test
+    void alSaturarseRespondeQueTodoPuedeEstar() {
+        CuckooFilter filtro = new CuckooFilter(16);
+        int agregadas = 0;
+        while (filtro.add(CuckooFilter.hash(agregadas))) {
+            agregadas++;
+        }
+
+        assertTrue(filtro.isSaturado());
+        assertTrue(agregadas <= filtro.capacity());
+        for (int id = 0; id <= agregadas; id++) {
+            assertTrue(filtro.mightContain(CuckooFilter.hash(id)));
+        }
+        assertTrue(filtro.mightContain(CuckooFilter.hash("nunca agregada")));
+    }
+
+    @Test
+    void redondeaLaCapacidadACubetasCompletas() {
+        assertEquals(1024, new CuckooFilter(1000).capacity());
+        assertEquals(4, new CuckooFilter(1).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new CuckooFilter(0));
+    }
+}
@@ -0,0 +1,88 @@
+package com.biblioteca.metrics;
+
+import com.biblioteca.BaseDePrueba;
+import com.biblioteca.dao.AutorDAO;
+import com.biblioteca.dao.AutorDAOImpl;
+import com.biblioteca.model.Autor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InstrumentedDAOTest {
+    private BaseDePrueba base;
+    private MetricsRegistry registry;
+    private AutorDAO autorDAO;
+
+    @BeforeEach
+    void abrir() {
+        base = new BaseDePrueba();
+        registry = new MetricsRegistry(10_000);
+        autorDAO = InstrumentedDAO.wrap(AutorDAO.class,
+                new AutorDAOImpl(new InstrumentedConnectionProvider(base.provider, registry)), registry);
+    }
+
+    @AfterEach
+    void cerrar() {
+        base.close();
+    }
+
+    @Test
+    void cuentaLlamadasFilasYErroresPorMetodo() {
+        autorDAO.save(new Autor("Borges", "Argentina"));
+        autorDAO.save(new Autor("Neruda", "Chile"));
+        // El DAO oculta el error del nombre demasiado largo, pero la conexión instrumentada lo ve
+        autorDAO.save(new Autor("x".repeat(300), null));
+        assertEquals(2, autorDAO.findAll().size());
+
+        // Los métodos heredados de GenericDAO llevan el tipo borrado en el nombre
+        MethodStats save = stats("AutorDAO.save(Object)");
+        assertEquals(3, save.getCalls());
+        assertEquals(1, save.getErrors());
+        MethodStats findAll = stats("AutorDAO.findAll()");
+        assertEquals(1, findAll.getCalls());
+        assertEquals(0, findAll.getErrors());
+        assertEquals(2, findAll.getRows());
+        assertTrue(findAll.getMax() >= findAll.getP50());
+        assertEquals(4, stats("JDBC.execute").getCalls());
+        assertEquals(0, registry.getSlowQueries());
+    }
+
+    @Test
+    void lasFilasDeUnStreamSeCuentanAlConsumirlo() {
+        autorDAO.save(new Autor("Borges", "Argentina"));
+        autorDAO.save(new Autor("Neruda", "Chile"));
+
+        try (Stream<Autor> autores = autorDAO.streamAll()) {
+            assertEquals(0, stats("AutorDAO.streamAll()").getRows());
+            assertEquals(2, autores.count());
+        }
+        assertEquals(2, stats("AutorDAO.streamAll()").getRows());
+    }
+
+    @Test
+    void lasConsultasQueSuperanElUmbralSeCuentanComoLentas() {
+        registry.setSlowQueryThresholdMillis(0);
+        autorDAO.findByNacionalidad("Argentina");
+        assertTrue(registry.getSlowQueries() >= 1);
+
+        registry.reset();
+        assertEquals(0, registry.getSlowQueries());
+        assertEquals(0, registry.getTotalCalls());
+        assertTrue(registry.snapshot().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> registry.setSlowQueryThresholdMillis(-1));
+    }
+
+    private MethodStats stats(String nombre) {
+        List<MethodStats> encontradas = registry.snapshot().stream()
+                .filter(stats -> stats.getName().equals(nombre)).collect(Collectors.toList());
+        return encontradas.isEmpty() ? new MethodMetrics(nombre).snapshot() : encontradas.get(0);
+    }
+}
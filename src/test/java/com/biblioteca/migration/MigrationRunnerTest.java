@@ -0,0 +1,85 @@
+package com.biblioteca.migration;
+
+import com.biblioteca.util.PooledConnectionProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MigrationRunnerTest {
+    private PooledConnectionProvider provider;
+
+    @BeforeEach
+    void abrir() {
+        String url = "jdbc:h2:mem:migraciones_" + UUID.randomUUID().toString().replace("-", "") + ";DB_CLOSE_DELAY=-1";
+        provider = new PooledConnectionProvider(url, "sa", "", 1, 2, 5_000, 60_000, 8);
+    }
+
+    @AfterEach
+    void cerrar() {
+        provider.close();
+    }
+
+    private int contar(String sql) throws SQLException {
+        try (Connection connection = provider.getConnection(); Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            assertTrue(resultSet.next());
+            return resultSet.getInt(1);
+        }
+    }
+
+    private void ejecutar(String sql) throws SQLException {
+        try (Connection connection = provider.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    @Test
+    void aplicaCadaMigracionUnaSolaVez() throws SQLException {
+        MigrationRunner runner = new MigrationRunner(provider);
+        int total = runner.loadMigrations().size();
+
+        assertEquals(total, runner.migrate());
+        assertEquals(0, runner.migrate());
+        assertEquals(total, contar("SELECT COUNT(*) FROM schema_version"));
+        assertEquals(1, contar("SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES " +
+                "WHERE INDEX_NAME = 'IDX_LIBROS_FECHA_PUBLICACION'"));
+    }
+
+    @Test
+    void rechazaUnaMigracionAplicadaQueCambio() throws SQLException {
+        MigrationRunner runner = new MigrationRunner(provider);
+        runner.migrate();
+        ejecutar("UPDATE schema_version SET checksum = checksum + 1 WHERE version = 2");
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, runner::migrate);
+        assertTrue(error.getMessage().contains("checksum"), error.getMessage());
+    }
+
+    @Test
+    void rechazaUnaVersionQueLaAplicacionNoConoce() throws SQLException {
+        MigrationRunner runner = new MigrationRunner(provider);
+        runner.migrate();
+        ejecutar("INSERT INTO schema_version (version, descripcion, checksum) VALUES (99, 'futura', 0)");
+
+        assertThrows(IllegalStateException.class, runner::migrate);
+    }
+
+    @Test
+    void unaMigracionQueFallaNoQuedaAplicadaAMedias() throws SQLException {
+        MigrationRunner runner = new MigrationRunner(provider, "db/migracion-fallida");
+
+        assertThrows(SQLException.class, runner::migrate);
+        assertEquals(1, contar("SELECT COUNT(*) FROM schema_version"));
+        assertEquals(0, contar("SELECT COUNT(*) FROM prueba"));
+    }
+}
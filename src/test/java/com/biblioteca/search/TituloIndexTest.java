@@ -0,0 +1,99 @@
+package com.biblioteca.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TituloIndexTest {
+
+    @Test
+    void ordenaPorRelevancia() {
+        TituloIndex index = new TituloIndex();
+        index.add(1, "Historia de la guerra");
+        index.add(2, "La guerra y la paz");
+        index.add(3, "Guerra");
+        index.add(4, "Posguerra");
+        index.add(5, "Guerra de los mundos");
+
+        // Exacta, prefijo (el más corto primero), inicio de palabra y por último cualquier posición
+        assertArrayEquals(new int[]{3, 5, 2, 1, 4}, index.search("guerra"));
+    }
+
+    @Test
+    void ignoraMayusculasTildesYSignos() {
+        TituloIndex index = new TituloIndex();
+        index.add(1, "Cien años de soledad");
+        index.add(2, "¡Ñandú!");
+
+        assertArrayEquals(new int[]{1}, index.search("AÑOS"));
+        assertArrayEquals(new int[]{1}, index.search("anos de"));
+        assertArrayEquals(new int[]{2}, index.search("nandu"));
+    }
+
+    @Test
+    void exigeLaConsultaCompletaYNoSoloSusTrigramas() {
+        TituloIndex index = new TituloIndex();
+        index.add(1, "abcd bcde");
+
+        assertArrayEquals(new int[0], index.search("abcde"));
+        assertArrayEquals(new int[]{1}, index.search("bcde"));
+    }
+
+    @Test
+    void lasConsultasSinTrigramasSeVerificanContraTodosLosTitulos() {
+        TituloIndex index = new TituloIndex();
+        index.add(1, "El Aleph");
+        index.add(2, "Rayuela");
+        index.add(3, "Papel");
+
+        // Prefijo primero; después, a igual posición, el título más corto
+        assertArrayEquals(new int[]{1, 3, 2}, index.search("EL"));
+        assertArrayEquals(new int[]{2}, index.search("ú"));
+    }
+
+    @Test
+    void reemplazaYQuitaTitulos() {
+        TituloIndex index = new TituloIndex();
+        index.add(1, "Rayuela");
+        index.update(1, "Ficciones");
+
+        assertArrayEquals(new int[0], index.search("rayuela"));
+        assertArrayEquals(new int[]{1}, index.search("ficciones"));
+        assertEquals(1, index.size());
+
+        index.remove(1);
+        index.remove(1);
+        assertArrayEquals(new int[0], index.search("ficciones"));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void paginaPorRelevanciaDesdeElCursor() {
+        TituloIndex index = new TituloIndex();
+        index.add(1, "Historia de la guerra");
+        index.add(2, "La guerra y la paz");
+        index.add(3, "Guerra");
+        index.add(4, "Posguerra");
+        index.add(5, "Guerra de los mundos");
+
+        assertArrayEquals(new int[]{3, 5}, index.searchAfter("guerra", -1, 0, 2));
+        int relevancia = TituloIndex.relevancia("Guerra de los mundos", "guerra");
+        assertArrayEquals(new int[]{2, 1}, index.searchAfter("guerra", relevancia, 5, 2));
+        relevancia = TituloIndex.relevancia("Historia de la guerra", "guerra");
+        assertArrayEquals(new int[]{4}, index.searchAfter("guerra", relevancia, 1, 2));
+    }
+
+    @Test
+    void laRelevanciaEsMenosUnoSinCoincidencia() {
+        assertEquals(-1, TituloIndex.relevancia("Rayuela", "aleph"));
+        assertTrue(TituloIndex.relevancia("GUERRA", "guerra") < TituloIndex.relevancia("Guerra fría", "guerra"));
+    }
+
+    @Test
+    void rechazaIdsNegativos() {
+        assertThrows(IllegalArgumentException.class, () -> new TituloIndex().add(-1, "Negativo"));
+    }
+}
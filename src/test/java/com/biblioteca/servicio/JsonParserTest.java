@@ -0,0 +1,82 @@
+package com.biblioteca.servicio;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonParserTest {
+
+    @Test
+    void leeUnObjetoPlano() {
+        Map<String, Object> objeto = JsonParser.parseObject(
+                " { \"titulo\" : \"Rayuela\", \"autorId\": 7, \"saldo\": -12, \"activo\": true, \"baja\": false, \"isbn\": null } ");
+
+        assertEquals(Arrays.asList("titulo", "autorId", "saldo", "activo", "baja", "isbn"),
+                Arrays.asList(objeto.keySet().toArray()));
+        assertEquals("Rayuela", objeto.get("titulo"));
+        assertEquals(7L, objeto.get("autorId"));
+        assertEquals(-12L, objeto.get("saldo"));
+        assertEquals(Boolean.TRUE, objeto.get("activo"));
+        assertEquals(Boolean.FALSE, objeto.get("baja"));
+        assertTrue(objeto.containsKey("isbn"));
+        assertNull(objeto.get("isbn"));
+    }
+
+    @Test
+    void aceptaUnObjetoVacio() {
+        assertTrue(JsonParser.parseObject("{}").isEmpty());
+        assertTrue(JsonParser.parseObject(" {  } ").isEmpty());
+    }
+
+    @Test
+    void interpretaLosEscapes() {
+        Map<String, Object> objeto = JsonParser.parseObject(
+                "{\"t\": \"a\\\"b\\\\c\\/d\\n\\t\\u00f1\"}");
+
+        assertEquals("a\"b\\c/d\n\tñ", objeto.get("t"));
+    }
+
+    @Test
+    void laUltimaClaveRepetidaGana() {
+        assertEquals(2L, JsonParser.parseObject("{\"a\": 1, \"a\": 2}").get("a"));
+    }
+
+    @Test
+    void rechazaJsonInvalido() {
+        for (String invalido : Arrays.asList(
+                "",
+                "[]",
+                "{",
+                "{\"a\"}",
+                "{\"a\": }",
+                "{\"a\": 1,}",
+                "{\"a\": 1} extra",
+                "{\"a\": \"sin cerrar}",
+                "{\"a\": \"\\x\"}",
+                "{\"a\": \"\\u12\"}",
+                "{\"a\": \"\\uzzzz\"}",
+                "{\"a\": 1.5}",
+                "{\"a\": -}",
+                "{\"a\": 99999999999999999999}",
+                "{\"a\": {\"b\": 1}}",
+                "{\"a\": [1]}",
+                "{\"a\": tru}",
+                "{a: 1}")) {
+            assertThrows(IllegalArgumentException.class, () -> JsonParser.parseObject(invalido), invalido);
+        }
+    }
+
+    @Test
+    void elErrorIndicaLaPosicion() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> JsonParser.parseObject("{\"a\": 1 \"b\": 2}"));
+
+        assertTrue(error.getMessage().contains("posición 8"), error.getMessage());
+    }
+}
@@ -0,0 +1,101 @@
+package com.biblioteca.servicio;
+
+import com.biblioteca.BaseDePrueba;
+import com.biblioteca.dao.Page;
+import com.biblioteca.dao.PageRequest;
+import com.biblioteca.metrics.MetricsRegistry;
+import com.biblioteca.model.Autor;
+import com.biblioteca.model.Libro;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServicioHttpTest {
+    private BaseDePrueba base;
+    private ServicioHttp servicio;
+
+    @BeforeEach
+    void iniciar() {
+        base = new BaseDePrueba();
+        servicio = new ServicioHttp(base.autorDAO, base.libroDAO, new MetricsRegistry(1_000), 0, 2);
+        servicio.start();
+    }
+
+    @AfterEach
+    void detener() {
+        servicio.close();
+        base.close();
+    }
+
+    @Test
+    void unPutSinVersionDevuelveLaVersionQueQuedoGuardada() throws IOException {
+        Autor autor = base.autor("Cortázar", "Argentina");
+        Libro libro = base.libro("Rayuela", null, LocalDate.of(1963, 6, 28), autor.getId());
+        String cuerpo = "{\"titulo\": \"Rayuela (ed. revisada)\", \"fechaPublicacion\": \"1963-06-28\", "
+                + "\"autorId\": " + autor.getId() + "}";
+
+        HttpURLConnection put = solicitud("PUT", "/libros/" + libro.getId(), cuerpo);
+        assertEquals(200, put.getResponseCode());
+        assertTrue(leer(put.getInputStream()).contains("\"version\":1"));
+        assertEquals(1, base.libroDAO.findById(libro.getId()).get().getVersion());
+
+        assertEquals(404, solicitud("PUT", "/libros/999999", cuerpo).getResponseCode());
+        assertEquals(400, solicitud("PUT", "/libros/" + libro.getId(),
+                "{\"titulo\": \"Sin fecha\", \"autorId\": " + autor.getId() + "}").getResponseCode());
+    }
+
+    @Test
+    void unAltaFallidaRespondeLoMismoEnAutoresYLibros() throws IOException {
+        // Un libro con un autor inexistente viola la clave foránea; un nombre de 300 letras no entra en la columna
+        assertEquals(409, solicitud("POST", "/libros",
+                "{\"titulo\": \"Huérfano\", \"fechaPublicacion\": \"2001-01-01\", \"autorId\": 424242}")
+                .getResponseCode());
+        assertEquals(409, solicitud("POST", "/autores", "{\"nombre\": \"" + "x".repeat(300) + "\"}")
+                .getResponseCode());
+    }
+
+    @Test
+    void porPaginasRecorreTodasLasPaginasEnOrden() {
+        List<Integer> ids = IntStream.rangeClosed(1, 2_500).boxed().collect(Collectors.toList());
+
+        List<Integer> leidos = RecursoHandler.porPaginas((PageRequest pedido) -> Page.fromSlice(
+                ids.stream().filter(id -> id > pedido.getAfterIdOrMin())
+                        .limit(pedido.getFetchLimit()).collect(Collectors.toList()),
+                pedido, ultimo -> PageRequest.after(ultimo, pedido.getSize())))
+                .collect(Collectors.toList());
+
+        assertEquals(ids, leidos);
+    }
+
+    private HttpURLConnection solicitud(String metodo, String ruta, String cuerpo) throws IOException {
+        HttpURLConnection conexion = (HttpURLConnection) new URL(
+                "http://localhost:" + servicio.getPuerto() + ruta).openConnection();
+        conexion.setRequestMethod(metodo);
+        conexion.setDoOutput(true);
+        conexion.setRequestProperty("Content-Type", "application/json");
+        try (OutputStream out = conexion.getOutputStream()) {
+            out.write(cuerpo.getBytes(StandardCharsets.UTF_8));
+        }
+        return conexion;
+    }
+
+    private static String leer(InputStream in) throws IOException {
+        try (InputStream entrada = in) {
+            return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.biblioteca.shard;
+
+import com.biblioteca.dao.Page;
+import com.biblioteca.dao.PageRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MergeIteratorTest {
+    private static final Comparator<Integer> NATURAL = Comparator.naturalOrder();
+
+    @Test
+    void mezclaFuentesOrdenadas() {
+        List<Integer> mezcla = MergeIterator.mergeLists(Arrays.asList(
+                Arrays.asList(1, 4, 7, 10),
+                Collections.emptyList(),
+                Arrays.asList(2, 3, 8),
+                Arrays.asList(5, 6, 9, 11, 12)), NATURAL);
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12), mezcla);
+    }
+
+    @Test
+    void aIgualValorRespetaElOrdenDeLasFuentes() {
+        Comparator<String> porLongitud = Comparator.comparingInt(String::length);
+        List<String> mezcla = MergeIterator.mergeLists(Arrays.asList(
+                Arrays.asList("b1", "b22"),
+                Arrays.asList("a1", "a22")), porLongitud);
+
+        assertEquals(Arrays.asList("b1", "a1", "b22", "a22"), mezcla);
+    }
+
+    @Test
+    void elStreamMezcladoCierraTodasLasFuentes() {
+        AtomicInteger cerrados = new AtomicInteger();
+        Stream<Integer> mezcla = MergeIterator.mergeStreams(Arrays.asList(
+                Stream.of(1, 3).onClose(cerrados::incrementAndGet),
+                Stream.of(2, 4).onClose(cerrados::incrementAndGet)), NATURAL);
+
+        assertEquals(Arrays.asList(1, 2, 3, 4), mezcla.collect(Collectors.toList()));
+        mezcla.close();
+        assertEquals(2, cerrados.get());
+    }
+
+    @Test
+    void unePaginasDeVariosShards() {
+        PageRequest pedido = PageRequest.first(3);
+        Page<Integer> mezcla = MergeIterator.mergePages(Arrays.asList(
+                pagina(pedido, 1, 5, 9, 13),
+                pagina(pedido, 2, 3),
+                pagina(pedido, 4, 6, 7, 8)), pedido, NATURAL, ultimo -> PageRequest.after(ultimo, 3));
+
+        assertEquals(Arrays.asList(1, 2, 3), mezcla.getContent());
+        assertTrue(mezcla.hasNext());
+        assertEquals(Integer.valueOf(3), mezcla.getNextPageRequest().getAfterId());
+    }
+
+    @Test
+    void laUltimaPaginaNoTieneSiguiente() {
+        PageRequest pedido = PageRequest.after(10, 3);
+        Page<Integer> mezcla = MergeIterator.mergePages(Arrays.asList(
+                pagina(pedido, 11),
+                pagina(pedido, 12)), pedido, NATURAL, ultimo -> PageRequest.after(ultimo, 3));
+
+        assertEquals(Arrays.asList(11, 12), mezcla.getContent());
+        assertFalse(mezcla.hasNext());
+    }
+
+    // Como la consulta de un shard: hasta getFetchLimit filas después del cursor
+    private static Page<Integer> pagina(PageRequest pedido, Integer... ids) {
+        List<Integer> filas = Arrays.stream(ids).limit(pedido.getFetchLimit()).collect(Collectors.toList());
+        return Page.fromSlice(filas, pedido, ultimo -> PageRequest.after(ultimo, pedido.getSize()));
+    }
+}
@@ -0,0 +1,87 @@
+package com.biblioteca.shard;
+
+import com.biblioteca.model.Autor;
+import com.biblioteca.model.Libro;
+import com.biblioteca.util.DatabaseConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ShardedDAOTest {
+    private static final LocalDate INICIO = LocalDate.of(1950, 1, 1);
+
+    @TempDir
+    Path directorio;
+
+    private ShardedDatabase db;
+    private ShardedAutorDAO autorDAO;
+    private ShardedLibroDAO libroDAO;
+
+    @BeforeEach
+    void abrir() {
+        Properties propiedades = new Properties();
+        propiedades.setProperty("biblioteca.db.ruta", directorio.resolve("biblioteca").toString());
+        propiedades.setProperty("biblioteca.db.shards", "3");
+        db = ShardedDatabase.open(DatabaseConfig.fromProperties(propiedades));
+        autorDAO = new ShardedAutorDAO(db);
+        libroDAO = new ShardedLibroDAO(db);
+    }
+
+    @AfterEach
+    void cerrar() {
+        db.close();
+    }
+
+    @Test
+    void lasListasDeVariosShardsSalenOrdenadas() {
+        List<Autor> autores = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Autor autor = new Autor("Autor " + i, i % 2 == 0 ? "Argentina" : "Chile");
+            autorDAO.save(autor);
+            autores.add(autor);
+        }
+        // Las fechas bajan mientras los ids suben, así el orden por fecha no coincide con el de id
+        for (int i = 0; i < 18; i++) {
+            Autor autor = autores.get(i % autores.size());
+            libroDAO.save(new Libro("Libro " + i, null, INICIO.plusYears(20 - i % 7), autor.getId()));
+        }
+
+        assertEquals(ordenadosPorId(autorDAO.findAll()), ids(autorDAO.findAll()));
+        assertEquals(6, autorDAO.findAll().size());
+        List<Autor> argentinos = autorDAO.findByNacionalidad("Argentina");
+        assertEquals(3, argentinos.size());
+        assertEquals(ordenadosPorId(argentinos), ids(argentinos));
+
+        List<Libro> libros = libroDAO.findAll();
+        assertEquals(18, libros.size());
+        assertEquals(libros.stream().map(Libro::getId).sorted().collect(Collectors.toList()),
+                libros.stream().map(Libro::getId).collect(Collectors.toList()));
+
+        List<Libro> recientes = libroDAO.findByFechaPublicacionAfter(INICIO.plusYears(15));
+        List<Libro> esperados = new ArrayList<>(recientes);
+        esperados.sort(Comparator.comparing(Libro::getFechaPublicacion).thenComparingInt(Libro::getId));
+        assertEquals(libros.stream().filter(l -> l.getFechaPublicacion().isAfter(INICIO.plusYears(15))).count(),
+                recientes.size());
+        assertEquals(esperados.stream().map(Libro::getId).collect(Collectors.toList()),
+                recientes.stream().map(Libro::getId).collect(Collectors.toList()));
+    }
+
+    private static List<Integer> ids(List<Autor> autores) {
+        return autores.stream().map(Autor::getId).collect(Collectors.toList());
+    }
+
+    private static List<Integer> ordenadosPorId(List<Autor> autores) {
+        return autores.stream().map(Autor::getId).sorted().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,103 @@
+package com.biblioteca.snapshot;
+
+import com.biblioteca.BaseDePrueba;
+import com.biblioteca.dao.LibroReadOnlyDAO;
+import com.biblioteca.dao.Page;
+import com.biblioteca.dao.PageRequest;
+import com.biblioteca.model.Autor;
+import com.biblioteca.model.Libro;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class CatalogSnapshotTest {
+    private static final LocalDate INICIO = LocalDate.of(1940, 1, 1);
+    private static final String[] TITULOS = {"Historia de la guerra", "La guerra y la paz", "Guerra", "Posguerra",
+            "Guerra de los mundos", "El Aleph", "Canción de gesta", "Rayuela", "Ficciones", "El túnel"};
+
+    private BaseDePrueba base;
+    private CatalogSnapshot snapshot;
+
+    @BeforeEach
+    void cargar() {
+        base = new BaseDePrueba();
+        Autor borges = base.autor("Borges", "Argentina");
+        Autor sabato = base.autor("Sabato", "Argentina");
+        base.autor("Neruda", "Chile");
+        for (int i = 0; i < TITULOS.length; i++) {
+            base.libro(TITULOS[i], "isbn-" + (TITULOS.length - i), INICIO.plusYears(i % 4),
+                    (i % 2 == 0 ? borges : sabato).getId());
+        }
+        snapshot = CatalogSnapshot.load(base.autorDAO, base.libroDAO);
+    }
+
+    @AfterEach
+    void cerrar() {
+        base.close();
+    }
+
+    @Test
+    void lasBusquedasDevuelvenLoMismoQueLaBase() {
+        LibroReadOnlyDAO libros = snapshot.libros();
+        assertEquals(TITULOS.length, snapshot.getLibroCount());
+        assertEquals(ids(base.libroDAO.findAll()), ids(libros.findAll()));
+
+        Libro primero = base.libroDAO.findAll().get(0);
+        assertEquals(primero.getTitulo(), libros.findById(primero.getId()).get().getTitulo());
+        assertFalse(libros.findById(999_999).isPresent());
+        assertEquals(ids(base.libroDAO.findByIsbn("isbn-3").stream().collect(Collectors.toList())),
+                ids(libros.findByIsbn("isbn-3").stream().collect(Collectors.toList())));
+        assertEquals(ids(base.libroDAO.findByAutorId(primero.getAutorId())),
+                ids(libros.findByAutorId(primero.getAutorId())));
+        assertEquals(ids(base.libroDAO.findByFechaPublicacionAfter(INICIO)),
+                ids(libros.findByFechaPublicacionAfter(INICIO)));
+        assertEquals(ids(base.libroDAO.findByFechaPublicacionAfter(INICIO)),
+                paginado(pagina -> libros.findByFechaPublicacionAfter(INICIO, pagina)));
+        assertEquals(idsAutores(base.autorDAO.findByNacionalidad("Argentina")),
+                idsAutores(snapshot.autores().findByNacionalidad("Argentina")));
+    }
+
+    @Test
+    void laBusquedaPorTituloOrdenaComoElDAO() {
+        LibroReadOnlyDAO libros = snapshot.libros();
+        for (String consulta : new String[] {"guerra", "GUERRA", "el", "tunel", "cancion", "ñ", "x"}) {
+            List<Integer> esperados = ids(base.libroDAO.findByTitulo(consulta));
+            assertEquals(esperados, ids(libros.findByTitulo(consulta)), consulta);
+            assertEquals(esperados, paginado(pagina -> libros.findByTitulo(consulta, pagina)), consulta);
+        }
+
+        // Un cursor con sólo el id, como los que arma un cliente viejo, sigue desde la relevancia de ese libro
+        List<Libro> guerra = base.libroDAO.findByTitulo("guerra");
+        Page<Libro> siguiente = libros.findByTitulo("guerra", PageRequest.after(guerra.get(1).getId(), 10));
+        assertEquals(ids(guerra.subList(2, guerra.size())), ids(siguiente.getContent()));
+    }
+
+    private static List<Integer> paginado(Function<PageRequest, Page<Libro>> consulta) {
+        List<Integer> ids = new ArrayList<>();
+        PageRequest pagina = PageRequest.first(3);
+        Page<Libro> actual;
+        do {
+            actual = consulta.apply(pagina);
+            ids.addAll(ids(actual.getContent()));
+            pagina = actual.getNextPageRequest();
+        } while (actual.hasNext());
+        return ids;
+    }
+
+    private static List<Integer> ids(List<Libro> libros) {
+        return libros.stream().map(Libro::getId).collect(Collectors.toList());
+    }
+
+    private static List<Integer> idsAutores(List<Autor> autores) {
+        return autores.stream().map(Autor::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,108 @@
+package com.biblioteca.tx;
+
+import com.biblioteca.BaseDePrueba;
+import com.biblioteca.model.Autor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionManagerTest {
+    private BaseDePrueba base;
+    private TransactionManager transacciones;
+    private final List<String> eventos = new ArrayList<>();
+
+    @BeforeEach
+    void abrir() {
+        base = new BaseDePrueba();
+        transacciones = base.transacciones;
+    }
+
+    @AfterEach
+    void cerrar() {
+        base.close();
+    }
+
+    @Test
+    void elCommitConfirmaTodoYEjecutaLasAccionesPosteriores() {
+        transacciones.run(() -> {
+            base.autor("Borges", "Argentina");
+            base.autor("Neruda", "Chile");
+            TransactionManager.afterCommit(() -> eventos.add("commit"));
+            TransactionManager.afterCompletion(() -> eventos.add("fin"));
+            assertTrue(TransactionManager.isTransactionActive());
+            assertTrue(eventos.isEmpty());
+        });
+
+        assertFalse(TransactionManager.isTransactionActive());
+        assertEquals(2, base.autorDAO.findAll().size());
+        assertEquals(List.of("fin", "commit"), eventos);
+        assertEquals(0, base.provider.getMetrics().getActive());
+    }
+
+    @Test
+    void unaExcepcionDeshaceLaTransaccionYDescartaElAfterCommit() {
+        assertThrows(IllegalStateException.class, () -> transacciones.run(() -> {
+            base.autor("Borges", "Argentina");
+            TransactionManager.afterCommit(() -> eventos.add("commit"));
+            TransactionManager.afterCompletion(() -> eventos.add("fin"));
+            throw new IllegalStateException("falla a mitad del trabajo");
+        }));
+
+        assertTrue(base.autorDAO.findAll().isEmpty());
+        assertEquals(List.of("fin"), eventos);
+        assertEquals(0, base.provider.getMetrics().getActive());
+    }
+
+    @Test
+    void unErrorSqlOcultoPorElDaoImpideElCommit() {
+        // El DAO registra y oculta el error del nombre demasiado largo, pero la conexión queda marcada
+        assertThrows(TransactionException.class, () -> transacciones.run(() -> {
+            base.autor("Borges", "Argentina");
+            base.autorDAO.save(new Autor("x".repeat(300), null));
+        }));
+
+        assertTrue(base.autorDAO.findAll().isEmpty());
+    }
+
+    @Test
+    void elRollbackDeUnaUnidadInternaDeshaceLaExterna() {
+        try (UnitOfWork externa = transacciones.begin()) {
+            base.autor("Borges", "Argentina");
+            try (UnitOfWork interna = transacciones.begin()) {
+                assertFalse(interna.isNewTransaction());
+                base.autor("Neruda", "Chile");
+                interna.rollback();
+            }
+            assertTrue(externa.isRollbackOnly());
+            assertThrows(TransactionException.class, externa::commit);
+        }
+
+        assertTrue(base.autorDAO.findAll().isEmpty());
+    }
+
+    @Test
+    void cerrarSinCommitDeshaceYFueraDeTransaccionNoSeRegistranAcciones() {
+        try (UnitOfWork unidad = transacciones.begin()) {
+            assertTrue(unidad.isNewTransaction());
+            base.autor("Borges", "Argentina");
+        }
+
+        assertTrue(base.autorDAO.findAll().isEmpty());
+        assertFalse(TransactionManager.afterCommit(() -> eventos.add("commit")));
+        assertTrue(eventos.isEmpty());
+    }
+
+    @Test
+    void unaTransaccionDeSoloLecturaNoAdmiteEscriturasAnidadas() {
+        assertThrows(IllegalStateException.class, () -> transacciones.executeReadOnly(() -> transacciones.begin()));
+        assertFalse(TransactionManager.isTransactionActive());
+    }
+}
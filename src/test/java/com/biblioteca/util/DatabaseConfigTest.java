@@ -0,0 +1,120 @@
+package com.biblioteca.util;
+
+import com.biblioteca.dao.AutorDAOImpl;
+import com.biblioteca.migration.MigrationRunner;
+import com.biblioteca.model.Autor;
+import com.biblioteca.shard.ShardedDatabase;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatabaseConfigTest {
+    @TempDir
+    Path directorio;
+
+    @Test
+    void cadaPerfilArmaSuUrl() {
+        Properties propiedades = new Properties();
+        propiedades.setProperty("biblioteca.db.ruta", "/datos/biblioteca");
+        propiedades.setProperty("biblioteca.db.cacheKb", "65536");
+        propiedades.setProperty("biblioteca.db.writeDelayMillis", "100");
+        propiedades.setProperty("biblioteca.db.lockTimeoutMillis", "2000");
+        propiedades.setProperty("biblioteca.db.comprimir", "true");
+
+        DatabaseConfig durable = DatabaseConfig.fromProperties(propiedades);
+        assertEquals(StorageProfile.DURABLE, durable.getProfile());
+        assertEquals("jdbc:h2:file:/datos/biblioteca;CACHE_SIZE=65536;WRITE_DELAY=100;COMPRESS=TRUE;LOCK_TIMEOUT=2000",
+                durable.getUrl());
+
+        propiedades.setProperty("biblioteca.db.perfil", "memoria");
+        assertEquals("jdbc:h2:mem:biblioteca;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=2000",
+                DatabaseConfig.fromProperties(propiedades).getUrl());
+
+        propiedades.setProperty("biblioteca.db.perfil", "Solo-Lectura");
+        DatabaseConfig lectura = DatabaseConfig.fromProperties(propiedades);
+        assertTrue(lectura.isReadOnly());
+        assertEquals("jdbc:h2:file:/datos/biblioteca;ACCESS_MODE_DATA=r;CACHE_SIZE=65536;LOCK_TIMEOUT=2000",
+                lectura.getUrl());
+
+        propiedades.setProperty("biblioteca.db.shards", "4");
+        DatabaseConfig shard = DatabaseConfig.fromProperties(propiedades).forShard(2);
+        assertEquals(0, shard.getShards());
+        assertTrue(shard.getUrl().startsWith("jdbc:h2:file:/datos/biblioteca-shard2;"));
+    }
+
+    @Test
+    void rechazaPerfilesYValoresInvalidos() {
+        assertThrows(IllegalArgumentException.class, () -> StorageProfile.parse("volatil"));
+        assertEquals(StorageProfile.SOLO_LECTURA, StorageProfile.parse(" solo_lectura "));
+
+        Properties propiedades = new Properties();
+        propiedades.setProperty("biblioteca.db.cacheKb", "mucho");
+        assertThrows(IllegalArgumentException.class, () -> DatabaseConfig.fromProperties(propiedades));
+
+        Properties memoria = new Properties();
+        memoria.setProperty("biblioteca.db.perfil", "MEMORIA");
+        memoria.setProperty("biblioteca.db.shards", "2");
+        assertThrows(IllegalArgumentException.class,
+                () -> ShardedDatabase.open(DatabaseConfig.fromProperties(memoria)));
+    }
+
+    @Test
+    void laCopiaDeLaBaseEnMemoriaSeRestauraEnOtraBase() throws SQLException, IOException {
+        Path archivo = directorio.resolve("copia.sql.gz");
+        try (PooledConnectionProvider original = enMemoria("original")) {
+            new MigrationRunner(original).migrate();
+            new AutorDAOImpl(original).save(new Autor("Borges", "Argentina"));
+            new MemorySnapshot(original, archivo, 0).save();
+        }
+        assertTrue(Files.exists(archivo));
+
+        try (PooledConnectionProvider restaurada = enMemoria("restaurada")) {
+            MemorySnapshot copia = new MemorySnapshot(restaurada, archivo, 0);
+            assertTrue(copia.restore());
+            // Con las tablas ya creadas no se vuelve a cargar
+            assertFalse(copia.restore());
+            new MigrationRunner(restaurada).migrate();
+            assertEquals("Borges", new AutorDAOImpl(restaurada).findAll().get(0).getNombre());
+        }
+    }
+
+    @Test
+    void elPerfilDeSoloLecturaNoAdmiteEscrituras() throws SQLException {
+        Properties propiedades = new Properties();
+        propiedades.setProperty("biblioteca.db.ruta", directorio.resolve("biblioteca").toString());
+        DatabaseConfig durable = DatabaseConfig.fromProperties(propiedades);
+        try (PooledConnectionProvider provider = abrir(durable)) {
+            new MigrationRunner(provider).migrate();
+            new AutorDAOImpl(provider).save(new Autor("Borges", "Argentina"));
+        }
+
+        propiedades.setProperty("biblioteca.db.perfil", "SOLO_LECTURA");
+        try (PooledConnectionProvider provider = abrir(DatabaseConfig.fromProperties(propiedades))) {
+            AutorDAOImpl autorDAO = new AutorDAOImpl(provider);
+            Autor autor = new Autor("Neruda", "Chile");
+            autorDAO.save(autor);
+            assertEquals(0, autor.getId());
+            assertEquals(1, autorDAO.findAll().size());
+        }
+    }
+
+    private static PooledConnectionProvider enMemoria(String nombre) {
+        return new PooledConnectionProvider("jdbc:h2:mem:" + nombre + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+                "sa", "", 0, 2, 5_000, 60_000, 8);
+    }
+
+    private static PooledConnectionProvider abrir(DatabaseConfig config) {
+        return new PooledConnectionProvider(config.getUrl(), config.getUser(), config.getPassword(),
+                0, 2, 5_000, 60_000, 8);
+    }
+}
@@ -0,0 +1,30 @@
+package com.biblioteca.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IsbnUtilTest {
+
+    @Test
+    void normalizarQuitaGuionesYEspacios() {
+        assertEquals("9788437604947", IsbnUtil.normalizar("978-84-376-0494-7"));
+        assertEquals("080442957X", IsbnUtil.normalizar("0 8044 2957 x"));
+        assertNull(IsbnUtil.normalizar(null));
+    }
+
+    @Test
+    void esValidoCompruebaElDigitoVerificador() {
+        assertTrue(IsbnUtil.esValido("978-84-376-0494-7"));
+        assertTrue(IsbnUtil.esValido("9780000000019"));
+        assertTrue(IsbnUtil.esValido("0-8044-2957-X"));
+        assertFalse(IsbnUtil.esValido("9788437604948"));
+        assertFalse(IsbnUtil.esValido("080442957X0"));
+        assertFalse(IsbnUtil.esValido("X804429570"));
+        assertFalse(IsbnUtil.esValido("97884376O4947"));
+        assertFalse(IsbnUtil.esValido(null));
+    }
+}
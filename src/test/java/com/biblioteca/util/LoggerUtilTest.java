@@ -0,0 +1,53 @@
+package com.biblioteca.util;
+
+import com.biblioteca.BaseDePrueba;
+import com.biblioteca.dao.AutorDAOImpl;
+import com.biblioteca.model.Autor;
+import org.apache.logging.log4j.Level;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoggerUtilTest {
+    private BaseDePrueba base;
+
+    @BeforeEach
+    void abrir() {
+        base = new BaseDePrueba();
+    }
+
+    @AfterEach
+    void cerrar() {
+        LoggerUtil.setLevel("com.biblioteca.dao", Level.INFO);
+        base.close();
+    }
+
+    @Test
+    void conElLogApagadoLosDaosNoFormateanLasEntidades() {
+        AtomicInteger formateos = new AtomicInteger();
+        Autor autor = new Autor("Borges", "Argentina") {
+            @Override
+            public String toString() {
+                formateos.incrementAndGet();
+                return super.toString();
+            }
+        };
+
+        LoggerUtil.setLevel("com.biblioteca.dao", Level.OFF);
+        assertFalse(LoggerUtil.getLogger(AutorDAOImpl.class).isInfoEnabled());
+        base.autorDAO.save(autor);
+        base.autorDAO.update(autor);
+
+        assertEquals(0, formateos.get());
+        assertEquals("Borges", base.autorDAO.findById(autor.getId()).get().getNombre());
+
+        LoggerUtil.setLevel(AutorDAOImpl.class, Level.INFO);
+        assertTrue(LoggerUtil.getLogger(AutorDAOImpl.class).isInfoEnabled());
+    }
+}
@@ -0,0 +1,120 @@
+package com.biblioteca.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PooledConnectionProviderTest {
+    private PooledConnectionProvider pool;
+
+    @BeforeEach
+    void abrir() throws SQLException {
+        String url = "jdbc:h2:mem:pool_" + UUID.randomUUID().toString().replace("-", "") + ";DB_CLOSE_DELAY=-1";
+        pool = new PooledConnectionProvider(url, "sa", "", 0, 2, 500, 60_000, 8);
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE contador (id INT PRIMARY KEY, valor INT)");
+            statement.execute("INSERT INTO contador VALUES (1, 0)");
+        }
+    }
+
+    @AfterEach
+    void cerrar() {
+        pool.close();
+    }
+
+    @Test
+    void reutilizaLasConexionesDevueltas() throws SQLException {
+        for (int i = 0; i < 20; i++) {
+            try (Connection connection = pool.getConnection()) {
+                assertTrue(connection.isValid(1));
+            }
+        }
+        PoolMetrics metricas = pool.getMetrics();
+        assertEquals(1, metricas.getCreated());
+        assertEquals(0, metricas.getActive());
+        assertEquals(21, metricas.getAcquisitions());
+    }
+
+    @Test
+    void sinConexionesLibresEsperaHastaElLimiteYFalla() throws SQLException {
+        Connection primera = pool.getConnection();
+        Connection segunda = pool.getConnection();
+        try {
+            assertThrows(SQLTransientConnectionException.class, pool::getConnection);
+            assertEquals(1, pool.getMetrics().getTimeouts());
+        } finally {
+            primera.close();
+            segunda.close();
+        }
+        try (Connection connection = pool.getConnection()) {
+            assertTrue(connection.isValid(1));
+        }
+    }
+
+    @Test
+    void unaConexionDevueltaNoSePuedeUsarNiArrastraSuTransaccion() throws SQLException {
+        Connection connection = pool.getConnection();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE contador SET valor = 99 WHERE id = 1");
+        }
+        connection.close();
+        assertTrue(connection.isClosed());
+        assertThrows(SQLException.class, connection::createStatement);
+
+        // El pool deshizo lo que quedó sin confirmar y devolvió la conexión en autocommit
+        try (Connection otra = pool.getConnection(); Statement statement = otra.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT valor FROM contador WHERE id = 1")) {
+            assertTrue(otra.getAutoCommit());
+            assertTrue(resultSet.next());
+            assertEquals(0, resultSet.getInt(1));
+        }
+    }
+
+    @Test
+    void variosHilosCompartenElPoolSinSuperarElMaximo() throws Exception {
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                tareas.add(hilos.submit(() -> {
+                    for (int j = 0; j < 50; j++) {
+                        try (Connection connection = pool.getConnection();
+                             Statement statement = connection.createStatement()) {
+                            statement.executeUpdate("UPDATE contador SET valor = valor + 1 WHERE id = 1");
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            hilos.shutdownNow();
+        }
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT valor FROM contador WHERE id = 1")) {
+            assertTrue(resultSet.next());
+            assertEquals(400, resultSet.getInt(1));
+        }
+        assertTrue(pool.getMetrics().getCreated() <= 2);
+    }
+}
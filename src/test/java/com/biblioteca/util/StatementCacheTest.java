@@ -0,0 +1,109 @@
+package com.biblioteca.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatementCacheTest {
+    private static final String SELECT = "SELECT nombre FROM autores WHERE id = ?";
+
+    private PooledConnectionProvider pool;
+
+    @BeforeEach
+    void abrir() throws SQLException {
+        String url = "jdbc:h2:mem:cache_" + UUID.randomUUID().toString().replace("-", "") + ";DB_CLOSE_DELAY=-1";
+        // Una sola conexión y espacio para dos sentencias, así se ve el desalojo
+        pool = new PooledConnectionProvider(url, "sa", "", 1, 1, 1_000, 60_000, 2);
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE autores (id INT PRIMARY KEY, nombre VARCHAR(100))");
+            statement.execute("INSERT INTO autores VALUES (1, 'Borges'), (2, 'Cortázar')");
+        }
+    }
+
+    @AfterEach
+    void cerrar() {
+        pool.close();
+    }
+
+    private String nombre(int id) throws SQLException {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT)) {
+            statement.setInt(1, id);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        }
+    }
+
+    @Test
+    void laMismaSentenciaSePreparaUnaSolaVezEntreUsos() throws SQLException {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i % 2 == 0 ? "Borges" : "Cortázar", nombre(i % 2 + 1));
+        }
+        PoolMetrics metricas = pool.getMetrics();
+        assertEquals(1, metricas.getStatementPrepares());
+        assertEquals(9, metricas.getStatementReuses());
+    }
+
+    @Test
+    void unaSentenciaDevueltaNoSePuedeSeguirUsando() throws SQLException {
+        PreparedStatement devuelta;
+        try (Connection connection = pool.getConnection()) {
+            devuelta = connection.prepareStatement(SELECT);
+            devuelta.close();
+            assertTrue(devuelta.isClosed());
+            // La siguiente entrega es la misma sentencia física, pero el envoltorio viejo queda inválido
+            try (PreparedStatement nueva = connection.prepareStatement(SELECT)) {
+                nueva.setInt(1, 1);
+                assertThrows(SQLException.class, () -> devuelta.setInt(1, 2));
+                try (ResultSet resultSet = nueva.executeQuery()) {
+                    assertTrue(resultSet.next());
+                    assertEquals("Borges", resultSet.getString(1));
+                }
+            }
+        }
+    }
+
+    @Test
+    void laMismaSentenciaEnUsoDosVecesNoSeComparte() throws SQLException {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement primera = connection.prepareStatement(SELECT);
+             PreparedStatement segunda = connection.prepareStatement(SELECT)) {
+            primera.setInt(1, 1);
+            segunda.setInt(1, 2);
+            try (ResultSet a = primera.executeQuery(); ResultSet b = segunda.executeQuery()) {
+                assertTrue(a.next());
+                assertTrue(b.next());
+                assertEquals("Borges", a.getString(1));
+                assertEquals("Cortázar", b.getString(1));
+            }
+        }
+    }
+
+    @Test
+    void desalojaLaMenosUsadaAlSuperarElTamanio() throws SQLException {
+        String[] consultas = {"SELECT 1", "SELECT 2", "SELECT 3", "SELECT 1"};
+        try (Connection connection = pool.getConnection()) {
+            for (String sql : consultas) {
+                try (PreparedStatement statement = connection.prepareStatement(sql);
+                     ResultSet resultSet = statement.executeQuery()) {
+                    assertTrue(resultSet.next());
+                }
+            }
+        }
+        // "SELECT 1" fue desalojada por "SELECT 3" y se vuelve a preparar
+        assertEquals(4, pool.getMetrics().getStatementPrepares());
+        assertEquals(0, pool.getMetrics().getStatementReuses());
+    }
+}
@@ -0,0 +1,2 @@
+-- Base de la prueba de migraciones fallidas
+CREATE TABLE prueba (id INT PRIMARY KEY);
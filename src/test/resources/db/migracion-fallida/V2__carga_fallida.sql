@@ -0,0 +1,3 @@
+-- La primera fila entra y la segunda falla: la migración debe deshacerse entera
+INSERT INTO prueba VALUES (1);
+INSERT INTO tabla_inexistente VALUES (1);